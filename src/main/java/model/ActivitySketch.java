@@ -0,0 +1,243 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * ActivitySketch - 用户活动数值的流式统计草图
+ * 采用对数分桶直方图（类似HDR/DDSketch），以固定内存记录任意数量的数值，
+ * 并提供均值、峰值以及p50/p95/p99等分位数估计（相对误差约为 {@link #RELATIVE_ACCURACY}）。
+ * 草图之间可以合并，也可以序列化为一行文本以便跨会话保存。
+ */
+public class ActivitySketch {
+
+    // 分位数估计的相对误差
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    // 可精确分桶的绝对值范围，超出范围的值落入首/末桶
+    private static final double MIN_INDEXABLE = 1e-3;
+    private static final double MAX_INDEXABLE = 1e12;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int MIN_KEY = (int) Math.floor(Math.log(MIN_INDEXABLE) / LOG_GAMMA);
+    private static final int BUCKET_COUNT = (int) Math.ceil(Math.log(MAX_INDEXABLE) / LOG_GAMMA) - MIN_KEY + 1;
+
+    // 正数、负数分别分桶；接近0的值单独计数
+    private final long[] positiveBuckets = new long[BUCKET_COUNT];
+    private final long[] negativeBuckets = new long[BUCKET_COUNT];
+    private long zeroCount;
+
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * 记录一个数值
+     * @param value 数值（NaN和无穷大会被忽略）
+     */
+    public void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        if (value > MIN_INDEXABLE) {
+            positiveBuckets[bucketIndex(value)]++;
+        } else if (value < -MIN_INDEXABLE) {
+            negativeBuckets[bucketIndex(-value)]++;
+        } else {
+            zeroCount++;
+        }
+        count++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * 将另一个草图合并到当前草图
+     * @param other 要合并的草图
+     */
+    public void merge(ActivitySketch other) {
+        if (other == null || other.count == 0) {
+            return;
+        }
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            positiveBuckets[i] += other.positiveBuckets[i];
+            negativeBuckets[i] += other.negativeBuckets[i];
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * 清空所有记录
+     */
+    public void clear() {
+        Arrays.fill(positiveBuckets, 0);
+        Arrays.fill(negativeBuckets, 0);
+        zeroCount = 0;
+        count = 0;
+        sum = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * 估计指定分位数
+     * @param quantile 分位数，取值范围[0, 1]
+     * @return 分位数的估计值，没有数据时返回0
+     */
+    public double getQuantile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        if (quantile <= 0) {
+            return min;
+        }
+        if (quantile >= 1) {
+            return max;
+        }
+
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        double estimate = 0;
+        boolean found = false;
+
+        // 负数从绝对值最大的桶开始，即从小到大遍历
+        for (int i = BUCKET_COUNT - 1; i >= 0 && !found; i--) {
+            seen += negativeBuckets[i];
+            if (seen >= rank) {
+                estimate = -bucketValue(i);
+                found = true;
+            }
+        }
+        if (!found) {
+            seen += zeroCount;
+            if (seen >= rank) {
+                estimate = 0;
+                found = true;
+            }
+        }
+        for (int i = 0; i < BUCKET_COUNT && !found; i++) {
+            seen += positiveBuckets[i];
+            if (seen >= rank) {
+                estimate = bucketValue(i);
+                found = true;
+            }
+        }
+
+        // 估计值不会超出实际观测到的范围
+        return Math.max(min, Math.min(max, estimate));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    public double getPeak() {
+        return count == 0 ? 0 : max;
+    }
+
+    public double getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * 转换为文件存储格式（稀疏表示，只写入非空桶）
+     * 格式：count;sum;min;max;zeroCount;正数桶(索引:计数,...);负数桶(索引:计数,...)
+     * @return 文件存储字符串
+     */
+    public String toFileString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(count).append(';')
+          .append(sum).append(';')
+          .append(min).append(';')
+          .append(max).append(';')
+          .append(zeroCount).append(';');
+        appendBuckets(sb, positiveBuckets);
+        sb.append(';');
+        appendBuckets(sb, negativeBuckets);
+        return sb.toString();
+    }
+
+    /**
+     * 从文件存储格式还原草图
+     * @param fileString 文件存储字符串
+     * @return 还原的草图
+     * @throws IllegalArgumentException 格式无效时抛出
+     */
+    public static ActivitySketch fromFileString(String fileString) {
+        String[] parts = fileString.split(";", -1);
+        if (parts.length != 7) {
+            throw new IllegalArgumentException("Invalid activity sketch format");
+        }
+        try {
+            ActivitySketch sketch = new ActivitySketch();
+            sketch.count = Long.parseLong(parts[0]);
+            sketch.sum = Double.parseDouble(parts[1]);
+            sketch.min = Double.parseDouble(parts[2]);
+            sketch.max = Double.parseDouble(parts[3]);
+            sketch.zeroCount = Long.parseLong(parts[4]);
+            readBuckets(parts[5], sketch.positiveBuckets);
+            readBuckets(parts[6], sketch.negativeBuckets);
+            return sketch;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid activity sketch format", e);
+        }
+    }
+
+    private static void appendBuckets(StringBuilder sb, long[] buckets) {
+        boolean first = true;
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] != 0) {
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append(i).append(':').append(buckets[i]);
+                first = false;
+            }
+        }
+    }
+
+    private static void readBuckets(String encoded, long[] buckets) {
+        if (encoded.isEmpty()) {
+            return;
+        }
+        for (String entry : encoded.split(",")) {
+            int colon = entry.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Invalid bucket entry: " + entry);
+            }
+            int index = Integer.parseInt(entry.substring(0, colon));
+            if (index < 0 || index >= buckets.length) {
+                throw new IllegalArgumentException("Bucket index out of range: " + index);
+            }
+            buckets[index] = Long.parseLong(entry.substring(colon + 1));
+        }
+    }
+
+    private static int bucketIndex(double absValue) {
+        int key = (int) Math.ceil(Math.log(absValue) / LOG_GAMMA);
+        return Math.max(0, Math.min(BUCKET_COUNT - 1, key - MIN_KEY));
+    }
+
+    private static double bucketValue(int index) {
+        // 桶 (gamma^(k-1), gamma^k] 的代表值，保证相对误差不超过RELATIVE_ACCURACY
+        return 2 * Math.pow(GAMMA, index + MIN_KEY) / (GAMMA + 1);
+    }
+}
@@ -0,0 +1,129 @@
+package model;
+
+/**
+ * AmountParser - Reads amounts from imported files in a single pass over the characters.
+ * Currency symbols, quotes, spaces and grouping separators are skipped as they are met, and
+ * the result is returned in minor units (cents), so no intermediate strings are created.
+ *
+ * Accepted forms include "1234.56", "$1,234.56", "1.234,56 €", "12,5", "-8.00", "(8.00)"
+ * and "8.00-". The decimal mark is the last '.' or ',' unless that separator is clearly
+ * grouping: repeated ("1.234.567") or, for a lone comma, followed by exactly three digits
+ * ("1,234"). Amounts with more than two decimals are rounded half up.
+ */
+class AmountParser {
+
+    // Digits beyond this would overflow the minor units
+    private static final int MAX_DIGITS = 16;
+
+    private AmountParser() {
+    }
+
+    /**
+     * Parses an amount
+     * @param text The amount text
+     * @return The amount
+     * @throws NumberFormatException If the text is not an amount
+     */
+    static double parse(String text) {
+        return parseMinorUnits(text, 0, text.length()) / 100.0;
+    }
+
+    /**
+     * Parses the amount in a region of a character sequence
+     * @param text The text containing the amount
+     * @param start Start of the amount (inclusive)
+     * @param end End of the amount (exclusive)
+     * @return The amount in minor units, e.g. 123456 for "1,234.56"
+     * @throws NumberFormatException If the text is not an amount
+     */
+    static long parseMinorUnits(CharSequence text, int start, int end) {
+        long value = 0;
+        int digits = 0;
+        int digitsAfterSeparator = 0;
+        int commas = 0;
+        int dots = 0;
+        char lastSeparator = 0;
+        boolean anyDigit = false;
+        boolean negative = false;
+        boolean openParenthesis = false;
+        boolean closeParenthesis = false;
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (closeParenthesis) {
+                    throw invalid(text, start, end);
+                }
+                if (value != 0 || c != '0') {
+                    if (++digits > MAX_DIGITS) {
+                        throw new NumberFormatException("Amount is too large: '" + text.subSequence(start, end) + "'");
+                    }
+                }
+                value = value * 10 + (c - '0');
+                anyDigit = true;
+                digitsAfterSeparator++;
+            } else if (c == '.' || c == ',') {
+                if (c == '.') {
+                    dots++;
+                } else {
+                    commas++;
+                }
+                lastSeparator = c;
+                digitsAfterSeparator = 0;
+            } else if (c == '-' || c == '\u2212') {
+                if (negative) {
+                    throw invalid(text, start, end);
+                }
+                negative = true;
+            } else if (c == '(' && !openParenthesis && value == 0 && lastSeparator == 0) {
+                openParenthesis = true;
+            } else if (c == ')' && openParenthesis && !closeParenthesis) {
+                closeParenthesis = true;
+            } else if (c != '+' && c != '"' && c != '\'' && !Character.isWhitespace(c) && !Character.isSpaceChar(c)
+                    && Character.getType(c) != Character.CURRENCY_SYMBOL) {
+                throw invalid(text, start, end);
+            }
+        }
+
+        if (openParenthesis != closeParenthesis || (openParenthesis && negative)) {
+            throw invalid(text, start, end);
+        }
+        if (!anyDigit) {
+            throw invalid(text, start, end);
+        }
+
+        int decimals = isDecimalMark(lastSeparator, commas, dots, digitsAfterSeparator) ? digitsAfterSeparator : 0;
+
+        long minorUnits;
+        if (decimals <= 2) {
+            minorUnits = decimals == 2 ? value : value * (decimals == 1 ? 10 : 100);
+        } else if (decimals > 18) {
+            minorUnits = 0;
+        } else {
+            long divisor = 1;
+            for (int i = 2; i < decimals; i++) {
+                divisor *= 10;
+            }
+            minorUnits = (value + divisor / 2) / divisor;
+        }
+        return negative || openParenthesis ? -minorUnits : minorUnits;
+    }
+
+    /**
+     * Decides whether the last separator seen is the decimal mark
+     */
+    private static boolean isDecimalMark(char separator, int commas, int dots, int digitsAfter) {
+        if (separator == '.') {
+            return commas > 0 || dots == 1;
+        }
+        if (separator == ',') {
+            return dots > 0 || (commas == 1 && digitsAfter != 3);
+        }
+        return false;
+    }
+
+    private static NumberFormatException invalid(CharSequence text, int start, int end) {
+        return new NumberFormatException("Cannot parse amount: '" + text.subSequence(start, end) +
+            "'. Please ensure it's a valid number, optionally with a currency symbol and thousands separators.");
+    }
+}
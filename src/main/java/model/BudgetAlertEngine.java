@@ -0,0 +1,305 @@
+package model;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BudgetAlertEngine - Evaluates budget alert rules incrementally as transactions are saved.
+ * Keeps running per-month and per-category spending totals for the current user, so each
+ * new transaction is checked against the threshold rules in O(1) instead of rescanning
+ * the transaction history. Alerts are raised through NotificationManager.
+ */
+public class BudgetAlertEngine {
+
+    // Singleton instance
+    private static BudgetAlertEngine instance;
+
+    // Default monthly budget when no custom budget is set
+    public static final double DEFAULT_TOTAL_BUDGET = 5000.00;
+
+    // Share of the monthly budget allocated to each category (used by the Budget Overview too)
+    public static final Map<String, Double> DEFAULT_CATEGORY_ALLOCATIONS;
+    // Share for categories without an explicit allocation
+    public static final double DEFAULT_OTHER_ALLOCATION = 0.05;
+
+    static {
+        Map<String, Double> allocations = new LinkedHashMap<>();
+        allocations.put("Housing", 0.3);
+        allocations.put("Food & Dining", 0.2);
+        allocations.put("Transportation", 0.1);
+        allocations.put("Entertainment", 0.1);
+        allocations.put("Utilities", 0.1);
+        allocations.put("Shopping", 0.1);
+        allocations.put("Chinese New Year", 0.05);
+        allocations.put("Other", 0.05);
+        DEFAULT_CATEGORY_ALLOCATIONS = Collections.unmodifiableMap(allocations);
+    }
+
+    // Single transactions at or above this share of the monthly budget raise a transaction alert
+    private static final double LARGE_TRANSACTION_RATIO = 0.2;
+
+    // Scope of the overall monthly total
+    private static final String TOTAL_SCOPE = "";
+
+    /**
+     * A threshold rule: alert once per month when spending in a scope reaches the given share of its budget
+     */
+    public static class AlertRule {
+        private final double threshold;
+        private final boolean perCategory;
+
+        /**
+         * @param threshold Share of the budget (e.g. 0.8 for 80%)
+         * @param perCategory True to apply to each category allocation, false for the monthly total
+         */
+        public AlertRule(double threshold, boolean perCategory) {
+            this.threshold = threshold;
+            this.perCategory = perCategory;
+        }
+
+        public double getThreshold() { return threshold; }
+        public boolean isPerCategory() { return perCategory; }
+    }
+
+    /**
+     * Running totals for one month
+     */
+    private static class PeriodTotals {
+        double total;
+        final Map<String, Double> byCategory = new HashMap<>();
+        // Highest rule threshold already raised, per scope (TOTAL_SCOPE or category)
+        final Map<String, Double> raisedThresholds = new HashMap<>();
+    }
+
+    private final List<AlertRule> rules = new ArrayList<>();
+    private final Map<YearMonth, PeriodTotals> periods = new HashMap<>();
+    private double totalBudget = DEFAULT_TOTAL_BUDGET;
+
+    // User whose history the totals were built from; null until first use
+    private String initializedUserId;
+
+    /**
+     * Private constructor for singleton pattern
+     */
+    private BudgetAlertEngine() {
+        rules.add(new AlertRule(0.8, false));
+        rules.add(new AlertRule(1.0, false));
+        rules.add(new AlertRule(0.8, true));
+        rules.add(new AlertRule(1.0, true));
+    }
+
+    /**
+     * Gets the singleton instance of BudgetAlertEngine
+     * @return The BudgetAlertEngine instance
+     */
+    public static synchronized BudgetAlertEngine getInstance() {
+        if (instance == null) {
+            instance = new BudgetAlertEngine();
+        }
+        return instance;
+    }
+
+    /**
+     * Resets the singleton instance for testing purposes
+     */
+    public static synchronized void resetInstance() {
+        instance = null;
+    }
+
+    /**
+     * Sets the monthly budget the rules are evaluated against
+     * @param totalBudget The monthly budget
+     */
+    public synchronized void setTotalBudget(double totalBudget) {
+        if (totalBudget <= 0 || totalBudget == this.totalBudget) {
+            return;
+        }
+        this.totalBudget = totalBudget;
+
+        // Re-baseline so a budget change does not replay alerts for spending that already happened
+        for (PeriodTotals totals : periods.values()) {
+            totals.raisedThresholds.clear();
+            markExistingThresholds(totals);
+        }
+    }
+
+    public synchronized double getTotalBudget() {
+        return totalBudget;
+    }
+
+    /**
+     * Gets the budget allocated to a category
+     * @param category The category
+     * @return The category budget
+     */
+    public synchronized double getCategoryBudget(String category) {
+        return totalBudget * DEFAULT_CATEGORY_ALLOCATIONS.getOrDefault(category, DEFAULT_OTHER_ALLOCATION);
+    }
+
+    /**
+     * Replaces the alert rules
+     * @param newRules The rules to evaluate
+     */
+    public synchronized void setRules(List<AlertRule> newRules) {
+        rules.clear();
+        rules.addAll(newRules);
+    }
+
+    /**
+     * Builds the running totals from the current user's history if not done yet.
+     * Must be called before the transaction is written so it is not counted twice.
+     * Thresholds already exceeded by existing history are not raised again.
+     */
+    public synchronized void ensureInitialized() {
+        User currentUser = UserManager.getInstance().getCurrentUser();
+        String userId = currentUser != null ? currentUser.getUsername() : "";
+        if (userId.equals(initializedUserId)) {
+            return;
+        }
+
+        periods.clear();
+        for (Transaction transaction : TransactionManager.loadTransactions()) {
+            addToTotals(transaction);
+        }
+        for (PeriodTotals totals : periods.values()) {
+            markExistingThresholds(totals);
+        }
+        initializedUserId = userId;
+    }
+
+    /**
+     * Rebuilds the running totals from history on next use, after transactions were removed
+     */
+    public synchronized void reload() {
+        initializedUserId = null;
+    }
+
+    /**
+     * Records a newly saved transaction and raises any alerts it triggers
+     * @param transaction The saved transaction
+     */
+    public void onTransactionSaved(Transaction transaction) {
+        List<String[]> alerts = new ArrayList<>();
+        synchronized (this) {
+            ensureInitialized();
+            PeriodTotals totals = addToTotals(transaction);
+
+            // Only the current month raises alerts; older imported rows just update totals
+            if (YearMonth.from(transaction.getDate()).equals(YearMonth.now())) {
+                evaluate(transaction, totals, alerts);
+            }
+        }
+
+        // Send outside the lock; NotificationManager applies the user's preferences
+        NotificationManager notificationManager = NotificationManager.getInstance();
+        for (String[] alert : alerts) {
+            notificationManager.sendNotification(alert[0], alert[1], alert[2]);
+        }
+    }
+
+    /**
+     * Gets the amount spent in a month
+     * @param month The month
+     * @return The total spent
+     */
+    public synchronized double getMonthlySpending(YearMonth month) {
+        PeriodTotals totals = periods.get(month);
+        return totals == null ? 0.0 : totals.total;
+    }
+
+    /**
+     * Gets the amount spent in a category in a month
+     * @param month The month
+     * @param category The category
+     * @return The total spent
+     */
+    public synchronized double getCategorySpending(YearMonth month, String category) {
+        PeriodTotals totals = periods.get(month);
+        return totals == null ? 0.0 : totals.byCategory.getOrDefault(category, 0.0);
+    }
+
+    /**
+     * Adds a transaction to the running totals of its month
+     */
+    private PeriodTotals addToTotals(Transaction transaction) {
+        PeriodTotals totals = periods.computeIfAbsent(YearMonth.from(transaction.getDate()), k -> new PeriodTotals());
+        totals.total += transaction.getAmount();
+        totals.byCategory.merge(transaction.getCategory(), transaction.getAmount(), Double::sum);
+        return totals;
+    }
+
+    /**
+     * Marks thresholds already reached by existing history as raised
+     */
+    private void markExistingThresholds(PeriodTotals totals) {
+        for (AlertRule rule : rules) {
+            if (rule.perCategory) {
+                for (Map.Entry<String, Double> entry : totals.byCategory.entrySet()) {
+                    if (entry.getValue() >= getCategoryBudget(entry.getKey()) * rule.threshold) {
+                        totals.raisedThresholds.merge(entry.getKey(), rule.threshold, Math::max);
+                    }
+                }
+            } else if (totals.total >= totalBudget * rule.threshold) {
+                totals.raisedThresholds.merge(TOTAL_SCOPE, rule.threshold, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the rules for the scopes touched by one transaction
+     */
+    private void evaluate(Transaction transaction, PeriodTotals totals, List<String[]> alerts) {
+        String category = transaction.getCategory();
+        double categorySpent = totals.byCategory.getOrDefault(category, 0.0);
+        double categoryBudget = getCategoryBudget(category);
+
+        // Highest newly crossed threshold per scope, so one transaction raises at most one alert per scope
+        AlertRule totalRule = null;
+        AlertRule categoryRule = null;
+        for (AlertRule rule : rules) {
+            if (rule.perCategory) {
+                if (crossed(totals, category, categorySpent, categoryBudget, rule)
+                        && (categoryRule == null || rule.threshold > categoryRule.threshold)) {
+                    categoryRule = rule;
+                }
+            } else if (crossed(totals, TOTAL_SCOPE, totals.total, totalBudget, rule)
+                    && (totalRule == null || rule.threshold > totalRule.threshold)) {
+                totalRule = rule;
+            }
+        }
+
+        if (totalRule != null) {
+            totals.raisedThresholds.put(TOTAL_SCOPE, totalRule.threshold);
+            alerts.add(budgetAlert("monthly budget", totals.total, totalBudget, totalRule.threshold));
+        }
+        if (categoryRule != null) {
+            totals.raisedThresholds.put(category, categoryRule.threshold);
+            alerts.add(budgetAlert(category + " budget", categorySpent, categoryBudget, categoryRule.threshold));
+        }
+
+        if (transaction.getAmount() >= totalBudget * LARGE_TRANSACTION_RATIO) {
+            alerts.add(new String[] {
+                NotificationManager.TRANSACTION_ALERT,
+                "Large Transaction",
+                String.format("%s: ¥%.2f (%s)", transaction.getDescription(), transaction.getAmount(), category)
+            });
+        }
+    }
+
+    private boolean crossed(PeriodTotals totals, String scope, double spent, double budget, AlertRule rule) {
+        return spent >= budget * rule.threshold
+                && totals.raisedThresholds.getOrDefault(scope, 0.0) < rule.threshold;
+    }
+
+    private String[] budgetAlert(String scope, double spent, double budget, double threshold) {
+        String title = threshold >= 1.0 ? "Budget Exceeded" : "Budget Warning";
+        String message = String.format("You have used %.0f%% of your %s (¥%.2f of ¥%.2f).",
+                spent / budget * 100, scope, spent, budget);
+        return new String[] { NotificationManager.BUDGET_ALERT, title, message };
+    }
+}
@@ -0,0 +1,128 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BudgetSummary - Immutable aggregate of the transactions shown by the budget screens.
+ * It is computed once (typically on a background thread) and then shared by every panel
+ * that needs totals, so the views no longer read and aggregate the transaction file themselves.
+ */
+public class BudgetSummary {
+
+    /** Number of transactions kept for the "Recent Transactions" table */
+    public static final int RECENT_TRANSACTION_COUNT = 5;
+
+    private final double totalSpent;
+    private final Map<String, Double> categorySpending;
+    private final List<Transaction> recentTransactions;
+    private final int transactionCount;
+    private final boolean sample;
+
+    private BudgetSummary(double totalSpent, Map<String, Double> categorySpending,
+                          List<Transaction> recentTransactions, int transactionCount, boolean sample) {
+        this.totalSpent = totalSpent;
+        this.categorySpending = Collections.unmodifiableMap(categorySpending);
+        this.recentTransactions = Collections.unmodifiableList(recentTransactions);
+        this.transactionCount = transactionCount;
+        this.sample = sample;
+    }
+
+    /**
+     * Loads the current user's transactions and aggregates them.
+     * This reads the transaction file, so it should not be called on the Event Dispatch Thread.
+     * @return The summary, or sample data if there are no transactions
+     */
+    public static BudgetSummary load() {
+        return fromTransactions(TransactionManager.loadTransactions());
+    }
+
+    /**
+     * Aggregates a list of transactions
+     * @param transactions The transactions to aggregate
+     * @return The summary, or sample data if the list is empty
+     */
+    public static BudgetSummary fromTransactions(List<Transaction> transactions) {
+        if (transactions == null || transactions.isEmpty()) {
+            return sample();
+        }
+
+        // Summed into primitive arrays, in parallel for long histories
+        CategoryAggregator totals = CategoryAggregator.aggregate(transactions);
+
+        List<Transaction> recent = new ArrayList<>(
+                transactions.subList(0, Math.min(transactions.size(), RECENT_TRANSACTION_COUNT)));
+        return new BudgetSummary(totals.getTotal(), totals.toMap(), recent, transactions.size(), false);
+    }
+
+    /**
+     * Creates the sample data shown for demonstration when no transactions exist
+     * @return A sample summary
+     */
+    public static BudgetSummary sample() {
+        Map<String, Double> categorySpending = new LinkedHashMap<>();
+        categorySpending.put("Housing", 1500.0);
+        categorySpending.put("Food & Dining", 650.25);
+        categorySpending.put("Transportation", 420.50);
+        categorySpending.put("Utilities", 340.0);
+        categorySpending.put("Entertainment", 200.0);
+        categorySpending.put("Other", 130.0);
+        return new BudgetSummary(3240.75, categorySpending, new ArrayList<>(), 0, true);
+    }
+
+    /**
+     * Gets the total amount spent
+     * @return The total amount
+     */
+    public double getTotalSpent() {
+        return totalSpent;
+    }
+
+    /**
+     * Gets the amount spent per category
+     * @return Unmodifiable map of category to amount
+     */
+    public Map<String, Double> getCategorySpending() {
+        return categorySpending;
+    }
+
+    /**
+     * Gets the share of total spending that went to a category
+     * @param category The category
+     * @return The percentage (0-100), or 0 if nothing was spent
+     */
+    public double getCategoryPercentage(String category) {
+        Double spent = categorySpending.get(category);
+        if (spent == null || totalSpent == 0) {
+            return 0.0;
+        }
+        return spent / totalSpent * 100;
+    }
+
+    /**
+     * Gets the first transactions in file order, at most RECENT_TRANSACTION_COUNT
+     * @return Unmodifiable list of transactions (empty for sample data)
+     */
+    public List<Transaction> getRecentTransactions() {
+        return recentTransactions;
+    }
+
+    /**
+     * Gets the number of transactions aggregated
+     * @return The transaction count (0 for sample data)
+     */
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    /**
+     * Checks whether this summary holds sample data because no transactions exist
+     * @return True for sample data
+     */
+    public boolean isSample() {
+        return sample;
+    }
+}
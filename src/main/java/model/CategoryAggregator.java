@@ -0,0 +1,188 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * CategoryAggregator - Per-category totals and counts of a list of transactions, computed in parallel.
+ * The list is split into segments that are aggregated on fork-join workers. Each segment gives
+ * the categories it meets small integer IDs and adds amounts into primitive arrays indexed by
+ * those IDs, so no Double is boxed per transaction. Neighbouring segments are merged by category
+ * name, which costs one step per category rather than per transaction. Categories keep the
+ * order in which they first appear in the list.
+ */
+class CategoryAggregator {
+
+    // Rows aggregated by one task without splitting further
+    static final int SEGMENT_SIZE = 16 * 1024;
+
+    private final String[] categories;
+    private final double[] totals;
+    private final int[] counts;
+    private final double total;
+
+    private CategoryAggregator(Segment segment) {
+        this.categories = segment.categories.toArray(new String[0]);
+        this.totals = Arrays.copyOf(segment.totals, categories.length);
+        this.counts = Arrays.copyOf(segment.counts, categories.length);
+        this.total = segment.total;
+    }
+
+    /**
+     * Aggregates a list of transactions. Short lists are aggregated on the calling thread.
+     * @param transactions The transactions
+     * @return The totals
+     */
+    static CategoryAggregator aggregate(List<Transaction> transactions) {
+        if (!(transactions instanceof RandomAccess)) {
+            transactions = new ArrayList<>(transactions);
+        }
+        Segment segment;
+        if (transactions.size() <= SEGMENT_SIZE) {
+            segment = Segment.of(transactions, 0, transactions.size());
+        } else {
+            segment = ForkJoinPool.commonPool().invoke(new SegmentTask(transactions, 0, transactions.size()));
+        }
+        return new CategoryAggregator(segment);
+    }
+
+    /**
+     * Gets the number of categories
+     */
+    int size() {
+        return categories.length;
+    }
+
+    /**
+     * Gets the name of a category
+     * @param id The category ID, from 0 to size() - 1 in order of first appearance
+     */
+    String getCategory(int id) {
+        return categories[id];
+    }
+
+    /**
+     * Gets the sum of a category's amounts
+     */
+    double getTotal(int id) {
+        return totals[id];
+    }
+
+    /**
+     * Gets the number of a category's transactions
+     */
+    int getCount(int id) {
+        return counts[id];
+    }
+
+    /**
+     * Gets the sum of all amounts
+     */
+    double getTotal() {
+        return total;
+    }
+
+    /**
+     * Copies the totals into a map
+     * @return Map of category to total, in order of first appearance
+     */
+    Map<String, Double> toMap() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int id = 0; id < categories.length; id++) {
+            result.put(categories[id], totals[id]);
+        }
+        return result;
+    }
+
+    /**
+     * Totals of one run of transactions, under IDs local to the run
+     */
+    private static class Segment {
+        private final List<String> categories = new ArrayList<>();
+        private final Map<String, Integer> ids = new HashMap<>();
+        private double[] totals = new double[16];
+        private int[] counts = new int[16];
+        private double total;
+
+        static Segment of(List<Transaction> transactions, int start, int end) {
+            Segment segment = new Segment();
+            String lastCategory = null;
+            int lastId = -1;
+            for (int i = start; i < end; i++) {
+                Transaction transaction = transactions.get(i);
+                String category = transaction.getCategory();
+                // Neighbouring rows often share a category; skip the lookup for them
+                int id = category.equals(lastCategory) ? lastId : segment.idOf(category);
+                double amount = transaction.getAmount();
+                segment.totals[id] += amount;
+                segment.counts[id]++;
+                segment.total += amount;
+                lastCategory = category;
+                lastId = id;
+            }
+            return segment;
+        }
+
+        private int idOf(String category) {
+            Integer id = ids.get(category);
+            if (id != null) {
+                return id;
+            }
+            int newId = categories.size();
+            categories.add(category);
+            ids.put(category, newId);
+            if (newId == totals.length) {
+                totals = Arrays.copyOf(totals, newId * 2);
+                counts = Arrays.copyOf(counts, newId * 2);
+            }
+            return newId;
+        }
+
+        /**
+         * Adds the totals of the segment that follows this one
+         */
+        Segment merge(Segment next) {
+            for (int nextId = 0; nextId < next.categories.size(); nextId++) {
+                int id = idOf(next.categories.get(nextId));
+                totals[id] += next.totals[nextId];
+                counts[id] += next.counts[nextId];
+            }
+            total += next.total;
+            return this;
+        }
+    }
+
+    /**
+     * Aggregates a range of the list, splitting it in half until the parts fit in one segment
+     */
+    private static class SegmentTask extends RecursiveTask<Segment> {
+        private final List<Transaction> transactions;
+        private final int start;
+        private final int end;
+
+        SegmentTask(List<Transaction> transactions, int start, int end) {
+            this.transactions = transactions;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Segment compute() {
+            if (end - start <= SEGMENT_SIZE) {
+                return Segment.of(transactions, start, end);
+            }
+            int middle = (start + end) >>> 1;
+            SegmentTask first = new SegmentTask(transactions, start, middle);
+            first.fork();
+            Segment second = new SegmentTask(transactions, middle, end).compute();
+            return first.join().merge(second);
+        }
+    }
+}
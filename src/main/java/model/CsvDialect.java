@@ -0,0 +1,402 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CsvDialect - The layout of an imported CSV file: delimiter, lines before the data,
+ * header presence, the columns holding date, description, category and amount, and the
+ * date format.
+ *
+ * The dialect is detected from a sample of the first {@value #SAMPLE_SIZE} characters.
+ * Each candidate delimiter is scored by how many sampled records split into the same number
+ * of fields, so bank name or account lines before the table are skipped. Columns are
+ * chosen from header names where possible and otherwise by the type of their values:
+ * dates, amounts, free text (description) and repeated text (category).
+ * Detected dialects are cached per file and reused while the file's size, modification time
+ * and first line are unchanged.
+ */
+class CsvDialect {
+
+    static final int SAMPLE_SIZE = 64 * 1024;
+    private static final int MAX_SAMPLE_RECORDS = 500;
+    private static final int CACHE_SIZE = 32;
+    // Share of a column's values that must parse for it to count as a date or amount column
+    private static final double MIN_TYPE_RATIO = 0.8;
+    private static final char[] DELIMITERS = {',', ';', '\t', '|'};
+    private static final String HEADER_PATTERN = "(?i).*(date|time|desc|category|amount|balance|type|日期|时间|描述|金额|类型|类别).*";
+
+    private static final Map<String, CsvDialect> cache = new LinkedHashMap<String, CsvDialect>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CsvDialect> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    final char delimiter;
+    final boolean hasHeaders;
+    // Non-blank records before the first data row (preamble and header)
+    final int skipRecords;
+    final int preambleRecords;
+    final int dateColumn;
+    final int descriptionColumn;
+    final int categoryColumn;
+    final int amountColumn;
+    final DateParser dateParser;
+    private String firstLine;
+    private boolean cached;
+
+    private CsvDialect(char delimiter, boolean hasHeaders, int preambleRecords, int dateColumn, int descriptionColumn,
+                       int categoryColumn, int amountColumn, DateParser dateParser) {
+        this.delimiter = delimiter;
+        this.hasHeaders = hasHeaders;
+        this.preambleRecords = preambleRecords;
+        this.skipRecords = preambleRecords + (hasHeaders ? 1 : 0);
+        this.dateColumn = dateColumn;
+        this.descriptionColumn = descriptionColumn;
+        this.categoryColumn = categoryColumn;
+        this.amountColumn = amountColumn;
+        this.dateParser = dateParser;
+    }
+
+    /**
+     * Checks whether this dialect came from the cache instead of being detected
+     */
+    boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Gets the dialect of a file, detecting it unless the same unchanged file was seen before
+     * @param file The CSV file
+     * @return The dialect
+     * @throws IOException If the file cannot be read
+     * @throws TransactionManager.ImportException If no usable layout is found
+     */
+    static CsvDialect forFile(File file) throws IOException, TransactionManager.ImportException {
+        // A different file saved under the same name may need a different date format,
+        // so the size and modification time are part of the key
+        String key = file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String firstLine = reader.readLine();
+            if (firstLine == null) {
+                throw new TransactionManager.ImportException("CSV file is empty");
+            }
+            synchronized (cache) {
+                CsvDialect dialect = cache.get(key);
+                if (dialect != null && dialect.firstLine.equals(firstLine)) {
+                    dialect.cached = true;
+                    return dialect;
+                }
+            }
+
+            StringBuilder sample = new StringBuilder(SAMPLE_SIZE + firstLine.length()).append(firstLine).append('\n');
+            char[] chunk = new char[8192];
+            int read;
+            while (sample.length() < SAMPLE_SIZE && (read = reader.read(chunk)) > 0) {
+                sample.append(chunk, 0, read);
+            }
+            boolean truncated = sample.length() >= SAMPLE_SIZE && reader.read() != -1;
+
+            CsvDialect dialect = detect(sample.toString(), truncated);
+            dialect.firstLine = firstLine;
+            synchronized (cache) {
+                cache.put(key, dialect);
+            }
+            return dialect;
+        }
+    }
+
+    /**
+     * Detects the dialect of sampled CSV text
+     * @param sample The start of the file
+     * @param truncated True if the file continues after the sample, so its last record may be incomplete
+     * @return The dialect
+     * @throws TransactionManager.ImportException If no usable layout is found
+     */
+    static CsvDialect detect(String sample, boolean truncated) throws TransactionManager.ImportException {
+        if (sample.trim().isEmpty()) {
+            throw new TransactionManager.ImportException("CSV file is empty or first line is blank");
+        }
+
+        // Pick the delimiter that splits the most records into the same number of fields
+        char delimiter = 0;
+        List<String[]> records = null;
+        int fieldCount = 0;
+        int bestConsistency = 0;
+        for (char candidate : DELIMITERS) {
+            List<String[]> candidateRecords = readRecords(sample, candidate, truncated);
+            Map<Integer, Integer> counts = new LinkedHashMap<>();
+            for (String[] record : candidateRecords) {
+                counts.merge(record.length, 1, Integer::sum);
+            }
+            for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+                int fields = entry.getKey();
+                int consistency = entry.getValue();
+                if (fields > 1 && (consistency > bestConsistency || (consistency == bestConsistency && fields > fieldCount))) {
+                    delimiter = candidate;
+                    records = candidateRecords;
+                    fieldCount = fields;
+                    bestConsistency = consistency;
+                }
+            }
+        }
+        if (delimiter == 0) {
+            throw new TransactionManager.ImportException("Could not detect CSV delimiter (tested comma, semicolon, tab, pipe)");
+        }
+
+        // The table starts at the first record that has the usual field count and is followed by another such record
+        int tableStart = 0;
+        while (tableStart < records.size() - 1 && (records.get(tableStart).length != fieldCount
+                || records.get(tableStart + 1).length != fieldCount)) {
+            tableStart++;
+        }
+        if (records.get(tableStart).length != fieldCount) {
+            tableStart = 0;
+        }
+
+        String[] firstRow = records.get(tableStart);
+        List<String[]> rows = new ArrayList<>();
+        for (int i = tableStart + 1; i < records.size(); i++) {
+            if (records.get(i).length == fieldCount) {
+                rows.add(records.get(i));
+            }
+        }
+        if (rows.isEmpty()) {
+            rows.add(firstRow);
+        }
+        ColumnProfile[] profiles = profileColumns(rows, fieldCount);
+        boolean hasHeaders = isHeaderRow(firstRow, profiles);
+        if (!hasHeaders && rows.get(0) != firstRow) {
+            rows.add(0, firstRow);
+            profiles = profileColumns(rows, fieldCount);
+        }
+
+        int[] columns = {-1, -1, -1, -1};
+        if (hasHeaders) {
+            matchHeaderNames(firstRow, columns);
+        }
+        matchColumnTypes(profiles, columns);
+        if (!hasHeaders && (columns[0] == -1 || columns[1] == -1 || columns[2] == -1 || columns[3] == -1)) {
+            // No headers and the values do not tell the columns apart: assume the default order
+            if (fieldCount >= 4) {
+                columns = new int[] {0, 1, 2, 3};
+            } else {
+                throw new TransactionManager.ImportException("Cannot determine column order: No headers found and less than 4 columns detected in the first line.");
+            }
+        }
+
+        // Validate that all required columns were found
+        if (columns[0] == -1 || columns[1] == -1 || columns[2] == -1 || columns[3] == -1) {
+            StringBuilder missingCols = new StringBuilder();
+            if (columns[0] == -1) missingCols.append("Date, ");
+            if (columns[1] == -1) missingCols.append("Description, ");
+            if (columns[2] == -1) missingCols.append("Category, ");
+            if (columns[3] == -1) missingCols.append("Amount, ");
+            // Remove trailing comma and space
+            String missingStr = missingCols.substring(0, missingCols.length() - 2);
+            throw new TransactionManager.ImportException("Could not find required column(s): " + missingStr + ". Please check headers or file format.");
+        }
+
+        List<String> dates = new ArrayList<>();
+        for (String[] row : rows) {
+            dates.add(row[columns[0]]);
+        }
+        return new CsvDialect(delimiter, hasHeaders, tableStart, columns[0], columns[1], columns[2], columns[3],
+                DateParser.infer(dates));
+    }
+
+    /**
+     * Splits the sample into records with one delimiter
+     */
+    private static List<String[]> readRecords(String sample, char delimiter, boolean truncated) {
+        List<String[]> records = new ArrayList<>();
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(sample), delimiter);
+        try {
+            while (records.size() <= MAX_SAMPLE_RECORDS && tokenizer.next()) {
+                String[] fields = new String[tokenizer.getFieldCount()];
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = tokenizer.getField(i);
+                }
+                records.add(fields);
+            }
+        } catch (IOException e) {
+            // Not thrown by StringReader
+            throw new IllegalStateException(e);
+        }
+        if (truncated && records.size() > 1 && records.size() <= MAX_SAMPLE_RECORDS) {
+            // The last record may have been cut off by the end of the sample
+            records.remove(records.size() - 1);
+        }
+        return records;
+    }
+
+    /**
+     * Value statistics of one column
+     */
+    private static class ColumnProfile {
+        int values;
+        int dates;
+        int amounts;
+        int decimals;
+        long length;
+        final Set<String> distinct = new HashSet<>();
+
+        double dateRatio() {
+            return values > 0 ? (double) dates / values : 0;
+        }
+
+        double amountRatio() {
+            return values > 0 ? (double) amounts / values : 0;
+        }
+
+        boolean isText() {
+            return dateRatio() < MIN_TYPE_RATIO && amountRatio() < MIN_TYPE_RATIO;
+        }
+    }
+
+    private static ColumnProfile[] profileColumns(List<String[]> rows, int fieldCount) {
+        ColumnProfile[] profiles = new ColumnProfile[fieldCount];
+        for (int column = 0; column < fieldCount; column++) {
+            ColumnProfile profile = new ColumnProfile();
+            for (String[] row : rows) {
+                String value = row[column];
+                if (value.isEmpty()) {
+                    continue;
+                }
+                profile.values++;
+                profile.length += value.length();
+                profile.distinct.add(value);
+                if (DateParser.isDate(value)) {
+                    profile.dates++;
+                }
+                if (isAmount(value)) {
+                    profile.amounts++;
+                    if (value.indexOf('.') >= 0 || value.indexOf(',') >= 0) {
+                        profile.decimals++;
+                    }
+                }
+            }
+            profiles[column] = profile;
+        }
+        return profiles;
+    }
+
+    private static boolean isAmount(String value) {
+        try {
+            AmountParser.parseMinorUnits(value, 0, value.length());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Decides whether the first table row is a header: it names at least two known columns,
+     * or it holds text where the rows below hold dates or amounts
+     */
+    private static boolean isHeaderRow(String[] row, ColumnProfile[] profiles) {
+        int headerMatches = 0;
+        int typeMismatches = 0;
+        for (int i = 0; i < row.length; i++) {
+            String cell = row[i];
+            if (cell.matches(HEADER_PATTERN)) {
+                headerMatches++;
+            }
+            if ((profiles[i].dateRatio() >= MIN_TYPE_RATIO && !DateParser.isDate(cell))
+                    || (profiles[i].amountRatio() >= MIN_TYPE_RATIO && !isAmount(cell))) {
+                typeMismatches++;
+            }
+        }
+        return headerMatches >= 2 || typeMismatches >= 2;
+    }
+
+    /**
+     * Finds columns by header name: date, description, category, amount
+     */
+    private static void matchHeaderNames(String[] headers, int[] columns) {
+        for (int i = 0; i < headers.length; i++) {
+            String header = headers[i].toLowerCase();
+
+            // Assign index only if not already found (prefer first match)
+            if (columns[0] == -1 && (header.contains("date") || header.contains("日期") || header.contains("时间") || header.contains("time"))) {
+                columns[0] = i;
+            } else if (columns[1] == -1 && (header.contains("desc") || header.contains("summary") || header.contains("narrative") ||
+                      header.contains("details") || header.contains("摘要") || header.contains("描述") ||
+                      header.contains("说明") || header.contains("备注"))) {
+                columns[1] = i;
+            } else if (columns[2] == -1 && (header.contains("categ") || header.contains("type") || header.contains("用途") ||
+                      header.contains("类别") || header.contains("类型"))) {
+                columns[2] = i;
+            } else if (columns[3] == -1 && (header.contains("amount") || header.contains("sum") || header.contains("value") ||
+                      header.contains("金额") || header.contains("价格") || header.contains("费用") ||
+                      header.contains("价值"))) {
+                columns[3] = i;
+            }
+        }
+    }
+
+    /**
+     * Fills the columns not found by name from the column value types
+     */
+    private static void matchColumnTypes(ColumnProfile[] profiles, int[] columns) {
+        if (columns[0] == -1) {
+            for (int i = 0; i < profiles.length; i++) {
+                if (!isAssigned(columns, i) && profiles[i].dateRatio() >= MIN_TYPE_RATIO
+                        && (columns[0] == -1 || profiles[i].dateRatio() > profiles[columns[0]].dateRatio())) {
+                    columns[0] = i;
+                }
+            }
+        }
+        if (columns[3] == -1) {
+            // Prefer columns whose values have decimals over whole numbers such as reference numbers
+            for (int i = 0; i < profiles.length; i++) {
+                ColumnProfile profile = profiles[i];
+                if (isAssigned(columns, i) || profile.amountRatio() < MIN_TYPE_RATIO || profile.dateRatio() >= MIN_TYPE_RATIO) {
+                    continue;
+                }
+                if (columns[3] == -1 || profile.decimals > profiles[columns[3]].decimals) {
+                    columns[3] = i;
+                }
+            }
+        }
+        if (columns[1] == -1) {
+            // Description: the text column with the most different values
+            for (int i = 0; i < profiles.length; i++) {
+                if (!isAssigned(columns, i) && profiles[i].isText() && (columns[1] == -1
+                        || profiles[i].distinct.size() > profiles[columns[1]].distinct.size()
+                        || (profiles[i].distinct.size() == profiles[columns[1]].distinct.size()
+                            && profiles[i].length > profiles[columns[1]].length))) {
+                    columns[1] = i;
+                }
+            }
+        }
+        if (columns[2] == -1) {
+            // Category: the text column whose values repeat the most
+            for (int i = 0; i < profiles.length; i++) {
+                if (!isAssigned(columns, i) && profiles[i].isText() && (columns[2] == -1
+                        || profiles[i].distinct.size() < profiles[columns[2]].distinct.size())) {
+                    columns[2] = i;
+                }
+            }
+        }
+    }
+
+    private static boolean isAssigned(int[] columns, int column) {
+        for (int assigned : columns) {
+            if (assigned == column) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,183 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * CsvRowWriter - Writes CSV rows with RFC 4180 quoting through a reusable character buffer.
+ * Fields that contain the delimiter, a quote or a line break are quoted and their quotes
+ * doubled; dates and amounts are written digit by digit, so writing a row does not create
+ * any intermediate strings. Rows end with CRLF as RFC 4180 specifies.
+ */
+class CsvRowWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final Writer out;
+    private final char delimiter;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
+    private boolean firstField = true;
+
+    /**
+     * Creates a comma-separated writer
+     * @param out The writer to write to; closed with this writer
+     */
+    CsvRowWriter(Writer out) {
+        this(out, ',');
+    }
+
+    CsvRowWriter(Writer out, char delimiter) {
+        this.out = out;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Writes a text field, quoting it if needed
+     * @param value The field value (null is written as an empty field)
+     */
+    void writeField(String value) throws IOException {
+        startField();
+        if (value == null) {
+            return;
+        }
+        int length = value.length();
+        boolean quote = false;
+        for (int i = 0; i < length && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == delimiter || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            for (int i = 0; i < length; i++) {
+                put(value.charAt(i));
+            }
+            return;
+        }
+        put('"');
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                put('"');
+            }
+            put(c);
+        }
+        put('"');
+    }
+
+    /**
+     * Writes a date field as yyyy-MM-dd
+     * @param date The date
+     */
+    void writeDate(LocalDate date) throws IOException {
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            writeField(date.toString());
+            return;
+        }
+        startField();
+        putDigits(year, 4);
+        put('-');
+        putDigits(date.getMonthValue(), 2);
+        put('-');
+        putDigits(date.getDayOfMonth(), 2);
+    }
+
+    /**
+     * Writes an amount with two decimals, rounding half up like String.format("%.2f")
+     * @param amount The amount
+     */
+    void writeAmount(double amount) throws IOException {
+        double scaled = Math.abs(amount) * 100;
+        double fraction = scaled - Math.floor(scaled);
+        // Values close to a rounding tie and very large values use the exact formatter
+        if (Double.isNaN(amount) || scaled >= 1e15 || Math.abs(fraction - 0.5) < 1e-6) {
+            writeField(String.format(Locale.ROOT, "%.2f", amount));
+            return;
+        }
+
+        startField();
+        long cents = Math.round(scaled);
+        if (Double.doubleToRawLongBits(amount) < 0) {
+            put('-');
+        }
+        long units = cents / 100;
+        if (units == 0) {
+            put('0');
+        } else {
+            int digits = 0;
+            for (long v = units; v > 0; v /= 10) {
+                digits++;
+            }
+            ensureCapacity(digits);
+            for (int i = position + digits - 1; i >= position; i--) {
+                buffer[i] = (char) ('0' + units % 10);
+                units /= 10;
+            }
+            position += digits;
+        }
+        put('.');
+        putDigits((int) (cents % 100), 2);
+    }
+
+    /**
+     * Ends the current row
+     */
+    void endRow() throws IOException {
+        put('\r');
+        put('\n');
+        firstField = true;
+    }
+
+    /**
+     * Writes any buffered characters to the underlying writer
+     */
+    void flush() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.write(buffer, 0, position);
+            position = 0;
+        } finally {
+            out.close();
+        }
+    }
+
+    private void startField() throws IOException {
+        if (!firstField) {
+            put(delimiter);
+        }
+        firstField = false;
+    }
+
+    private void putDigits(int value, int width) throws IOException {
+        ensureCapacity(width);
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void put(char c) throws IOException {
+        if (position == buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        buffer[position++] = c;
+    }
+
+    private void ensureCapacity(int count) throws IOException {
+        if (position + count > buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
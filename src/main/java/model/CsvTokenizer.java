@@ -0,0 +1,348 @@
+package model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * CsvTokenizer - Splits CSV records into fields without creating objects per field.
+ * The unquoted, trimmed content of every field is written into one shared character buffer
+ * and only the start and end offsets of each field are recorded, so callers can parse
+ * dates and amounts straight from the buffer and create strings only for the fields they keep.
+ * Buffers grow to fit the longest record and are reused for every following record.
+ *
+ * Fields may be quoted; a doubled quote inside quotes stands for one quote, and line breaks
+ * inside quotes belong to the field. As in RFC 4180, only a quote at the start of a field opens
+ * quotes; a quote later in an unquoted field is an ordinary character. Records can be read from a Reader one at a time, or a
+ * single line can be split with {@link #split(CharSequence)}.
+ */
+class CsvTokenizer {
+
+    private static final int INPUT_BUFFER_SIZE = 16 * 1024;
+
+    private final char delimiter;
+    private final Reader in;
+    private char[] input;
+    private int inputPosition;
+    private int inputLimit;
+    // Characters read before the current input buffer
+    private long inputStart;
+
+    private char[] buffer = new char[256];
+    private CharBuffer text = CharBuffer.wrap(buffer);
+    private int length;
+    // Start and end offset of each field: spans[2 * i] and spans[2 * i + 1]
+    private int[] spans = new int[32];
+    private int fieldCount;
+    private int fieldStart;
+    private boolean inQuotes;
+    // True once the current field has had an opening quote
+    private boolean fieldQuoted;
+
+    private int lineNumber;
+    private int recordLineNumber;
+
+    /**
+     * Creates a tokenizer for splitting single lines
+     * @param delimiter The field delimiter
+     */
+    CsvTokenizer(char delimiter) {
+        this(null, delimiter);
+    }
+
+    /**
+     * Creates a tokenizer reading records from a reader
+     * @param in The reader; not closed by the tokenizer
+     * @param delimiter The field delimiter
+     */
+    CsvTokenizer(Reader in, char delimiter) {
+        this.in = in;
+        this.delimiter = delimiter;
+        this.input = in != null ? new char[INPUT_BUFFER_SIZE] : null;
+    }
+
+    /**
+     * Reads the next record, skipping blank lines
+     * @return False at the end of the input
+     * @throws IOException If the reader fails
+     */
+    boolean next() throws IOException {
+        startRecord();
+        recordLineNumber = lineNumber + 1;
+        boolean readAny = false;
+        while (true) {
+            if (inputPosition == inputLimit) {
+                inputStart += inputLimit;
+                inputLimit = in.read(input, 0, input.length);
+                inputPosition = 0;
+                if (inputLimit <= 0) {
+                    inputLimit = 0;
+                    if (!readAny) {
+                        return false;
+                    }
+                    lineNumber++;
+                    endField();
+                    if (isBlank()) {
+                        return false;
+                    }
+                    return true;
+                }
+            }
+            char c = input[inputPosition++];
+            readAny = true;
+            if ((c == '\n' || c == '\r') && !inQuotes) {
+                if (c == '\r' && peek() == '\n') {
+                    inputPosition++;
+                }
+                lineNumber++;
+                endField();
+                if (!isBlank()) {
+                    return true;
+                }
+                startRecord();
+                recordLineNumber = lineNumber + 1;
+                readAny = false;
+            } else if (c == '"' && inQuotes && peek() == '"') {
+                inputPosition++;
+                append('"');
+            } else {
+                if (c == '\n') {
+                    lineNumber++;
+                }
+                accept(c);
+            }
+        }
+    }
+
+    /**
+     * Continues reading at a position recorded earlier with {@link #getOffset()}.
+     * Must be called before the first record is read.
+     * @param offset The number of characters to skip
+     * @param lineNumber The number of lines before the offset
+     * @throws IOException If the reader fails or ends before the offset
+     */
+    void resumeAt(long offset, int lineNumber) throws IOException {
+        long remaining = offset;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                throw new EOFException("Input ends before offset " + offset);
+            }
+            remaining -= skipped;
+        }
+        inputStart = offset;
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Gets the number of characters read up to the end of the current record,
+     * including its line break
+     */
+    long getOffset() {
+        return inputStart + inputPosition;
+    }
+
+    /**
+     * Gets the number of lines read up to the end of the current record
+     */
+    int getLinesRead() {
+        return lineNumber;
+    }
+
+    /**
+     * Splits one line into fields
+     * @param line The line
+     * @return The number of fields
+     */
+    int split(CharSequence line) {
+        startRecord();
+        int end = line.length();
+        for (int i = 0; i < end; i++) {
+            char c = line.charAt(i);
+            if (c == '"' && inQuotes && i + 1 < end && line.charAt(i + 1) == '"') {
+                i++;
+                append('"');
+            } else {
+                accept(c);
+            }
+        }
+        endField();
+        return fieldCount;
+    }
+
+    /**
+     * Counts the fields a line has for a delimiter without keeping them
+     * @param line The line
+     * @param delimiter The delimiter
+     * @return The number of fields
+     */
+    static int countFields(CharSequence line, char delimiter) {
+        int count = 1;
+        boolean inQuotes = false;
+        // True while only blanks have been seen in the current field
+        boolean atStart = true;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"' && inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                i++;
+            } else if (c == '"' && (inQuotes || atStart)) {
+                inQuotes = !inQuotes;
+                atStart = false;
+            } else if (c == delimiter && !inQuotes) {
+                count++;
+                atStart = true;
+            } else if (c > ' ') {
+                atStart = false;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of fields in the current record
+     */
+    int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Gets the buffer holding the current record's field contents. It is only valid until
+     * the next record is read.
+     */
+    CharSequence getText() {
+        return text;
+    }
+
+    /**
+     * Gets the start offset of a field in {@link #getText()}
+     */
+    int getStart(int field) {
+        return spans[2 * field];
+    }
+
+    /**
+     * Gets the end offset (exclusive) of a field in {@link #getText()}
+     */
+    int getEnd(int field) {
+        return spans[2 * field + 1];
+    }
+
+    /**
+     * Creates a string for a field
+     * @param field The field index
+     * @return The unquoted, trimmed field content
+     */
+    String getField(int field) {
+        return new String(buffer, spans[2 * field], spans[2 * field + 1] - spans[2 * field]);
+    }
+
+    /**
+     * Gets the line number the current record starts on (1-based)
+     */
+    int getLineNumber() {
+        return recordLineNumber;
+    }
+
+    /**
+     * Rebuilds the current record as text, for error messages
+     */
+    String getRecordText() {
+        StringBuilder record = new StringBuilder(length + fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            if (i > 0) {
+                record.append(delimiter);
+            }
+            record.append(buffer, getStart(i), getEnd(i) - getStart(i));
+        }
+        return record.toString();
+    }
+
+    private void accept(char c) {
+        if (c == '"' && inQuotes) {
+            inQuotes = false;
+        } else if (c == '"' && atFieldStart()) {
+            inQuotes = true;
+            fieldQuoted = true;
+        } else if (c == delimiter && !inQuotes) {
+            endField();
+        } else {
+            append(c);
+        }
+    }
+
+    /**
+     * Checks whether a quote would open the current field: only blanks precede it and the
+     * field was not quoted before. Quotes anywhere else are part of the text, like 27" monitor.
+     */
+    private boolean atFieldStart() {
+        if (fieldQuoted) {
+            return false;
+        }
+        for (int i = fieldStart; i < length; i++) {
+            if (buffer[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int peek() throws IOException {
+        if (inputPosition == inputLimit) {
+            inputStart += inputLimit;
+            int read = in.read(input, 0, input.length);
+            inputPosition = 0;
+            inputLimit = Math.max(read, 0);
+            if (inputLimit == 0) {
+                return -1;
+            }
+        }
+        return input[inputPosition];
+    }
+
+    private void startRecord() {
+        length = 0;
+        fieldCount = 0;
+        fieldStart = 0;
+        inQuotes = false;
+        fieldQuoted = false;
+    }
+
+    private void append(char c) {
+        if (length == buffer.length) {
+            char[] larger = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, larger, 0, length);
+            buffer = larger;
+            text = CharBuffer.wrap(buffer);
+        }
+        buffer[length++] = c;
+    }
+
+    /**
+     * Records the field ending at the current position, trimmed like String.trim()
+     */
+    private void endField() {
+        int start = fieldStart;
+        int end = length;
+        while (start < end && buffer[start] <= ' ') {
+            start++;
+        }
+        while (end > start && buffer[end - 1] <= ' ') {
+            end--;
+        }
+        if (2 * fieldCount + 1 >= spans.length) {
+            int[] larger = new int[spans.length * 2];
+            System.arraycopy(spans, 0, larger, 0, spans.length);
+            spans = larger;
+        }
+        spans[2 * fieldCount] = start;
+        spans[2 * fieldCount + 1] = end;
+        fieldCount++;
+        fieldStart = length;
+        fieldQuoted = false;
+    }
+
+    private boolean isBlank() {
+        return fieldCount == 1 && spans[0] == spans[1];
+    }
+}
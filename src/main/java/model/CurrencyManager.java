@@ -1,7 +1,10 @@
 package model;
 
+import java.io.File;
+import java.io.IOException;
 import java.text.DecimalFormat;
-import java.util.Currency;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -9,57 +12,120 @@ import java.util.Map;
 /**
  * CurrencyManager - Manages currency conversion and formatting.
  * Provides utility methods for currency operations across the application.
+ * Currencies are interned to small integer IDs and conversions use a precomputed
+ * rate matrix, so converting whole columns of amounts avoids per-amount map lookups.
  */
 public class CurrencyManager {
     // Singleton instance
     private static CurrencyManager instance;
-    
+
     // Currency symbols
     public static final String CNY = "¥ CNY (Chinese Yuan)";
     public static final String USD = "$ USD (US Dollar)";
     public static final String EUR = "€ EUR (Euro)";
-    
-    // Exchange rates relative to CNY (base currency)
-    private final Map<String, Double> exchangeRates;
-    
-    // Currency symbols for formatting
-    private final Map<String, String> currencySymbols;
-    
+
+    // Currency IDs (indexes into the rate matrix)
+    public static final int CNY_ID = 0;
+    public static final int USD_ID = 1;
+    public static final int EUR_ID = 2;
+
+    // Currency strings and symbols indexed by currency ID
+    private static final String[] CURRENCIES = {CNY, USD, EUR};
+    private static final String[] SYMBOLS = {"¥", "$", "€"};
+    private static final String[] CODES = {"CNY", "USD", "EUR"};
+
+    // Default historical exchange rate file (date,currency,rate per line)
+    private static final String EXCHANGE_RATES_FILE = "exchange_rates.csv";
+
+    // Currency string to ID lookup
+    private static final Map<String, Integer> CURRENCY_IDS = new HashMap<>();
+    static {
+        for (int i = 0; i < CURRENCIES.length; i++) {
+            CURRENCY_IDS.put(CURRENCIES[i], i);
+        }
+    }
+
+    // Fallback formatter for values the fast path does not handle; DecimalFormat is not thread-safe.
+    // Amounts always use ',' for grouping and '.' for decimals, whatever the default locale.
+    private static final ThreadLocal<DecimalFormat> FORMATTER =
+        ThreadLocal.withInitial(() -> new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(Locale.ROOT)));
+
+    // Exchange rates relative to CNY (base currency), indexed by currency ID
+    private final double[] baseRates = new double[CURRENCIES.length];
+
+    // rateMatrix[from][to] = rate to convert an amount in 'from' to 'to'; replaced as a whole on update
+    private volatile double[][] rateMatrix;
+
+    // Historical rates used for date-aware conversion
+    private volatile ExchangeRateHistory rateHistory = ExchangeRateHistory.empty(CURRENCIES.length);
+
     /**
      * Private constructor for singleton pattern
      */
     private CurrencyManager() {
         // Initialize exchange rates (CNY as base)
-        exchangeRates = new HashMap<>();
-        exchangeRates.put(CNY, 1.0);
-        exchangeRates.put(USD, 0.1381); // 1 CNY = 0.1381 USD
-        exchangeRates.put(EUR, 0.1269); // 1 CNY = 0.1269 EUR
-        
-        // Initialize currency symbols
-        currencySymbols = new HashMap<>();
-        currencySymbols.put(CNY, "¥");
-        currencySymbols.put(USD, "$");
-        currencySymbols.put(EUR, "€");
-    }
-    
+        baseRates[CNY_ID] = 1.0;
+        baseRates[USD_ID] = 0.1381; // 1 CNY = 0.1381 USD
+        baseRates[EUR_ID] = 0.1269; // 1 CNY = 0.1269 EUR
+        rebuildRateMatrix();
+
+        // Load historical rates if a local rate file is present
+        if (new File(EXCHANGE_RATES_FILE).exists()) {
+            loadExchangeRateHistory(EXCHANGE_RATES_FILE);
+        }
+    }
+
     /**
      * Gets the singleton instance of CurrencyManager
      * @return The CurrencyManager instance
      */
-    public static CurrencyManager getInstance() {
+    public static synchronized CurrencyManager getInstance() {
         if (instance == null) {
             instance = new CurrencyManager();
         }
         return instance;
     }
-    
+
     /**
      * Resets the singleton instance for testing purposes
      */
-    public static void resetInstance() {
+    public static synchronized void resetInstance() {
         instance = null;
     }
-    
+
+    /**
+     * Gets the ID of a currency
+     * @param currency The full currency string (e.g., "¥ CNY (Chinese Yuan)")
+     * @return The currency ID, or -1 if the currency is not supported
+     */
+    public static int getCurrencyId(String currency) {
+        Integer id = CURRENCY_IDS.get(currency);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Gets the ID of a currency from its ISO code
+     * @param code The ISO currency code (e.g., "USD")
+     * @return The currency ID, or -1 if the currency is not supported
+     */
+    public static int getCurrencyIdByCode(String code) {
+        for (int i = 0; i < CODES.length; i++) {
+            if (CODES[i].equalsIgnoreCase(code)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the currency string for an ID
+     * @param currencyId The currency ID
+     * @return The full currency string
+     */
+    public static String getCurrency(int currencyId) {
+        return CURRENCIES[currencyId];
+    }
+
     /**
      * Converts an amount from one currency to another
      * @param amount The amount to convert
@@ -72,17 +138,138 @@ public class CurrencyManager {
         if (fromCurrency.equals(toCurrency)) {
             return amount;
         }
-        
-        // Convert to base currency (CNY) first if needed
-        double amountInBase = amount;
-        if (!fromCurrency.equals(CNY)) {
-            amountInBase = amount / exchangeRates.get(fromCurrency);
+        return convert(amount, requireCurrencyId(fromCurrency), requireCurrencyId(toCurrency));
+    }
+
+    /**
+     * Converts an amount between two currencies identified by ID
+     * @param amount The amount to convert
+     * @param fromId The source currency ID
+     * @param toId The target currency ID
+     * @return The converted amount
+     */
+    public double convert(double amount, int fromId, int toId) {
+        if (fromId == toId) {
+            return amount;
+        }
+        return amount * rateMatrix[fromId][toId];
+    }
+
+    /**
+     * Converts a column of amounts from one currency to another
+     * @param amounts The amounts to convert
+     * @param fromCurrency The source currency
+     * @param toCurrency The target currency
+     * @return A new array with the converted amounts
+     */
+    public double[] convert(double[] amounts, String fromCurrency, String toCurrency) {
+        double[] result = new double[amounts.length];
+        convert(amounts, result, requireCurrencyId(fromCurrency), requireCurrencyId(toCurrency));
+        return result;
+    }
+
+    /**
+     * Converts a column of amounts into a caller-provided array (may be the same array)
+     * @param amounts The amounts to convert
+     * @param result The array receiving the converted amounts
+     * @param fromId The source currency ID
+     * @param toId The target currency ID
+     */
+    public void convert(double[] amounts, double[] result, int fromId, int toId) {
+        double rate = fromId == toId ? 1.0 : rateMatrix[fromId][toId];
+        for (int i = 0; i < amounts.length; i++) {
+            result[i] = amounts[i] * rate;
+        }
+    }
+
+    /**
+     * Converts a column of amounts in minor units (e.g. fen or cents), rounding to the nearest unit
+     * @param minorUnits The amounts to convert, in minor units
+     * @param fromCurrency The source currency
+     * @param toCurrency The target currency
+     * @return A new array with the converted amounts in minor units
+     */
+    public long[] convert(long[] minorUnits, String fromCurrency, String toCurrency) {
+        int fromId = requireCurrencyId(fromCurrency);
+        int toId = requireCurrencyId(toCurrency);
+        double rate = fromId == toId ? 1.0 : rateMatrix[fromId][toId];
+        long[] result = new long[minorUnits.length];
+        for (int i = 0; i < minorUnits.length; i++) {
+            result[i] = Math.round(minorUnits[i] * rate);
+        }
+        return result;
+    }
+
+    /**
+     * Converts an amount at the exchange rates in effect on a given date.
+     * Falls back to the current rate for currencies without historical rates.
+     * @param amount The amount to convert
+     * @param fromCurrency The source currency
+     * @param toCurrency The target currency
+     * @param date The date of the amount (e.g. the transaction date)
+     * @return The converted amount
+     */
+    public double convert(double amount, String fromCurrency, String toCurrency, LocalDate date) {
+        if (fromCurrency.equals(toCurrency)) {
+            return amount;
+        }
+        ExchangeRateHistory history = rateHistory;
+        long epochDay = date.toEpochDay();
+        return amount / rateOn(history, requireCurrencyId(fromCurrency), epochDay)
+                * rateOn(history, requireCurrencyId(toCurrency), epochDay);
+    }
+
+    /**
+     * Revalues a column of amounts, each at the exchange rates in effect on its own date
+     * @param amounts The amounts to convert
+     * @param epochDays The date of each amount (LocalDate.toEpochDay())
+     * @param fromCurrency The source currency
+     * @param toCurrency The target currency
+     * @return A new array with the converted amounts
+     */
+    public double[] convert(double[] amounts, long[] epochDays, String fromCurrency, String toCurrency) {
+        if (amounts.length != epochDays.length) {
+            throw new IllegalArgumentException("Amounts and dates must have the same length");
+        }
+        int fromId = requireCurrencyId(fromCurrency);
+        int toId = requireCurrencyId(toCurrency);
+        ExchangeRateHistory history = rateHistory;
+        double[] result = new double[amounts.length];
+        for (int i = 0; i < amounts.length; i++) {
+            result[i] = fromId == toId ? amounts[i]
+                    : amounts[i] / rateOn(history, fromId, epochDays[i]) * rateOn(history, toId, epochDays[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Loads historical exchange rates from a local rates file, replacing any loaded before.
+     * Each line has the form "date,currency,rate" (e.g. "2024-01-31,USD,0.1392"),
+     * where the rate is the amount of the currency per 1 CNY.
+     * @param filePath Path to the rates file
+     * @return True if the file was loaded
+     */
+    public boolean loadExchangeRateHistory(String filePath) {
+        try {
+            rateHistory = ExchangeRateHistory.load(filePath, CURRENCIES.length);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
         }
-        
-        // Convert from base to target currency
-        return amountInBase * exchangeRates.get(toCurrency);
     }
-    
+
+    /**
+     * Gets the base rate (per 1 CNY) of a currency on a day
+     */
+    private double rateOn(ExchangeRateHistory history, int currencyId, long epochDay) {
+        if (currencyId == CNY_ID) {
+            return 1.0;
+        }
+        double rate = history.getRate(currencyId, epochDay);
+        return Double.isNaN(rate) ? baseRates[currencyId] : rate;
+    }
+
     /**
      * Formats a currency amount according to the specified currency
      * @param amount The amount to format
@@ -90,20 +277,75 @@ public class CurrencyManager {
      * @return The formatted currency string
      */
     public String format(double amount, String currency) {
-        String symbol = currencySymbols.getOrDefault(currency, "¥");
-        DecimalFormat formatter = new DecimalFormat("#,##0.00");
-        return symbol + formatter.format(amount);
+        StringBuilder sb = new StringBuilder(16);
+        appendFormatted(sb, amount, currency);
+        return sb.toString();
     }
-    
+
+    /**
+     * Appends a formatted currency amount (e.g. "¥1,234.56") to a StringBuilder.
+     * The separators do not depend on the default locale.
+     * @param sb The StringBuilder to append to
+     * @param amount The amount to format
+     * @param currency The currency to use for formatting
+     */
+    public void appendFormatted(StringBuilder sb, double amount, String currency) {
+        sb.append(getCurrencySymbol(currency));
+
+        // Fast path: round to cents with the same HALF_EVEN result as DecimalFormat.
+        // Values close to a rounding tie, negative values rounding to zero and very
+        // large values go through DecimalFormat so the output stays identical.
+        double scaled = Math.abs(amount) * 100;
+        double fraction = scaled - Math.floor(scaled);
+        if (Double.isNaN(amount) || scaled >= 1e15 || Math.abs(fraction - 0.5) < 1e-6
+                || (Double.doubleToRawLongBits(amount) < 0 && scaled < 0.5)) {
+            sb.append(FORMATTER.get().format(amount));
+            return;
+        }
+
+        long cents = Math.round(scaled);
+        if (amount < 0) {
+            sb.append('-');
+        }
+        appendGrouped(sb, cents / 100);
+        sb.append('.');
+        long fractionCents = cents % 100;
+        if (fractionCents < 10) {
+            sb.append('0');
+        }
+        sb.append(fractionCents);
+    }
+
+    /**
+     * Appends a non-negative integer with comma grouping
+     */
+    private static void appendGrouped(StringBuilder sb, long value) {
+        if (value < 1000) {
+            sb.append(value);
+            return;
+        }
+        appendGrouped(sb, value / 1000);
+        sb.append(',');
+        long group = value % 1000;
+        if (group < 100) {
+            sb.append('0');
+        }
+        if (group < 10) {
+            sb.append('0');
+        }
+        sb.append(group);
+    }
+
     /**
      * Extracts the currency symbol from the full currency string
      * @param currency The full currency string (e.g., "¥ CNY (Chinese Yuan)")
      * @return The currency symbol (e.g., "¥")
      */
     public String getCurrencySymbol(String currency) {
-        return currencySymbols.getOrDefault(currency, "¥");
+        int id = getCurrencyId(currency);
+        return id >= 0 ? SYMBOLS[id] : "¥";
     }
-    
+
     /**
      * Updates exchange rates to latest values (would normally fetch from an API)
      * This is a placeholder method - in a real application, this would connect to
@@ -112,12 +354,13 @@ public class CurrencyManager {
     public void updateExchangeRates() {
         // In a real application, this would fetch rates from an external API
         // For this example, we'll just use hardcoded values
-        
+
         // Example updated rates
-        exchangeRates.put(USD, 0.1385); // Updated rate: 1 CNY = 0.1385 USD
-        exchangeRates.put(EUR, 0.1272); // Updated rate: 1 CNY = 0.1272 EUR
+        baseRates[USD_ID] = 0.1385; // Updated rate: 1 CNY = 0.1385 USD
+        baseRates[EUR_ID] = 0.1272; // Updated rate: 1 CNY = 0.1272 EUR
+        rebuildRateMatrix();
     }
-    
+
     /**
      * Gets the current exchange rate between two currencies
      * @param fromCurrency The source currency
@@ -128,11 +371,27 @@ public class CurrencyManager {
         if (fromCurrency.equals(toCurrency)) {
             return 1.0;
         }
-        
-        // Calculate exchange rate
-        double fromRate = exchangeRates.get(fromCurrency);
-        double toRate = exchangeRates.get(toCurrency);
-        
-        return toRate / fromRate;
+        return rateMatrix[requireCurrencyId(fromCurrency)][requireCurrencyId(toCurrency)];
+    }
+
+    /**
+     * Recomputes the rate matrix from the base rates
+     */
+    private void rebuildRateMatrix() {
+        double[][] matrix = new double[CURRENCIES.length][CURRENCIES.length];
+        for (int from = 0; from < CURRENCIES.length; from++) {
+            for (int to = 0; to < CURRENCIES.length; to++) {
+                matrix[from][to] = baseRates[to] / baseRates[from];
+            }
+        }
+        rateMatrix = matrix;
+    }
+
+    private static int requireCurrencyId(String currency) {
+        int id = getCurrencyId(currency);
+        if (id < 0) {
+            throw new IllegalArgumentException("Unsupported currency: " + currency);
+        }
+        return id;
     }
-} 
\ No newline at end of file
+}
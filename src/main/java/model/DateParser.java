@@ -0,0 +1,338 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * DateParser - Parses the dates of an imported file in one known format.
+ * The format is inferred once from a sample of the file's dates, after which every date is
+ * read by a hand-written parser for that format without creating exceptions or formatter
+ * state. Only dates that do not match the inferred format go through the full cascade of
+ * supported DateTimeFormatters. When the sample cannot tell MM/dd/yyyy from dd/MM/yyyy
+ * (no day above 12), MM/dd/yyyy is assumed and the parser is flagged as ambiguous.
+ */
+class DateParser {
+
+    /**
+     * The supported date formats, in the order they are tried
+     */
+    enum Format {
+        ISO("yyyy-MM-dd"),
+        SLASH_YEAR_FIRST("yyyy/MM/dd"),
+        MONTH_FIRST("MM/dd/yyyy"),
+        DAY_FIRST("dd/MM/yyyy"),
+        DOT_YEAR_FIRST("yyyy.MM.dd"),
+        MONTH_NAME_FIRST("MMM dd, yyyy"),
+        MONTH_NAME_MIDDLE("dd-MMM-yyyy");
+
+        final String pattern;
+        final DateTimeFormatter formatter;
+
+        Format(String pattern) {
+            this.pattern = pattern;
+            this.formatter = DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH);
+        }
+    }
+
+    private static final Format[] FORMATS = Format.values();
+
+    private final Format format;
+    private final boolean ambiguous;
+
+    /**
+     * Creates a parser without a preferred format; every format is tried in order
+     */
+    DateParser() {
+        this(null, false);
+    }
+
+    private DateParser(Format format, boolean ambiguous) {
+        this.format = format;
+        this.ambiguous = ambiguous;
+    }
+
+    /**
+     * Infers the date format from sample values: the format that parses the most samples wins,
+     * ties going to the earlier format in the supported list
+     * @param samples Date values from the file
+     * @return A parser for the inferred format, or a parser trying every format if none matched
+     */
+    static DateParser infer(List<String> samples) {
+        int[] matches = new int[FORMATS.length];
+        for (String sample : samples) {
+            String value = sample.trim();
+            for (int i = 0; i < FORMATS.length; i++) {
+                if (parse(FORMATS[i], value, 0, value.length()) != null) {
+                    matches[i]++;
+                }
+            }
+        }
+
+        int best = -1;
+        for (int i = 0; i < FORMATS.length; i++) {
+            if (matches[i] > 0 && (best < 0 || matches[i] > matches[best])) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            return new DateParser();
+        }
+        Format format = FORMATS[best];
+        boolean ambiguous = (format == Format.MONTH_FIRST || format == Format.DAY_FIRST)
+                && matches[Format.MONTH_FIRST.ordinal()] == matches[Format.DAY_FIRST.ordinal()];
+        return new DateParser(format, ambiguous);
+    }
+
+    /**
+     * Gets the inferred format
+     * @return The pattern (e.g. "dd-MMM-yyyy"), or null if no format was inferred
+     */
+    String getPattern() {
+        return format != null ? format.pattern : null;
+    }
+
+    /**
+     * Checks whether the sample fitted both MM/dd/yyyy and dd/MM/yyyy equally well
+     * @return True if the day and month order was assumed
+     */
+    boolean isAmbiguous() {
+        return ambiguous;
+    }
+
+    /**
+     * Parses a date
+     * @param text The date text
+     * @return The date
+     * @throws DateTimeParseException If the text matches none of the supported formats
+     */
+    LocalDate parse(String text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parses the date in a region of a character sequence
+     * @param text The text containing the date
+     * @param start Start of the date (inclusive)
+     * @param end End of the date (exclusive)
+     * @return The date
+     * @throws DateTimeParseException If the text matches none of the supported formats
+     */
+    LocalDate parse(CharSequence text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+
+        if (format != null) {
+            LocalDate date = parse(format, text, start, end);
+            if (date != null) {
+                return date;
+            }
+        }
+
+        // Mismatch: fall back to trying every supported format
+        for (Format candidate : FORMATS) {
+            if (candidate != format) {
+                LocalDate date = parse(candidate, text, start, end);
+                if (date != null) {
+                    return date;
+                }
+            }
+        }
+        String value = text.subSequence(start, end).toString();
+        DateTimeParseException lastException = null;
+        for (Format candidate : FORMATS) {
+            try {
+                return LocalDate.parse(value, candidate.formatter);
+            } catch (DateTimeParseException e) {
+                lastException = e;
+            }
+        }
+        throw new DateTimeParseException("Cannot parse date: " + value +
+            ". Supported formats include: yyyy-MM-dd, yyyy/MM/dd, MM/dd/yyyy, etc.", value, 0, lastException);
+    }
+
+    /**
+     * Checks whether text is a date in any supported format
+     * @param text The text
+     * @return True if one of the formats matches
+     */
+    static boolean isDate(String text) {
+        String value = text.trim();
+        for (Format format : FORMATS) {
+            if (parse(format, value, 0, value.length()) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a date in one format without throwing
+     * @return The date, or null if the text does not match the format
+     */
+    static LocalDate parse(Format format, CharSequence text, int start, int end) {
+        switch (format) {
+            case ISO:
+                return parseNumeric(text, start, end, '-', 'y', 'M', 'd');
+            case SLASH_YEAR_FIRST:
+                return parseNumeric(text, start, end, '/', 'y', 'M', 'd');
+            case MONTH_FIRST:
+                return parseNumeric(text, start, end, '/', 'M', 'd', 'y');
+            case DAY_FIRST:
+                return parseNumeric(text, start, end, '/', 'd', 'M', 'y');
+            case DOT_YEAR_FIRST:
+                return parseNumeric(text, start, end, '.', 'y', 'M', 'd');
+            case MONTH_NAME_FIRST:
+                return parseMonthNameFirst(text, start, end);
+            default:
+                return parseMonthNameMiddle(text, start, end);
+        }
+    }
+
+    /**
+     * Parses three numeric fields separated by one separator character.
+     * Years have four digits and months and days two, as the formatter patterns require;
+     * anything else is left to the formatters.
+     */
+    private static LocalDate parseNumeric(CharSequence text, int start, int end, char separator,
+                                          char first, char second, char third) {
+        int year = -1;
+        int month = -1;
+        int day = -1;
+        int position = start;
+        char[] order = {first, second, third};
+        for (int field = 0; field < 3; field++) {
+            int digitCount = order[field] == 'y' ? 4 : 2;
+            int value = 0;
+            int digits = 0;
+            while (position < end && digits < digitCount) {
+                char c = text.charAt(position);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                value = value * 10 + (c - '0');
+                digits++;
+                position++;
+            }
+            if (digits < digitCount) {
+                return null;
+            }
+            if (field < 2) {
+                if (position >= end || text.charAt(position) != separator) {
+                    return null;
+                }
+                position++;
+            }
+            if (order[field] == 'y') {
+                year = value;
+            } else if (order[field] == 'M') {
+                month = value;
+            } else {
+                day = value;
+            }
+        }
+        return position == end ? toDate(year, month, day) : null;
+    }
+
+    /**
+     * Parses "MMM dd, yyyy", e.g. "Jan 05, 2024"
+     */
+    private static LocalDate parseMonthNameFirst(CharSequence text, int start, int end) {
+        if (end - start < 10 || text.charAt(start + 3) != ' ') {
+            return null;
+        }
+        int month = monthFromName(text, start);
+        int position = start + 4;
+        int day = 0;
+        int digits = 0;
+        while (position < end && digits < 2 && Character.isDigit(text.charAt(position))) {
+            day = day * 10 + (text.charAt(position++) - '0');
+            digits++;
+        }
+        if (digits < 2 || position + 6 != end || text.charAt(position) != ',' || text.charAt(position + 1) != ' ') {
+            return null;
+        }
+        return toDate(parseYear(text, position + 2), month, day);
+    }
+
+    /**
+     * Parses "dd-MMM-yyyy", e.g. "05-Jan-2024"
+     */
+    private static LocalDate parseMonthNameMiddle(CharSequence text, int start, int end) {
+        int position = start;
+        int day = 0;
+        int digits = 0;
+        while (position < end && digits < 2 && Character.isDigit(text.charAt(position))) {
+            day = day * 10 + (text.charAt(position++) - '0');
+            digits++;
+        }
+        if (digits < 2 || position + 9 != end || text.charAt(position) != '-' || text.charAt(position + 4) != '-') {
+            return null;
+        }
+        return toDate(parseYear(text, position + 5), monthFromName(text, position + 1), day);
+    }
+
+    /**
+     * Reads a four digit year
+     * @return The year, or -1 if the characters are not digits
+     */
+    private static int parseYear(CharSequence text, int position) {
+        int year = 0;
+        for (int i = position; i < position + 4; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            year = year * 10 + (c - '0');
+        }
+        return year;
+    }
+
+    /**
+     * Reads an English three letter month abbreviation, capitalized as the formatters expect (e.g. "Jan")
+     * @return The month (1-12), or -1 if not a month name
+     */
+    private static int monthFromName(CharSequence text, int position) {
+        int key = (text.charAt(position) << 16) | (text.charAt(position + 1) << 8) | text.charAt(position + 2);
+        switch (key) {
+            case ('J' << 16) | ('a' << 8) | 'n': return 1;
+            case ('F' << 16) | ('e' << 8) | 'b': return 2;
+            case ('M' << 16) | ('a' << 8) | 'r': return 3;
+            case ('A' << 16) | ('p' << 8) | 'r': return 4;
+            case ('M' << 16) | ('a' << 8) | 'y': return 5;
+            case ('J' << 16) | ('u' << 8) | 'n': return 6;
+            case ('J' << 16) | ('u' << 8) | 'l': return 7;
+            case ('A' << 16) | ('u' << 8) | 'g': return 8;
+            case ('S' << 16) | ('e' << 8) | 'p': return 9;
+            case ('O' << 16) | ('c' << 8) | 't': return 10;
+            case ('N' << 16) | ('o' << 8) | 'v': return 11;
+            case ('D' << 16) | ('e' << 8) | 'c': return 12;
+            default: return -1;
+        }
+    }
+
+    /**
+     * Builds a date, moving days past the end of the month back to its last day
+     * as DateTimeFormatter does by default (e.g. 2023-02-30 becomes 2023-02-28)
+     * @return The date, or null if a field is out of range
+     */
+    private static LocalDate toDate(int year, int month, int day) {
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        if (day > 28) {
+            int length = YearMonth.of(year, month).lengthOfMonth();
+            if (day > length) {
+                day = length;
+            }
+        }
+        return LocalDate.of(year, month, day);
+    }
+}
@@ -0,0 +1,274 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * DescriptionIndex - Inverted index over transaction descriptions for search-as-you-type.
+ * Descriptions mix English and Chinese, and Chinese has no spaces between words, so text is
+ * split two ways: runs of Latin letters and digits become lowercase words, and every CJK
+ * character is indexed on its own and as a bigram with the character before it.
+ *
+ * A query matches rows containing all of its tokens. Latin tokens match any word containing
+ * them, like the substring filter the search replaced, so a partly typed word or a fragment
+ * such as "offee" already finds results; a Latin token that is not part of any word falls back
+ * to words within a small edit distance, so typos still match.
+ * CJK tokens are split into bigrams that must all appear; a single character matches
+ * wherever it occurs.
+ */
+class DescriptionIndex {
+
+    // Shortest Latin token that is matched fuzzily, and the length from which two edits are allowed
+    private static final int FUZZY_MIN_LENGTH = 4;
+    private static final int FUZZY_TWO_EDITS_LENGTH = 8;
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    // Every term, sorted when a fuzzy lookup needs it
+    private String[] sortedTerms = new String[64];
+    private int termCount;
+    private boolean sorted = true;
+    private int rowCount;
+
+    /**
+     * Indexes the description of the next row
+     * @param row The row ID; rows are added in increasing order
+     * @param description The description
+     */
+    void add(int row, String description) {
+        rowCount = Math.max(rowCount, row + 1);
+        tokenize(description, false, term -> {
+            Postings postings = terms.get(term);
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(term, postings);
+                if (termCount == sortedTerms.length) {
+                    sortedTerms = Arrays.copyOf(sortedTerms, termCount * 2);
+                }
+                if (termCount > 0 && term.compareTo(sortedTerms[termCount - 1]) < 0) {
+                    sorted = false;
+                }
+                sortedTerms[termCount++] = term;
+            }
+            postings.add(row);
+        });
+    }
+
+    /**
+     * Finds the rows whose descriptions match a query
+     * @param query The search text
+     * @return The matching row IDs, or null if the query has no searchable tokens
+     */
+    BitSet search(String query) {
+        List<String> latin = new ArrayList<>();
+        List<String> cjk = new ArrayList<>();
+        tokenize(query, true, term -> (isCjk(term.codePointAt(0)) ? cjk : latin).add(term));
+        if (latin.isEmpty() && cjk.isEmpty()) {
+            return null;
+        }
+
+        BitSet result = null;
+        // Exact CJK terms first; they are usually the most selective
+        for (String term : cjk) {
+            BitSet matches = new BitSet(rowCount);
+            Postings postings = terms.get(term);
+            if (postings != null) {
+                postings.addTo(matches);
+            }
+            result = intersect(result, matches);
+            if (result.isEmpty()) {
+                return result;
+            }
+        }
+        for (String token : latin) {
+            BitSet matches = new BitSet(rowCount);
+            if (!addSubstringMatches(token, matches) && token.length() >= FUZZY_MIN_LENGTH) {
+                addFuzzyMatches(token, matches);
+            }
+            result = intersect(result, matches);
+            if (result.isEmpty()) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    private static BitSet intersect(BitSet result, BitSet matches) {
+        if (result == null) {
+            return matches;
+        }
+        result.and(matches);
+        return result;
+    }
+
+    /**
+     * Adds the rows of every term containing a token. Only the distinct terms are scanned,
+     * not the descriptions.
+     * @return False if no term contains the token
+     */
+    private boolean addSubstringMatches(String token, BitSet matches) {
+        boolean found = false;
+        for (int i = 0; i < termCount; i++) {
+            if (sortedTerms[i].contains(token)) {
+                terms.get(sortedTerms[i]).addTo(matches);
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Checks whether a query has any searchable tokens
+     * @param query The search text
+     * @return False for text made only of spaces and punctuation
+     */
+    static boolean hasTokens(String query) {
+        boolean[] found = {false};
+        tokenize(query, true, term -> found[0] = true);
+        return found[0];
+    }
+
+    /**
+     * Adds the rows of every word within the allowed edit distance of a token. Only words
+     * with the same first character and a similar length are compared.
+     */
+    private void addFuzzyMatches(String token, BitSet matches) {
+        sortTerms();
+        int maxEdits = token.length() >= FUZZY_TWO_EDITS_LENGTH ? 2 : 1;
+        String first = token.substring(0, 1);
+        int i = Arrays.binarySearch(sortedTerms, 0, termCount, first);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        for (; i < termCount && sortedTerms[i].startsWith(first); i++) {
+            String term = sortedTerms[i];
+            if (Math.abs(term.length() - token.length()) <= maxEdits
+                    && editDistance(token, term, maxEdits) <= maxEdits) {
+                terms.get(term).addTo(matches);
+            }
+        }
+    }
+
+    private void sortTerms() {
+        if (!sorted) {
+            Arrays.sort(sortedTerms, 0, termCount);
+            sorted = true;
+        }
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings, stopping early once it exceeds a limit
+     * @return The distance, or a value above the limit
+     */
+    static int editDistance(String a, String b, int limit) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Splits text into terms. Latin letters and digits form lowercase words. CJK characters are
+     * indexed as single characters and bigrams; in a query, a run of several CJK characters
+     * becomes its bigrams only.
+     * @param text The text
+     * @param query True to split a query
+     * @param action Called for each term
+     */
+    static void tokenize(String text, boolean query, Consumer<String> action) {
+        StringBuilder word = new StringBuilder();
+        int previousCjk = -1;
+        int runLength = 0;
+        for (int i = 0; i < text.length(); ) {
+            int c = text.codePointAt(i);
+            i += Character.charCount(c);
+            if (isCjk(c)) {
+                flush(word, action);
+                if (previousCjk >= 0) {
+                    action.accept(new StringBuilder().appendCodePoint(previousCjk).appendCodePoint(c).toString());
+                }
+                if (!query) {
+                    action.accept(new String(Character.toChars(c)));
+                }
+                previousCjk = c;
+                runLength++;
+                // A lone CJK character in a query is matched on its own
+                if (query && runLength == 1 && !isCjkAt(text, i)) {
+                    action.accept(new String(Character.toChars(c)));
+                }
+            } else {
+                previousCjk = -1;
+                runLength = 0;
+                if (Character.isLetterOrDigit(c)) {
+                    word.appendCodePoint(Character.toLowerCase(c));
+                } else {
+                    flush(word, action);
+                }
+            }
+        }
+        flush(word, action);
+    }
+
+    private static void flush(StringBuilder word, Consumer<String> action) {
+        if (word.length() > 0) {
+            action.accept(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static boolean isCjkAt(String text, int index) {
+        return index < text.length() && isCjk(text.codePointAt(index));
+    }
+
+    static boolean isCjk(int c) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL;
+    }
+
+    /**
+     * Ascending row IDs of one term
+     */
+    private static class Postings {
+        private int[] rows = new int[2];
+        private int size;
+
+        void add(int row) {
+            // A term repeated in one description is recorded once
+            if (size > 0 && rows[size - 1] == row) {
+                return;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        void addTo(BitSet matches) {
+            for (int i = 0; i < size; i++) {
+                matches.set(rows[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * DuplicateIndex - Remembers which transactions are already stored, so re-importing a
+ * statement (or one that overlaps an earlier one) does not add them again.
+ *
+ * Each transaction is reduced to a 64-bit hash of user, date, normalized description,
+ * amount in cents and occurrence ordinal. The ordinal counts identical transactions, so two
+ * identical purchases on the same day are both kept the first time and both recognized
+ * the second time. Hashes live in an open-addressing table, making each check one probe.
+ *
+ * The index is stored next to the transactions file together with the file length it
+ * describes. If the transactions file has a different length when the index is opened
+ * (it was edited, or an import was interrupted), the index is rebuilt from the file.
+ */
+class DuplicateIndex {
+
+    private static final long MAGIC = 0x5458444550494458L;
+    private static final int HEADER_SIZE = 16;
+
+    private final File storeFile;
+    private final File indexFile;
+    private final LongTable hashes = new LongTable();
+    // Occurrences of each transaction seen in the current import, for the ordinals
+    private LongTable occurrences = new LongTable();
+    private DataOutputStream out;
+
+    private DuplicateIndex(File storeFile, File indexFile) {
+        this.storeFile = storeFile;
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * Opens the index for a transactions file, loading it if it is current and rebuilding it otherwise
+     * @param storeFile The transactions file
+     * @param indexFile The index file
+     * @return The index, ready for an import
+     * @throws IOException If the files cannot be read or written
+     */
+    static DuplicateIndex open(File storeFile, File indexFile) throws IOException {
+        DuplicateIndex index = new DuplicateIndex(storeFile, indexFile);
+        if (!index.load()) {
+            index.rebuild();
+        }
+        index.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile, true)));
+        return index;
+    }
+
+    /**
+     * Gets the number of transactions in the index
+     */
+    int size() {
+        return hashes.size();
+    }
+
+    /**
+     * Checks the next imported transaction. Identical transactions within one import get
+     * increasing ordinals, so each one is matched against a different stored copy.
+     * @return The transaction's hash to pass to {@link #add(long)} once it is saved,
+     *         or 0 if it is already stored
+     */
+    long check(String userId, LocalDate date, String description, double amount) {
+        return check(key(userId, date, description, amount));
+    }
+
+    /**
+     * Checks the next imported transaction by its {@link #key}
+     * @see #check(String, LocalDate, String, double)
+     */
+    long check(long key) {
+        long hash = withOrdinal(key, occurrences.increment(key));
+        return hashes.contains(hash) ? 0 : hash;
+    }
+
+    /**
+     * Counts a transaction checked before an interrupted import was resumed, so identical
+     * transactions after the resume point keep their ordinals
+     * @param key The transaction's {@link #key}
+     */
+    void replay(long key) {
+        occurrences.increment(key);
+    }
+
+    /**
+     * Records a saved transaction
+     * @param hash The hash returned by {@link #check}
+     * @throws IOException If the index file cannot be written
+     */
+    void add(long hash) throws IOException {
+        hashes.increment(hash);
+        out.writeLong(hash);
+    }
+
+    /**
+     * Writes the added hashes and marks the index as matching the transactions file,
+     * ending the current import
+     * @throws IOException If the index file cannot be written
+     */
+    void commit() throws IOException {
+        sync();
+        occurrences = new LongTable();
+    }
+
+    /**
+     * Writes the added hashes and marks the index as matching the transactions file,
+     * keeping the occurrence counts of an import that continues with another batch
+     * @throws IOException If the index file cannot be written
+     */
+    void sync() throws IOException {
+        out.flush();
+        try (RandomAccessFile file = new RandomAccessFile(indexFile, "rw")) {
+            file.seek(8);
+            file.writeLong(storeFile.length());
+        }
+    }
+
+    /**
+     * Closes the index file
+     */
+    void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Loads the index file if it describes the current transactions file
+     * @return False if the index is missing or out of date
+     */
+    private boolean load() throws IOException {
+        if (!indexFile.exists() || indexFile.length() < HEADER_SIZE || (indexFile.length() - HEADER_SIZE) % 8 != 0) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readLong() != MAGIC || in.readLong() != storeFile.length()) {
+                return false;
+            }
+            long count = (indexFile.length() - HEADER_SIZE) / 8;
+            for (long i = 0; i < count; i++) {
+                hashes.increment(in.readLong());
+            }
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Rebuilds the index from every transaction in the transactions file
+     */
+    private void rebuild() throws IOException {
+        try (DataOutputStream rebuilt = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+            rebuilt.writeLong(MAGIC);
+            rebuilt.writeLong(0);
+            if (storeFile.exists()) {
+                try (BufferedReader reader = new BufferedReader(new FileReader(storeFile))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        Transaction transaction;
+                        try {
+                            transaction = Transaction.fromString(line);
+                        } catch (IllegalArgumentException | DateTimeParseException e) {
+                            continue;
+                        }
+                        long hash = check(transaction.getUserId(), transaction.getDate(),
+                                transaction.getDescription(), transaction.getAmount());
+                        if (hash != 0) {
+                            hashes.increment(hash);
+                            rebuilt.writeLong(hash);
+                        }
+                    }
+                }
+            }
+        }
+        try (RandomAccessFile file = new RandomAccessFile(indexFile, "rw")) {
+            file.seek(8);
+            file.writeLong(storeFile.exists() ? storeFile.length() : 0);
+        }
+        occurrences = new LongTable();
+    }
+
+    /**
+     * Hashes a transaction without its ordinal. The description is compared ignoring case
+     * and runs of whitespace; the amount is compared in cents.
+     */
+    static long key(String userId, LocalDate date, String description, double amount) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < userId.length(); i++) {
+            hash = (hash ^ userId.charAt(i)) * 0x100000001b3L;
+        }
+        hash = (hash ^ 0x1f) * 0x100000001b3L;
+        hash = mix(hash ^ date.toEpochDay());
+        boolean space = false;
+        boolean started = false;
+        for (int i = 0; i < description.length(); i++) {
+            char c = description.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = started;
+                continue;
+            }
+            if (space) {
+                hash = (hash ^ ' ') * 0x100000001b3L;
+                space = false;
+            }
+            hash = (hash ^ Character.toLowerCase(c)) * 0x100000001b3L;
+            started = true;
+        }
+        return mix(hash ^ Math.round(amount * 100));
+    }
+
+    private static long withOrdinal(long key, int ordinal) {
+        long hash = mix(key + ordinal * 0x9e3779b97f4a7c15L);
+        return hash != 0 ? hash : 1;
+    }
+
+    /**
+     * Final mixing step of SplitMix64
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Open-addressing table of non-zero long keys with an occurrence count per key
+     */
+    private static class LongTable {
+        private long[] keys = new long[1024];
+        private int[] counts = new int[1024];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(long key) {
+            int mask = keys.length - 1;
+            for (int i = (int) mix(key) & mask; keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Adds one occurrence of a key
+         * @return The number of occurrences including this one
+         */
+        int increment(long key) {
+            if (key == 0) {
+                key = 1;
+            }
+            int mask = keys.length - 1;
+            int i = (int) mix(key) & mask;
+            while (keys[i] != 0) {
+                if (keys[i] == key) {
+                    return ++counts[i];
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            counts[i] = 1;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+            return 1;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != 0) {
+                    int i = (int) mix(oldKeys[j]) & mask;
+                    while (keys[i] != 0) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    counts[i] = oldCounts[j];
+                }
+            }
+        }
+    }
+}
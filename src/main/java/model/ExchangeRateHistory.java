@@ -0,0 +1,188 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * ExchangeRateHistory - Time series of exchange rates per currency.
+ * For each currency ID it keeps parallel arrays of epoch days and rates (units of the
+ * currency per 1 CNY), sorted by day, so the rate in effect on a date is found by binary search.
+ * Instances are immutable once built; reloading creates a new history.
+ */
+public class ExchangeRateHistory {
+
+    // Sorted epoch days and matching rates, indexed by currency ID; null when a currency has no history
+    private final int[][] days;
+    private final double[][] rates;
+
+    private ExchangeRateHistory(int[][] days, double[][] rates) {
+        this.days = days;
+        this.rates = rates;
+    }
+
+    /**
+     * Creates an empty history
+     * @param currencyCount Number of currency IDs
+     * @return An empty history
+     */
+    public static ExchangeRateHistory empty(int currencyCount) {
+        return new ExchangeRateHistory(new int[currencyCount][], new double[currencyCount][]);
+    }
+
+    /**
+     * Checks whether a currency has any historical rates
+     * @param currencyId The currency ID
+     * @return True if rates are available
+     */
+    public boolean hasRates(int currencyId) {
+        return days[currencyId] != null;
+    }
+
+    /**
+     * Gets the number of rates stored for a currency
+     * @param currencyId The currency ID
+     * @return The number of rates
+     */
+    public int size(int currencyId) {
+        return days[currencyId] == null ? 0 : days[currencyId].length;
+    }
+
+    /**
+     * Gets the rate in effect on a day: the latest rate on or before that day,
+     * or the earliest known rate for days before the history starts
+     * @param currencyId The currency ID
+     * @param epochDay The day (LocalDate.toEpochDay())
+     * @return The rate relative to CNY, or NaN if the currency has no history
+     */
+    public double getRate(int currencyId, long epochDay) {
+        int[] currencyDays = days[currencyId];
+        if (currencyDays == null) {
+            return Double.NaN;
+        }
+        int index = Arrays.binarySearch(currencyDays, (int) epochDay);
+        if (index < 0) {
+            // Insertion point - 1 is the last day before epochDay
+            index = Math.max(0, -index - 2);
+        }
+        return rates[currencyId][index];
+    }
+
+    /**
+     * Loads rates from a CSV file with lines of the form "date,currency,rate",
+     * e.g. "2024-01-31,USD,0.1392" meaning 1 CNY = 0.1392 USD on that date.
+     * Blank lines, lines starting with '#' and a header line are skipped.
+     * When a currency has several rates for the same day the last one wins.
+     *
+     * @param filePath Path to the rates file
+     * @param currencyCount Number of currency IDs
+     * @return The loaded history
+     * @throws IOException If the file cannot be read
+     */
+    public static ExchangeRateHistory load(String filePath, int currencyCount) throws IOException {
+        int[][] days = new int[currencyCount][];
+        double[][] rates = new double[currencyCount][];
+        int[] counts = new int[currencyCount];
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length < 3) {
+                    System.err.println("Skipping invalid exchange rate line " + lineNumber + ": " + line);
+                    continue;
+                }
+                try {
+                    // Parse the date first, so a header line is skipped before its currency is checked
+                    int day = (int) LocalDate.parse(parts[0].trim()).toEpochDay();
+                    int currencyId = CurrencyManager.getCurrencyIdByCode(parts[1].trim());
+                    if (currencyId < 0) {
+                        System.err.println("Skipping unsupported currency on line " + lineNumber + ": " + line);
+                        continue;
+                    }
+                    double rate = Double.parseDouble(parts[2].trim());
+                    if (!(rate > 0)) {
+                        throw new NumberFormatException("Rate must be positive");
+                    }
+
+                    // Append, growing the arrays as needed
+                    if (days[currencyId] == null) {
+                        days[currencyId] = new int[16];
+                        rates[currencyId] = new double[16];
+                    } else if (counts[currencyId] == days[currencyId].length) {
+                        days[currencyId] = Arrays.copyOf(days[currencyId], counts[currencyId] * 2);
+                        rates[currencyId] = Arrays.copyOf(rates[currencyId], counts[currencyId] * 2);
+                    }
+                    days[currencyId][counts[currencyId]] = day;
+                    rates[currencyId][counts[currencyId]] = rate;
+                    counts[currencyId]++;
+                } catch (DateTimeParseException | NumberFormatException e) {
+                    // The first line may be a header such as "Date,Currency,Rate"
+                    if (lineNumber > 1) {
+                        System.err.println("Skipping invalid exchange rate line " + lineNumber + ": " + line);
+                    }
+                }
+            }
+        }
+
+        for (int id = 0; id < currencyCount; id++) {
+            if (days[id] != null) {
+                sortAndCompact(days, rates, id, counts[id]);
+            }
+        }
+        return new ExchangeRateHistory(days, rates);
+    }
+
+    /**
+     * Sorts one currency's series by day (stable, so later lines win on duplicate days)
+     * and trims the arrays to size
+     */
+    private static void sortAndCompact(int[][] days, double[][] rates, int id, int count) {
+        int[] currencyDays = days[id];
+        double[] currencyRates = rates[id];
+
+        // Rate files are usually already in date order; only sort when needed
+        boolean sorted = true;
+        for (int i = 1; i < count && sorted; i++) {
+            sorted = currencyDays[i - 1] <= currencyDays[i];
+        }
+        if (!sorted) {
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(currencyDays[a], currencyDays[b]));
+            int[] sortedDays = new int[count];
+            double[] sortedRates = new double[count];
+            for (int i = 0; i < count; i++) {
+                sortedDays[i] = currencyDays[order[i]];
+                sortedRates[i] = currencyRates[order[i]];
+            }
+            System.arraycopy(sortedDays, 0, currencyDays, 0, count);
+            System.arraycopy(sortedRates, 0, currencyRates, 0, count);
+        }
+
+        // Drop duplicate days, keeping the last entry for each day
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique > 0 && currencyDays[unique - 1] == currencyDays[i]) {
+                currencyRates[unique - 1] = currencyRates[i];
+            } else {
+                currencyDays[unique] = currencyDays[i];
+                currencyRates[unique] = currencyRates[i];
+                unique++;
+            }
+        }
+        days[id] = Arrays.copyOf(currencyDays, unique);
+        rates[id] = Arrays.copyOf(currencyRates, unique);
+    }
+}
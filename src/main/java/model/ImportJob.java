@@ -0,0 +1,454 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ImportJob - A CSV import that can be interrupted and resumed.
+ *
+ * Rows are staged in batches; each batch is appended to the transactions file, added to the
+ * duplicate index and then recorded in a checkpoint holding the position in the source file
+ * and the row counts. If the application stops during an import, the job is found again with
+ * {@link #findUnfinished(String)} and either resumed from its last checkpoint with
+ * {@link #run(ProgressListener)} or rolled back with {@link #rollback()}. Rows of a batch that
+ * was written but not checkpointed are recognized by the duplicate index when resumed.
+ *
+ * Job state is kept in the {@value #JOBS_DIRECTORY} directory as &lt;jobId&gt;.job, with the
+ * keys of the checked rows in &lt;jobId&gt;.keys so identical rows keep their ordinals.
+ */
+public class ImportJob {
+
+    public static final String JOBS_DIRECTORY = "imports";
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        ROLLED_BACK
+    }
+
+    /**
+     * Receives progress updates after each committed batch, on the importing thread
+     */
+    public interface ProgressListener {
+        void onProgress(ImportJob job);
+    }
+
+    private static final DateTimeFormatter JOB_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    // IDs of the jobs running in this process; their files also say RUNNING, but they are not unfinished
+    private static final Set<String> ACTIVE_JOBS = ConcurrentHashMap.newKeySet();
+
+    private final String jobId;
+    private final String sourcePath;
+    private final long sourceLength;
+    private final long sourceModified;
+    private final String userId;
+    private final long storeStartLength;
+    private Status status = Status.RUNNING;
+
+    // Checkpoint
+    private long offset;
+    private int lineNumber;
+    private int recordIndex;
+    private int importedCount;
+    private int duplicateCount;
+    private int failedCount;
+    private int keyCount;
+    private long storeLength;
+    // True while a batch is being written; the transactions file may then be longer than storeLength
+    private boolean batchPending;
+
+    // Progress of the current run
+    private volatile boolean stopRequested;
+    private long runStartNanos;
+    private int runStartRows;
+    private long runStartBytes;
+    private long bytesRead;
+
+    private ImportJob(String jobId, String sourcePath, long sourceLength, long sourceModified, String userId,
+                      long storeStartLength) {
+        this.jobId = jobId;
+        this.sourcePath = sourcePath;
+        this.sourceLength = sourceLength;
+        this.sourceModified = sourceModified;
+        this.userId = userId;
+        this.storeStartLength = storeStartLength;
+        this.storeLength = storeStartLength;
+    }
+
+    /**
+     * Creates a job importing a CSV file for the current user. Call {@link #run} to import.
+     * @param filePath Path to the CSV file
+     * @return The new job, saved so it can be resumed
+     * @throws IOException If the job cannot be saved
+     */
+    public static ImportJob start(String filePath) throws IOException {
+        File source = new File(filePath).getAbsoluteFile();
+        User currentUser = UserManager.getInstance().getCurrentUser();
+        String userId = currentUser != null ? currentUser.getUsername() : "";
+        String jobId = "import-" + LocalDateTime.now().format(JOB_ID_FORMAT);
+        ImportJob job = new ImportJob(jobId, source.getPath(), source.length(), source.lastModified(), userId,
+                TransactionManager.getTransactionsFile().length());
+        job.save();
+        return job;
+    }
+
+    /**
+     * Finds the interrupted imports of a user
+     * @param userId The user ID
+     * @return The jobs that were started but not completed or rolled back, except those
+     *         running in this process
+     */
+    public static List<ImportJob> findUnfinished(String userId) {
+        List<ImportJob> jobs = new ArrayList<>();
+        File[] files = new File(JOBS_DIRECTORY).listFiles((dir, name) -> name.endsWith(".job"));
+        if (files == null) {
+            return jobs;
+        }
+        for (File file : files) {
+            try {
+                ImportJob job = load(file);
+                if (job.status == Status.RUNNING && job.userId.equals(userId) && !ACTIVE_JOBS.contains(job.jobId)) {
+                    jobs.add(job);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Skipping invalid import job: " + file.getName());
+            }
+        }
+        jobs.sort((a, b) -> a.jobId.compareTo(b.jobId));
+        return jobs;
+    }
+
+    /**
+     * Runs the import, starting from the last checkpoint if the job was interrupted
+     * @param listener Receives progress after each batch; may be null
+     * @return The counts of the whole job
+     * @throws TransactionManager.ImportException If the import fails or rows could not be imported
+     */
+    public TransactionManager.ImportResult run(ProgressListener listener) throws TransactionManager.ImportException {
+        if (status != Status.RUNNING) {
+            throw new TransactionManager.ImportException("Import " + jobId + " is already " + status.name().toLowerCase().replace('_', ' '));
+        }
+        File source = new File(sourcePath);
+        if (offset > 0 && (source.length() != sourceLength || source.lastModified() != sourceModified)) {
+            throw new TransactionManager.ImportException("The file " + sourcePath + " has changed since the import started. "
+                    + "Roll back this import and import the file again.");
+        }
+        if (!ACTIVE_JOBS.add(jobId)) {
+            throw new TransactionManager.ImportException("Import " + jobId + " is already running");
+        }
+        try {
+            stopRequested = false;
+            return TransactionManager.runImport(this, listener);
+        } finally {
+            ACTIVE_JOBS.remove(jobId);
+        }
+    }
+
+    /**
+     * Asks a running import to stop after its current batch; it can be resumed later
+     */
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    boolean isStopRequested() {
+        return stopRequested;
+    }
+
+    /**
+     * Removes every transaction this job added by cutting the transactions file back to its
+     * length before the import
+     * @throws IOException If transactions were saved after the import, or the file cannot be changed
+     */
+    public void rollback() throws IOException {
+        if (status == Status.ROLLED_BACK) {
+            return;
+        }
+        if (ACTIVE_JOBS.contains(jobId)) {
+            throw new IOException("This import is still running; pause it before rolling it back.");
+        }
+        File storeFile = TransactionManager.getTransactionsFile();
+        long length = storeFile.length();
+        if (length != storeLength && !(batchPending && length > storeLength)) {
+            throw new IOException("Transactions were added after this import, so it can no longer be rolled back.");
+        }
+        try (RandomAccessFile file = new RandomAccessFile(storeFile, "rw")) {
+            file.setLength(storeStartLength);
+        }
+        // The duplicate index no longer matches the file length and is rebuilt on the next import
+        BudgetAlertEngine.getInstance().reload();
+        status = Status.ROLLED_BACK;
+        save();
+        Files.deleteIfExists(getKeysFile().toPath());
+    }
+
+    /**
+     * Forgets an interrupted job, keeping the transactions it already imported
+     * @throws IOException If the job files cannot be deleted
+     */
+    public void discard() throws IOException {
+        Files.deleteIfExists(getKeysFile().toPath());
+        Files.deleteIfExists(getJobFile().toPath());
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getSourcePath() {
+        return sourcePath;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getImportedCount() {
+        return importedCount;
+    }
+
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Gets the number of rows processed so far, including duplicates and failed rows
+     */
+    public int getRowsProcessed() {
+        return importedCount + duplicateCount + failedCount;
+    }
+
+    public long getSourceLength() {
+        return sourceLength;
+    }
+
+    /**
+     * Gets how far the import has read into the source file
+     * @return The number of bytes read
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Gets the import speed of the current run
+     * @return Rows per second, or 0 before the first batch
+     */
+    public double getRowsPerSecond() {
+        double seconds = (System.nanoTime() - runStartNanos) / 1e9;
+        return seconds > 0 ? (getRowsProcessed() - runStartRows) / seconds : 0;
+    }
+
+    /**
+     * Estimates the time until the import finishes from the speed of the current run
+     * @return The remaining time in milliseconds, or -1 if not known yet
+     */
+    public long getEstimatedRemainingMillis() {
+        long elapsedNanos = System.nanoTime() - runStartNanos;
+        long bytesThisRun = bytesRead - runStartBytes;
+        if (bytesThisRun <= 0 || elapsedNanos <= 0) {
+            return -1;
+        }
+        long remainingBytes = Math.max(0, sourceLength - bytesRead);
+        return (long) (remainingBytes * (elapsedNanos / 1e6) / bytesThisRun);
+    }
+
+    long getOffset() {
+        return offset;
+    }
+
+    int getLineNumber() {
+        return lineNumber;
+    }
+
+    int getRecordIndex() {
+        return recordIndex;
+    }
+
+    /**
+     * Marks the start of a run for the speed and time estimates
+     * @param startBytes Bytes of the source already read when the run starts
+     */
+    void startRun(long startBytes) {
+        runStartNanos = System.nanoTime();
+        runStartRows = getRowsProcessed();
+        runStartBytes = startBytes;
+        bytesRead = startBytes;
+    }
+
+    void setBytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    /**
+     * Records that a batch is about to be written to the transactions file
+     */
+    void beginBatch() throws IOException {
+        batchPending = true;
+        save();
+    }
+
+    /**
+     * Records a committed batch
+     * @param offset Position in the source after the batch, in characters
+     * @param keys Keys of the rows checked in the batch
+     * @param count Number of keys
+     * @param storeLength Length of the transactions file after the batch
+     */
+    void checkpoint(long offset, int lineNumber, int recordIndex, int imported, int duplicates, int failed,
+                    long[] keys, int count, long storeLength) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getKeysFile(), true)))) {
+            for (int i = 0; i < count; i++) {
+                out.writeLong(keys[i]);
+            }
+        }
+        this.offset = offset;
+        this.lineNumber = lineNumber;
+        this.recordIndex = recordIndex;
+        this.importedCount = imported;
+        this.duplicateCount = duplicates;
+        this.failedCount = failed;
+        this.keyCount += count;
+        this.storeLength = storeLength;
+        this.batchPending = false;
+        save();
+    }
+
+    /**
+     * Marks the job as finished
+     */
+    void complete() throws IOException {
+        status = Status.COMPLETED;
+        save();
+        Files.deleteIfExists(getKeysFile().toPath());
+    }
+
+    /**
+     * Cuts the keys file back to the keys of the last checkpoint. Keys are appended before the
+     * checkpoint is saved, so a crash in between leaves keys of rows that are checked again
+     * when the job resumes; they must not stay in front of the keys written by the resumed run.
+     */
+    void trimKeys() throws IOException {
+        File keysFile = getKeysFile();
+        if (keysFile.exists() && keysFile.length() > keyCount * 8L) {
+            try (RandomAccessFile file = new RandomAccessFile(keysFile, "rw")) {
+                file.setLength(keyCount * 8L);
+            }
+        }
+    }
+
+    /**
+     * Reads the keys of the rows checked before the last checkpoint
+     */
+    long[] readKeys() throws IOException {
+        long[] keys = new long[keyCount];
+        if (keyCount == 0) {
+            return keys;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(getKeysFile())))) {
+            for (int i = 0; i < keyCount; i++) {
+                keys[i] = in.readLong();
+            }
+        }
+        return keys;
+    }
+
+    private File getJobFile() {
+        return new File(JOBS_DIRECTORY, jobId + ".job");
+    }
+
+    private File getKeysFile() {
+        return new File(JOBS_DIRECTORY, jobId + ".keys");
+    }
+
+    /**
+     * Writes the job state, replacing the previous state in one step
+     */
+    private void save() throws IOException {
+        File directory = new File(JOBS_DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+        Properties properties = new Properties();
+        properties.setProperty("jobId", jobId);
+        properties.setProperty("source", sourcePath);
+        properties.setProperty("sourceLength", String.valueOf(sourceLength));
+        properties.setProperty("sourceModified", String.valueOf(sourceModified));
+        properties.setProperty("userId", userId);
+        properties.setProperty("status", status.name());
+        properties.setProperty("offset", String.valueOf(offset));
+        properties.setProperty("lineNumber", String.valueOf(lineNumber));
+        properties.setProperty("recordIndex", String.valueOf(recordIndex));
+        properties.setProperty("imported", String.valueOf(importedCount));
+        properties.setProperty("duplicates", String.valueOf(duplicateCount));
+        properties.setProperty("failed", String.valueOf(failedCount));
+        properties.setProperty("keyCount", String.valueOf(keyCount));
+        properties.setProperty("storeStartLength", String.valueOf(storeStartLength));
+        properties.setProperty("storeLength", String.valueOf(storeLength));
+        properties.setProperty("batchPending", String.valueOf(batchPending));
+
+        File jobFile = getJobFile();
+        File tempFile = new File(directory, jobId + ".job.tmp");
+        try (OutputStream out = new FileOutputStream(tempFile)) {
+            properties.store(out, "Import job");
+        }
+        try {
+            Files.move(tempFile.toPath(), jobFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), jobFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static ImportJob load(File file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        }
+        ImportJob job = new ImportJob(
+                properties.getProperty("jobId"),
+                properties.getProperty("source"),
+                Long.parseLong(properties.getProperty("sourceLength")),
+                Long.parseLong(properties.getProperty("sourceModified")),
+                properties.getProperty("userId"),
+                Long.parseLong(properties.getProperty("storeStartLength")));
+        job.status = Status.valueOf(properties.getProperty("status"));
+        job.offset = Long.parseLong(properties.getProperty("offset"));
+        job.lineNumber = Integer.parseInt(properties.getProperty("lineNumber"));
+        job.recordIndex = Integer.parseInt(properties.getProperty("recordIndex"));
+        job.importedCount = Integer.parseInt(properties.getProperty("imported"));
+        job.duplicateCount = Integer.parseInt(properties.getProperty("duplicates"));
+        job.failedCount = Integer.parseInt(properties.getProperty("failed"));
+        job.keyCount = Integer.parseInt(properties.getProperty("keyCount"));
+        job.storeLength = Long.parseLong(properties.getProperty("storeLength"));
+        job.batchPending = Boolean.parseBoolean(properties.getProperty("batchPending"));
+        return job;
+    }
+}
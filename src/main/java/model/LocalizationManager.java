@@ -1,13 +1,20 @@
 package model;
 
+import java.text.MessageFormat;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * LocalizationManager - 管理应用程序的多语言支持
  * 提供不同语言的文本和资源
+ * 每种语言只在第一次使用时加载一次资源包，并按回退链（如 zh_CN → zh → en）
+ * 合并为一个不可变的快照，之后的查找只是一次哈希表查询，切换语言也无需重新加载。
  */
 public class LocalizationManager {
     
@@ -20,12 +27,34 @@ public class LocalizationManager {
     // 语言到Locale的映射
     private Map<String, Locale> locales;
     
-    // 当前资源包
-    private ResourceBundle resourceBundle;
+    // 当前语言的消息快照
+    private volatile MessageSnapshot currentSnapshot;
+    
+    // 已加载的消息快照（按Locale缓存）
+    private final Map<Locale, MessageSnapshot> snapshots = new ConcurrentHashMap<>();
     
     // 资源包基础名称
     private static final String BUNDLE_NAME = "i18n.messages";
     
+    // 最终回退语言
+    private static final Locale FALLBACK_LOCALE = Locale.ENGLISH;
+    
+    /**
+     * 某一语言的不可变消息快照
+     */
+    private static class MessageSnapshot {
+        // 合并了回退链后的全部消息
+        final Map<String, String> messages;
+        // 预编译的MessageFormat模板（按需创建）
+        final Map<String, MessageFormat> formats = new ConcurrentHashMap<>();
+        final Locale locale;
+        
+        MessageSnapshot(Locale locale, Map<String, String> messages) {
+            this.locale = locale;
+            this.messages = messages;
+        }
+    }
+    
     /**
      * 私有构造函数（单例模式）
      */
@@ -56,19 +85,58 @@ public class LocalizationManager {
     }
     
     /**
-     * 加载当前语言的资源包
+     * 切换到当前语言的消息快照（首次使用时构建）
      */
     private void loadResourceBundle() {
+        Locale locale = locales.get(currentLanguage);
+        if (locale == null) {
+            locale = FALLBACK_LOCALE; // 默认为英语
+        }
+        currentSnapshot = snapshots.computeIfAbsent(locale, LocalizationManager::buildSnapshot);
+    }
+    
+    /**
+     * 按回退链构建消息快照：先放入回退语言的消息，再由更具体的语言覆盖
+     * @param locale 目标Locale
+     * @return 消息快照
+     */
+    private static MessageSnapshot buildSnapshot(Locale locale) {
+        Map<String, String> messages = new HashMap<>();
+        
+        // 回退链，例如 zh_CN → zh → en → 基础资源包（合并时从最不具体的开始）
+        List<Locale> chain = ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_DEFAULT)
+                .getCandidateLocales(BUNDLE_NAME, locale);
+        mergeBundle(messages, Locale.ROOT);
+        if (!FALLBACK_LOCALE.getLanguage().equals(locale.getLanguage())) {
+            mergeBundle(messages, FALLBACK_LOCALE);
+        }
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            if (!Locale.ROOT.equals(chain.get(i))) {
+                mergeBundle(messages, chain.get(i));
+            }
+        }
+        
+        return new MessageSnapshot(locale, Collections.unmodifiableMap(messages));
+    }
+    
+    /**
+     * 将某个Locale自身的资源包（不含父资源包的回退）合并到消息表中
+     */
+    private static void mergeBundle(Map<String, String> messages, Locale locale) {
         try {
-            Locale locale = locales.get(currentLanguage);
-            if (locale == null) {
-                locale = Locale.ENGLISH; // 默认为英语
+            ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE_NAME, locale,
+                    ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_DEFAULT));
+            if (!bundle.getLocale().equals(locale)) {
+                return; // 该Locale没有自己的资源文件
+            }
+            for (String key : bundle.keySet()) {
+                Object value = bundle.getObject(key);
+                if (value instanceof String) {
+                    messages.put(key, (String) value);
+                }
             }
-            resourceBundle = ResourceBundle.getBundle(BUNDLE_NAME, locale);
-        } catch (Exception e) {
-            e.printStackTrace();
-            // 如果加载失败，使用默认语言
-            resourceBundle = ResourceBundle.getBundle(BUNDLE_NAME, Locale.ENGLISH);
+        } catch (MissingResourceException e) {
+            // 该Locale没有资源文件，使用回退链中的其他语言
         }
     }
     
@@ -93,10 +161,26 @@ public class LocalizationManager {
      * @return 本地化文本，如果键不存在则返回键名
      */
     public String getString(String key) {
-        try {
-            return resourceBundle.getString(key);
-        } catch (Exception e) {
-            return key; // 如果找不到键，返回键名本身
+        String value = currentSnapshot.messages.get(key);
+        return value != null ? value : key; // 如果找不到键，返回键名本身
+    }
+    
+    /**
+     * 获取指定键的本地化文本，并用参数填充其中的占位符（如 {0}）
+     * @param key 资源键
+     * @param args 占位符参数
+     * @return 格式化后的本地化文本，如果键不存在则返回键名
+     */
+    public String getString(String key, Object... args) {
+        MessageSnapshot snapshot = currentSnapshot;
+        String pattern = snapshot.messages.get(key);
+        if (pattern == null) {
+            return key;
+        }
+        MessageFormat format = snapshot.formats.computeIfAbsent(key, k -> new MessageFormat(pattern, snapshot.locale));
+        // MessageFormat不是线程安全的
+        synchronized (format) {
+            return format.format(args);
         }
     }
     
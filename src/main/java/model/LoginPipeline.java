@@ -0,0 +1,66 @@
+package model;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * LoginPipeline - Signs a user in without blocking the Swing event thread.
+ * The password check (a slow key derivation) runs on a background thread. After a successful
+ * login the user's transactions, budget totals and preferences are loaded in parallel, so the
+ * first screen opens without reading any files.
+ */
+public class LoginPipeline {
+
+    // Authentication plus the warm-up tasks that run at the same time
+    private static final int THREADS = 3;
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(THREADS, task -> {
+        Thread thread = new Thread(task, "login-pipeline");
+        // Never keep the application alive after the last window closes
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private LoginPipeline() {
+    }
+
+    /**
+     * Checks the user's password in the background
+     * @param username The username
+     * @param password The plain password
+     * @return A future completing with the signed-in user, or null if the credentials are wrong
+     */
+    public static CompletableFuture<User> authenticate(String username, String password) {
+        UserManager userManager = UserManager.getInstance();
+        return CompletableFuture.supplyAsync(() ->
+                userManager.authenticateUser(username, password) ? userManager.getCurrentUser() : null, executor);
+    }
+
+    /**
+     * Loads what the first screens need for a signed-in user. Transactions and preferences load
+     * in parallel; the budget totals are built from the loaded transactions once they are ready.
+     * A failing task is reported and does not fail the others, since every screen can still load
+     * its data itself.
+     * @param user The signed-in user
+     * @return A future completing when all data is loaded
+     */
+    public static CompletableFuture<Void> warmUp(User user) {
+        CompletableFuture<Void> transactions = CompletableFuture
+                .runAsync(TransactionManager::loadTransactions, executor)
+                .thenRunAsync(() -> BudgetAlertEngine.getInstance().ensureInitialized(), executor)
+                .exceptionally(e -> report("transactions", e));
+        CompletableFuture<Void> preferences = CompletableFuture
+                .runAsync(() -> {
+                    CurrencyManager.getInstance();
+                    NotificationManager.getInstance().applyUserNotificationPreferences(user);
+                }, executor)
+                .exceptionally(e -> report("preferences", e));
+        return CompletableFuture.allOf(transactions, preferences);
+    }
+
+    private static Void report(String task, Throwable e) {
+        System.err.println("Could not preload " + task + ": " + e.getMessage());
+        return null;
+    }
+}
@@ -1,8 +1,7 @@
 package model;
 
 import javax.swing.*;
-import java.awt.*;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,16 +24,20 @@ public class NotificationManager {
     // 用户通知偏好 (默认全部开启)
     private Map<String, Boolean> notificationPreferences;
     
-    // 通知历史记录
-    private List<Notification> notificationHistory;
+    // 通知历史持久化文件
+    private static final String NOTIFICATIONS_FILE = "notifications.txt";
     
-    // 待处理的通知
-    private List<Notification> pendingNotifications;
+    // 通知历史记录及待处理通知（有界存储）
+    private final NotificationStore notificationStore;
+    
+    // 通知弹窗调度（限流、合并和弹窗复用）
+    private final NotificationToastDispatcher toastDispatcher;
     
     /**
      * 通知内部类
      */
     public static class Notification {
+        public long id;
         public String type;
         public String title;
         public String message;
@@ -55,15 +58,18 @@ public class NotificationManager {
      */
     private NotificationManager() {
         initializePreferences();
-        notificationHistory = new ArrayList<>();
-        pendingNotifications = new ArrayList<>();
+        notificationStore = new NotificationStore();
+        toastDispatcher = new NotificationToastDispatcher(notificationStore);
+        // 启动时恢复上次的通知历史，退出时保存
+        loadNotificationHistory();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::saveNotificationHistory, "notification-history-save"));
     }
     
     /**
      * 获取NotificationManager的单例实例
      * @return NotificationManager实例
      */
-    public static NotificationManager getInstance() {
+    public static synchronized NotificationManager getInstance() {
         if (instance == null) {
             instance = new NotificationManager();
         }
@@ -112,8 +118,7 @@ public class NotificationManager {
         Notification notification = new Notification(type, title, message);
         
         // 添加到历史记录和待处理列表
-        notificationHistory.add(notification);
-        pendingNotifications.add(notification);
+        notificationStore.add(notification);
         
         // 如果当前正在运行UI，则显示通知
         showNotification(notification);
@@ -123,83 +128,51 @@ public class NotificationManager {
     
     /**
      * 显示通知
+     * 同一类型的突发通知会被限流并合并显示，弹窗从固定大小的弹窗池中复用
      * @param notification 要显示的通知
      */
     private void showNotification(Notification notification) {
-        // 创建通知UI
-        SwingUtilities.invokeLater(() -> {
-            try {
-                // 创建通知窗口
-                JDialog notificationDialog = new JDialog();
-                notificationDialog.setUndecorated(true);
-                notificationDialog.setAlwaysOnTop(true);
-                notificationDialog.setSize(300, 100);
-                
-                // 放置在屏幕右下角
-                Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
-                notificationDialog.setLocation(
-                    screenSize.width - notificationDialog.getWidth() - 20,
-                    screenSize.height - notificationDialog.getHeight() - 20
-                );
-                
-                // 通知内容面板
-                JPanel contentPanel = new JPanel(new BorderLayout());
-                contentPanel.setBorder(BorderFactory.createLineBorder(new Color(52, 152, 219), 2));
-                contentPanel.setBackground(Color.WHITE);
-                
-                // 标题和关闭按钮
-                JPanel titlePanel = new JPanel(new BorderLayout());
-                titlePanel.setBackground(new Color(52, 152, 219));
-                
-                JLabel titleLabel = new JLabel(notification.title);
-                titleLabel.setForeground(Color.WHITE);
-                titleLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
-                
-                JButton closeButton = new JButton("×");
-                closeButton.setForeground(Color.WHITE);
-                closeButton.setBackground(new Color(52, 152, 219));
-                closeButton.setBorderPainted(false);
-                closeButton.setFocusPainted(false);
-                closeButton.addActionListener(e -> {
-                    notificationDialog.dispose();
-                    notification.isRead = true;
-                    pendingNotifications.remove(notification);
-                });
-                
-                titlePanel.add(titleLabel, BorderLayout.CENTER);
-                titlePanel.add(closeButton, BorderLayout.EAST);
-                
-                // 消息内容
-                JLabel messageLabel = new JLabel("<html>" + notification.message + "</html>");
-                messageLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-                
-                contentPanel.add(titlePanel, BorderLayout.NORTH);
-                contentPanel.add(messageLabel, BorderLayout.CENTER);
-                
-                notificationDialog.add(contentPanel);
-                notificationDialog.setVisible(true);
-                
-                // 自动关闭定时器（5秒后）
-                Timer timer = new Timer(5000, e -> {
-                    notificationDialog.dispose();
-                    notification.isRead = true;
-                    pendingNotifications.remove(notification);
-                });
-                timer.setRepeats(false);
-                timer.start();
-                
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        });
-    }
-    
-    /**
-     * 获取通知历史记录
+        SwingUtilities.invokeLater(() -> toastDispatcher.submit(notification));
+    }
+    
+    /**
+     * 设置某类型通知的弹窗限流间隔，间隔内的通知会合并为一条显示
+     * @param type 通知类型
+     * @param minIntervalMillis 最小间隔（毫秒），0表示不限流
+     */
+    public void setNotificationRateLimit(String type, int minIntervalMillis) {
+        SwingUtilities.invokeLater(() -> toastDispatcher.setMinInterval(type, minIntervalMillis));
+    }
+    
+    /**
+     * 获取通知历史记录（从旧到新，最多保留最近 {@link NotificationStore#DEFAULT_CAPACITY} 条）
      * @return 通知历史列表
      */
     public List<Notification> getNotificationHistory() {
-        return new ArrayList<>(notificationHistory);
+        List<Notification> history = notificationStore.getPage(0, notificationStore.size());
+        Collections.reverse(history);
+        return history;
+    }
+    
+    /**
+     * 分页获取通知历史记录（从新到旧）
+     * @param offset 跳过的通知数
+     * @param limit 每页数量
+     * @return 通知列表
+     */
+    public List<Notification> getNotificationHistory(int offset, int limit) {
+        return notificationStore.getPage(offset, limit);
+    }
+    
+    /**
+     * 按类型分页获取通知历史记录（从新到旧）
+     * @param type 通知类型
+     * @param offset 跳过的通知数
+     * @param limit 每页数量
+     * @return 通知列表
+     */
+    public List<Notification> getNotificationHistory(String type, int offset, int limit) {
+        return notificationStore.getPage(type, offset, limit);
     }
     
     /**
@@ -207,7 +180,24 @@ public class NotificationManager {
      * @return 待处理通知列表
      */
     public List<Notification> getPendingNotifications() {
-        return new ArrayList<>(pendingNotifications);
+        return notificationStore.getPending();
+    }
+    
+    /**
+     * 获取未读通知数量
+     * @return 未读通知数量
+     */
+    public int getUnreadCount() {
+        return notificationStore.pendingCount();
+    }
+    
+    /**
+     * 将指定通知标记为已读
+     * @param notificationId 通知ID
+     * @return 是否成功标记
+     */
+    public boolean markNotificationAsRead(long notificationId) {
+        return notificationStore.markAsRead(notificationId);
     }
     
     /**
@@ -230,19 +220,32 @@ public class NotificationManager {
     }
     
     /**
-     * 清空通知历史
+     * 清空通知历史（包括待处理通知）
      */
     public void clearNotificationHistory() {
-        notificationHistory.clear();
+        notificationStore.clear();
     }
     
     /**
      * 将所有待处理通知标记为已读
      */
     public void markAllNotificationsAsRead() {
-        for (Notification notification : pendingNotifications) {
-            notification.isRead = true;
-        }
-        pendingNotifications.clear();
+        notificationStore.markAllAsRead();
+    }
+    
+    /**
+     * 保存通知历史到文件
+     * @return 是否成功保存
+     */
+    public boolean saveNotificationHistory() {
+        return notificationStore.save(NOTIFICATIONS_FILE);
+    }
+    
+    /**
+     * 从文件加载通知历史，替换当前的通知历史
+     * @return 是否成功加载
+     */
+    public boolean loadNotificationHistory() {
+        return notificationStore.load(NOTIFICATIONS_FILE);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,329 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NotificationStore - 有界的通知存储
+ * 使用环形缓冲区保存最近的通知历史，超出容量时自动淘汰最旧的通知，
+ * 并维护按类型的索引和按ID的待处理通知表，使标记已读和分页查询无需扫描全部历史。
+ */
+public class NotificationStore {
+
+    // 默认历史容量
+    public static final int DEFAULT_CAPACITY = 200;
+
+    // 环形缓冲区
+    private final NotificationManager.Notification[] ring;
+    private int head = 0;  // 最旧通知的位置
+    private int size = 0;
+
+    // 按类型的索引（从旧到新）
+    private final Map<String, ArrayDeque<NotificationManager.Notification>> typeIndex = new HashMap<>();
+
+    // 待处理（未读）通知，按ID索引，保持插入顺序
+    private final LinkedHashMap<Long, NotificationManager.Notification> pending = new LinkedHashMap<>();
+
+    // 下一个通知ID
+    private long nextId = 1;
+
+    /**
+     * 使用默认容量创建存储
+     */
+    public NotificationStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 创建指定容量的存储
+     * @param capacity 历史容量
+     */
+    public NotificationStore(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        ring = new NotificationManager.Notification[capacity];
+    }
+
+    /**
+     * 添加通知，为其分配ID；容量已满时淘汰最旧的通知
+     * @param notification 通知
+     * @return 分配的通知ID
+     */
+    public synchronized long add(NotificationManager.Notification notification) {
+        notification.id = nextId++;
+
+        if (size == ring.length) {
+            evictOldest();
+        }
+        ring[(head + size) % ring.length] = notification;
+        size++;
+
+        typeIndex.computeIfAbsent(notification.type, k -> new ArrayDeque<>()).addLast(notification);
+        if (!notification.isRead) {
+            pending.put(notification.id, notification);
+        }
+        return notification.id;
+    }
+
+    /**
+     * 淘汰最旧的通知并同步更新索引
+     */
+    private void evictOldest() {
+        NotificationManager.Notification oldest = ring[head];
+        ring[head] = null;
+        head = (head + 1) % ring.length;
+        size--;
+
+        // 最旧的通知必定也是其类型索引中的第一个
+        ArrayDeque<NotificationManager.Notification> byType = typeIndex.get(oldest.type);
+        if (byType != null) {
+            byType.pollFirst();
+            if (byType.isEmpty()) {
+                typeIndex.remove(oldest.type);
+            }
+        }
+        pending.remove(oldest.id);
+    }
+
+    /**
+     * 将指定ID的通知标记为已读
+     * @param id 通知ID
+     * @return 该通知是否处于待处理状态
+     */
+    public synchronized boolean markAsRead(long id) {
+        NotificationManager.Notification notification = pending.remove(id);
+        if (notification == null) {
+            return false;
+        }
+        notification.isRead = true;
+        return true;
+    }
+
+    /**
+     * 将某类型中ID不大于指定值的待处理通知标记为已读（用于合并显示的通知）
+     * @param type 通知类型
+     * @param maxId 最大通知ID
+     */
+    public synchronized void markAsReadUpTo(String type, long maxId) {
+        Iterator<NotificationManager.Notification> it = pending.values().iterator();
+        while (it.hasNext()) {
+            NotificationManager.Notification notification = it.next();
+            if (notification.id > maxId) {
+                break;
+            }
+            if (notification.type.equals(type)) {
+                notification.isRead = true;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * 将所有待处理通知标记为已读
+     */
+    public synchronized void markAllAsRead() {
+        for (NotificationManager.Notification notification : pending.values()) {
+            notification.isRead = true;
+        }
+        pending.clear();
+    }
+
+    /**
+     * 分页查询通知历史（从新到旧）
+     * @param offset 跳过的通知数
+     * @param limit 最多返回的通知数
+     * @return 通知列表
+     */
+    public synchronized List<NotificationManager.Notification> getPage(int offset, int limit) {
+        List<NotificationManager.Notification> page = new ArrayList<>();
+        if (offset < 0 || limit <= 0) {
+            return page;
+        }
+        for (int i = size - 1 - offset; i >= 0 && page.size() < limit; i--) {
+            page.add(ring[(head + i) % ring.length]);
+        }
+        return page;
+    }
+
+    /**
+     * 按类型分页查询通知历史（从新到旧）
+     * @param type 通知类型
+     * @param offset 跳过的通知数
+     * @param limit 最多返回的通知数
+     * @return 通知列表
+     */
+    public synchronized List<NotificationManager.Notification> getPage(String type, int offset, int limit) {
+        ArrayDeque<NotificationManager.Notification> byType = typeIndex.get(type);
+        if (byType == null || offset < 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<NotificationManager.Notification> page = new ArrayList<>();
+        Iterator<NotificationManager.Notification> it = byType.descendingIterator();
+        int skipped = 0;
+        while (it.hasNext() && page.size() < limit) {
+            NotificationManager.Notification notification = it.next();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add(notification);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * 获取所有待处理通知（从旧到新）
+     * @return 待处理通知列表
+     */
+    public synchronized List<NotificationManager.Notification> getPending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * 获取历史中的通知数量
+     * @return 通知数量
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 获取某类型的通知数量
+     * @param type 通知类型
+     * @return 通知数量
+     */
+    public synchronized int size(String type) {
+        ArrayDeque<NotificationManager.Notification> byType = typeIndex.get(type);
+        return byType == null ? 0 : byType.size();
+    }
+
+    /**
+     * 获取待处理通知数量
+     * @return 待处理通知数量
+     */
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 获取历史容量
+     * @return 容量
+     */
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * 清空通知历史（包括待处理通知）
+     */
+    public synchronized void clear() {
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = null;
+        }
+        head = 0;
+        size = 0;
+        typeIndex.clear();
+        pending.clear();
+    }
+
+    /**
+     * 将通知历史保存到文件
+     * 格式（每行一条）：type\ttimestamp\tisRead\ttitle\tmessage
+     * @param filePath 文件路径
+     * @return 是否成功保存
+     */
+    public synchronized boolean save(String filePath) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            for (int i = 0; i < size; i++) {
+                NotificationManager.Notification n = ring[(head + i) % ring.length];
+                writer.write(escape(n.type) + "\t" + n.timestamp + "\t" + n.isRead + "\t"
+                        + escape(n.title) + "\t" + escape(n.message));
+                writer.newLine();
+            }
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * 从文件加载通知历史，替换当前存储中的全部通知（读取失败时保持不变）
+     * @param filePath 文件路径
+     * @return 是否成功加载
+     */
+    public synchronized boolean load(String filePath) {
+        File file = new File(filePath);
+        if (!file.exists()) {
+            return false;
+        }
+        List<NotificationManager.Notification> loaded = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", -1);
+                if (parts.length != 5) {
+                    System.err.println("Skipping invalid notification: " + line);
+                    continue;
+                }
+                try {
+                    NotificationManager.Notification n = new NotificationManager.Notification(
+                            unescape(parts[0]), unescape(parts[3]), unescape(parts[4]));
+                    n.timestamp = Long.parseLong(parts[1]);
+                    n.isRead = Boolean.parseBoolean(parts[2]);
+                    loaded.add(n);
+                } catch (NumberFormatException e) {
+                    System.err.println("Skipping invalid notification: " + line);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        clear();
+        for (NotificationManager.Notification n : loaded) {
+            add(n);
+        }
+        return true;
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't': sb.append('\t'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    default: sb.append(next); break;
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,281 @@
+package model;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NotificationToastDispatcher - 通知弹窗调度器
+ * 按通知类型限流并合并突发通知（例如导入时的大量交易提醒会合并为一条"N new transaction alerts"摘要，文本来自资源包），
+ * 并复用一个小型弹窗池，避免为每条通知创建新的窗口、面板和定时器。
+ * 除构造函数外，所有方法都必须在事件分发线程（EDT）上调用；限流与合并逻辑（admit、drain）
+ * 使用传入的时间而不创建窗口，可以在没有显示器的环境中测试。
+ */
+class NotificationToastDispatcher {
+
+    // 同一类型两次弹窗之间的默认最小间隔（毫秒）
+    static final int DEFAULT_MIN_INTERVAL_MS = 3000;
+
+    // 弹窗池大小（同时显示的最大弹窗数）
+    private static final int POOL_SIZE = 3;
+
+    // 弹窗自动关闭时间（毫秒）
+    private static final int DISPLAY_MS = 5000;
+
+    private static final int TOAST_WIDTH = 300;
+    private static final int TOAST_HEIGHT = 100;
+    private static final Color THEME_COLOR = new Color(52, 152, 219);
+
+    // 合并通知摘要文本在资源包中的键
+    private static final Map<String, String> SUMMARY_KEYS;
+    private static final String DEFAULT_SUMMARY_KEY = "notification.summary.other";
+    private static final String LATEST_KEY = "notification.summary.latest";
+
+    static {
+        Map<String, String> keys = new HashMap<>();
+        keys.put(NotificationManager.TRANSACTION_ALERT, "notification.summary.transaction");
+        keys.put(NotificationManager.BUDGET_ALERT, "notification.summary.budget");
+        keys.put(NotificationManager.BILL_REMINDER, "notification.summary.bill");
+        keys.put(NotificationManager.FINANCIAL_TIP, "notification.summary.tip");
+        SUMMARY_KEYS = Collections.unmodifiableMap(keys);
+    }
+
+    private final NotificationStore store;
+
+    // 各类型的限流间隔和合并状态
+    private final Map<String, Integer> minIntervals = new HashMap<>();
+    private final Map<String, TypeState> typeStates = new HashMap<>();
+
+    // 可复用的弹窗
+    private final List<Toast> pool = new ArrayList<>();
+
+    /**
+     * 单个类型的合并状态
+     */
+    private static class TypeState {
+        long lastShownAt;
+        int suppressedCount;
+        NotificationManager.Notification latest;
+        Timer flushTimer;
+    }
+
+    NotificationToastDispatcher(NotificationStore store) {
+        this.store = store;
+    }
+
+    /**
+     * 设置某类型的最小弹窗间隔
+     * @param type 通知类型
+     * @param minIntervalMillis 最小间隔（毫秒），0表示不限流
+     */
+    void setMinInterval(String type, int minIntervalMillis) {
+        minIntervals.put(type, Math.max(0, minIntervalMillis));
+    }
+
+    /**
+     * 提交一条通知：限流窗口外立即显示，窗口内则合并到窗口结束时统一显示
+     * @param notification 通知
+     */
+    void submit(NotificationManager.Notification notification) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (admit(notification, now)) {
+            display(notification.type, notification.title, notification.message, notification.id);
+            return;
+        }
+
+        // 限流窗口内：在窗口结束时显示合并后的通知
+        String type = notification.type;
+        TypeState state = typeStates.get(type);
+        if (state.flushTimer == null) {
+            state.flushTimer = new Timer(getMinInterval(type), e -> flush(type));
+            state.flushTimer.setRepeats(false);
+        }
+        if (!state.flushTimer.isRunning()) {
+            state.flushTimer.setInitialDelay((int) Math.max(0, state.lastShownAt + getMinInterval(type) - now));
+            state.flushTimer.restart();
+        }
+    }
+
+    private int getMinInterval(String type) {
+        return minIntervals.getOrDefault(type, DEFAULT_MIN_INTERVAL_MS);
+    }
+
+    /**
+     * 限流判断：限流窗口外的通知应立即显示；窗口内只记录数量和最新一条通知
+     * @param notification 通知
+     * @param now 当前时间（毫秒）
+     * @return 是否立即显示
+     */
+    boolean admit(NotificationManager.Notification notification, long now) {
+        TypeState state = typeStates.computeIfAbsent(notification.type, k -> new TypeState());
+        if (state.suppressedCount == 0 && now - state.lastShownAt >= getMinInterval(notification.type)) {
+            state.lastShownAt = now;
+            return true;
+        }
+        state.suppressedCount++;
+        state.latest = notification;
+        return false;
+    }
+
+    /**
+     * 取出某类型在限流窗口内积累的通知，多条时合并为一条摘要
+     * @param type 通知类型
+     * @param now 当前时间（毫秒）
+     * @return 要显示的通知，没有积累的通知时返回null
+     */
+    NotificationManager.Notification drain(String type, long now) {
+        TypeState state = typeStates.get(type);
+        if (state == null || state.suppressedCount == 0) {
+            return null;
+        }
+        NotificationManager.Notification shown = state.latest;
+        if (state.suppressedCount > 1) {
+            LocalizationManager localization = LocalizationManager.getInstance();
+            String message = localization.getString(SUMMARY_KEYS.getOrDefault(type, DEFAULT_SUMMARY_KEY), state.suppressedCount)
+                    + "<br>" + localization.getString(LATEST_KEY, state.latest.message);
+            shown = new NotificationManager.Notification(type, state.latest.title, message);
+            shown.id = state.latest.id;
+        }
+        state.suppressedCount = 0;
+        state.latest = null;
+        state.lastShownAt = now;
+        return shown;
+    }
+
+    /**
+     * 显示限流窗口内积累的通知
+     */
+    private void flush(String type) {
+        NotificationManager.Notification shown = drain(type, System.currentTimeMillis());
+        if (shown != null) {
+            display(shown.type, shown.title, shown.message, shown.id);
+        }
+    }
+
+    /**
+     * 从弹窗池取出一个弹窗显示内容
+     */
+    private void display(String type, String title, String message, long lastNotificationId) {
+        try {
+            Toast toast = acquireToast();
+            toast.show(type, title, message, lastNotificationId);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 获取空闲弹窗；池未满时创建新弹窗，否则复用最早显示的弹窗
+     */
+    private Toast acquireToast() {
+        Toast oldest = null;
+        for (Toast toast : pool) {
+            if (!toast.dialog.isVisible()) {
+                return toast;
+            }
+            if (oldest == null || toast.shownAt < oldest.shownAt) {
+                oldest = toast;
+            }
+        }
+        if (pool.size() < POOL_SIZE) {
+            Toast toast = new Toast(pool.size());
+            pool.add(toast);
+            return toast;
+        }
+        // 被复用的弹窗上的通知视为已读
+        oldest.markRead();
+        return oldest;
+    }
+
+    /**
+     * 可复用的通知弹窗
+     */
+    private class Toast {
+        final JDialog dialog;
+        final JLabel titleLabel;
+        final JLabel messageLabel;
+        final Timer hideTimer;
+        String type;
+        long lastNotificationId;
+        long shownAt;
+
+        Toast(int slot) {
+            dialog = new JDialog();
+            dialog.setUndecorated(true);
+            dialog.setAlwaysOnTop(true);
+            dialog.setSize(TOAST_WIDTH, TOAST_HEIGHT);
+
+            // 放置在屏幕右下角，按槽位向上堆叠
+            Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+            dialog.setLocation(
+                screenSize.width - TOAST_WIDTH - 20,
+                screenSize.height - (TOAST_HEIGHT + 10) * (slot + 1) - 10
+            );
+
+            // 通知内容面板
+            JPanel contentPanel = new JPanel(new BorderLayout());
+            contentPanel.setBorder(BorderFactory.createLineBorder(THEME_COLOR, 2));
+            contentPanel.setBackground(Color.WHITE);
+
+            // 标题和关闭按钮
+            JPanel titlePanel = new JPanel(new BorderLayout());
+            titlePanel.setBackground(THEME_COLOR);
+
+            titleLabel = new JLabel();
+            titleLabel.setForeground(Color.WHITE);
+            titleLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+
+            JButton closeButton = new JButton("×");
+            closeButton.setForeground(Color.WHITE);
+            closeButton.setBackground(THEME_COLOR);
+            closeButton.setBorderPainted(false);
+            closeButton.setFocusPainted(false);
+            closeButton.addActionListener(e -> hide());
+
+            titlePanel.add(titleLabel, BorderLayout.CENTER);
+            titlePanel.add(closeButton, BorderLayout.EAST);
+
+            // 消息内容
+            messageLabel = new JLabel();
+            messageLabel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+            contentPanel.add(titlePanel, BorderLayout.NORTH);
+            contentPanel.add(messageLabel, BorderLayout.CENTER);
+            dialog.add(contentPanel);
+
+            // 自动关闭定时器，每次显示时重启
+            hideTimer = new Timer(DISPLAY_MS, e -> hide());
+            hideTimer.setRepeats(false);
+        }
+
+        void show(String type, String title, String message, long lastNotificationId) {
+            this.type = type;
+            this.lastNotificationId = lastNotificationId;
+            this.shownAt = System.currentTimeMillis();
+            titleLabel.setText(title);
+            messageLabel.setText("<html>" + message + "</html>");
+            dialog.setVisible(true);
+            hideTimer.restart();
+        }
+
+        void hide() {
+            hideTimer.stop();
+            dialog.setVisible(false);
+            markRead();
+        }
+
+        void markRead() {
+            if (type != null) {
+                store.markAsReadUpTo(type, lastNotificationId);
+            }
+        }
+    }
+}
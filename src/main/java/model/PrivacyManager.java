@@ -1,10 +1,12 @@
 package model;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -29,14 +31,25 @@ public class PrivacyManager {
     // 隐私设置状态
     private Map<String, Boolean> privacySettings;
 
-    // 存储用户活动中的数值数据，用于计算平均值和峰值
-    private List<Double> userActivityValues = new ArrayList<>();
+    // 活动统计数据的持久化文件
+    private static final String ACTIVITY_STATS_FILE = "activity_stats.txt";
+
+    // 每种活动类型的流式统计草图（固定内存），用于计算平均值、峰值和分位数
+    private final Map<String, ActivitySketch> activitySketches = new HashMap<>();
+
+    // 是否已合并磁盘上的历史统计数据
+    private boolean statisticsLoaded = false;
+
+    // 本次会话是否记录了尚未保存的统计数据
+    private boolean statisticsChanged = false;
 
     /**
      * 私有构造函数（单例模式）
      */
     private PrivacyManager() {
         initializeSettings();
+        // 退出时保存本次会话记录的活动统计数据
+        Runtime.getRuntime().addShutdownHook(new Thread(this::saveChangedStatistics, "activity-stats-save"));
     }
 
     /**
@@ -82,6 +95,25 @@ public class PrivacyManager {
         }
     }
 
+    /**
+     * 检查某项数据收集是否被允许
+     * @param setting 隐私设置项
+     * @return 是否允许
+     */
+    public boolean isDataCollectionAllowed(String setting) {
+        Boolean allowed = privacySettings.get(setting);
+        return allowed != null && allowed;
+    }
+
+    /**
+     * 设置某项数据收集是否被允许
+     * @param setting 隐私设置项
+     * @param allowed 是否允许
+     */
+    public void setDataCollectionAllowed(String setting, boolean allowed) {
+        privacySettings.put(setting, allowed);
+    }
+
     /**
      * 检查是否允许数据分析
      * @return 是否允许数据分析
@@ -216,27 +248,33 @@ public boolean isPushNotificationsAllowed() {
  * @param details 活动详情
  * @return 是否成功记录
  */
-public boolean logUserActivity(String activityType, Map<String, Object> details) {
+public synchronized boolean logUserActivity(String activityType, Map<String, Object> details) {
     // 检查是否允许数据分析
     if (!isDataAnalyticsAllowed()) {
         return false;
     }
 
     // 尝试从详情中提取数值数据
+    ActivitySketch sketch = null;
     if (details != null && details.containsKey("value")) {
         Object valueObj = details.get("value");
         if (valueObj instanceof Number) {
+            // 先合并之前会话的统计，使分析结果覆盖全部历史
+            loadActivityStatistics();
             double value = ((Number) valueObj).doubleValue();
-            userActivityValues.add(value);
+            sketch = activitySketches.computeIfAbsent(activityType, k -> new ActivitySketch());
+            sketch.add(value);
+            statisticsChanged = true;
         }
     }
 
     try (FileWriter writer = new FileWriter("user_activity.log", true)) {
         writer.write("活动类型: " + activityType + ", 详情: " + details + "\n");
-        if (!userActivityValues.isEmpty()) {
-            double average = calculateAverage();
-            double peak = calculatePeak();
-            writer.write("数据分析 - 平均值: " + average + ", 峰值: " + peak + "\n");
+        if (sketch != null) {
+            writer.write("数据分析 - 平均值: " + sketch.getAverage() + ", 峰值: " + sketch.getPeak()
+                    + ", p50: " + sketch.getQuantile(0.50)
+                    + ", p95: " + sketch.getQuantile(0.95)
+                    + ", p99: " + sketch.getQuantile(0.99) + "\n");
         }
         return true;
     } catch (IOException e) {
@@ -271,13 +309,16 @@ public boolean logUserActivity(String activityType, Map<String, Object> details)
      * @param username 用户名
      * @return 是否成功删除
      */
-    public boolean deleteAllUserData(String username) {
+    public synchronized boolean deleteAllUserData(String username) {
         if (username == null || username.isEmpty()) {
             return false;
         }
 
-        // 清空存储的用户活动数值数据
-        userActivityValues.clear();
+        // 清空内存和磁盘上的活动统计数据
+        activitySketches.clear();
+        new File(ACTIVITY_STATS_FILE).delete();
+        statisticsLoaded = true;
+        statisticsChanged = false;
 
         System.out.println("删除用户数据: " + username);
         return true;
@@ -305,34 +346,100 @@ public boolean logUserActivity(String activityType, Map<String, Object> details)
     }
 
     /**
-     * 计算用户活动数值数据的平均值
-     * @return 平均值
+     * 获取指定活动类型的统计草图
+     * @param activityType 活动类型
+     * @return 统计草图，没有记录过数值时返回null
+     */
+    public synchronized ActivitySketch getActivityStatistics(String activityType) {
+        return activitySketches.get(activityType);
+    }
+
+    /**
+     * 获取所有活动类型合并后的统计草图
+     * @return 合并后的统计草图
      */
-    private double calculateAverage() {
-        if (userActivityValues.isEmpty()) {
-            return 0;
+    public synchronized ActivitySketch getOverallActivityStatistics() {
+        ActivitySketch overall = new ActivitySketch();
+        for (ActivitySketch sketch : activitySketches.values()) {
+            overall.merge(sketch);
         }
-        double sum = 0;
-        for (double value : userActivityValues) {
-            sum += value;
+        return overall;
+    }
+
+    /**
+     * 将活动统计数据（包括已加载的历史会话数据）保存到磁盘
+     * @return 是否成功保存
+     */
+    public synchronized boolean saveActivityStatistics() {
+        if (!isDataRetentionAllowed()) {
+            return false;
+        }
+
+        // 先合并磁盘上的历史数据，避免覆盖之前会话的统计
+        loadActivityStatistics();
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(ACTIVITY_STATS_FILE))) {
+            for (Map.Entry<String, ActivitySketch> entry : activitySketches.entrySet()) {
+                writer.write(entry.getKey() + "\t" + entry.getValue().toFileString());
+                writer.newLine();
+            }
+            statisticsChanged = false;
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
         }
-        return sum / userActivityValues.size();
     }
 
     /**
-     * 计算用户活动数值数据的峰值
-     * @return 峰值
+     * 保存本次会话中有变化的活动统计数据（由退出钩子调用）
      */
-    private double calculatePeak() {
-        if (userActivityValues.isEmpty()) {
-            return 0;
+    private synchronized void saveChangedStatistics() {
+        if (statisticsChanged) {
+            saveActivityStatistics();
         }
-        double peak = userActivityValues.get(0);
-        for (double value : userActivityValues) {
-            if (value > peak) {
-                peak = value;
+    }
+
+    /**
+     * 从磁盘加载历史会话的活动统计数据，并合并到当前会话（每个会话只加载一次）
+     */
+    public synchronized void loadActivityStatistics() {
+        if (statisticsLoaded) {
+            return;
+        }
+        for (Map.Entry<String, ActivitySketch> entry : readActivityStatistics().entrySet()) {
+            activitySketches.computeIfAbsent(entry.getKey(), k -> new ActivitySketch()).merge(entry.getValue());
+        }
+        statisticsLoaded = true;
+    }
+
+    /**
+     * 读取活动统计文件
+     * @return 活动类型到统计草图的映射
+     */
+    private Map<String, ActivitySketch> readActivityStatistics() {
+        Map<String, ActivitySketch> result = new HashMap<>();
+        File file = new File(ACTIVITY_STATS_FILE);
+        if (!file.exists()) {
+            return result;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab <= 0) {
+                    continue;
+                }
+                try {
+                    result.put(line.substring(0, tab), ActivitySketch.fromFileString(line.substring(tab + 1)));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping invalid activity statistics: " + line);
+                }
             }
+        } catch (IOException e) {
+            e.printStackTrace();
         }
-        return peak;
+        return result;
     }
 }
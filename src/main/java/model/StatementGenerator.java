@@ -0,0 +1,304 @@
+package model;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.ExceptionConverter;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.ColumnText;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfPageEventHelper;
+import com.itextpdf.text.pdf.PdfWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * StatementGenerator - Creates monthly PDF statements for users.
+ * A statement lists the month's transactions in a paginated table followed by per-category
+ * subtotals. Transactions are streamed from the transaction file and the finished rows are
+ * written out as pages fill up, so memory use depends only on the number of categories,
+ * not on the length of the statement.
+ *
+ * Statements for all users can be generated in parallel without a display:
+ * <pre>
+ * java -cp ... model.StatementGenerator 2024-01 [outputDirectory] [threads]
+ * </pre>
+ */
+public class StatementGenerator {
+
+    public static final String STATEMENTS_DIRECTORY = "statements";
+
+    // Rows added to the table before the finished part is written out
+    private static final int ROWS_PER_FLUSH = 100;
+
+    private static final Font TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD);
+    private static final Font SUBTITLE_FONT = new Font(Font.FontFamily.HELVETICA, 11);
+    private static final Font HEADER_FONT = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD);
+    private static final Font CELL_FONT = new Font(Font.FontFamily.HELVETICA, 9);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    /**
+     * Writes one user's statement for a month
+     * @param user The user
+     * @param month The statement month
+     * @param out The stream to write the PDF to; closed when the statement is finished or fails
+     * @return The number of transactions on the statement
+     * @throws IOException If the transactions cannot be read
+     * @throws DocumentException If the PDF cannot be written
+     */
+    public static int generateStatement(User user, YearMonth month, OutputStream out)
+            throws IOException, DocumentException {
+        String currency = user.getCurrency() != null ? user.getCurrency() : CurrencyManager.CNY;
+        CurrencyManager currencyManager = CurrencyManager.getInstance();
+
+        Document document = new Document(PageSize.A4, 36, 36, 36, 54);
+        int[] count = {0};
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setPageEvent(new PageFooter(user.getUsername() + " - " + month));
+            document.open();
+
+            Paragraph title = new Paragraph("Monthly Statement", TITLE_FONT);
+            title.setAlignment(Element.ALIGN_CENTER);
+            document.add(title);
+            Paragraph subtitle = new Paragraph(user.getUsername() + "   |   " + month.atDay(1).format(DATE_FORMAT)
+                    + " to " + month.atEndOfMonth().format(DATE_FORMAT) + "   |   " + currency, SUBTITLE_FONT);
+            subtitle.setAlignment(Element.ALIGN_CENTER);
+            subtitle.setSpacingAfter(16);
+            document.add(subtitle);
+
+            PdfPTable table = new PdfPTable(new float[] {2f, 5f, 3f, 2.5f});
+            table.setWidthPercentage(100);
+            table.setHeaderRows(1);
+            table.setComplete(false);
+            addHeaderCell(table, "Date");
+            addHeaderCell(table, "Description");
+            addHeaderCell(table, "Category");
+            addHeaderCell(table, "Amount");
+
+            // Per-category [total, count]; bounded by the number of categories
+            Map<String, double[]> subtotals = new TreeMap<>();
+            LocalDate first = month.atDay(1);
+            LocalDate last = month.atEndOfMonth();
+            StringBuilder amountText = new StringBuilder();
+
+            try {
+                // Rows of other users and months are skipped by the reader without being parsed.
+                // Old format rows have no owner, so they are left off every user's statement.
+                TransactionManager.query().forUser(user.getUsername()).ownedOnly().between(first, last).forEach(transaction -> {
+                    LocalDate date = transaction.getDate();
+                    double amount = currencyManager.convert(transaction.getAmount(), CurrencyManager.CNY, currency, date);
+                    table.addCell(new Phrase(date.format(DATE_FORMAT), CELL_FONT));
+                    table.addCell(new Phrase(transaction.getDescription(), CELL_FONT));
+                    table.addCell(new Phrase(transaction.getCategory(), CELL_FONT));
+                    amountText.setLength(0);
+                    currencyManager.appendFormatted(amountText, amount, currency);
+                    table.addCell(createAmountCell(amountText.toString(), CELL_FONT));
+
+                    double[] subtotal = subtotals.computeIfAbsent(transaction.getCategory(), k -> new double[2]);
+                    subtotal[0] += amount;
+                    subtotal[1]++;
+
+                    // Write out the finished rows; the table keeps only what has not been written yet
+                    if (++count[0] % ROWS_PER_FLUSH == 0) {
+                        try {
+                            document.add(table);
+                        } catch (DocumentException e) {
+                            throw new ExceptionConverter(e);
+                        }
+                    }
+                });
+            } catch (ExceptionConverter e) {
+                if (e.getException() instanceof DocumentException) {
+                    throw (DocumentException) e.getException();
+                }
+                throw e;
+            }
+
+            if (count[0] == 0) {
+                PdfPCell empty = new PdfPCell(new Phrase("No transactions this month", CELL_FONT));
+                empty.setColspan(4);
+                empty.setHorizontalAlignment(Element.ALIGN_CENTER);
+                table.addCell(empty);
+            }
+            table.setComplete(true);
+            document.add(table);
+
+            addSubtotals(document, subtotals, count[0], currency);
+        } finally {
+            // Closing the document closes the stream too, but only once the writer was created
+            try {
+                if (document.isOpen()) {
+                    document.close();
+                }
+            } finally {
+                out.close();
+            }
+        }
+        return count[0];
+    }
+
+    /**
+     * Writes one user's statement for a month to a file named statement_&lt;user&gt;_&lt;yyyy-MM&gt;.pdf
+     * @param user The user
+     * @param month The statement month
+     * @param directory The directory to write to (created if needed)
+     * @return The statement file
+     * @throws IOException If the transactions cannot be read or the file cannot be written
+     * @throws DocumentException If the PDF cannot be written
+     */
+    public static File generateStatement(User user, YearMonth month, File directory)
+            throws IOException, DocumentException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+        String safeName = user.getUsername().replaceAll("[^A-Za-z0-9._-]", "_");
+        File file = new File(directory, "statement_" + safeName + "_" + month + ".pdf");
+        generateStatement(user, month, new BufferedOutputStream(new FileOutputStream(file)));
+        return file;
+    }
+
+    /**
+     * Generates the month's statements for every registered user in parallel.
+     * A failure for one user is reported and does not stop the others.
+     * @param month The statement month
+     * @param directory The directory to write to
+     * @param threads Number of statements generated at the same time
+     * @return The number of statements written
+     */
+    public static int generateAllStatements(YearMonth month, File directory, int threads) {
+        List<User> users = new ArrayList<>(UserManager.getInstance().getAllUsers().values());
+        // Initialize shared singletons before the worker threads use them
+        CurrencyManager.getInstance();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<File>> results = new ArrayList<>();
+            for (User user : users) {
+                results.add(executor.submit(() -> generateStatement(user, month, directory)));
+            }
+
+            int written = 0;
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    File file = results.get(i).get();
+                    System.out.println("Wrote " + file.getPath());
+                    written++;
+                } catch (ExecutionException e) {
+                    System.err.println("Failed to generate statement for " + users.get(i).getUsername()
+                            + ": " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return written;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds the per-category subtotal table and the statement total
+     */
+    private static void addSubtotals(Document document, Map<String, double[]> subtotals, int count, String currency)
+            throws DocumentException {
+        CurrencyManager currencyManager = CurrencyManager.getInstance();
+
+        Paragraph heading = new Paragraph("Category Subtotals", HEADER_FONT);
+        heading.setSpacingBefore(16);
+        heading.setSpacingAfter(8);
+        document.add(heading);
+
+        PdfPTable table = new PdfPTable(new float[] {5f, 2f, 2.5f});
+        table.setWidthPercentage(70);
+        table.setHorizontalAlignment(Element.ALIGN_LEFT);
+        table.setHeaderRows(1);
+        addHeaderCell(table, "Category");
+        addHeaderCell(table, "Transactions");
+        addHeaderCell(table, "Subtotal");
+
+        double total = 0;
+        for (Map.Entry<String, double[]> entry : subtotals.entrySet()) {
+            double[] subtotal = entry.getValue();
+            table.addCell(new Phrase(entry.getKey(), CELL_FONT));
+            table.addCell(createAmountCell(String.valueOf((int) subtotal[1]), CELL_FONT));
+            table.addCell(createAmountCell(currencyManager.format(subtotal[0], currency), CELL_FONT));
+            total += subtotal[0];
+        }
+        table.addCell(new Phrase("Total", HEADER_FONT));
+        table.addCell(createAmountCell(String.valueOf(count), HEADER_FONT));
+        table.addCell(createAmountCell(currencyManager.format(total, currency), HEADER_FONT));
+        document.add(table);
+    }
+
+    private static void addHeaderCell(PdfPTable table, String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, HEADER_FONT));
+        cell.setGrayFill(0.9f);
+        table.addCell(cell);
+    }
+
+    private static PdfPCell createAmountCell(String text, Font font) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, font));
+        cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        return cell;
+    }
+
+    /**
+     * Writes the statement name and page number at the bottom of every page
+     */
+    private static class PageFooter extends PdfPageEventHelper {
+        private final String label;
+
+        PageFooter(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public void onEndPage(PdfWriter writer, Document document) {
+            Rectangle page = document.getPageSize();
+            ColumnText.showTextAligned(writer.getDirectContent(), Element.ALIGN_LEFT,
+                    new Phrase(label, CELL_FONT), document.leftMargin(), 30, 0);
+            ColumnText.showTextAligned(writer.getDirectContent(), Element.ALIGN_RIGHT,
+                    new Phrase("Page " + writer.getPageNumber(), CELL_FONT),
+                    page.getWidth() - document.rightMargin(), 30, 0);
+        }
+    }
+
+    /**
+     * Headless batch mode: generates statements for all users
+     * @param args month (yyyy-MM, default last month), output directory, number of threads
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        YearMonth month = args.length > 0 ? YearMonth.parse(args[0]) : YearMonth.now().minusMonths(1);
+        File directory = new File(args.length > 1 ? args[1] : STATEMENTS_DIRECTORY);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.currentTimeMillis();
+        int written = generateAllStatements(month, directory, threads);
+        System.out.println("Generated " + written + " statements for " + month + " in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+}
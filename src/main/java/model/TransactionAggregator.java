@@ -0,0 +1,400 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TransactionAggregator - Time-bucketed aggregation of transactions for charts.
+ * The transactions are copied once into parallel arrays sorted by date, so a date range is
+ * located by binary search and summed into day, week, month or year buckets in a single pass.
+ * Long series can be reduced to a fixed number of points with downsampling, which keeps the
+ * overall shape (peaks and troughs) while limiting what a chart has to draw.
+ */
+public class TransactionAggregator {
+
+    /**
+     * Bucket size for time series
+     */
+    public enum Granularity {
+        DAY, WEEK, MONTH, YEAR;
+
+        /**
+         * Gets the first day of the bucket containing a day
+         * @param epochDay The day (LocalDate.toEpochDay())
+         * @return The first day of its bucket
+         */
+        public long bucketStart(long epochDay) {
+            switch (this) {
+                case DAY:
+                    return epochDay;
+                case WEEK:
+                    // Weeks start on Monday; 1970-01-01 was a Thursday
+                    return epochDay - Math.floorMod(epochDay + 3, 7);
+                case MONTH:
+                    return LocalDate.ofEpochDay(epochDay).withDayOfMonth(1).toEpochDay();
+                default:
+                    return LocalDate.ofEpochDay(epochDay).withDayOfYear(1).toEpochDay();
+            }
+        }
+
+        /**
+         * Gets the first day of the bucket after the one starting on a day
+         * @param bucketStart The first day of a bucket
+         * @return The first day of the next bucket
+         */
+        public long nextBucket(long bucketStart) {
+            switch (this) {
+                case DAY:
+                    return bucketStart + 1;
+                case WEEK:
+                    return bucketStart + 7;
+                case MONTH:
+                    return LocalDate.ofEpochDay(bucketStart).plusMonths(1).toEpochDay();
+                default:
+                    return LocalDate.ofEpochDay(bucketStart).plusYears(1).toEpochDay();
+            }
+        }
+
+        /**
+         * Estimates the number of buckets needed to cover a date range
+         * @param from First day of the range
+         * @param to Last day of the range
+         * @return The approximate bucket count
+         */
+        public long estimateBuckets(LocalDate from, LocalDate to) {
+            switch (this) {
+                case DAY:
+                    return ChronoUnit.DAYS.between(from, to) + 1;
+                case WEEK:
+                    return ChronoUnit.WEEKS.between(from, to) + 1;
+                case MONTH:
+                    return ChronoUnit.MONTHS.between(from.withDayOfMonth(1), to) + 1;
+                default:
+                    return to.getYear() - from.getYear() + 1;
+            }
+        }
+
+        /**
+         * Formats a bucket for display and export, e.g. "2024-01-15", "2024-01" or "2024"
+         * @param bucketStart The first day of the bucket
+         * @return The bucket label
+         */
+        public String label(long bucketStart) {
+            LocalDate date = LocalDate.ofEpochDay(bucketStart);
+            switch (this) {
+                case MONTH:
+                    return date.toString().substring(0, 7);
+                case YEAR:
+                    return String.valueOf(date.getYear());
+                default:
+                    return date.toString();
+            }
+        }
+    }
+
+    /**
+     * A time series of bucket totals, ordered by bucket start day
+     */
+    public static class Series {
+        private final Granularity granularity;
+        private final long[] bucketDays;
+        private final double[] totals;
+        private final int[] counts;
+
+        Series(Granularity granularity, long[] bucketDays, double[] totals, int[] counts) {
+            this.granularity = granularity;
+            this.bucketDays = bucketDays;
+            this.totals = totals;
+            this.counts = counts;
+        }
+
+        public Granularity getGranularity() {
+            return granularity;
+        }
+
+        public int size() {
+            return bucketDays.length;
+        }
+
+        /**
+         * Gets the first day of a bucket
+         * @param index The bucket index
+         * @return The epoch day
+         */
+        public long getBucketDay(int index) {
+            return bucketDays[index];
+        }
+
+        /**
+         * Gets the total amount of a bucket
+         * @param index The bucket index
+         * @return The total
+         */
+        public double getTotal(int index) {
+            return totals[index];
+        }
+
+        /**
+         * Gets the number of transactions in a bucket
+         * @param index The bucket index
+         * @return The transaction count
+         */
+        public int getCount(int index) {
+            return counts[index];
+        }
+
+        /**
+         * Gets the display label of a bucket
+         * @param index The bucket index
+         * @return The label
+         */
+        public String getLabel(int index) {
+            return granularity.label(bucketDays[index]);
+        }
+
+        /**
+         * Reduces the series to at most maxPoints points with the Largest-Triangle-Three-Buckets
+         * algorithm: the first and last points are kept, and from each of the remaining
+         * equally sized groups the point forming the largest triangle with its neighbours is kept.
+         * @param maxPoints Maximum number of points (at least 3)
+         * @return This series if it is already small enough, otherwise a downsampled copy
+         */
+        public Series downsample(int maxPoints) {
+            int size = size();
+            if (maxPoints < 3 || size <= maxPoints) {
+                return this;
+            }
+
+            long[] sampledDays = new long[maxPoints];
+            double[] sampledTotals = new double[maxPoints];
+            int[] sampledCounts = new int[maxPoints];
+
+            double groupSize = (double) (size - 2) / (maxPoints - 2);
+            int selected = 0;
+            sampledDays[0] = bucketDays[0];
+            sampledTotals[0] = totals[0];
+            sampledCounts[0] = counts[0];
+
+            for (int group = 0; group < maxPoints - 2; group++) {
+                // Average of the next group is the third corner of the triangle
+                int nextStart = (int) ((group + 1) * groupSize) + 1;
+                int nextEnd = Math.min((int) ((group + 2) * groupSize) + 1, size);
+                double averageX = 0;
+                double averageY = 0;
+                for (int i = nextStart; i < nextEnd; i++) {
+                    averageX += bucketDays[i];
+                    averageY += totals[i];
+                }
+                int nextLength = nextEnd - nextStart;
+                averageX /= nextLength;
+                averageY /= nextLength;
+
+                int start = (int) (group * groupSize) + 1;
+                int end = (int) ((group + 1) * groupSize) + 1;
+                double selectedX = bucketDays[selected];
+                double selectedY = totals[selected];
+                double maxArea = -1;
+                int maxIndex = start;
+                for (int i = start; i < end; i++) {
+                    double area = Math.abs((selectedX - averageX) * (totals[i] - selectedY)
+                            - (selectedX - bucketDays[i]) * (averageY - selectedY));
+                    if (area > maxArea) {
+                        maxArea = area;
+                        maxIndex = i;
+                    }
+                }
+
+                sampledDays[group + 1] = bucketDays[maxIndex];
+                sampledTotals[group + 1] = totals[maxIndex];
+                sampledCounts[group + 1] = counts[maxIndex];
+                selected = maxIndex;
+            }
+
+            sampledDays[maxPoints - 1] = bucketDays[size - 1];
+            sampledTotals[maxPoints - 1] = totals[size - 1];
+            sampledCounts[maxPoints - 1] = counts[size - 1];
+            return new Series(granularity, sampledDays, sampledTotals, sampledCounts);
+        }
+    }
+
+    // Transactions sorted by date, as parallel arrays
+    private final long[] days;
+    private final double[] amounts;
+    private final int[] categoryIds;
+    private final String[] categories;
+
+    /**
+     * Creates an aggregator over a list of transactions
+     * @param transactions The transactions, in any order
+     */
+    public TransactionAggregator(List<Transaction> transactions) {
+        int size = transactions.size();
+
+        // Sort on primitive keys (day in the high bits, original index in the low bits)
+        // instead of comparing LocalDate objects; ties keep their original order
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (transactions.get(i).getDate().toEpochDay() << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        days = new long[size];
+        amounts = new double[size];
+        categoryIds = new int[size];
+        Map<String, Integer> categoryIndex = new HashMap<>();
+        List<String> categoryNames = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Transaction transaction = transactions.get((int) keys[i]);
+            days[i] = keys[i] >> 32;
+            amounts[i] = transaction.getAmount();
+            Integer id = categoryIndex.get(transaction.getCategory());
+            if (id == null) {
+                id = categoryNames.size();
+                categoryIndex.put(transaction.getCategory(), id);
+                categoryNames.add(transaction.getCategory());
+            }
+            categoryIds[i] = id;
+        }
+        categories = categoryNames.toArray(new String[0]);
+    }
+
+    /**
+     * Checks whether there are no transactions
+     * @return True if empty
+     */
+    public boolean isEmpty() {
+        return days.length == 0;
+    }
+
+    /**
+     * Gets the date of the earliest transaction
+     * @return The date, or null if there are no transactions
+     */
+    public LocalDate getFirstDate() {
+        return isEmpty() ? null : LocalDate.ofEpochDay(days[0]);
+    }
+
+    /**
+     * Gets the date of the latest transaction
+     * @return The date, or null if there are no transactions
+     */
+    public LocalDate getLastDate() {
+        return isEmpty() ? null : LocalDate.ofEpochDay(days[days.length - 1]);
+    }
+
+    /**
+     * Sums the transactions in a date range into buckets. Buckets without transactions
+     * are included with a total of zero so the series has no gaps.
+     * @param from First day of the range (inclusive)
+     * @param to Last day of the range (inclusive)
+     * @param granularity The bucket size
+     * @return The series of bucket totals
+     */
+    public Series aggregate(LocalDate from, LocalDate to, Granularity granularity) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        if (toDay < fromDay) {
+            return new Series(granularity, new long[0], new double[0], new int[0]);
+        }
+
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, granularity.estimateBuckets(from, to) + 1);
+        long[] bucketDays = new long[capacity];
+        double[] totals = new double[capacity];
+        int[] counts = new int[capacity];
+
+        int index = lowerBound(fromDay);
+        int end = lowerBound(toDay + 1);
+        int bucket = 0;
+        for (long start = granularity.bucketStart(fromDay); start <= toDay; start = granularity.nextBucket(start)) {
+            long next = granularity.nextBucket(start);
+            double total = 0;
+            int count = 0;
+            while (index < end && days[index] < next) {
+                total += amounts[index];
+                count++;
+                index++;
+            }
+            if (bucket == bucketDays.length) {
+                bucketDays = Arrays.copyOf(bucketDays, bucket * 2);
+                totals = Arrays.copyOf(totals, bucket * 2);
+                counts = Arrays.copyOf(counts, bucket * 2);
+            }
+            bucketDays[bucket] = start;
+            totals[bucket] = total;
+            counts[bucket] = count;
+            bucket++;
+        }
+
+        return new Series(granularity, Arrays.copyOf(bucketDays, bucket),
+                Arrays.copyOf(totals, bucket), Arrays.copyOf(counts, bucket));
+    }
+
+    /**
+     * Sums the transactions in a date range per category
+     * @param from First day of the range (inclusive)
+     * @param to Last day of the range (inclusive)
+     * @return Map of category to total, ordered from the largest total to the smallest
+     */
+    public Map<String, Double> categoryTotals(LocalDate from, LocalDate to) {
+        double[] totals = new double[categories.length];
+        boolean[] present = new boolean[categories.length];
+        int end = lowerBound(to.toEpochDay() + 1);
+        for (int i = lowerBound(from.toEpochDay()); i < end; i++) {
+            totals[categoryIds[i]] += amounts[i];
+            present[categoryIds[i]] = true;
+        }
+
+        List<Integer> order = new ArrayList<>();
+        for (int id = 0; id < categories.length; id++) {
+            if (present[id]) {
+                order.add(id);
+            }
+        }
+        order.sort((a, b) -> Double.compare(totals[b], totals[a]));
+
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int id : order) {
+            result.put(categories[id], totals[id]);
+        }
+        return result;
+    }
+
+    /**
+     * Chooses the finest granularity whose series over a range has at most maxPoints buckets
+     * @param from First day of the range
+     * @param to Last day of the range
+     * @param maxPoints Maximum number of buckets
+     * @return The granularity (YEAR if even that exceeds maxPoints)
+     */
+    public static Granularity chooseGranularity(LocalDate from, LocalDate to, int maxPoints) {
+        for (Granularity granularity : Granularity.values()) {
+            if (granularity.estimateBuckets(from, to) <= maxPoints) {
+                return granularity;
+            }
+        }
+        return Granularity.YEAR;
+    }
+
+    /**
+     * Finds the index of the first transaction on or after a day
+     */
+    private int lowerBound(long epochDay) {
+        int low = 0;
+        int high = days.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,276 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * TransactionIndex - One user's transactions with secondary indexes for date and category queries.
+ * Each transaction gets a row ID, its position in file order. The date index keeps the row IDs
+ * sorted by epoch day, so a date range is found with two binary searches; the category index
+ * keeps a posting list of row IDs per category. Both are updated as transactions are added,
+ * so the indexes never need to be rebuilt while the application appends to the store.
+ * Transactions added out of date order are sorted into the date index once, by the next query.
+ * Descriptions are also added to a {@link DescriptionIndex} for full-text search.
+ */
+class TransactionIndex {
+
+    private final List<Transaction> rows = new ArrayList<>();
+
+    // Epoch day and row ID of each row packed as day << 32 | row, so sorting the entries orders
+    // rows by date and keeps rows with the same date in file order
+    private long[] entries = new long[64];
+    private boolean sorted = true;
+
+    private final Map<String, Postings> categories = new HashMap<>();
+
+    private final DescriptionIndex descriptions = new DescriptionIndex();
+
+    /**
+     * Adds a transaction as the next row
+     * @param transaction The transaction
+     */
+    void add(Transaction transaction) {
+        int row = rows.size();
+        rows.add(transaction);
+
+        if (row == entries.length) {
+            entries = Arrays.copyOf(entries, row * 2);
+        }
+        long entry = transaction.getDate().toEpochDay() << 32 | row;
+        // New transactions are usually the latest, which keeps the entries sorted
+        if (row > 0 && entry < entries[row - 1]) {
+            sorted = false;
+        }
+        entries[row] = entry;
+
+        categories.computeIfAbsent(transaction.getCategory(), category -> new Postings()).add(row);
+        descriptions.add(row, transaction.getDescription());
+    }
+
+    /**
+     * Gets the number of transactions
+     */
+    int size() {
+        return rows.size();
+    }
+
+    /**
+     * Gets all transactions in file order
+     * @return A new list
+     */
+    List<Transaction> getAll() {
+        return new ArrayList<>(rows);
+    }
+
+    /**
+     * Finds the transactions in a date range
+     * @param from The first date (inclusive), or null for no lower bound
+     * @param to The last date (inclusive), or null for no upper bound
+     * @return The transactions ordered by date
+     */
+    List<Transaction> findByDateRange(LocalDate from, LocalDate to) {
+        sortDates();
+        int start = from != null ? lowerBound(from.toEpochDay()) : 0;
+        int end = to != null ? lowerBound(to.toEpochDay() + 1) : rows.size();
+        List<Transaction> result = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            result.add(rows.get(row(entries[i])));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the transactions of a category in a date range, reading whichever index
+     * selects fewer rows and checking the other condition on those rows only
+     * @param category The category
+     * @param from The first date (inclusive), or null for no lower bound
+     * @param to The last date (inclusive), or null for no upper bound
+     * @return The transactions in file order
+     */
+    List<Transaction> findByCategory(String category, LocalDate from, LocalDate to) {
+        Postings postings = categories.get(category);
+        if (postings == null) {
+            return new ArrayList<>();
+        }
+        sortDates();
+        int start = from != null ? lowerBound(from.toEpochDay()) : 0;
+        // A reversed range selects nothing
+        int end = Math.max(start, to != null ? lowerBound(to.toEpochDay() + 1) : rows.size());
+        List<Transaction> result = new ArrayList<>();
+        if (end - start < postings.size) {
+            // The date range is smaller; restore file order afterwards
+            int[] matches = new int[end - start];
+            int count = 0;
+            for (int i = start; i < end; i++) {
+                int row = row(entries[i]);
+                if (rows.get(row).getCategory().equals(category)) {
+                    matches[count++] = row;
+                }
+            }
+            Arrays.sort(matches, 0, count);
+            for (int i = 0; i < count; i++) {
+                result.add(rows.get(matches[i]));
+            }
+        } else {
+            long fromDay = from != null ? from.toEpochDay() : Long.MIN_VALUE;
+            long toDay = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+            for (int i = 0; i < postings.size; i++) {
+                Transaction transaction = rows.get(postings.rows[i]);
+                long day = transaction.getDate().toEpochDay();
+                if (day >= fromDay && day <= toDay) {
+                    result.add(transaction);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the transactions whose descriptions match a search
+     * @param query The search text; see {@link DescriptionIndex} for how it is matched
+     * @return The matching transactions in file order, or all transactions for an empty query
+     */
+    List<Transaction> search(String query) {
+        BitSet matches = descriptions.search(query);
+        if (matches == null) {
+            return getAll();
+        }
+        List<Transaction> result = new ArrayList<>(matches.cardinality());
+        for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+            result.add(rows.get(row));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the transactions matching a query. The candidate rows come from the description
+     * search if the query has one, otherwise from the category postings or the date range,
+     * whichever holds fewer rows; only the candidates are checked against the other filters.
+     * @param query The query; its user is not checked
+     * @param action Called for each matching transaction, in file order
+     */
+    void select(TransactionQuery query, Consumer<? super Transaction> action) {
+        if (query.getText() != null) {
+            BitSet matches = descriptions.search(query.getText());
+            if (matches != null) {
+                for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+                    acceptRow(query, row, action);
+                }
+                return;
+            }
+        }
+
+        sortDates();
+        LocalDate from = query.getFrom();
+        LocalDate to = query.getTo();
+        int start = from != null ? lowerBound(from.toEpochDay()) : 0;
+        int end = to != null ? Math.max(start, lowerBound(to.toEpochDay() + 1)) : rows.size();
+        int[] candidates;
+        int count = 0;
+        if (query.getCategories() != null && categoryRows(query.getCategories()) < end - start) {
+            candidates = new int[categoryRows(query.getCategories())];
+            for (String category : query.getCategories()) {
+                Postings postings = categories.get(category);
+                if (postings != null) {
+                    System.arraycopy(postings.rows, 0, candidates, count, postings.size);
+                    count += postings.size;
+                }
+            }
+        } else if (start == 0 && end == rows.size()) {
+            for (int row = 0; row < rows.size(); row++) {
+                acceptRow(query, row, action);
+            }
+            return;
+        } else {
+            candidates = new int[end - start];
+            for (int i = start; i < end; i++) {
+                candidates[count++] = row(entries[i]);
+            }
+        }
+        // Restore file order
+        Arrays.sort(candidates, 0, count);
+        for (int i = 0; i < count; i++) {
+            acceptRow(query, candidates[i], action);
+        }
+    }
+
+    private void acceptRow(TransactionQuery query, int row, Consumer<? super Transaction> action) {
+        Transaction transaction = rows.get(row);
+        if (query.accepts(transaction)) {
+            action.accept(transaction);
+        }
+    }
+
+    private int categoryRows(Set<String> wanted) {
+        int count = 0;
+        for (String category : wanted) {
+            Postings postings = categories.get(category);
+            if (postings != null) {
+                count += postings.size;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the categories that have transactions
+     * @return A new list, in no particular order
+     */
+    List<String> getCategories() {
+        return new ArrayList<>(categories.keySet());
+    }
+
+    /**
+     * Sorts transactions added out of date order into the date index
+     */
+    private void sortDates() {
+        if (!sorted) {
+            Arrays.sort(entries, 0, rows.size());
+            sorted = true;
+        }
+    }
+
+    /**
+     * Finds the first position in the date index whose day is at least the given day
+     */
+    private int lowerBound(long day) {
+        long key = day << 32;
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int row(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Ascending row IDs of one category
+     */
+    private static class Postings {
+        private int[] rows = new int[16];
+        private int size;
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+    }
+}
@@ -1,105 +1,344 @@
 package model;
 
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 public class TransactionManager {
     private static final String TRANSACTIONS_FILE = "transactions.txt";
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final DateTimeFormatter CN_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd");
-    // Additional date formats for better bank compatibility
-    private static final DateTimeFormatter[] SUPPORTED_DATE_FORMATS = {
-        DATE_FORMATTER,                                      // yyyy-MM-dd
-        CN_DATE_FORMATTER,                                   // yyyy/MM/dd
-        DateTimeFormatter.ofPattern("MM/dd/yyyy"),           // MM/dd/yyyy
-        DateTimeFormatter.ofPattern("dd/MM/yyyy"),           // dd/MM/yyyy
-        DateTimeFormatter.ofPattern("yyyy.MM.dd"),           // yyyy.MM.dd
-        DateTimeFormatter.ofPattern("MMM dd, yyyy"),         // Jan 01, 2023
-        DateTimeFormatter.ofPattern("dd-MMM-yyyy")           // 01-Jan-2023
-    };
+    private static final String DUPLICATE_INDEX_FILE = "transactions.idx";
+    // Rows staged before they are written and checkpointed together
+    private static final int IMPORT_BATCH_SIZE = 1000;
     
-    // CSV delimiter patterns
-    private static final String[] POSSIBLE_DELIMITERS = {",", ";", "\t", "\\|"};
+    // The last loaded user's transactions and their indexes, reused while the transactions
+    // file is unchanged and updated when this class appends to it
+    private static String cachedUserId;
+    private static long cachedLength = -1;
+    private static long cachedModified;
+    private static TransactionIndex cachedIndex;
     
     public static void saveTransaction(Transaction transaction) {
-        try (FileWriter fw = new FileWriter(TRANSACTIONS_FILE, true);
-             BufferedWriter bw = new BufferedWriter(fw);
-             PrintWriter out = new PrintWriter(bw)) {
-            
-            // Ensure transaction has the current user's ID if not set
-            if (transaction.getUserId().isEmpty()) {
-                User currentUser = UserManager.getInstance().getCurrentUser();
-                if (currentUser != null) {
-                    transaction.setUserId(currentUser.getUsername());
-                }
+        // Build the budget alert totals from existing history before this row is written
+        BudgetAlertEngine alertEngine = BudgetAlertEngine.getInstance();
+        alertEngine.ensureInitialized();
+        
+        // Ensure transaction has the current user's ID if not set
+        if (transaction.getUserId().isEmpty()) {
+            User currentUser = UserManager.getInstance().getCurrentUser();
+            if (currentUser != null) {
+                transaction.setUserId(currentUser.getUsername());
+            }
+        }
+        
+        // Appends hold the lock from measuring the file to updating the index, so the index
+        // never skips rows written by another thread in between
+        synchronized (TransactionManager.class) {
+            long lengthBefore = new File(TRANSACTIONS_FILE).length();
+            try (FileWriter fw = new FileWriter(TRANSACTIONS_FILE, true);
+                 BufferedWriter bw = new BufferedWriter(fw);
+                 PrintWriter out = new PrintWriter(bw)) {
+                out.println(transaction.toString());
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
             }
             
-            out.println(transaction.toString());
-        } catch (IOException e) {
-            e.printStackTrace();
+            addToIndex(Collections.singletonList(transaction), lengthBefore);
         }
+        alertEngine.onTransactionSaved(transaction);
     }
     
+    /**
+     * Loads the current user's transactions. The list is kept and reused until the transactions
+     * file changes, so screens opened one after another (or warmed up at login) read the file once.
+     * The returned list is a copy; the transactions in it are shared and must not be modified.
+     * 
+     * @return The current user's transactions in file order
+     */
     public static List<Transaction> loadTransactions() {
-        List<Transaction> transactions = new ArrayList<>();
-        File file = new File(TRANSACTIONS_FILE);
-        
-        if (!file.exists()) {
-            return transactions;
+        synchronized (TransactionManager.class) {
+            return getIndex().getAll();
         }
-        
+    }
+    
+    /**
+     * Finds the current user's transactions in a date range using the date index
+     * 
+     * @param from The first date (inclusive), or null for no lower bound
+     * @param to The last date (inclusive), or null for no upper bound
+     * @return The transactions ordered by date
+     */
+    public static List<Transaction> findByDateRange(LocalDate from, LocalDate to) {
+        synchronized (TransactionManager.class) {
+            return getIndex().findByDateRange(from, to);
+        }
+    }
+    
+    /**
+     * Finds the current user's transactions in a category using the category index
+     * 
+     * @param category The category
+     * @return The transactions in file order
+     */
+    public static List<Transaction> findByCategory(String category) {
+        return findByCategory(category, null, null);
+    }
+    
+    /**
+     * Finds the current user's transactions in a category and date range, e.g. food spending in Q1
+     * 
+     * @param category The category
+     * @param from The first date (inclusive), or null for no lower bound
+     * @param to The last date (inclusive), or null for no upper bound
+     * @return The transactions in file order
+     */
+    public static List<Transaction> findByCategory(String category, LocalDate from, LocalDate to) {
+        synchronized (TransactionManager.class) {
+            return getIndex().findByCategory(category, from, to);
+        }
+    }
+    
+    /**
+     * Searches the current user's transaction descriptions. Words match anywhere inside a word,
+     * so results can be shown while the user types; Chinese text is matched by character pairs,
+     * and a misspelled word falls back to similar words.
+     * 
+     * @param query The search text
+     * @return The matching transactions in file order, or all transactions for an empty query
+     */
+    public static List<Transaction> searchTransactions(String query) {
+        synchronized (TransactionManager.class) {
+            return getIndex().search(query);
+        }
+    }
+    
+    /**
+     * Checks whether text has anything the description search can match
+     * 
+     * @param query The search text
+     * @return False for empty text or text made only of spaces and punctuation, which
+     *         {@link #searchTransactions(String)} treats as matching everything
+     */
+    public static boolean hasSearchTerms(String query) {
+        return query != null && DescriptionIndex.hasTokens(query);
+    }
+    
+    /**
+     * Gets the categories the current user has transactions in
+     * 
+     * @return The category names, in no particular order
+     */
+    public static List<String> getCategories() {
+        synchronized (TransactionManager.class) {
+            return getIndex().getCategories();
+        }
+    }
+    
+    /**
+     * Adds up the current user's amounts in a date range, e.g. this month's spending
+     * 
+     * @param from The first date (inclusive), or null for no lower bound
+     * @param to The last date (inclusive), or null for no upper bound
+     * @return The sum of the amounts
+     */
+    public static double sumByDateRange(LocalDate from, LocalDate to) {
+        return query().between(from, to).sum();
+    }
+    
+    /**
+     * Starts a query over the current user's transactions, e.g.
+     * {@code query().between(from, to).inCategories("Food & Dining").sum()}
+     * 
+     * @return A query with no filters
+     */
+    public static TransactionQuery query() {
+        return new TransactionQuery();
+    }
+    
+    /**
+     * Gets the current user's indexed transactions, reading the transactions file if it changed
+     * since it was last read
+     */
+    static TransactionIndex getIndex() {
         // Get current user
         User currentUser = UserManager.getInstance().getCurrentUser();
         String currentUserId = currentUser != null ? currentUser.getUsername() : "";
+        File file = new File(TRANSACTIONS_FILE);
+        
+        synchronized (TransactionManager.class) {
+            long length = file.length();
+            long modified = file.lastModified();
+            if (cachedIndex == null || !currentUserId.equals(cachedUserId)
+                    || length != cachedLength || modified != cachedModified) {
+                TransactionIndex index = new TransactionIndex();
+                // If no user is logged in, only transactions with empty userId are shown
+                try {
+                    forEachTransaction(currentUserId, index::add);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    return index;
+                }
+                cachedUserId = currentUserId;
+                cachedLength = length;
+                cachedModified = modified;
+                cachedIndex = index;
+            }
+            return cachedIndex;
+        }
+    }
+    
+    /**
+     * Adds newly written transactions to the cached index, if it described the file before the write.
+     * Callers hold the lock while appending, so no other write can fall between the two lengths.
+     * 
+     * @param transactions The transactions just appended
+     * @param lengthBefore The length of the transactions file before they were appended
+     */
+    private static synchronized void addToIndex(List<Transaction> transactions, long lengthBefore) {
+        if (cachedIndex == null || lengthBefore != cachedLength) {
+            return;
+        }
+        for (Transaction transaction : transactions) {
+            if (transaction.getUserId().equals(cachedUserId)) {
+                cachedIndex.add(transaction);
+            }
+        }
+        File file = new File(TRANSACTIONS_FILE);
+        cachedLength = file.length();
+        cachedModified = file.lastModified();
+    }
+    
+    /**
+     * Reads one user's transactions one at a time without building a list, so callers that
+     * only need a single pass (statements, exports, totals) use constant memory
+     * 
+     * @param userId The user ID; transactions with an empty userId (old format) are included
+     *               and assigned to this user
+     * @param action Called for each transaction, in file order
+     * @throws IOException If the transactions file cannot be read
+     */
+    public static void forEachTransaction(String userId, Consumer<Transaction> action) throws IOException {
+        File file = new File(TRANSACTIONS_FILE);
+        if (!file.exists()) {
+            return;
+        }
         
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = reader.readLine()) != null) {
+                Transaction transaction;
                 try {
-                    Transaction transaction = Transaction.fromString(line);
-                    
-                    // Only add transactions belonging to the current user or with empty userId (old format)
-                    if (currentUser != null && 
-                        (transaction.getUserId().equals(currentUserId) || transaction.getUserId().isEmpty())) {
-                        // If transaction has empty userId, update it
-                        if (transaction.getUserId().isEmpty()) {
-                            transaction.setUserId(currentUserId);
-                        }
-                        transactions.add(transaction);
-                    } else if (currentUser == null && transaction.getUserId().isEmpty()) {
-                        // If no user is logged in, only show transactions with empty userId
-                        transactions.add(transaction);
-                    }
-                } catch (IllegalArgumentException e) {
+                    transaction = Transaction.fromString(line);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
                     System.err.println("Skipping invalid transaction: " + line);
+                    continue;
+                }
+                
+                // Only pass on transactions belonging to the user or with empty userId (old format)
+                if (transaction.getUserId().isEmpty()) {
+                    transaction.setUserId(userId);
+                    action.accept(transaction);
+                } else if (transaction.getUserId().equals(userId)) {
+                    action.accept(transaction);
                 }
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Reads one user's transactions that may match a query. Each line is checked with
+     * {@link TransactionQuery#mayMatch} before it is parsed, so lines of other users and
+     * lines outside the query's filters never become Transaction objects.
+     * 
+     * @param userId The user ID; transactions with an empty userId (old format) are included
+     *               and assigned to this user, unless the query is {@link TransactionQuery#ownedOnly()}
+     * @param query The query; its search text is not checked
+     * @param action Called for each matching transaction, in file order
+     * @throws IOException If the transactions file cannot be read
+     */
+    static void forEachMatch(String userId, TransactionQuery query, Consumer<? super Transaction> action) throws IOException {
+        File file = new File(TRANSACTIONS_FILE);
+        if (!file.exists()) {
+            return;
         }
         
-        return transactions;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!query.mayMatch(line, userId)) {
+                    continue;
+                }
+                Transaction transaction;
+                try {
+                    transaction = Transaction.fromString(line);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    System.err.println("Skipping invalid transaction: " + line);
+                    continue;
+                }
+                
+                if (transaction.getUserId().isEmpty()) {
+                    if (query.isOwnedOnly()) {
+                        continue;
+                    }
+                    transaction.setUserId(userId);
+                } else if (!transaction.getUserId().equals(userId)) {
+                    continue;
+                }
+                if (query.accepts(transaction)) {
+                    action.accept(transaction);
+                }
+            }
+        }
     }
     
     /**
      * Enhanced CSV import with better error handling and bank compatibility
      * 
+     * Transactions that are already stored (for example from importing the same or an
+     * overlapping statement before) are skipped. The import runs as an {@link ImportJob},
+     * so it can be resumed or rolled back if the application stops midway.
+     * 
      * @param filePath Path to the CSV file
+     * @return The number of imported and skipped transactions
      * @throws ImportException If errors occur during import
      */
-    public static void importFromCSV(String filePath) throws ImportException {
-        List<String> errors = new ArrayList<>();
+    public static ImportResult importFromCSV(String filePath) throws ImportException {
+        if (!new File(filePath).exists()) {
+            throw new ImportException("File does not exist: " + filePath);
+        }
+        ImportJob job;
+        try {
+            job = ImportJob.start(filePath);
+        } catch (IOException e) {
+            throw new ImportException("Could not start import: " + e.getMessage(), e);
+        }
+        return job.run(null);
+    }
+
+    /**
+     * Runs an import job from its last checkpoint. Rows are staged and committed in batches of
+     * {@value #IMPORT_BATCH_SIZE}; after each batch the job records its position in the file.
+     */
+    static ImportResult runImport(ImportJob job, ImportJob.ProgressListener listener) throws ImportException {
         List<String> warnings = new ArrayList<>();
         Map<Integer, String> lineErrors = new HashMap<>();
-            int successCount = 0;
-            int errorCount = 0;
+        int successCount = job.getImportedCount();
+        int errorCount = job.getFailedCount();
+        int duplicateCount = job.getDuplicateCount();
+        String filePath = job.getSourcePath();
         File file = new File(filePath);
 
         if (!file.exists()) {
@@ -110,87 +349,153 @@ public class TransactionManager {
         }
 
         try {
-            CsvFormat csvFormat = detectCsvFormat(filePath);
-            if (csvFormat == null) {
-                throw new ImportException("Could not detect CSV format. Please ensure the file is a valid CSV.");
+            // Detect delimiter, preamble, header and columns from a sample (or reuse them for a known file)
+            CsvDialect dialect;
+            try {
+                dialect = CsvDialect.forFile(file);
+            } catch (ImportException e) {
+                // Nothing was imported; there is nothing to resume
+                job.discard();
+                throw e;
+            }
+            System.out.println("Detected CSV Format" + (dialect.isCached() ? " (cached)" : "") + " - Delimiter: '" + dialect.delimiter +
+                               "', Has Headers: " + dialect.hasHeaders + ", Skipped Lines: " + dialect.preambleRecords +
+                               ", Date Col: " + dialect.dateColumn + ", Desc Col: " + dialect.descriptionColumn +
+                               ", Cat Col: " + dialect.categoryColumn + ", Amt Col: " + dialect.amountColumn);
+            if (dialect.preambleRecords > 0) {
+                warnings.add("Skipped " + dialect.preambleRecords + " line(s) before the transaction table.");
             }
-            if (!csvFormat.hasHeaders) {
+            if (!dialect.hasHeaders) {
                 warnings.add("No headers detected in CSV file. Assuming first row contains data.");
             }
 
-            // Get current user
-            User currentUser = UserManager.getInstance().getCurrentUser();
-            String currentUserId = currentUser != null ? currentUser.getUsername() : "";
+            // The date format is inferred once with the dialect instead of trying every format on every row
+            DateParser dateParser = dialect.dateParser;
+            if (dateParser.isAmbiguous()) {
+                String warning = "Dates could be MM/dd/yyyy or dd/MM/yyyy (no day above 12 in the sampled rows). Assuming MM/dd/yyyy.";
+                warnings.add(warning);
+                System.out.println("Warning: " + warning);
+            }
 
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                int lineNumber = 0;
-                boolean firstLine = true;
-            
-            while ((line = reader.readLine()) != null) {
-                    lineNumber++;
-                    if (line.trim().isEmpty()) continue;
+            // Transactions belong to the user who started the job
+            String currentUserId = job.getUserId();
 
-                try {
-                        if (firstLine && csvFormat.hasHeaders) {
-                        firstLine = false;
-                            continue;
+            DuplicateIndex duplicateIndex = DuplicateIndex.open(new File(TRANSACTIONS_FILE), new File(DUPLICATE_INDEX_FILE));
+            try (FileInputStream in = new FileInputStream(file);
+                 Reader reader = new InputStreamReader(in, Charset.defaultCharset())) {
+                // Fields are read straight from the tokenizer's buffer; only description and category become strings
+                CsvTokenizer tokenizer = new CsvTokenizer(reader, dialect.delimiter);
+                job.trimKeys();
+                if (job.getOffset() > 0) {
+                    tokenizer.resumeAt(job.getOffset(), job.getLineNumber());
+                    // Identical rows after the checkpoint must keep counting from the rows before it
+                    for (long key : job.readKeys()) {
+                        duplicateIndex.replay(key);
+                    }
+                    System.out.println("Resuming import " + job.getJobId() + " at line " + (job.getLineNumber() + 1));
+                }
+                job.startRun(in.getChannel().position());
+
+                int recordIndex = job.getRecordIndex();
+                int batchRows = 0;
+                List<Transaction> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+                long[] batchHashes = new long[IMPORT_BATCH_SIZE];
+                long[] batchKeys = new long[IMPORT_BATCH_SIZE];
+                int batchKeyCount = 0;
+
+                while (tokenizer.next()) {
+                    int lineNumber = tokenizer.getLineNumber();
+                    if (recordIndex++ < dialect.skipRecords) {
+                        continue;
+                    }
+                    batchRows++;
+                    try {
+                        int fieldCount = tokenizer.getFieldCount();
+                        if (fieldCount < 4) {
+                            throw new IllegalArgumentException("Insufficient data columns: Found " + fieldCount + ", need at least 4 (Date, Description, Category, Amount). Original line: " + tokenizer.getRecordText());
                         }
-                        firstLine = false;
 
-                        // Use robust CSV line parser instead of simple split
-                        List<String> parts = parseCsvLine(line, csvFormat.delimiter);
+                        int dateIndex = dialect.dateColumn;
+                        int descIndex = dialect.descriptionColumn;
+                        int catIndex = dialect.categoryColumn;
+                        int amountIndex = dialect.amountColumn;
 
-                        if (parts.size() < 4) {
-                            throw new IllegalArgumentException("Insufficient data columns: Found " + parts.size() + ", need at least 4 (Date, Description, Category, Amount). Original line: " + line);
+                        // Check indices are within range based on parsed fields
+                        if (dateIndex >= fieldCount || descIndex >= fieldCount ||
+                            catIndex >= fieldCount || amountIndex >= fieldCount) {
+                            throw new IllegalArgumentException("Detected column index out of range for parsed data. Date:" + dateIndex + ", Desc:" + descIndex + ", Cat:" + catIndex + ", Amt:" + amountIndex + ". Parsed Columns: " + fieldCount);
                         }
 
-                        int dateIndex = csvFormat.dateColumn;
-                        int descIndex = csvFormat.descriptionColumn;
-                        int catIndex = csvFormat.categoryColumn;
-                        int amountIndex = csvFormat.amountColumn;
-                        
-                        // Check indices are within range based on parsed parts
-                        if (dateIndex >= parts.size() || descIndex >= parts.size() || 
-                            catIndex >= parts.size() || amountIndex >= parts.size()) {
-                            throw new IllegalArgumentException("Detected column index out of range for parsed data. Date:" + dateIndex + ", Desc:" + descIndex + ", Cat:" + catIndex + ", Amt:" + amountIndex + ". Parsed Columns: " + parts.size());
-                            }
-
-                        // Parse date
-                        LocalDate date = parseDate(parts.get(dateIndex));
-                        
-                        // Get description and category
-                        String description = parts.get(descIndex);
-                        String category = parts.get(catIndex);
-                        
-                        // Parse amount
-                        double amount = parseAmount(parts.get(amountIndex));
-                        
-                        // Create transaction with user ID
-                        Transaction transaction = new Transaction(currentUserId, date, description, category, amount);
-                        saveTransaction(transaction);
-                        successCount++;
+                        CharSequence text = tokenizer.getText();
+                        LocalDate date = dateParser.parse(text, tokenizer.getStart(dateIndex), tokenizer.getEnd(dateIndex));
+                        double amount = AmountParser.parseMinorUnits(text, tokenizer.getStart(amountIndex), tokenizer.getEnd(amountIndex)) / 100.0;
+                        String description = tokenizer.getField(descIndex);
+                        String category = tokenizer.getField(catIndex);
+
+                        // Skip transactions that are already stored; one hash probe per row
+                        long key = DuplicateIndex.key(currentUserId, date, description, amount);
+                        batchKeys[batchKeyCount++] = key;
+                        long hash = duplicateIndex.check(key);
+                        if (hash == 0) {
+                            duplicateCount++;
+                        } else {
+                            // Stage the transaction; it is written with the rest of the batch
+                            batchHashes[batch.size()] = hash;
+                            batch.add(new Transaction(currentUserId, date, description, category, amount));
+                            successCount++;
+                        }
 
                     } catch (Exception e) {
                         errorCount++;
                         String errorMsg = e.getMessage() != null ? e.getMessage() : e.toString();
                         lineErrors.put(lineNumber, errorMsg);
-                        System.err.println("Error processing line " + lineNumber + ": " + line + " (Reason: " + errorMsg + ")");
+                        System.err.println("Error processing line " + lineNumber + ": " + tokenizer.getRecordText() + " (Reason: " + errorMsg + ")");
                          // Log stack trace for debugging unexpected errors
                         if (!(e instanceof IllegalArgumentException || e instanceof DateTimeParseException || e instanceof NumberFormatException)) {
                             e.printStackTrace();
                         }
                     }
+
+                    if (batchRows == IMPORT_BATCH_SIZE) {
+                        commitImportBatch(job, duplicateIndex, batch, batchHashes, batchKeys, batchKeyCount,
+                                tokenizer, recordIndex, successCount, duplicateCount, errorCount);
+                        job.setBytesRead(in.getChannel().position());
+                        if (listener != null) {
+                            listener.onProgress(job);
+                        }
+                        batch.clear();
+                        batchRows = 0;
+                        batchKeyCount = 0;
+                        if (job.isStopRequested()) {
+                            System.out.println("Import " + job.getJobId() + " paused after " + job.getRowsProcessed() + " rows");
+                            return new ImportResult(successCount, duplicateCount, false);
+                        }
+                    }
                 }
 
-                System.out.println("Import completed: " + successCount + " records successful, " + errorCount + " records failed");
+                commitImportBatch(job, duplicateIndex, batch, batchHashes, batchKeys, batchKeyCount,
+                        tokenizer, recordIndex, successCount, duplicateCount, errorCount);
+                job.setBytesRead(job.getSourceLength());
+                if (listener != null) {
+                    listener.onProgress(job);
+                }
+                job.complete();
+
+                System.out.println("Import completed: " + successCount + " records successful, " + errorCount + " records failed, "
+                                   + duplicateCount + " duplicates skipped");
 
+                if (duplicateCount > 0) {
+                    warnings.add("Skipped " + duplicateCount + " transaction(s) that were already imported.");
+                }
                 if (errorCount > 0) {
                     throw buildImportException(successCount, errorCount, warnings, lineErrors);
                 }
+                return new ImportResult(successCount, duplicateCount, true);
 
             } catch (IOException e) {
-                throw new ImportException("Error reading CSV file: " + e.getMessage(), e);
+                throw new ImportException("Error reading CSV file: " + e.getMessage() + ". The import can be resumed.", e);
+            } finally {
+                duplicateIndex.close();
             }
 
         } catch (ImportException e) {
@@ -200,82 +505,63 @@ public class TransactionManager {
             throw new ImportException("Unexpected error during import process: " + e.getMessage(), e);
         }
     }
-    
+
     /**
-     * Parses a single line of CSV text, respecting quotes.
-     *
-     * @param line The line to parse.
-     * @param delimiter The delimiter character.
-     * @return A list of fields.
+     * Writes a batch of staged transactions, adds them to the duplicate index and records the checkpoint.
+     * A crash between these steps is safe: the job resumes from the previous checkpoint and the
+     * duplicate index, rebuilt from the transactions file, skips rows that were already written.
      */
-    private static List<String> parseCsvLine(String line, String delimiter) {
-        List<String> fields = new ArrayList<>();
-        StringBuilder currentField = new StringBuilder();
-        boolean inQuotes = false;
-        char delimiterChar = delimiter.charAt(0); // Assuming single char delimiter
-
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-
-            if (c == '"') {
-                // Handle quotes: could be start/end of quoted field or escaped quote
-                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    // Escaped quote ""
-                    currentField.append('"');
-                    i++; // Skip the second quote
-                } else {
-                    inQuotes = !inQuotes;
-                }
-            } else if (c == delimiterChar && !inQuotes) {
-                // Delimiter found outside quotes, finalize current field
-                fields.add(currentField.toString().trim());
-                currentField.setLength(0); // Reset for next field
-            } else {
-                // Regular character, append to current field
-                currentField.append(c);
+    private static void commitImportBatch(ImportJob job, DuplicateIndex duplicateIndex, List<Transaction> batch,
+                                          long[] hashes, long[] keys, int keyCount, CsvTokenizer tokenizer,
+                                          int recordIndex, int successCount, int duplicateCount, int errorCount) throws IOException {
+        if (!batch.isEmpty()) {
+            job.beginBatch();
+            saveTransactions(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                duplicateIndex.add(hashes[i]);
             }
+            duplicateIndex.sync();
         }
-        
-        // Add the last field
-        fields.add(currentField.toString().trim());
-
-        return fields;
+        job.checkpoint(tokenizer.getOffset(), tokenizer.getLinesRead(), recordIndex, successCount, duplicateCount,
+                errorCount, keys, keyCount, new File(TRANSACTIONS_FILE).length());
     }
-    
+
     /**
-     * Parses the date string using supported formats.
+     * Appends several transactions with a single write and waits until they are on disk
+     * @param transactions The transactions to save
+     * @throws IOException If the transactions file cannot be written
      */
-    private static LocalDate parseDate(String dateStr) throws DateTimeParseException {
-        dateStr = dateStr.trim();
-        DateTimeParseException lastException = null;
-        for (DateTimeFormatter formatter : SUPPORTED_DATE_FORMATS) {
-            try {
-                return LocalDate.parse(dateStr, formatter);
-            } catch (DateTimeParseException e) {
-                lastException = e;
+    static void saveTransactions(List<Transaction> transactions) throws IOException {
+        // Build the budget alert totals from existing history before these rows are written
+        BudgetAlertEngine alertEngine = BudgetAlertEngine.getInstance();
+        alertEngine.ensureInitialized();
+
+        synchronized (TransactionManager.class) {
+            long lengthBefore = new File(TRANSACTIONS_FILE).length();
+            try (FileOutputStream out = new FileOutputStream(TRANSACTIONS_FILE, true);
+                 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out))) {
+                for (Transaction transaction : transactions) {
+                    writer.write(transaction.toString());
+                    writer.write(System.lineSeparator());
+                }
+                writer.flush();
+                out.getFD().sync();
             }
+
+            addToIndex(transactions, lengthBefore);
+        }
+        for (Transaction transaction : transactions) {
+            alertEngine.onTransactionSaved(transaction);
         }
-        throw new DateTimeParseException("Cannot parse date: " + dateStr +
-            ". Supported formats include: yyyy-MM-dd, yyyy/MM/dd, MM/dd/yyyy, etc.", dateStr, 0, lastException);
     }
 
     /**
-     * Parses the amount string, removing common currency symbols and thousands separators.
+     * Gets the file all transactions are stored in
      */
-    private static double parseAmount(String amountStr) throws NumberFormatException {
-        amountStr = amountStr.trim()
-                           .replace("\"", "") // Remove quotes
-                           .replace("'", "")  // Remove single quotes
-                           .replaceAll("[$,¥€£]", "") // Remove currency symbols
-                           .replace(",", ""); // Remove thousands separators
-        try {
-            return Double.parseDouble(amountStr);
-        } catch (NumberFormatException e) {
-            throw new NumberFormatException("Cannot parse amount: '" + amountStr + 
-                "'. Please ensure it's a valid number after removing currency symbols and commas.");
-                }
-            }
-            
+    static File getTransactionsFile() {
+        return new File(TRANSACTIONS_FILE);
+    }
+    
     /**
      * Builds the ImportException with a formatted error report.
      */
@@ -308,175 +594,37 @@ public class TransactionManager {
     }
 
     /**
-     * Detects CSV format including delimiter and column positions
-     * 
-     * @param filePath Path to the CSV file
-     * @return Detected CSV format or null if detection fails
+     * Outcome of a successful CSV import
      */
-    private static CsvFormat detectCsvFormat(String filePath) throws ImportException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String firstLine = reader.readLine();
-            if (firstLine == null || firstLine.trim().isEmpty()) {
-                throw new ImportException("CSV file is empty or first line is blank");
-            }
+    public static class ImportResult {
+        private final int importedCount;
+        private final int duplicateCount;
 
-            String delimiter = detectDelimiter(firstLine);
-            if (delimiter == null) {
-                throw new ImportException("Could not detect CSV delimiter (tested comma, semicolon, tab, pipe)");
-            }
-
-            // Use the robust parser to get headers correctly
-            List<String> headersList = parseCsvLine(firstLine, delimiter);
-            String[] headers = headersList.toArray(new String[0]);
-
-            // Read second line to check if headers or data
-            String secondLine = reader.readLine();
-            boolean hasHeaders = false;
-            if (secondLine != null && !secondLine.trim().isEmpty()) {
-                 // If first row contains typical header words, assume it's headers
-                hasHeaders = isHeaderRow(headers);
-            }
-
-            // Find column indices based on header names or assume default order
-            int dateColumn = -1, descriptionColumn = -1, categoryColumn = -1, amountColumn = -1;
-
-            if (hasHeaders) {
-                for (int i = 0; i < headers.length; i++) {
-                    String header = headers[i].toLowerCase().trim().replace("\"", ""); // Clean header
-                    
-                    // Assign index only if not already found (prefer first match)
-                    if (dateColumn == -1 && (header.contains("date") || header.contains("日期") || header.contains("时间") || header.contains("time"))) {
-                        dateColumn = i;
-                    } else if (descriptionColumn == -1 && (header.contains("desc") || header.contains("summary") || header.contains("narrative") || 
-                              header.contains("details") || header.contains("摘要") || header.contains("描述") || 
-                              header.contains("说明") || header.contains("备注"))) {
-                        descriptionColumn = i;
-                    } else if (categoryColumn == -1 && (header.contains("categ") || header.contains("type") || header.contains("用途") ||
-                              header.contains("类别") || header.contains("类型"))) {
-                        categoryColumn = i;
-                    } else if (amountColumn == -1 && (header.contains("amount") || header.contains("sum") || header.contains("value") ||
-                              header.contains("金额") || header.contains("价格") || header.contains("费用") ||
-                              header.contains("价值"))) {
-                        amountColumn = i;
-                    }
-                }
-            } else {
-                 // No headers detected, assume default order if enough columns
-                 if (headers.length >= 4) {
-                     dateColumn = 0;
-                     descriptionColumn = 1;
-                     categoryColumn = 2;
-                     amountColumn = 3;
-                 } else {
-                     throw new ImportException("Cannot determine column order: No headers found and less than 4 columns detected in the first line.");
-                 }
-            }
-            
-            // Validate that all required columns were found
-            if (dateColumn == -1 || descriptionColumn == -1 || categoryColumn == -1 || amountColumn == -1) {
-                 StringBuilder missingCols = new StringBuilder();
-                 if (dateColumn == -1) missingCols.append("Date, ");
-                 if (descriptionColumn == -1) missingCols.append("Description, ");
-                 if (categoryColumn == -1) missingCols.append("Category, ");
-                 if (amountColumn == -1) missingCols.append("Amount, ");
-                 // Remove trailing comma and space
-                 String missingStr = missingCols.substring(0, missingCols.length() - 2);
-                 throw new ImportException("Could not find required column(s): " + missingStr + ". Please check headers or file format.");
-            }
+        private final boolean complete;
 
-            System.out.println("Detected CSV Format - Delimiter: '" + delimiter + "', Has Headers: " + hasHeaders + 
-                               ", Date Col: " + dateColumn + ", Desc Col: " + descriptionColumn + 
-                               ", Cat Col: " + categoryColumn + ", Amt Col: " + amountColumn);
-                               
-            return new CsvFormat(delimiter, hasHeaders, dateColumn, descriptionColumn, categoryColumn, amountColumn);
-        } catch (IOException e) {
-            throw new ImportException("Error reading CSV file during format detection: " + e.getMessage(), e);
+        public ImportResult(int importedCount, int duplicateCount, boolean complete) {
+            this.importedCount = importedCount;
+            this.duplicateCount = duplicateCount;
+            this.complete = complete;
         }
-    }
-    
-    /**
-     * Detect the delimiter used in a CSV line
-     * 
-     * @param line Sample line from CSV
-     * @return Most likely delimiter or null if none detected
-     */
-    private static String detectDelimiter(String line) {
-        String bestDelimiter = null;
-        int maxCount = 0;
 
-        for (String delimiter : POSSIBLE_DELIMITERS) {
-             // Use the robust parser to count fields based on this delimiter
-            int count = parseCsvLine(line, delimiter).size();
-            
-            // Basic check: If delimiter itself is in quotes, it's less likely
-            // Example: field1,"field,2",field3 - comma is less likely than if no quotes contained it
-            boolean delimiterInQuotes = false;
-            boolean inQuotes = false;
-            for(char c : line.toCharArray()) {
-                if (c == '"') inQuotes = !inQuotes;
-                if (inQuotes && c == delimiter.charAt(0)) {
-                    delimiterInQuotes = true;
-                    break;
-                }
-            }
-
-            // Prefer delimiters that yield more fields and are not commonly found within quotes
-            if (count > maxCount && count > 1 && !delimiterInQuotes) {
-                maxCount = count;
-                bestDelimiter = delimiter;
-            } else if (count > maxCount && count > 1 && bestDelimiter == null) {
-                 // Fallback if all potential delimiters are in quotes
-                 maxCount = count;
-                 bestDelimiter = delimiter;
-            }
+        public int getImportedCount() {
+            return importedCount;
         }
-        
-        return bestDelimiter; 
-    }
-    
-    /**
-     * Check if a row is likely to be a header row
-     * 
-     * @param row The row to check
-     * @return True if it's likely a header row
-     */
-    private static boolean isHeaderRow(String[] row) {
-        String headerPattern = "(?i).*(date|time|desc|category|amount|balance|type|日期|时间|描述|金额|类型|类别).*";
-        
-        // Check if multiple columns match header patterns
-        int headerMatches = 0;
-        for (String cell : row) {
-            if (cell.trim().matches(headerPattern)) {
-                headerMatches++;
-            }
+
+        public int getDuplicateCount() {
+            return duplicateCount;
         }
-        
-        // If at least 2 columns look like headers, consider it a header row
-        return headerMatches >= 2;
-    }
-    
-    /**
-     * Class to represent the format of a CSV file
-     */
-    private static class CsvFormat {
-        private final String delimiter;
-        private final boolean hasHeaders;
-        private final int dateColumn;
-        private final int descriptionColumn;
-        private final int categoryColumn;
-        private final int amountColumn;
-        
-        public CsvFormat(String delimiter, boolean hasHeaders, int dateColumn, int descriptionColumn, 
-                         int categoryColumn, int amountColumn) {
-            this.delimiter = delimiter;
-            this.hasHeaders = hasHeaders;
-            this.dateColumn = dateColumn;
-            this.descriptionColumn = descriptionColumn;
-            this.categoryColumn = categoryColumn;
-            this.amountColumn = amountColumn;
+
+        /**
+         * Checks whether the whole file was imported
+         * @return False if the import was paused and can be resumed
+         */
+        public boolean isComplete() {
+            return complete;
         }
     }
-    
+
     /**
      * Custom exception for CSV import errors with detailed messages
      */
@@ -491,19 +639,66 @@ public class TransactionManager {
     }
     
     public static void exportToCSV(String filePath) {
-        List<Transaction> transactions = loadTransactions();
+        try {
+            exportToCSV(filePath, null, null, filePath.endsWith(".gz"));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    /**
+     * Exports the current user's transactions to a CSV file.
+     * Transactions are streamed from storage straight into the output, one row at a time,
+     * so memory use stays constant however many rows are exported. Fields are quoted
+     * according to RFC 4180, so descriptions containing commas or quotes survive a re-import.
+     * 
+     * @param filePath Path of the file to write
+     * @param dateFilter Only export transactions whose date matches, or null for all dates
+     * @param categoryFilter Only export transactions whose category matches, or null for all categories
+     * @param gzip Whether to gzip-compress the output
+     * @return The number of transactions exported
+     * @throws IOException If the transactions cannot be read or the file cannot be written
+     */
+    public static int exportToCSV(String filePath, Predicate<LocalDate> dateFilter,
+                                  Predicate<String> categoryFilter, boolean gzip) throws IOException {
+        User currentUser = UserManager.getInstance().getCurrentUser();
+        String currentUserId = currentUser != null ? currentUser.getUsername() : "";
         
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
+        int[] count = {0};
+        // The file is closed even if writing the gzip header fails
+        try (OutputStream file = Files.newOutputStream(Paths.get(filePath));
+             OutputStream out = gzip ? new GZIPOutputStream(file, 64 * 1024) : file;
+             CsvRowWriter writer = new CsvRowWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
             // Write header
-            writer.println("UserId,Date,Description,Category,Amount");
+            writer.writeField("UserId");
+            writer.writeField("Date");
+            writer.writeField("Description");
+            writer.writeField("Category");
+            writer.writeField("Amount");
+            writer.endRow();
             
             // Write transactions
-            for (Transaction transaction : transactions) {
-                writer.println(transaction.toString());
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+            forEachTransaction(currentUserId, transaction -> {
+                if ((dateFilter != null && !dateFilter.test(transaction.getDate()))
+                        || (categoryFilter != null && !categoryFilter.test(transaction.getCategory()))) {
+                    return;
+                }
+                try {
+                    writer.writeField(transaction.getUserId());
+                    writer.writeDate(transaction.getDate());
+                    writer.writeField(transaction.getDescription());
+                    writer.writeField(transaction.getCategory());
+                    writer.writeAmount(transaction.getAmount());
+                    writer.endRow();
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
+        return count[0];
     }
     
     /**
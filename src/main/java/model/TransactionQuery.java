@@ -0,0 +1,418 @@
+package model;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * TransactionQuery - Fluent filter and aggregation over one user's transactions, created with
+ * {@link TransactionManager#query()}. Filters are combined with AND, for example:
+ * <pre>
+ * double food = TransactionManager.query()
+ *         .between(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31))
+ *         .inCategories("Food &amp; Dining")
+ *         .sum();
+ * </pre>
+ *
+ * The filters are not applied to a loaded list. For the logged-in user the cached indexes pick
+ * the candidate rows (description search, category postings or date range, whichever selects
+ * fewest), and only those rows are checked. For any other user the transactions file is read
+ * line by line and the user, date, category and amount fields are checked in the line itself,
+ * so rows that do not match are never parsed into transactions. Aggregations over large
+ * results run in parallel: sums on parallel streams, category totals with a {@link CategoryAggregator}.
+ */
+public class TransactionQuery {
+
+    // Results with at least this many rows are aggregated in parallel
+    static final int PARALLEL_THRESHOLD = 50_000;
+
+    // Length of an ISO date (yyyy-MM-dd), which orders the same as text and as a date
+    private static final int ISO_DATE_LENGTH = 10;
+
+    private String userId;
+    private LocalDate from;
+    private LocalDate to;
+    private Set<String> categories;
+    private double minAmount = Double.NEGATIVE_INFINITY;
+    private double maxAmount = Double.POSITIVE_INFINITY;
+    private String text;
+    private boolean ownedOnly;
+
+    TransactionQuery() {
+    }
+
+    /**
+     * Queries another user's transactions instead of the logged-in user's
+     * @param userId The user ID, or null for the logged-in user
+     * @return This query
+     */
+    public TransactionQuery forUser(String userId) {
+        this.userId = userId;
+        return this;
+    }
+
+    /**
+     * Leaves out old format rows, which have no user ID and otherwise belong to every user.
+     * Such queries always read the transactions file, since the indexes do not record which
+     * rows had no user ID.
+     * @return This query
+     */
+    public TransactionQuery ownedOnly() {
+        this.ownedOnly = true;
+        return this;
+    }
+
+    /**
+     * Keeps transactions in a date range
+     * @param from The first date (inclusive), or null for no lower bound
+     * @param to The last date (inclusive), or null for no upper bound
+     * @return This query
+     */
+    public TransactionQuery between(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    /**
+     * Keeps transactions in any of the given categories
+     * @param categories The categories; an empty collection matches nothing
+     * @return This query
+     */
+    public TransactionQuery inCategories(Collection<String> categories) {
+        this.categories = new HashSet<>(categories);
+        return this;
+    }
+
+    /**
+     * Keeps transactions in any of the given categories
+     * @param categories The categories
+     * @return This query
+     */
+    public TransactionQuery inCategories(String... categories) {
+        return inCategories(Arrays.asList(categories));
+    }
+
+    /**
+     * Keeps transactions with an amount in a range
+     * @param min The smallest amount (inclusive)
+     * @param max The largest amount (inclusive)
+     * @return This query
+     */
+    public TransactionQuery amountBetween(double min, double max) {
+        this.minAmount = min;
+        this.maxAmount = max;
+        return this;
+    }
+
+    /**
+     * Keeps transactions whose descriptions match a search, like
+     * {@link TransactionManager#searchTransactions(String)}
+     * @param text The search text; null or text without words matches everything
+     * @return This query
+     */
+    public TransactionQuery matching(String text) {
+        this.text = text;
+        return this;
+    }
+
+    /**
+     * Gets the matching transactions. The transactions are shared and must not be modified.
+     * @return The transactions in file order
+     */
+    public List<Transaction> list() {
+        List<Transaction> matches = new ArrayList<>();
+        try {
+            run(matches::add);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return matches;
+    }
+
+    /**
+     * Gets one value from each matching transaction
+     * @param projection Extracts the value, e.g. Transaction::getDescription
+     * @return The values in file order
+     */
+    public <R> List<R> select(Function<? super Transaction, ? extends R> projection) {
+        return stream(list()).map(projection).collect(Collectors.toList());
+    }
+
+    /**
+     * Passes the matching transactions to an action one at a time. For another user's
+     * transactions nothing is collected, so memory use stays constant.
+     * @param action Called for each transaction, in file order
+     * @throws IOException If the transactions file cannot be read
+     */
+    public void forEach(Consumer<? super Transaction> action) throws IOException {
+        run(action);
+    }
+
+    /**
+     * Counts the matching transactions
+     */
+    public long count() {
+        long[] count = {0};
+        try {
+            run(transaction -> count[0]++);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return count[0];
+    }
+
+    /**
+     * Adds up the amounts of the matching transactions
+     */
+    public double sum() {
+        return stream(list()).mapToDouble(Transaction::getAmount).sum();
+    }
+
+    /**
+     * Averages the amounts of the matching transactions
+     * @return The average, or 0 if nothing matches
+     */
+    public double average() {
+        return stream(list()).mapToDouble(Transaction::getAmount).average().orElse(0);
+    }
+
+    /**
+     * Totals the matching transactions per category
+     * @return The totals by category name
+     */
+    public Map<String, Totals> groupByCategory() {
+        CategoryAggregator aggregator = CategoryAggregator.aggregate(list());
+        Map<String, Totals> result = new TreeMap<>();
+        for (int id = 0; id < aggregator.size(); id++) {
+            result.put(aggregator.getCategory(id), new Totals(aggregator.getCount(id), aggregator.getTotal(id)));
+        }
+        return result;
+    }
+
+    /**
+     * Totals the matching transactions per month
+     * @return The totals in chronological order
+     */
+    public Map<YearMonth, Totals> groupByMonth() {
+        return stream(list()).collect(Collectors.groupingBy(
+                transaction -> YearMonth.from(transaction.getDate()), TreeMap::new, Totals.collector()));
+    }
+
+    private static Stream<Transaction> stream(List<Transaction> transactions) {
+        return transactions.size() >= PARALLEL_THRESHOLD ? transactions.parallelStream() : transactions.stream();
+    }
+
+    /**
+     * Finds the matching transactions using the indexes or the reader, depending on the user
+     */
+    private void run(Consumer<? super Transaction> action) throws IOException {
+        User currentUser = UserManager.getInstance().getCurrentUser();
+        String currentUserId = currentUser != null ? currentUser.getUsername() : "";
+        String user = userId != null ? userId : currentUserId;
+
+        if (user.equals(currentUserId) && !ownedOnly) {
+            // Collect under the lock and run the action after releasing it
+            List<Transaction> matches = new ArrayList<>();
+            synchronized (TransactionManager.class) {
+                TransactionManager.getIndex().select(this, matches::add);
+            }
+            matches.forEach(action);
+        } else if (!hasText()) {
+            TransactionManager.forEachMatch(user, this, action);
+        } else {
+            // The search needs every candidate, so index the rows that passed the other filters
+            TransactionIndex candidates = new TransactionIndex();
+            TransactionManager.forEachMatch(user, this, candidates::add);
+            candidates.select(this, action);
+        }
+    }
+
+    LocalDate getFrom() {
+        return from;
+    }
+
+    LocalDate getTo() {
+        return to;
+    }
+
+    /**
+     * Gets the categories to keep, or null for all categories
+     */
+    Set<String> getCategories() {
+        return categories;
+    }
+
+    /**
+     * Gets the search text, or null if descriptions are not searched
+     */
+    String getText() {
+        return hasText() ? text : null;
+    }
+
+    /**
+     * Checks whether rows without a user ID are left out
+     */
+    boolean isOwnedOnly() {
+        return ownedOnly;
+    }
+
+    private boolean hasText() {
+        return text != null && !text.trim().isEmpty();
+    }
+
+    /**
+     * Checks a transaction against every filter except the user and the search text
+     */
+    boolean accepts(Transaction transaction) {
+        LocalDate date = transaction.getDate();
+        double amount = transaction.getAmount();
+        return (from == null || !date.isBefore(from))
+                && (to == null || !date.isAfter(to))
+                && (categories == null || categories.contains(transaction.getCategory()))
+                && amount >= minAmount && amount <= maxAmount;
+    }
+
+    /**
+     * Checks a line of the transactions file before it is parsed. Only rejects lines that
+     * certainly do not match; lines that pass still have to be parsed and checked with
+     * {@link #accepts(Transaction)}.
+     * @param line The line, as written by {@link Transaction#toString()}
+     * @param user The queried user; lines without a user ID belong to every user unless
+     *             the query is {@link #ownedOnly()}
+     * @return False if the line is another user's or fails a filter
+     */
+    boolean mayMatch(String line, String user) {
+        // Field ends, split the way Transaction.fromString splits; a trailing comma
+        // changes how it counts fields, so such lines are left to the parser
+        int[] ends = new int[5];
+        int fields = 0;
+        int comma = line.indexOf(',');
+        while (comma >= 0 && fields < 4) {
+            ends[fields++] = comma;
+            comma = line.indexOf(',', comma + 1);
+        }
+        ends[fields++] = comma >= 0 ? comma : line.length();
+        if (fields < 4 || line.endsWith(",")) {
+            return true;
+        }
+
+        // The old format has no user ID field
+        int first = fields == 4 ? -1 : 0;
+        if (ownedOnly && (first < 0 || ends[0] == 0)) {
+            return false;
+        }
+        if (first == 0 && ends[0] > 0 && (ends[0] != user.length() || !line.startsWith(user))) {
+            return false;
+        }
+
+        int dateStart = first < 0 ? 0 : ends[0] + 1;
+        int dateEnd = ends[first + 1];
+        if (dateEnd - dateStart == ISO_DATE_LENGTH) {
+            if (from != null && compare(line, dateStart, from) < 0) {
+                return false;
+            }
+            if (to != null && compare(line, dateStart, to) > 0) {
+                return false;
+            }
+        }
+
+        if (categories != null && !categories.contains(line.substring(ends[first + 2] + 1, ends[first + 3]))) {
+            return false;
+        }
+
+        if (minAmount != Double.NEGATIVE_INFINITY || maxAmount != Double.POSITIVE_INFINITY) {
+            try {
+                double amount = Double.parseDouble(line.substring(ends[first + 3] + 1, ends[first + 4]));
+                return amount >= minAmount && amount <= maxAmount;
+            } catch (NumberFormatException e) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares the ISO date at a position in a line with a date, as text
+     */
+    private static int compare(String line, int start, LocalDate date) {
+        String value = date.toString();
+        if (value.length() != ISO_DATE_LENGTH) {
+            // Years beyond 9999 are written with a sign; compare the real dates instead
+            return 0;
+        }
+        for (int i = 0; i < ISO_DATE_LENGTH; i++) {
+            int difference = line.charAt(start + i) - value.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Count, sum and average of a group of transactions
+     */
+    public static class Totals {
+        private long count;
+        private double sum;
+
+        Totals() {
+        }
+
+        Totals(long count, double sum) {
+            this.count = count;
+            this.sum = sum;
+        }
+
+        static Collector<Transaction, Totals, Totals> collector() {
+            return Collector.of(Totals::new, Totals::add, Totals::merge);
+        }
+
+        private void add(Transaction transaction) {
+            count++;
+            sum += transaction.getAmount();
+        }
+
+        private Totals merge(Totals other) {
+            count += other.count;
+            sum += other.sum;
+            return this;
+        }
+
+        /**
+         * Gets the number of transactions
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the sum of the amounts
+         */
+        public double getSum() {
+            return sum;
+        }
+
+        /**
+         * Gets the average amount
+         * @return The average, or 0 for no transactions
+         */
+        public double getAverage() {
+            return count > 0 ? sum / count : 0;
+        }
+    }
+}
@@ -2,19 +2,44 @@ package model;
 
 import java.io.*;
 import java.nio.file.*;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * UserManager - Manages user authentication, registration and storage.
  * Uses a text file for persisting user data.
+ * 
+ * Changes are written by a background worker: saves requested within {@value #SAVE_DELAY_MILLIS} ms
+ * of each other are combined into one rewrite of the file, and password encryption runs on the
+ * same worker, so callers on the Swing event thread never wait for cryptography or the disk.
+ * The asynchronous methods return a future that completes once the change is on disk.
  */
 public class UserManager {
     
     private static final String USER_DATA_FILE = "users.txt";
+    // Saves requested within this time are written together
+    private static final long SAVE_DELAY_MILLIS = 250;
     private static UserManager instance;
     private Map<String, User> users;
-    private User currentUser;
+    private volatile User currentUser;
+    
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "user-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // The save waiting for its delay to pass, joined by every change made in the meantime
+    private CompletableFuture<Boolean> pendingSave;
+    private ScheduledFuture<?> scheduledSave;
+    // The save the worker is writing, so flush can wait for it
+    private CompletableFuture<Boolean> writingSave;
     
     /**
      * Private constructor for singleton pattern
@@ -22,13 +47,15 @@ public class UserManager {
     private UserManager() {
         users = new HashMap<>();
         loadUsers();
+        // Write a save still waiting for its delay when the application exits
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "user-store-flush"));
     }
     
     /**
      * Gets the singleton instance of UserManager
      * @return The UserManager instance
      */
-    public static UserManager getInstance() {
+    public static synchronized UserManager getInstance() {
         if (instance == null) {
             instance = new UserManager();
         }
@@ -43,28 +70,48 @@ public class UserManager {
      * @return True if registration is successful, false otherwise
      */
     public boolean registerUser(String username, String password, String email) {
+        return registerUserAsync(username, password, email).join();
+    }
+    
+    /**
+     * Registers a new user in the background
+     * @param username The username
+     * @param password The plain password (will be encrypted)
+     * @param email The email address
+     * @return A future completing with true once the user is saved, or false if registration failed
+     */
+    public CompletableFuture<Boolean> registerUserAsync(String username, String password, String email) {
         // Check if username already exists
-        if (users.containsKey(username)) {
-            return false;
+        synchronized (this) {
+            if (users.containsKey(username)) {
+                return CompletableFuture.completedFuture(false);
+            }
         }
         
         // Validate password
         if (!PasswordStrengthChecker.meetsMinimumRequirements(password)) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
         
         // Encrypt password
-        String encryptedPassword = EncryptionService.encrypt(password);
-        if (encryptedPassword == null) {
-            return false;
-        }
-        
-        // Create user
-        User user = new User(username, encryptedPassword, email);
-        users.put(username, user);
-        
-        // Save user data
-        return saveUsers();
+        return CompletableFuture.supplyAsync(() -> EncryptionService.encrypt(password), worker)
+            .thenCompose(encryptedPassword -> {
+                if (encryptedPassword == null) {
+                    return CompletableFuture.completedFuture(false);
+                }
+                synchronized (this) {
+                    // Another registration may have taken the name while encrypting
+                    if (users.containsKey(username)) {
+                        return CompletableFuture.completedFuture(false);
+                    }
+                    
+                    // Create user
+                    users.put(username, new User(username, encryptedPassword, email));
+                    
+                    // Save user data
+                    return saveUsersAsync();
+                }
+            });
     }
     
     /**
@@ -74,7 +121,10 @@ public class UserManager {
      * @return True if authentication is successful, false otherwise
      */
     public boolean authenticateUser(String username, String password) {
-        User user = users.get(username);
+        User user;
+        synchronized (this) {
+            user = users.get(username);
+        }
         if (user == null) {
             return false;
         }
@@ -125,12 +175,21 @@ public class UserManager {
      * @return True if update is successful, false otherwise
      */
     public boolean updateSessionTimeout(int minutes) {
+        return updateSessionTimeoutAsync(minutes).join();
+    }
+    
+    /**
+     * Updates the current user's timeout setting right away and saves it in the background
+     * @param minutes The timeout in minutes
+     * @return A future completing with true once the setting is saved, or false if it was not
+     */
+    public synchronized CompletableFuture<Boolean> updateSessionTimeoutAsync(int minutes) {
         if (currentUser == null || minutes < 1) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
         
         currentUser.setSessionTimeoutMinutes(minutes);
-        return saveUsers();
+        return saveUsersAsync();
     }
     
     /**
@@ -139,8 +198,17 @@ public class UserManager {
      * @return True if update is successful, false otherwise
      */
     public boolean updateCurrentUser(User user) {
+        return updateCurrentUserAsync(user).join();
+    }
+    
+    /**
+     * Updates the current user right away and saves the change in the background
+     * @param user The updated user object
+     * @return A future completing with true once the user is saved, or false if it was not
+     */
+    public synchronized CompletableFuture<Boolean> updateCurrentUserAsync(User user) {
         if (currentUser == null || user == null) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
         
         // Update the user in the map
@@ -150,7 +218,7 @@ public class UserManager {
         currentUser = user;
         
         // Save changes to file
-        return saveUsers();
+        return saveUsersAsync();
     }
     
     /**
@@ -160,33 +228,48 @@ public class UserManager {
      * @return True if password change is successful, false otherwise
      */
     public boolean changePassword(String currentPassword, String newPassword) {
+        return changePasswordAsync(currentPassword, newPassword).join();
+    }
+    
+    /**
+     * Changes the current user's password in the background
+     * @param currentPassword The current password for verification
+     * @param newPassword The new password to set
+     * @return A future completing with true once the new password is saved, or false if it was not changed
+     */
+    public CompletableFuture<Boolean> changePasswordAsync(String currentPassword, String newPassword) {
         // Check if user is logged in
-        if (currentUser == null) {
-            return false;
-        }
-        
-        // Verify current password
-        String decryptedPassword = EncryptionService.decrypt(currentUser.getEncryptedPassword());
-        if (decryptedPassword == null || !decryptedPassword.equals(currentPassword)) {
-            return false;
+        User user = currentUser;
+        if (user == null) {
+            return CompletableFuture.completedFuture(false);
         }
         
         // Validate new password
         if (!PasswordStrengthChecker.meetsMinimumRequirements(newPassword)) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
         
-        // Encrypt and set new password
-        String encryptedNewPassword = EncryptionService.encrypt(newPassword);
-        if (encryptedNewPassword == null) {
-            return false;
-        }
-        
-        // Update user's password
-        currentUser.setEncryptedPassword(encryptedNewPassword);
-        
-        // Save changes
-        return saveUsers();
+        return CompletableFuture.supplyAsync(() -> {
+            // Verify current password
+            String decryptedPassword = EncryptionService.decrypt(user.getEncryptedPassword());
+            if (decryptedPassword == null || !decryptedPassword.equals(currentPassword)) {
+                return null;
+            }
+            
+            // Encrypt new password
+            return EncryptionService.encrypt(newPassword);
+        }, worker).thenCompose(encryptedNewPassword -> {
+            if (encryptedNewPassword == null) {
+                return CompletableFuture.completedFuture(false);
+            }
+            synchronized (this) {
+                // Update user's password
+                user.setEncryptedPassword(encryptedNewPassword);
+                
+                // Save changes
+                return saveUsersAsync();
+            }
+        });
     }
     
     /**
@@ -218,17 +301,94 @@ public class UserManager {
     }
     
     /**
-     * Saves users to the data file
-     * @return True if save is successful, false otherwise
+     * Schedules a save of all users, joining a save that is still waiting for its delay
+     * @return A future completing with true once the users are on disk, or false if writing failed
      */
-    private boolean saveUsers() {
-        try {
-            BufferedWriter writer = new BufferedWriter(new FileWriter(USER_DATA_FILE));
+    private synchronized CompletableFuture<Boolean> saveUsersAsync() {
+        if (pendingSave == null) {
+            pendingSave = new CompletableFuture<>();
+        } else {
+            // Wait for changes made right after this one too
+            scheduledSave.cancel(false);
+        }
+        scheduledSave = worker.schedule(this::writePendingSave, SAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        return pendingSave;
+    }
+    
+    /**
+     * Writes a save that is still waiting for its delay, or waits for the one the worker is
+     * writing, blocking until it is on disk
+     */
+    public void flush() {
+        CompletableFuture<Boolean> inFlight;
+        synchronized (this) {
+            if (scheduledSave != null && scheduledSave.cancel(false)) {
+                inFlight = null;
+            } else {
+                // The worker has started writing, or nothing is pending
+                inFlight = pendingSave != null ? pendingSave : writingSave;
+            }
+        }
+        if (inFlight != null) {
+            inFlight.join();
+        } else {
+            writePendingSave();
+        }
+    }
+    
+    /**
+     * Writes all users as they are now and completes the waiting callers
+     */
+    private void writePendingSave() {
+        CompletableFuture<Boolean> save;
+        List<String> lines = new ArrayList<>();
+        synchronized (this) {
+            save = pendingSave;
+            pendingSave = null;
+            scheduledSave = null;
+            if (save == null) {
+                return;
+            }
             for (User user : users.values()) {
-                writer.write(user.toFileString());
+                lines.add(user.toFileString());
+            }
+            writingSave = save;
+        }
+        save.complete(saveUsers(lines));
+        synchronized (this) {
+            if (writingSave == save) {
+                writingSave = null;
+            }
+        }
+    }
+    
+    /**
+     * Saves users to the data file. The lines are written to a temporary file that replaces the
+     * data file once it is on disk, so a crash never leaves a partly written file.
+     * @param lines The users in file format
+     * @return True if save is successful, false otherwise
+     */
+    private static boolean saveUsers(List<String> lines) {
+        Path path = Paths.get(USER_DATA_FILE);
+        Path temporary = Paths.get(USER_DATA_FILE + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temporary.toFile());
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out))) {
+            for (String line : lines) {
+                writer.write(line);
                 writer.newLine();
             }
-            writer.close();
+            writer.flush();
+            out.getFD().sync();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        try {
+            try {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
             return true;
         } catch (IOException e) {
             e.printStackTrace();
@@ -240,7 +400,7 @@ public class UserManager {
      * Gets all registered users
      * @return A map of username to User objects
      */
-    public Map<String, User> getAllUsers() {
+    public synchronized Map<String, User> getAllUsers() {
         return users;
     }
 } 
\ No newline at end of file
@@ -69,9 +69,20 @@ public class AccountView extends JFrame {
     
     // 用户自定义预算（null表示未自定义）
     public static Double customBudget = null;
-    public static void setCustomBudget(Double value) { customBudget = value; }
+    public static void setCustomBudget(Double value) { customBudget = value; syncBudgetAlerts(); }
     public static Double getCustomBudget() { return customBudget; }
-    public static void clearCustomBudget() { customBudget = null; }
+    public static void clearCustomBudget() { customBudget = null; syncBudgetAlerts(); }
+    /**
+     * Gets the monthly budget in effect: the custom budget if set, otherwise the CNY boost or default budget
+     * @return The monthly budget
+     */
+    public static double getMonthlyBudget() {
+        return customBudget != null ? customBudget : (isCNYBudgetBoost ? 10000.00 : BudgetAlertEngine.DEFAULT_TOTAL_BUDGET);
+    }
+    // Keep the budget alert rules in line with the budget shown on the Budget page
+    private static void syncBudgetAlerts() {
+        BudgetAlertEngine.getInstance().setTotalBudget(getMonthlyBudget());
+    }
     
     /**
      * Constructor for the AccountView
@@ -560,25 +571,31 @@ public class AccountView extends JFrame {
         
         UserManager userManager = UserManager.getInstance();
         
-        if (userManager.updateSessionTimeout(newTimeout)) {
-            // Also update the current session timer with the new timeout
-            SessionManager.getInstance().stopSession();
-            SessionManager.getInstance().startSession(this);
-            
-            JOptionPane.showMessageDialog(
-                this,
-                "Settings saved successfully.",
-                "Settings Saved",
-                JOptionPane.INFORMATION_MESSAGE
-            );
-        } else {
-            JOptionPane.showMessageDialog(
-                this,
-                "Failed to save settings.",
-                "Error",
-                JOptionPane.ERROR_MESSAGE
-            );
-        }
+        // The timeout changes at once; the file is written in the background
+        userManager.updateSessionTimeoutAsync(newTimeout).whenComplete((saved, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                error.printStackTrace();
+            }
+            if (Boolean.TRUE.equals(saved)) {
+                // Also update the current session timer with the new timeout
+                SessionManager.getInstance().stopSession();
+                SessionManager.getInstance().startSession(this);
+                
+                JOptionPane.showMessageDialog(
+                    this,
+                    "Settings saved successfully.",
+                    "Settings Saved",
+                    JOptionPane.INFORMATION_MESSAGE
+                );
+            } else {
+                JOptionPane.showMessageDialog(
+                    this,
+                    "Failed to save settings.",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE
+                );
+            }
+        }));
     }
     
     /**
@@ -1097,6 +1114,7 @@ public class AccountView extends JFrame {
         
         budgetSwitch.addActionListener(e -> {
             isCNYBudgetBoost = budgetSwitch.isSelected();
+            syncBudgetAlerts();
             JOptionPane.showMessageDialog(this, 
                 "Budget boost setting will take effect when you visit the Budget page.", 
                 "Budget Updated", 
@@ -1132,25 +1150,28 @@ public class AccountView extends JFrame {
                 String newCurrency = (String) currencyCombo.getSelectedItem();
                 currentUser.setCurrency(newCurrency);
                 
-                // Update the user in the UserManager
-                boolean saved = UserManager.getInstance().updateCurrentUser(currentUser);
-                
-                if (saved) {
-                    JOptionPane.showMessageDialog(this, 
-                        "Preferences saved successfully!", 
-                        "Success", 
-                        JOptionPane.INFORMATION_MESSAGE);
-                        
-                    // If currency changed, update the display immediately
-                    if (!originalCurrency.equals(newCurrency)) {
-                        updateCurrencyDisplay(newCurrency);
+                // Update the user in the UserManager; it is saved in the background
+                UserManager.getInstance().updateCurrentUserAsync(currentUser).whenComplete((saved, error) -> SwingUtilities.invokeLater(() -> {
+                    if (error != null) {
+                        error.printStackTrace();
                     }
-                } else {
-                    JOptionPane.showMessageDialog(this, 
-                        "Failed to save preferences. Please try again.", 
-                        "Error", 
-                        JOptionPane.ERROR_MESSAGE);
-                }
+                    if (Boolean.TRUE.equals(saved)) {
+                        JOptionPane.showMessageDialog(this, 
+                            "Preferences saved successfully!", 
+                            "Success", 
+                            JOptionPane.INFORMATION_MESSAGE);
+                            
+                        // If currency changed, update the display immediately
+                        if (!originalCurrency.equals(newCurrency)) {
+                            updateCurrencyDisplay(newCurrency);
+                        }
+                    } else {
+                        JOptionPane.showMessageDialog(this, 
+                            "Failed to save preferences. Please try again.", 
+                            "Error", 
+                            JOptionPane.ERROR_MESSAGE);
+                    }
+                }));
             } else {
                 JOptionPane.showMessageDialog(this, 
                     "Cannot save preferences: No user is currently logged in.", 
@@ -1332,22 +1353,27 @@ public class AccountView extends JFrame {
                 return;
             }
             
-            // Attempt to change the password
+            // Attempt to change the password; checking and encrypting it run in the background
             UserManager userManager = UserManager.getInstance();
-            boolean success = userManager.changePassword(currentPassword, newPassword);
-            
-            if (success) {
-                JOptionPane.showMessageDialog(changePasswordDialog, 
-                    "Password changed successfully!", 
-                    "Success", 
-                    JOptionPane.INFORMATION_MESSAGE);
-                changePasswordDialog.dispose();
-            } else {
-                JOptionPane.showMessageDialog(changePasswordDialog, 
-                    "Failed to change password. Please check your current password and try again.", 
-                    "Error", 
-                    JOptionPane.ERROR_MESSAGE);
-            }
+            changeButton.setEnabled(false);
+            userManager.changePasswordAsync(currentPassword, newPassword).whenComplete((success, error) -> SwingUtilities.invokeLater(() -> {
+                changeButton.setEnabled(true);
+                if (error != null) {
+                    error.printStackTrace();
+                }
+                if (Boolean.TRUE.equals(success)) {
+                    JOptionPane.showMessageDialog(changePasswordDialog, 
+                        "Password changed successfully!", 
+                        "Success", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                    changePasswordDialog.dispose();
+                } else {
+                    JOptionPane.showMessageDialog(changePasswordDialog, 
+                        "Failed to change password. Please check your current password and try again.", 
+                        "Error", 
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            }));
         });
         
         // Add buttons to the button panel
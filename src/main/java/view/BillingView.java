@@ -4,6 +4,8 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -15,9 +17,15 @@ import model.DeepSeekAPI;
 import model.CurrencyManager;
 import model.User;
 import model.UserManager;
+import model.ImportJob;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import model.SessionManager;
 import java.io.File;
 import java.io.FileWriter;
@@ -63,6 +71,11 @@ public class BillingView extends JFrame {
     
     private User currentUser;
     private JTable billingTable;
+    private TransactionTableModel transactionTableModel;
+    private TableRowSorter<TransactionTableModel> transactionSorter;
+    private JLabel noTransactionsLabel;
+    // Text typed into the filter field; empty shows every transaction
+    private String filterText = "";
     
     /**
      * Constructor for the BillingView
@@ -416,17 +429,8 @@ public class BillingView extends JFrame {
         transactionsLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         transactionsLabel.setBorder(BorderFactory.createEmptyBorder(20, 0, 10, 0));
         
-        // Add some sample transactions using lighter weight components
-        transactionsPanel = new JPanel();
-        transactionsPanel.setLayout(new BoxLayout(transactionsPanel, BoxLayout.Y_AXIS));
-        transactionsPanel.setBackground(Color.WHITE);
-        transactionsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        // Add a few sample transactions with YYYY/MM/DD format
-        addTransactionItem(transactionsPanel, "2024-01-15", "Grocery Shopping", "Food", 85.43);
-        addTransactionItem(transactionsPanel, "2024-01-12", "Monthly Rent", "Housing", 1200.00);
-        addTransactionItem(transactionsPanel, "2024-01-10", "Gas Station", "Transportation", 45.75);
-        addTransactionItem(transactionsPanel, "2024-01-05", "Online Streaming", "Entertainment", 14.99);
+        // Transactions table - only visible rows are rendered, so large histories stay responsive
+        transactionsPanel = createTransactionsTablePanel();
         
         // Data entry instructions
         JLabel dataEntryLabel = new JLabel("Transaction Data Entry");
@@ -1012,62 +1016,15 @@ public class BillingView extends JFrame {
             String filePath = filePathField.getText();
             if (!filePath.isEmpty()) {
                 try {
-                    JDialog processingDialog = new JDialog(this, "导入中...", false);
-                    JLabel processingLabel = new JLabel("正在导入交易数据，请稍候...");
-                    processingLabel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
-                    processingDialog.add(processingLabel);
-                    processingDialog.pack();
-                    processingDialog.setLocationRelativeTo(this);
-                    
-                    SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
-                        private String errorMessage = null;
-                        private boolean hasDetailedError = false;
-                        
-                        @Override
-                        protected Void doInBackground() {
-                            try {
-                                // Import directly using the format detection in TransactionManager
-                                TransactionManager.importFromCSV(filePath);
-                            } catch (TransactionManager.ImportException ex) {
-                                errorMessage = ex.getMessage();
-                                hasDetailedError = true;
-                                ex.printStackTrace();
-                            } catch (Exception ex) {
-                                errorMessage = ex.getMessage();
-                                ex.printStackTrace();
-                            }
-                            return null;
-                        }
-                        
-                        @Override
-                        protected void done() {
-                            processingDialog.dispose();
-                            
-                            if (errorMessage == null) {
-                                JOptionPane.showMessageDialog(
-                                    BillingView.this, 
-                                    "Transaction data imported successfully!", 
-                                    "Import Successful", 
-                                    JOptionPane.INFORMATION_MESSAGE
-                                );
-                                refreshTransactionsDisplay();
-                            } else {
-                                if (hasDetailedError && errorMessage.contains("Import completed with errors")) {
-                                    showDetailedErrorDialog(errorMessage);
-                                } else {
-                                    JOptionPane.showMessageDialog(
-                                        BillingView.this, 
-                                        "Error importing transactions: " + errorMessage, 
-                                        "Import Error", 
-                                        JOptionPane.ERROR_MESSAGE
-                                    );
-                                }
-                            }
-                        }
-                    };
-                    
-                    worker.execute();
-                    processingDialog.setVisible(true);
+                    // Offer to finish an import that was paused or interrupted before starting a new one
+                    ImportJob unfinished = chooseUnfinishedImport();
+                    if (unfinished != null) {
+                        runImportJob(unfinished, importButton);
+                        return;
+                    }
+                    runImportJob(ImportJob.start(filePath), importButton);
+                } catch (CancellationException ex) {
+                    // The user closed the unfinished import dialog
                 } catch (Exception ex) {
                     JOptionPane.showMessageDialog(
                         this, 
@@ -1088,6 +1045,160 @@ public class BillingView extends JFrame {
         });
     }
     
+    /**
+     * Asks what to do with the current user's unfinished imports
+     * @return The import to resume, or null to start a new import
+     * @throws IOException If an import cannot be rolled back or discarded
+     * @throws CancellationException If the user closes the dialog
+     */
+    private ImportJob chooseUnfinishedImport() throws IOException {
+        String userId = currentUser != null ? currentUser.getUsername() : "";
+        for (ImportJob job : ImportJob.findUnfinished(userId)) {
+            String[] options = {"Resume", "Roll Back", "Keep Imported Rows"};
+            int choice = JOptionPane.showOptionDialog(
+                this,
+                "An import of " + new File(job.getSourcePath()).getName() + " was not finished.\n" +
+                job.getRowsProcessed() + " rows were processed and " + job.getImportedCount() + " transactions imported.\n\n" +
+                "Resume it, roll back the transactions it imported, or keep them and start a new import?",
+                "Unfinished Import",
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                options,
+                options[0]
+            );
+            if (choice == 0) {
+                return job;
+            } else if (choice == 1) {
+                job.rollback();
+                refreshTransactionsDisplay();
+            } else if (choice == 2) {
+                job.discard();
+            } else {
+                throw new CancellationException();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Runs an import job in the background, showing its progress with rows per second and
+     * the estimated time left. The import can be paused and resumed later.
+     * @param job The job to run
+     * @param importButton The button that starts imports; disabled until the job stops
+     */
+    private void runImportJob(ImportJob job, JButton importButton) {
+        importButton.setEnabled(false);
+        JDialog processingDialog = new JDialog(this, "导入中...", false);
+        JPanel progressPanel = new JPanel(new BorderLayout(0, 10));
+        progressPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        JLabel processingLabel = new JLabel("正在导入交易数据，请稍候...");
+        JProgressBar progressBar = new JProgressBar(0, 1000);
+        progressBar.setStringPainted(true);
+        progressBar.setPreferredSize(new Dimension(360, 20));
+        JButton pauseButton = new JButton("Pause");
+        pauseButton.addActionListener(ev -> {
+            job.requestStop();
+            pauseButton.setEnabled(false);
+            processingLabel.setText("Pausing after the current batch...");
+        });
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttonPanel.add(pauseButton);
+        progressPanel.add(processingLabel, BorderLayout.NORTH);
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        progressPanel.add(buttonPanel, BorderLayout.SOUTH);
+        processingDialog.add(progressPanel);
+        processingDialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        processingDialog.pack();
+        processingDialog.setLocationRelativeTo(this);
+        
+        SwingWorker<Void, ImportJob> worker = new SwingWorker<Void, ImportJob>() {
+            private String errorMessage = null;
+            private boolean hasDetailedError = false;
+            private TransactionManager.ImportResult result = null;
+            
+            @Override
+            protected Void doInBackground() {
+                try {
+                    // The job reports after every committed batch
+                    result = job.run(this::publish);
+                } catch (TransactionManager.ImportException ex) {
+                    errorMessage = ex.getMessage();
+                    hasDetailedError = true;
+                    ex.printStackTrace();
+                } catch (Exception ex) {
+                    errorMessage = ex.getMessage();
+                    ex.printStackTrace();
+                }
+                return null;
+            }
+            
+            @Override
+            protected void process(List<ImportJob> updates) {
+                long total = Math.max(job.getSourceLength(), 1);
+                progressBar.setValue((int) Math.min(1000, job.getBytesRead() * 1000 / total));
+                if (pauseButton.isEnabled()) {
+                    long remaining = job.getEstimatedRemainingMillis();
+                    processingLabel.setText(String.format("%,d rows · %,.0f rows/s · %s left",
+                        job.getRowsProcessed(), job.getRowsPerSecond(),
+                        remaining < 0 ? "estimating" : formatDuration(remaining)));
+                }
+            }
+            
+            @Override
+            protected void done() {
+                processingDialog.dispose();
+                importButton.setEnabled(true);
+                
+                if (errorMessage == null && !result.isComplete()) {
+                    JOptionPane.showMessageDialog(
+                        BillingView.this, 
+                        "Import paused after " + job.getRowsProcessed() + " rows (" + result.getImportedCount() + " transactions imported).\n" +
+                        "Click Import again to resume it.", 
+                        "Import Paused", 
+                        JOptionPane.INFORMATION_MESSAGE
+                    );
+                    refreshTransactionsDisplay();
+                } else if (errorMessage == null) {
+                    String message = "Transaction data imported successfully!\n" + result.getImportedCount() + " transactions imported";
+                    if (result.getDuplicateCount() > 0) {
+                        message += ", " + result.getDuplicateCount() + " already imported transactions skipped";
+                    }
+                    JOptionPane.showMessageDialog(
+                        BillingView.this, 
+                        message + ".", 
+                        "Import Successful", 
+                        JOptionPane.INFORMATION_MESSAGE
+                    );
+                    refreshTransactionsDisplay();
+                } else {
+                    if (hasDetailedError && errorMessage.contains("Import completed with errors")) {
+                        showDetailedErrorDialog(errorMessage);
+                    } else {
+                        JOptionPane.showMessageDialog(
+                            BillingView.this, 
+                            "Error importing transactions: " + errorMessage, 
+                            "Import Error", 
+                            JOptionPane.ERROR_MESSAGE
+                        );
+                    }
+                    refreshTransactionsDisplay();
+                }
+            }
+        };
+        
+        worker.execute();
+        processingDialog.setVisible(true);
+    }
+    
+    /**
+     * Formats a duration as minutes and seconds, e.g. "2m 05s"
+     */
+    private static String formatDuration(long millis) {
+        long seconds = (millis + 999) / 1000;
+        return seconds >= 60 ? String.format("%dm %02ds", seconds / 60, seconds % 60) : seconds + "s";
+    }
+    
     /**
      * Displays a detailed error dialog for CSV import errors
      * @param errorMessage The detailed error message from ImportException
@@ -1237,95 +1348,150 @@ public class BillingView extends JFrame {
     }
     
     /**
-     * Adds a transaction item to the list display
-     * @param panel The panel to add the transaction to
-     * @param date The date of the transaction
-     * @param description The description of the transaction
-     * @param category The category of the transaction
-     * @param amount The amount of the transaction
+     * Creates the transactions table with a filter field
+     * @return The panel holding the filter field and the table
      */
-    private void addTransactionItem(JPanel panel, String date, String description, String category, double amount) {
-        // Get current user's currency preference
-        User currentUser = UserManager.getInstance().getCurrentUser();
-        String userCurrency = currentUser != null ? currentUser.getCurrency() : CurrencyManager.CNY;
-        
-        JPanel itemPanel = new JPanel(new BorderLayout());
-        itemPanel.setBackground(Color.WHITE);
-        itemPanel.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createMatteBorder(0, 0, 1, 0, new Color(230, 230, 230)),
-                BorderFactory.createEmptyBorder(12, 15, 12, 15)));
-        itemPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 80));
-        
-        JPanel detailsPanel = new JPanel();
-        detailsPanel.setLayout(new BoxLayout(detailsPanel, BoxLayout.Y_AXIS));
-        detailsPanel.setBackground(Color.WHITE);
-        
-        JLabel dateLabel = new JLabel(date);
-        dateLabel.setFont(new Font("Arial", Font.BOLD, 14));
-        dateLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        JLabel descriptionLabel = new JLabel(description);
-        descriptionLabel.setFont(CONTENT_FONT);
-        descriptionLabel.setForeground(DARK_GRAY);
-        descriptionLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        JLabel categoryLabel = new JLabel(category);
-        categoryLabel.setFont(new Font("Arial", Font.ITALIC, 12));
-        categoryLabel.setForeground(new Color(150, 150, 150));
-        categoryLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        detailsPanel.add(dateLabel);
-        detailsPanel.add(Box.createVerticalStrut(3));
-        detailsPanel.add(descriptionLabel);
-        detailsPanel.add(Box.createVerticalStrut(3));
-        detailsPanel.add(categoryLabel);
-        
-        // Convert amount to user's preferred currency
-        double convertedAmount = currencyManager.convert(amount, CurrencyManager.CNY, userCurrency);
-        
-        // Format amount according to user's currency
-        String formattedAmount = currencyManager.format(convertedAmount, userCurrency);
-        
-        JLabel amountLabel = new JLabel(formattedAmount);
-        amountLabel.setFont(new Font("Arial", Font.BOLD, 16));
-        amountLabel.setForeground(amount < 0 ? new Color(231, 76, 60) : new Color(46, 204, 113));
-        
-        itemPanel.add(detailsPanel, BorderLayout.WEST);
-        itemPanel.add(amountLabel, BorderLayout.EAST);
-        
-        panel.add(itemPanel);
-        panel.add(Box.createVerticalStrut(5));
+    private JPanel createTransactionsTablePanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 5));
+        panel.setBackground(Color.WHITE);
+        panel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        panel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 360));
+        
+        transactionTableModel = new TransactionTableModel();
+        billingTable = new JTable(transactionTableModel);
+        billingTable.setFont(CONTENT_FONT);
+        billingTable.setRowHeight(28);
+        billingTable.setFillsViewportHeight(true);
+        billingTable.setShowVerticalLines(false);
+        billingTable.setGridColor(new Color(230, 230, 230));
+        billingTable.getTableHeader().setFont(new Font("Arial", Font.BOLD, 14));
+        billingTable.getColumnModel().getColumn(TransactionTableModel.DESCRIPTION_COLUMN).setPreferredWidth(250);
+        
+        // Sorting and filtering work on an index over the model rows; no components are created per row
+        transactionSorter = new TableRowSorter<>(transactionTableModel);
+        transactionSorter.setSortKeys(Collections.singletonList(
+                new RowSorter.SortKey(TransactionTableModel.DATE_COLUMN, SortOrder.DESCENDING)));
+        billingTable.setRowSorter(transactionSorter);
+        
+        billingTable.getColumnModel().getColumn(TransactionTableModel.DATE_COLUMN)
+                .setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setText(value != null ? ((LocalDate) value).format(DateTimeFormatter.ISO_LOCAL_DATE) : "");
+            }
+        });
+        billingTable.getColumnModel().getColumn(TransactionTableModel.AMOUNT_COLUMN)
+                .setCellRenderer(new AmountCellRenderer());
+        
+        // Filter field
+        JPanel filterPanel = new JPanel(new BorderLayout(5, 0));
+        filterPanel.setBackground(Color.WHITE);
+        JLabel filterLabel = new JLabel("Filter:");
+        filterLabel.setFont(CONTENT_FONT);
+        JTextField filterField = new JTextField();
+        filterField.setFont(CONTENT_FONT);
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { applyFilter(filterField.getText()); }
+            public void removeUpdate(DocumentEvent e) { applyFilter(filterField.getText()); }
+            public void changedUpdate(DocumentEvent e) { applyFilter(filterField.getText()); }
+        });
+        filterPanel.add(filterLabel, BorderLayout.WEST);
+        filterPanel.add(filterField, BorderLayout.CENTER);
+        
+        JScrollPane tableScrollPane = new JScrollPane(billingTable);
+        tableScrollPane.setPreferredSize(new Dimension(800, 300));
+        tableScrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        
+        noTransactionsLabel = new JLabel("No transactions found");
+        noTransactionsLabel.setFont(CONTENT_FONT);
+        noTransactionsLabel.setForeground(DARK_GRAY);
+        noTransactionsLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        noTransactionsLabel.setVisible(false);
+        
+        panel.add(filterPanel, BorderLayout.NORTH);
+        panel.add(tableScrollPane, BorderLayout.CENTER);
+        panel.add(noTransactionsLabel, BorderLayout.SOUTH);
+        return panel;
     }
     
     /**
-     * Refreshes the transactions display to show current data
+     * Filters the transactions table by description or category as the user types
+     * @param text The text to match (case-insensitive)
      */
-    private void refreshTransactionsDisplay() {
-        if (transactionsPanel != null) {
-            transactionsPanel.removeAll();
-            
-            // Get transactions
-            List<Transaction> transactions = TransactionManager.loadTransactions();
-            
-            if (transactions.isEmpty()) {
-                JLabel noTransactionsLabel = new JLabel("No transactions found");
-                noTransactionsLabel.setFont(CONTENT_FONT);
-                noTransactionsLabel.setForeground(DARK_GRAY);
-                noTransactionsLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-                transactionsPanel.add(noTransactionsLabel);
-            } else {
-                // Add each transaction to the list
-                for (Transaction transaction : transactions) {
-                    addTransactionItem(
-                        transactionsPanel,
-                        transaction.getDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")),
-                        transaction.getDescription(),
-                        transaction.getCategory(),
-                        transaction.getAmount()
-                    );
+    private void applyFilter(String text) {
+        filterText = text != null ? text.trim() : "";
+        refreshTransactionsDisplay();
+    }
+    
+    /**
+     * Finds the transactions matching the filter text. Descriptions are looked up in the search
+     * index instead of being scanned; categories still match the text anywhere in their name.
+     * Text without words, such as "&amp;", is only matched against categories.
+     * @param text The filter text
+     * @return The matching transactions
+     */
+    private List<Transaction> findTransactions(String text) {
+        List<Transaction> matches = TransactionManager.hasSearchTerms(text)
+                ? TransactionManager.searchTransactions(text) : new ArrayList<>();
+        Set<Transaction> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        found.addAll(matches);
+        String lowerText = text.toLowerCase();
+        List<String> categories = new ArrayList<>();
+        for (String category : TransactionManager.getCategories()) {
+            if (category.toLowerCase().contains(lowerText)) {
+                categories.add(category);
+            }
+        }
+        if (!categories.isEmpty()) {
+            for (Transaction transaction : TransactionManager.query().inCategories(categories).list()) {
+                if (found.add(transaction)) {
+                    matches.add(transaction);
                 }
             }
+        }
+        return matches;
+    }
+    
+    /**
+     * Renders amounts in the user's preferred currency; only called for visible cells
+     */
+    private class AmountCellRenderer extends DefaultTableCellRenderer {
+        private final Font amountFont = new Font("Arial", Font.BOLD, 14);
+        
+        AmountCellRenderer() {
+            setHorizontalAlignment(SwingConstants.RIGHT);
+        }
+        
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            double amount = value != null ? (Double) value : 0.0;
+            
+            // Get current user's currency preference
+            User currentUser = UserManager.getInstance().getCurrentUser();
+            String userCurrency = currentUser != null ? currentUser.getCurrency() : CurrencyManager.CNY;
             
+            // Convert amount to user's preferred currency and format it
+            double convertedAmount = currencyManager.convert(amount, CurrencyManager.CNY, userCurrency);
+            setText(currencyManager.format(convertedAmount, userCurrency));
+            setFont(amountFont);
+            if (!isSelected) {
+                setForeground(amount < 0 ? new Color(231, 76, 60) : new Color(46, 204, 113));
+            }
+            return this;
+        }
+    }
+    
+    /**
+     * Refreshes the transactions display to show current data
+     */
+    private void refreshTransactionsDisplay() {
+        if (transactionTableModel != null) {
+            List<Transaction> transactions = filterText.isEmpty()
+                    ? TransactionManager.loadTransactions() : findTransactions(filterText);
+            transactionTableModel.setTransactions(transactions);
+            noTransactionsLabel.setVisible(transactions.isEmpty());
             transactionsPanel.revalidate();
             transactionsPanel.repaint();
         }
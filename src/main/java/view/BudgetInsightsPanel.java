@@ -1,8 +1,7 @@
 package view;
 
 import model.BudgetInsights;
-import model.Transaction;
-import model.TransactionManager;
+import model.BudgetSummary;
 import model.DeepSeekAPI;
 import view.AccountView; // Import AccountView for theme/budget settings
 
@@ -15,8 +14,8 @@ import java.awt.event.ActionListener;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
 
 /**
@@ -36,7 +35,12 @@ public class BudgetInsightsPanel extends JPanel {
     // Budget data
     private double totalBudget;
     private double spentAmount = 0.0;
-    private Map<String, Double> categoryBreakdown;
+    private Map<String, Double> categoryBreakdown = new HashMap<>();
+    private boolean dataLoaded = false;
+    
+    // Background loading of the transaction data
+    private SwingWorker<BudgetSummary, Void> dataLoader;
+    private JLabel budgetLabel;
     
     // Budget insights generator
     private BudgetInsights budgetInsights;
@@ -55,9 +59,18 @@ public class BudgetInsightsPanel extends JPanel {
     private final Font CONTENT_FONT = new Font("Arial", Font.PLAIN, 14);
     
     /**
-     * Constructor for BudgetInsightsPanel
+     * Constructor for BudgetInsightsPanel that loads its own data in the background
      */
     public BudgetInsightsPanel() {
+        this(true);
+    }
+    
+    /**
+     * Constructor for BudgetInsightsPanel
+     * @param loadInBackground True to load the transaction data in the background;
+     *                         false when the owner supplies it through updateBudgetData
+     */
+    public BudgetInsightsPanel(boolean loadInBackground) {
         setLayout(new BorderLayout(10, 10));
         setBorder(new EmptyBorder(15, 15, 15, 15));
         
@@ -65,8 +78,7 @@ public class BudgetInsightsPanel extends JPanel {
         setBackground(AccountView.isCNYTheme ? AccountView.CNY_RED : Color.WHITE);
         
         // Initialize data
-        this.totalBudget = AccountView.customBudget != null ? AccountView.customBudget : (AccountView.isCNYBudgetBoost ? 10000.00 : 5000.00);
-        initializeData();
+        this.totalBudget = AccountView.getMonthlyBudget();
         
         // Initialize BudgetInsights with an empty string to use default key in DeepSeekAPI
         budgetInsights = new BudgetInsights("");
@@ -79,51 +91,61 @@ public class BudgetInsightsPanel extends JPanel {
         if (AccountView.isCNYTheme) {
             applyTheme();
         }
+        
+        if (loadInBackground) {
+            loadDataInBackground();
+        }
     }
     
     /**
-     * Initialize data from transaction manager
+     * Loads and aggregates the transactions off the Event Dispatch Thread and shows
+     * the result when done. A load that is still running is cancelled first.
      */
-    private void initializeData() {
-        categoryBreakdown = new HashMap<>();
-        
-        // Load real transactions
-        List<Transaction> transactions = TransactionManager.loadTransactions();
-        
-        // Calculate total spent amount and category breakdown
-        spentAmount = 0.0;
-        
-        for (Transaction transaction : transactions) {
-            double amount = transaction.getAmount();
-            spentAmount += amount;
+    public void loadDataInBackground() {
+        cancelLoading();
+        refreshButton.setEnabled(false);
+        
+        dataLoader = new SwingWorker<BudgetSummary, Void>() {
+            @Override
+            protected BudgetSummary doInBackground() {
+                return BudgetSummary.load();
+            }
             
-            // Update category breakdown
-            String category = transaction.getCategory();
-            categoryBreakdown.put(
-                category, 
-                categoryBreakdown.getOrDefault(category, 0.0) + amount
-            );
-        }
-        
-        // If no transactions found, use sample data
-        if (transactions.isEmpty()) {
-            initializeSampleData();
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                refreshButton.setEnabled(true);
+                try {
+                    BudgetSummary summary = get();
+                    updateBudgetData(totalBudget, summary.getTotalSpent(), summary.getCategorySpending());
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Error loading budget data: " + e.getMessage());
+                }
+            }
+        };
+        dataLoader.execute();
+    }
+    
+    /**
+     * Cancels the background data loading, if it is still running
+     */
+    private void cancelLoading() {
+        if (dataLoader != null) {
+            dataLoader.cancel(true);
+            dataLoader = null;
+            refreshButton.setEnabled(true);
         }
     }
     
     /**
-     * Initialize sample data for demonstration when no transactions exist
+     * Stops loading when the panel is removed, e.g. because its window was closed
      */
-    private void initializeSampleData() {
-        categoryBreakdown = new HashMap<>();
-        categoryBreakdown.put("Housing", 1500.0);
-        categoryBreakdown.put("Food & Dining", 650.25);
-        categoryBreakdown.put("Transportation", 420.50);
-        categoryBreakdown.put("Utilities", 340.0);
-        categoryBreakdown.put("Entertainment", 200.0);
-        categoryBreakdown.put("Other", 130.0);
-        
-        spentAmount = 3240.75;
+    @Override
+    public void removeNotify() {
+        cancelLoading();
+        super.removeNotify();
     }
     
     /**
@@ -159,11 +181,8 @@ public class BudgetInsightsPanel extends JPanel {
                 BorderFactory.createLineBorder(new Color(200, 200, 200), 1),
                 BorderFactory.createEmptyBorder(15, 15, 15, 15)));
         
-        // Show current budget data
-        JLabel budgetLabel = new JLabel(String.format(
-            "Monthly Budget: ¥%.2f   |   Spent: ¥%.2f   |   Remaining: ¥%.2f", 
-            totalBudget, spentAmount, totalBudget - spentAmount
-        ));
+        // Show current budget data once it has loaded
+        budgetLabel = new JLabel(String.format("Monthly Budget: ¥%.2f   |   Loading spending data...", totalBudget));
         budgetLabel.setFont(SUBHEADER_FONT);
         budgetLabel.setForeground(AccountView.isCNYTheme ? AccountView.CNY_RED : PRIMARY_BLUE);
         
@@ -193,6 +212,7 @@ public class BudgetInsightsPanel extends JPanel {
         generateButton.setFocusPainted(false);
         generateButton.setBorderPainted(false);
         generateButton.addActionListener(e -> generateInsights());
+        generateButton.setEnabled(false); // Enabled once the budget data has loaded
         
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         buttonPanel.setBackground(AccountView.isCNYTheme ? AccountView.CNY_YELLOW : LIGHT_BLUE);
@@ -267,42 +287,18 @@ public class BudgetInsightsPanel extends JPanel {
      * Refreshes the budget data without generating new insights
      */
     private void refreshData() {
-        // Reload data
-        initializeData();
-        
-        // Update budget summary
-        updateBudgetSummary();
+        // Reload data in the background; the summary is updated when it arrives
+        loadDataInBackground();
     }
     
     /**
      * Updates the budget summary display
      */
     private void updateBudgetSummary() {
-        // Find the budget label in the UI and update it
-        Component[] components = getComponents();
-        for (Component comp : components) {
-            if (comp instanceof JScrollPane) {
-                JScrollPane scrollPane = (JScrollPane) comp;
-                if (scrollPane.getViewport().getView() instanceof JPanel) {
-                    JPanel contentPanel = (JPanel) scrollPane.getViewport().getView();
-                    for (Component c : contentPanel.getComponents()) {
-                        if (c instanceof JPanel && c == contentPanel.getComponent(0)) {
-                            JPanel summaryPanel = (JPanel) c;
-                            for (Component sc : summaryPanel.getComponents()) {
-                                if (sc instanceof JLabel) {
-                                    JLabel budgetLabel = (JLabel) sc;
-                                    budgetLabel.setText(String.format(
-                                        "Monthly Budget: ¥%.2f   |   Spent: ¥%.2f   |   Remaining: ¥%.2f", 
-                                        totalBudget, spentAmount, totalBudget - spentAmount
-                                    ));
-                                    return;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
+        budgetLabel.setText(String.format(
+            "Monthly Budget: ¥%.2f   |   Spent: ¥%.2f   |   Remaining: ¥%.2f", 
+            totalBudget, spentAmount, totalBudget - spentAmount
+        ));
     }
     
     /**
@@ -523,12 +519,16 @@ public class BudgetInsightsPanel extends JPanel {
      * @param categoryBreakdown Map of categories to amounts
      */
     public void updateBudgetData(double totalBudget, double spentAmount, Map<String, Double> categoryBreakdown) {
-        this.totalBudget = AccountView.customBudget != null ? AccountView.customBudget : (AccountView.isCNYBudgetBoost ? 10000.00 : 5000.00);
+        this.totalBudget = AccountView.getMonthlyBudget();
         this.spentAmount = spentAmount;
         this.categoryBreakdown = categoryBreakdown;
         
         // Update the budget summary
         updateBudgetSummary();
+        if (!dataLoaded) {
+            dataLoaded = true;
+            generateButton.setEnabled(true);
+        }
         
         // Apply theme if needed
         if (AccountView.isCNYTheme) {
@@ -2,6 +2,7 @@ package view;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -10,13 +11,16 @@ import java.awt.event.MouseEvent;
 import model.SessionManager;
 import model.UserManager;
 import model.Transaction;
-import model.TransactionManager;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import model.User;
 import model.CurrencyManager;
+import model.BudgetAlertEngine;
+import model.BudgetSummary;
+import model.NotificationManager;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
@@ -55,6 +59,32 @@ public class BudgetView extends JFrame {
     // Budget insights panel
     private BudgetInsightsPanel budgetInsightsPanel;
     
+    // Overview placeholders, filled in by the background loader
+    private JLabel aiInsightsText;
+    private JPanel summaryPanel;
+    private JPanel categoriesPanel;
+    private JPanel pieChartContainer;
+    private DefaultTableModel recentTransactionsModel;
+    private BudgetLoader budgetLoader;
+    private static final String LOADING_TEXT = "Loading...";
+    
+    // Category colors, shared by the progress bars and the pie chart
+    private static final Map<String, Color> CATEGORY_COLORS = new HashMap<>();
+    private static final Color DEFAULT_CATEGORY_COLOR = new Color(149, 165, 166);
+    static {
+        CATEGORY_COLORS.put("Housing", new Color(41, 128, 185));
+        CATEGORY_COLORS.put("Food & Dining", new Color(39, 174, 96));
+        CATEGORY_COLORS.put("Transportation", new Color(142, 68, 173));
+        CATEGORY_COLORS.put("Entertainment", new Color(243, 156, 18));
+        CATEGORY_COLORS.put("Shopping", new Color(231, 76, 60));
+        CATEGORY_COLORS.put("Utilities", new Color(52, 73, 94));
+        CATEGORY_COLORS.put("Chinese New Year", new Color(220, 20, 60));
+        CATEGORY_COLORS.put("Other", DEFAULT_CATEGORY_COLOR);
+        CATEGORY_COLORS.put("Medical", new Color(41, 128, 185));
+        CATEGORY_COLORS.put("Education", new Color(39, 174, 96));
+        CATEGORY_COLORS.put("Travel", new Color(142, 68, 173));
+    }
+    
     // Colors and styling
     private final Color PRIMARY_BLUE = new Color(52, 152, 219);
     private final Color LIGHT_GRAY = new Color(245, 245, 245);
@@ -92,8 +122,9 @@ public class BudgetView extends JFrame {
         cardsPanel.setBackground(AccountView.isCNYTheme ? AccountView.CNY_RED : Color.WHITE);
         
         // Add different content panels to the card layout
-        createBudgetContent();
+        // (the insights panel first, so the overview's loader can hand it the data)
         createBudgetInsightsPanel();
+        createBudgetContent();
         createBudgetSettingsPanel();
         
         add(cardsPanel, BorderLayout.CENTER);
@@ -382,9 +413,18 @@ public class BudgetView extends JFrame {
     }
     
     /**
-     * Creates the budget content panel
+     * Creates the budget content panel.
+     * The layout is built immediately with placeholders; the transaction data is loaded
+     * and aggregated by a BudgetLoader in the background, which fills in the summary cards
+     * and category breakdown first and the pie chart once it has been built.
      */
     private void createBudgetContent() {
+        // Replace any previous overview (e.g. after the budget settings were saved)
+        cancelBudgetLoading();
+        if (contentPanel != null) {
+            cardsPanel.remove(contentPanel);
+        }
+        
         contentPanel = new JPanel();
         contentPanel.setBackground(AccountView.isCNYTheme ? AccountView.CNY_RED : Color.WHITE);
         contentPanel.setLayout(new BorderLayout());
@@ -409,36 +449,8 @@ public class BudgetView extends JFrame {
         insightsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
         insightsPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 150));
         
-        // Load transaction data for summary calculations
-        List<Transaction> transactions = TransactionManager.loadTransactions();
-        double totalSpent = 0.0;
-        Map<String, Double> categorySpending = new HashMap<>();
-        
-        // Calculate totals
-        for (Transaction transaction : transactions) {
-            double amount = transaction.getAmount();
-            totalSpent += amount;
-            
-            String category = transaction.getCategory();
-            categorySpending.put(category, 
-                categorySpending.getOrDefault(category, 0.0) + amount);
-        }
-        
-        // If no transactions, use sample data
-        if (transactions.isEmpty()) {
-            // Sample data matching the one in BudgetInsightsPanel
-            totalSpent = 3240.75;
-            categorySpending.put("Housing", 1500.0);
-            categorySpending.put("Food & Dining", 650.25);
-            categorySpending.put("Transportation", 420.50);
-            categorySpending.put("Utilities", 340.0);
-            categorySpending.put("Entertainment", 200.0);
-            categorySpending.put("Other", 130.0);
-        }
-        
         // Budget values - Use custom budget if set, otherwise use CNY boost or default
-        double totalBudget = AccountView.customBudget != null ? AccountView.customBudget : (AccountView.isCNYBudgetBoost ? 10000.00 : 5000.00);
-        double remaining = totalBudget - totalSpent;
+        double totalBudget = AccountView.getMonthlyBudget();
         
         // Budget summary section
         JLabel summaryLabel = new JLabel("Budget Summary");
@@ -446,130 +458,41 @@ public class BudgetView extends JFrame {
         summaryLabel.setForeground(AccountView.isCNYTheme ? AccountView.CNY_YELLOW : DARK_GRAY);
         summaryLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         
-        JPanel summaryPanel = new JPanel();
+        summaryPanel = new JPanel();
         summaryPanel.setLayout(new GridLayout(1, 3, 15, 0));
         summaryPanel.setBackground(Color.WHITE);
         summaryPanel.setBorder(new EmptyBorder(15, 0, 30, 0));
         summaryPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
         summaryPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 120));
         
-        // Add summary cards with actual data
+        // Skeleton cards - the budget is known up front, spending arrives with the data
         addSummaryCard(summaryPanel, "Total Budget", String.format("¥%.2f", totalBudget), new Color(52, 152, 219));
-        addSummaryCard(summaryPanel, "Spent", String.format("¥%.2f", totalSpent), new Color(46, 204, 113));
-        addSummaryCard(summaryPanel, "Remaining", String.format("¥%.2f", remaining), new Color(155, 89, 182));
+        addSummaryCard(summaryPanel, "Spent", LOADING_TEXT, new Color(46, 204, 113));
+        addSummaryCard(summaryPanel, "Remaining", LOADING_TEXT, new Color(155, 89, 182));
         
         // Category breakdown section
         JLabel categoriesLabel = new JLabel("Category Breakdown");
         categoriesLabel.setFont(SUBHEADER_FONT);
         categoriesLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         
-        JPanel categoriesPanel = new JPanel();
+        categoriesPanel = new JPanel();
         categoriesPanel.setLayout(new BoxLayout(categoriesPanel, BoxLayout.Y_AXIS));
         categoriesPanel.setBackground(Color.WHITE);
         categoriesPanel.setBorder(new EmptyBorder(15, 0, 30, 0));
         categoriesPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        // Budget allocations by category - could be refined with actual budget allocations
-        Map<String, Double> categoryBudgets = new HashMap<>();
-        
-        // Define category colors for consistency
-        Map<String, Color> categoryColors = new HashMap<>();
-        categoryColors.put("Housing", new Color(41, 128, 185));
-        categoryColors.put("Food & Dining", new Color(39, 174, 96));
-        categoryColors.put("Transportation", new Color(142, 68, 173));
-        categoryColors.put("Entertainment", new Color(243, 156, 18));
-        categoryColors.put("Shopping", new Color(231, 76, 60));
-        categoryColors.put("Utilities", new Color(52, 73, 94));
-        categoryColors.put("Chinese New Year", new Color(220, 20, 60));
-        categoryColors.put("Other", new Color(149, 165, 166));
-        categoryColors.put("Medical", new Color(41, 128, 185));
-        categoryColors.put("Education", new Color(39, 174, 96));
-        categoryColors.put("Travel", new Color(142, 68, 173));
-        
-        // Create simple budget allocations based on typical percentages
-        categoryBudgets.put("Housing", totalBudget * 0.3); // 30% of budget
-        categoryBudgets.put("Food & Dining", totalBudget * 0.2); // 20% of budget
-        categoryBudgets.put("Transportation", totalBudget * 0.1); // 10% of budget
-        categoryBudgets.put("Entertainment", totalBudget * 0.1); // 10% of budget
-        categoryBudgets.put("Utilities", totalBudget * 0.1); // 10% of budget
-        categoryBudgets.put("Shopping", totalBudget * 0.1); // 10% of budget
-        categoryBudgets.put("Chinese New Year", totalBudget * 0.05); // 5% of budget
-        categoryBudgets.put("Other", totalBudget * 0.05); // 5% of budget
-        
-        // Add any categories that exist in transactions but not in budgets
-        for (String category : categorySpending.keySet()) {
-            if (!categoryBudgets.containsKey(category)) {
-                categoryBudgets.put(category, totalBudget * 0.05); // Default 5% allocation
-            }
-            
-            if (!categoryColors.containsKey(category)) {
-                // Generate a color if not defined
-                categoryColors.put(category, new Color(149, 165, 166)); // Default gray
-            }
-        }
-        
-        // Add category items based on actual spending
-        for (Map.Entry<String, Double> entry : categorySpending.entrySet()) {
-            String category = entry.getKey();
-            double spent = entry.getValue();
-            double budget = categoryBudgets.getOrDefault(category, totalBudget * 0.05);
-            Color color = categoryColors.getOrDefault(category, new Color(149, 165, 166));
-            
-            addCategoryItem(categoriesPanel, category, budget, spent, color);
-        }
+        categoriesPanel.add(createLoadingLabel("Loading categories..."));
         
         // 新增: 预算分布饼图部分
         JLabel pieChartLabel = new JLabel("Budget Distribution");
         pieChartLabel.setFont(SUBHEADER_FONT);
         pieChartLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         
-        // 创建饼图数据集
-        DefaultPieDataset pieDataset = new DefaultPieDataset();
-        
-        // 添加每个消费类别的数据到饼图
-        for (Map.Entry<String, Double> entry : categorySpending.entrySet()) {
-            String category = entry.getKey();
-            double spent = entry.getValue();
-            pieDataset.setValue(category, spent);
-        }
-        
-        // 添加剩余预算到饼图
-        pieDataset.setValue("Remaining Budget", remaining);
-        
-        // 创建饼图
-        JFreeChart pieChart = ChartFactory.createPieChart(
-            "Budget Distribution", // 标题
-            pieDataset,            // 数据集
-            true,                  // 包含图例
-            true,                  // 包含提示
-            false                  // 不包含URL
-        );
-        
-        // 自定义饼图外观
-        PiePlot plot = (PiePlot) pieChart.getPlot();
-        
-        // 设置饼图每个部分的颜色
-        for (Map.Entry<String, Double> entry : categorySpending.entrySet()) {
-            String category = entry.getKey();
-            plot.setSectionPaint(category, categoryColors.getOrDefault(category, new Color(149, 165, 166)));
-        }
-        
-        // 设置剩余预算的颜色
-        plot.setSectionPaint("Remaining Budget", new Color(155, 89, 182)); // 紫色，与卡片保持一致
-        
-        // 创建图表面板并设置大小
-        ChartPanel pieChartPanel = new ChartPanel(pieChart);
-        pieChartPanel.setPreferredSize(new Dimension(400, 300));
-        pieChartPanel.setMinimumSize(new Dimension(300, 200));
-        pieChartPanel.setMaximumSize(new Dimension(700, 400));
-        pieChartPanel.setBackground(Color.WHITE);
-        pieChartPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        // 包装饼图以控制其大小和外观
-        JPanel pieChartContainer = new JPanel();
+        // 饼图容器，图表在后台生成后放入
+        pieChartContainer = new JPanel();
         pieChartContainer.setLayout(new BorderLayout());
         pieChartContainer.setBackground(Color.WHITE);
-        pieChartContainer.add(pieChartPanel, BorderLayout.CENTER);
+        pieChartContainer.setPreferredSize(new Dimension(400, 300));
+        pieChartContainer.add(createLoadingLabel("Loading chart..."), BorderLayout.CENTER);
         pieChartContainer.setAlignmentX(Component.LEFT_ALIGNMENT);
         pieChartContainer.setBorder(new EmptyBorder(10, 0, 30, 0));
         pieChartContainer.setMaximumSize(new Dimension(Integer.MAX_VALUE, 400));
@@ -579,36 +502,11 @@ public class BudgetView extends JFrame {
         transactionsLabel.setFont(SUBHEADER_FONT);
         transactionsLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         
-        // Create table model for recent transactions
+        // Create table model for recent transactions (rows are added when the data arrives)
         String[] columnNames = {"Date", "Description", "Category", "Amount"};
-        Object[][] data;
-        
-        if (transactions.isEmpty()) {
-            // Sample data if no transactions
-            data = new Object[][] {
-                {"2024-01-20", "Grocery Store", "Food & Dining", "-¥85.43"},
-                {"2024-01-18", "Gas Station", "Transportation", "-¥45.75"},
-                {"2024-01-15", "Coffee Shop", "Food & Dining", "-¥4.50"},
-                {"2024-01-14", "Online Store", "Shopping", "-¥67.89"},
-                {"2024-01-12", "Electric Bill", "Utilities", "-¥98.76"}
-            };
-        } else {
-            // Get actual transactions (up to 5 most recent)
-            int count = Math.min(transactions.size(), 5);
-            data = new Object[count][4];
-            
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-            
-            for (int i = 0; i < count; i++) {
-                Transaction transaction = transactions.get(i);
-                data[i][0] = transaction.getDate().format(formatter);
-                data[i][1] = transaction.getDescription();
-                data[i][2] = transaction.getCategory();
-                data[i][3] = String.format("-¥%.2f", transaction.getAmount());
-            }
-        }
+        recentTransactionsModel = new DefaultTableModel(columnNames, 0);
         
-        JTable transactionsTable = new JTable(data, columnNames);
+        JTable transactionsTable = new JTable(recentTransactionsModel);
         transactionsTable.setFont(CONTENT_FONT);
         transactionsTable.setRowHeight(25);
         
@@ -672,10 +570,233 @@ public class BudgetView extends JFrame {
         
         // Add to cards panel
         cardsPanel.add(contentPanel, BUDGET_OVERVIEW_PANEL);
+        
+        // Load the data off the Event Dispatch Thread
+        budgetLoader = new BudgetLoader(totalBudget);
+        budgetLoader.execute();
     }
     
     /**
-     * Creates the AI Insights panel with spending suggestions
+     * Creates a grey placeholder label shown while data is loading
+     * @param text The placeholder text
+     * @return The label
+     */
+    private JLabel createLoadingLabel(String text) {
+        JLabel label = new JLabel(text);
+        label.setFont(CONTENT_FONT);
+        label.setForeground(Color.GRAY);
+        label.setHorizontalAlignment(SwingConstants.CENTER);
+        label.setAlignmentX(Component.LEFT_ALIGNMENT);
+        return label;
+    }
+    
+    /**
+     * Fills the summary cards, category breakdown, insights and recent transactions
+     * of the overview with loaded data. Must be called on the Event Dispatch Thread.
+     * @param summary The aggregated budget data
+     * @param totalBudget The total budget
+     */
+    private void renderBudgetSummary(BudgetSummary summary, double totalBudget) {
+        double totalSpent = summary.getTotalSpent();
+        double remaining = totalBudget - totalSpent;
+        Map<String, Double> categorySpending = summary.getCategorySpending();
+        
+        // Add summary cards with actual data
+        summaryPanel.removeAll();
+        addSummaryCard(summaryPanel, "Total Budget", String.format("¥%.2f", totalBudget), new Color(52, 152, 219));
+        addSummaryCard(summaryPanel, "Spent", String.format("¥%.2f", totalSpent), new Color(46, 204, 113));
+        addSummaryCard(summaryPanel, "Remaining", String.format("¥%.2f", remaining), new Color(155, 89, 182));
+        summaryPanel.revalidate();
+        summaryPanel.repaint();
+        
+        // Budget allocations by category - could be refined with actual budget allocations
+        // Create simple budget allocations based on typical percentages (shared with budget alerts)
+        Map<String, Double> categoryBudgets = new HashMap<>();
+        for (Map.Entry<String, Double> allocation : BudgetAlertEngine.DEFAULT_CATEGORY_ALLOCATIONS.entrySet()) {
+            categoryBudgets.put(allocation.getKey(), totalBudget * allocation.getValue());
+        }
+        
+        // Add category items based on actual spending
+        categoriesPanel.removeAll();
+        for (Map.Entry<String, Double> entry : categorySpending.entrySet()) {
+            String category = entry.getKey();
+            double spent = entry.getValue();
+            double budget = categoryBudgets.getOrDefault(category, totalBudget * 0.05); // Default 5% allocation
+            Color color = CATEGORY_COLORS.getOrDefault(category, DEFAULT_CATEGORY_COLOR);
+            
+            addCategoryItem(categoriesPanel, category, budget, spent, color);
+        }
+        categoriesPanel.revalidate();
+        categoriesPanel.repaint();
+        
+        // Recent transactions
+        recentTransactionsModel.setRowCount(0);
+        if (summary.isSample()) {
+            // Sample data if no transactions
+            recentTransactionsModel.addRow(new Object[] {"2024-01-20", "Grocery Store", "Food & Dining", "-¥85.43"});
+            recentTransactionsModel.addRow(new Object[] {"2024-01-18", "Gas Station", "Transportation", "-¥45.75"});
+            recentTransactionsModel.addRow(new Object[] {"2024-01-15", "Coffee Shop", "Food & Dining", "-¥4.50"});
+            recentTransactionsModel.addRow(new Object[] {"2024-01-14", "Online Store", "Shopping", "-¥67.89"});
+            recentTransactionsModel.addRow(new Object[] {"2024-01-12", "Electric Bill", "Utilities", "-¥98.76"});
+        } else {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+            for (Transaction transaction : summary.getRecentTransactions()) {
+                recentTransactionsModel.addRow(new Object[] {
+                    transaction.getDate().format(formatter),
+                    transaction.getDescription(),
+                    transaction.getCategory(),
+                    String.format("-¥%.2f", transaction.getAmount())
+                });
+            }
+        }
+        
+        updateAIInsightsText(summary);
+        
+        // Share the loaded data with the AI insights card instead of reading the file again
+        if (budgetInsightsPanel != null) {
+            budgetInsightsPanel.updateBudgetData(totalBudget, summary.getTotalSpent(), summary.getCategorySpending());
+        }
+    }
+    
+    /**
+     * Builds the budget distribution pie chart. Only touches chart objects that are not
+     * displayed yet, so it can run on the loader thread.
+     * @param summary The aggregated budget data
+     * @param totalBudget The total budget
+     * @return The chart
+     */
+    private static JFreeChart createPieChart(BudgetSummary summary, double totalBudget) {
+        // 创建饼图数据集
+        DefaultPieDataset pieDataset = new DefaultPieDataset();
+        
+        // 添加每个消费类别的数据到饼图
+        for (Map.Entry<String, Double> entry : summary.getCategorySpending().entrySet()) {
+            pieDataset.setValue(entry.getKey(), entry.getValue());
+        }
+        
+        // 添加剩余预算到饼图
+        pieDataset.setValue("Remaining Budget", totalBudget - summary.getTotalSpent());
+        
+        // 创建饼图
+        JFreeChart pieChart = ChartFactory.createPieChart(
+            "Budget Distribution", // 标题
+            pieDataset,            // 数据集
+            true,                  // 包含图例
+            true,                  // 包含提示
+            false                  // 不包含URL
+        );
+        
+        // 自定义饼图外观
+        PiePlot plot = (PiePlot) pieChart.getPlot();
+        
+        // 设置饼图每个部分的颜色
+        for (String category : summary.getCategorySpending().keySet()) {
+            plot.setSectionPaint(category, CATEGORY_COLORS.getOrDefault(category, DEFAULT_CATEGORY_COLOR));
+        }
+        
+        // 设置剩余预算的颜色
+        plot.setSectionPaint("Remaining Budget", new Color(155, 89, 182)); // 紫色，与卡片保持一致
+        
+        return pieChart;
+    }
+    
+    /**
+     * Shows the pie chart in the overview in place of its placeholder
+     * @param pieChart The chart to show
+     */
+    private void renderPieChart(JFreeChart pieChart) {
+        // 创建图表面板并设置大小
+        ChartPanel pieChartPanel = new ChartPanel(pieChart);
+        pieChartPanel.setPreferredSize(new Dimension(400, 300));
+        pieChartPanel.setMinimumSize(new Dimension(300, 200));
+        pieChartPanel.setMaximumSize(new Dimension(700, 400));
+        pieChartPanel.setBackground(Color.WHITE);
+        pieChartPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        
+        pieChartContainer.removeAll();
+        pieChartContainer.add(pieChartPanel, BorderLayout.CENTER);
+        pieChartContainer.revalidate();
+        pieChartContainer.repaint();
+    }
+    
+    /**
+     * Cancels the overview data loading, if it is still running
+     */
+    private void cancelBudgetLoading() {
+        if (budgetLoader != null) {
+            budgetLoader.cancel(true);
+            budgetLoader = null;
+        }
+    }
+    
+    /**
+     * Stops background loading when the window is closed or the user navigates to another view
+     */
+    @Override
+    public void dispose() {
+        cancelBudgetLoading();
+        super.dispose();
+    }
+    
+    /**
+     * BudgetLoader - Loads and aggregates the budget data off the Event Dispatch Thread.
+     * The aggregated summary is published as soon as it is ready so the cards and category
+     * breakdown render first; the pie chart is then built in the background and returned as
+     * the result. Nothing is rendered once the loader has been cancelled.
+     */
+    private class BudgetLoader extends SwingWorker<JFreeChart, BudgetSummary> {
+        private final double totalBudget;
+        private volatile BudgetSummary summary;
+        private boolean summaryRendered = false;
+        
+        BudgetLoader(double totalBudget) {
+            this.totalBudget = totalBudget;
+        }
+        
+        @Override
+        protected JFreeChart doInBackground() {
+            summary = BudgetSummary.load();
+            if (isCancelled()) {
+                return null;
+            }
+            publish(summary);
+            return createPieChart(summary, totalBudget);
+        }
+        
+        @Override
+        protected void process(List<BudgetSummary> chunks) {
+            if (!isCancelled() && !summaryRendered) {
+                summaryRendered = true;
+                renderBudgetSummary(chunks.get(chunks.size() - 1), totalBudget);
+            }
+        }
+        
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                JFreeChart pieChart = get();
+                // The published chunk may not have been processed yet; keep cards before the chart
+                if (!summaryRendered) {
+                    summaryRendered = true;
+                    renderBudgetSummary(summary, totalBudget);
+                }
+                renderPieChart(pieChart);
+            } catch (InterruptedException | ExecutionException e) {
+                System.err.println("Error loading budget data: " + e.getMessage());
+                pieChartContainer.removeAll();
+                pieChartContainer.add(createLoadingLabel("Unable to load budget data"), BorderLayout.CENTER);
+                pieChartContainer.revalidate();
+                pieChartContainer.repaint();
+            }
+        }
+    }
+    
+    /**
+     * Creates the AI Insights panel with spending suggestions.
+     * The text is filled in by updateAIInsightsText once the budget data has loaded.
      */
     private JPanel createAIInsightsPanel() {
         JPanel panel = new JPanel();
@@ -704,35 +825,36 @@ public class BudgetView extends JFrame {
         insightsContentPanel.setLayout(new BoxLayout(insightsContentPanel, BoxLayout.Y_AXIS));
         insightsContentPanel.setBackground(new Color(240, 248, 255));
         
-        // Calculate insights based on actual data
-        List<Transaction> transactions = TransactionManager.loadTransactions();
-        double totalSpent = 0.0;
-        for (Transaction transaction : transactions) {
-            totalSpent += transaction.getAmount();
-        }
+        aiInsightsText = new JLabel("Analyzing your spending...");
+        aiInsightsText.setFont(CONTENT_FONT);
+        aiInsightsText.setForeground(Color.GRAY);
+        aiInsightsText.setAlignmentX(Component.LEFT_ALIGNMENT);
         
-        // Calculate sample insights
-        double foodPercentage = 0.0;
-        double housingPercentage = 0.0;
+        insightsContentPanel.add(aiInsightsText);
         
-        for (Transaction transaction : transactions) {
-            if (transaction.getCategory().equals("Food & Dining")) {
-                foodPercentage += transaction.getAmount() / totalSpent * 100;
-            } else if (transaction.getCategory().equals("Housing")) {
-                housingPercentage += transaction.getAmount() / totalSpent * 100;
-            }
-        }
+        panel.add(headerPanel, BorderLayout.NORTH);
+        panel.add(insightsContentPanel, BorderLayout.CENTER);
         
+        return panel;
+    }
+    
+    /**
+     * Updates the AI insights text with insights calculated from the loaded data
+     * @param summary The aggregated budget data
+     */
+    private void updateAIInsightsText(BudgetSummary summary) {
         String insightsHTML = "<html>";
-        if (transactions.isEmpty()) {
+        if (summary.isSample()) {
             // Default insights if no transactions
             insightsHTML += "<p>• Based on your spending patterns, you could save <b>¥350/month</b> by reducing dining out expenses.</p>" +
                      "<p>• Your utility bills are <b>18% lower</b> than similar households in your region.</p>" +
                      "<p>• <span style='color:#c0392b;'><b>Alert:</b> Your remaining budget is ¥4975.00. Click 'AI Insights' for personalized recommendations.</span></p>";
         } else {
             // Dynamic insights based on actual data
+            double totalSpent = summary.getTotalSpent();
             double totalBudget = 5000.00;
             double remaining = totalBudget - totalSpent;
+            double foodPercentage = summary.getCategoryPercentage("Food & Dining");
             
             insightsHTML += "<p>• You've spent <b>" + String.format("%.1f", (totalSpent/totalBudget*100)) + 
                     "%</b> of your monthly budget with <b>¥" + String.format("%.2f", remaining) + "</b> remaining.</p>";
@@ -746,16 +868,8 @@ public class BudgetView extends JFrame {
         }
         insightsHTML += "</html>";
         
-        JLabel insightsText = new JLabel(insightsHTML);
-        insightsText.setFont(CONTENT_FONT);
-        insightsText.setAlignmentX(Component.LEFT_ALIGNMENT);
-        
-        insightsContentPanel.add(insightsText);
-        
-        panel.add(headerPanel, BorderLayout.NORTH);
-        panel.add(insightsContentPanel, BorderLayout.CENTER);
-        
-        return panel;
+        aiInsightsText.setText(insightsHTML);
+        aiInsightsText.setForeground(Color.BLACK);
     }
     
     /**
@@ -908,48 +1022,28 @@ public class BudgetView extends JFrame {
     }
     
     /**
-     * Creates the budget insights panel using the BudgetInsightsPanel component
+     * Creates the budget insights panel using the BudgetInsightsPanel component.
+     * It does not load data itself; the overview's loader hands it the aggregated data.
      */
     private void createBudgetInsightsPanel() {
-        // Create the budget insights panel
-        budgetInsightsPanel = new BudgetInsightsPanel();
+        if (budgetInsightsPanel != null) {
+            cardsPanel.remove(budgetInsightsPanel);
+        }
         
-        // Update it with current budget data
-        updateBudgetInsightsData();
+        // Create the budget insights panel
+        budgetInsightsPanel = new BudgetInsightsPanel(false);
         
         // Add to cards panel
         cardsPanel.add(budgetInsightsPanel, AI_INSIGHTS_PANEL);
     }
     
     /**
-     * Updates the budget insights panel with current budget data
+     * Updates the budget insights panel with current budget data.
+     * The transactions are reloaded in the background by the panel.
      */
     private void updateBudgetInsightsData() {
         if (budgetInsightsPanel != null) {
-            // Get transaction data
-            List<Transaction> transactions = TransactionManager.loadTransactions();
-            
-            // Calculate total spent amount
-            double totalSpent = 0.0;
-            Map<String, Double> categoryBreakdown = new HashMap<>();
-            
-            for (Transaction transaction : transactions) {
-                double amount = transaction.getAmount();
-                totalSpent += amount;
-                
-                // Update category breakdown
-                String category = transaction.getCategory();
-                categoryBreakdown.put(
-                    category, 
-                    categoryBreakdown.getOrDefault(category, 0.0) + amount
-                );
-            }
-            
-            // Get total budget - use custom budget if set, otherwise use CNY boost or default
-            double totalBudget = AccountView.customBudget != null ? AccountView.customBudget : (AccountView.isCNYBudgetBoost ? 10000.00 : 5000.00);
-            
-            // Update the budget insights panel with this data
-            budgetInsightsPanel.updateBudgetData(totalBudget, totalSpent, categoryBreakdown);
+            budgetInsightsPanel.loadDataInBackground();
         }
     }
     
@@ -976,7 +1070,7 @@ public class BudgetView extends JFrame {
         budgetLabel.setForeground(AccountView.isCNYTheme ? AccountView.CNY_YELLOW : DARK_GRAY);
         
         // Use custom budget if set, otherwise use CNY boost or default
-        String budgetValue = AccountView.customBudget != null ? String.format("%.2f", AccountView.customBudget) : (AccountView.isCNYBudgetBoost ? "10000.00" : "5000.00");
+        String budgetValue = String.format("%.2f", AccountView.getMonthlyBudget());
         JTextField budgetField = new JTextField(budgetValue);
         budgetField.setFont(CONTENT_FONT);
         budgetField.setEditable(true);
@@ -994,7 +1088,7 @@ public class BudgetView extends JFrame {
         alertsLabel.setFont(CONTENT_FONT);
         
         JCheckBox alertsCheckbox = new JCheckBox();
-        alertsCheckbox.setSelected(true);
+        alertsCheckbox.setSelected(NotificationManager.getInstance().isNotificationEnabled(NotificationManager.BUDGET_ALERT));
         alertsCheckbox.setBackground(Color.WHITE);
         
         // Add components to form
@@ -1026,10 +1120,11 @@ public class BudgetView extends JFrame {
                 double value = Double.parseDouble(text);
                 if (value <= 0) throw new NumberFormatException();
                 AccountView.setCustomBudget(value);
+                NotificationManager.getInstance().setNotificationEnabled(NotificationManager.BUDGET_ALERT, alertsCheckbox.isSelected());
                 JOptionPane.showMessageDialog(this, "Custom budget saved!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 // 刷新预算显示
-                createBudgetContent();
                 createBudgetInsightsPanel();
+                createBudgetContent();
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(this, "Please enter a valid positive number for budget.", "Error", JOptionPane.ERROR_MESSAGE);
             }
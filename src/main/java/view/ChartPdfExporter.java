@@ -0,0 +1,234 @@
+package view;
+
+import com.itextpdf.awt.PdfGraphics2D;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.Image;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfTemplate;
+import com.itextpdf.text.pdf.PdfWriter;
+import model.Transaction;
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+
+/**
+ * ChartPdfExporter - Writes charts and transaction reports into one PDF document.
+ * Charts are drawn straight into the PDF as vector graphics (or rendered to an in-memory
+ * PNG when a raster image is wanted), so no temporary image files are written. Transaction
+ * reports are streamed: rows are taken from an iterator and completed pages are written out
+ * as the table grows, so a long report never has to be held in memory.
+ *
+ * Usage:
+ * <pre>
+ * try (ChartPdfExporter exporter = new ChartPdfExporter(new FileOutputStream("report.pdf"))) {
+ *     exporter.addTitle("Transactions");
+ *     exporter.addChart(lineChart);
+ *     exporter.addChart(pieChart);
+ *     exporter.newPage();
+ *     exporter.addTransactionReport(transactions.iterator());
+ * }
+ * </pre>
+ */
+public class ChartPdfExporter implements Closeable {
+
+    // Rows added to a report table before the finished part is written out
+    private static final int ROWS_PER_FLUSH = 100;
+
+    private static final Font TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD);
+    private static final Font HEADER_FONT = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD);
+    private static final Font CELL_FONT = new Font(Font.FontFamily.HELVETICA, 9);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final Document document;
+    private final PdfWriter writer;
+
+    /**
+     * Creates an exporter writing an A4 document to a stream. The stream is closed with the exporter.
+     * @param out The stream to write the PDF to
+     * @throws DocumentException If the document cannot be created
+     */
+    public ChartPdfExporter(OutputStream out) throws DocumentException {
+        document = new Document(PageSize.A4);
+        writer = PdfWriter.getInstance(document, out);
+        writer.setFullCompression();
+        document.open();
+    }
+
+    /**
+     * Gets the width available for content between the page margins
+     * @return The width in points
+     */
+    public float getContentWidth() {
+        return document.getPageSize().getWidth() - document.leftMargin() - document.rightMargin();
+    }
+
+    /**
+     * Adds a title paragraph
+     * @param text The title
+     * @throws DocumentException If the paragraph cannot be added
+     */
+    public void addTitle(String text) throws DocumentException {
+        Paragraph title = new Paragraph(text, TITLE_FONT);
+        title.setAlignment(Element.ALIGN_CENTER);
+        title.setSpacingAfter(12);
+        document.add(title);
+    }
+
+    /**
+     * Adds a chart as vector graphics, using the full content width and a 4:3 aspect ratio
+     * @param chart The chart to draw
+     * @throws DocumentException If the chart cannot be added
+     */
+    public void addChart(JFreeChart chart) throws DocumentException {
+        float width = getContentWidth();
+        addChart(chart, width, width * 0.75f);
+    }
+
+    /**
+     * Adds a chart as vector graphics. The chart is drawn into a PDF template, so it stays
+     * sharp at any zoom level and is never rasterized. It moves to the next page if it does
+     * not fit on the current one.
+     * @param chart The chart to draw
+     * @param width The chart width in points
+     * @param height The chart height in points
+     * @throws DocumentException If the chart cannot be added
+     */
+    public void addChart(JFreeChart chart, float width, float height) throws DocumentException {
+        PdfContentByte content = writer.getDirectContent();
+        PdfTemplate template = content.createTemplate(width, height);
+        Graphics2D graphics = new PdfGraphics2D(template, width, height);
+        try {
+            chart.draw(graphics, new Rectangle2D.Double(0, 0, width, height));
+        } finally {
+            graphics.dispose();
+        }
+        addImage(Image.getInstance(template));
+    }
+
+    /**
+     * Adds a chart as a PNG image rendered in memory
+     * @param chart The chart to render
+     * @param width The image width in pixels
+     * @param height The image height in pixels
+     * @throws DocumentException If the image cannot be added
+     * @throws IOException If the chart cannot be rendered
+     */
+    public void addChartImage(JFreeChart chart, int width, int height) throws DocumentException, IOException {
+        addImage(Image.getInstance(renderPNG(chart, width, height)));
+    }
+
+    /**
+     * Renders a chart to PNG bytes without touching the file system
+     * @param chart The chart to render
+     * @param width The image width in pixels
+     * @param height The image height in pixels
+     * @return The PNG data
+     * @throws IOException If the chart cannot be encoded
+     */
+    public static byte[] renderPNG(JFreeChart chart, int width, int height) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        ChartUtils.writeChartAsPNG(buffer, chart, width, height);
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Adds an image, scaled down to the content width if needed
+     */
+    private void addImage(Image image) throws DocumentException {
+        float maxWidth = getContentWidth();
+        if (image.getWidth() > maxWidth) {
+            image.scaleToFit(maxWidth, image.getHeight() * maxWidth / image.getWidth());
+        }
+        image.setAlignment(Element.ALIGN_CENTER);
+        image.setSpacingAfter(12);
+        document.add(image);
+    }
+
+    /**
+     * Adds a table of transactions with a total row. Rows are read from the iterator one at a
+     * time and the completed part of the table is written to the document every few rows,
+     * so memory use does not grow with the number of transactions. The header row is
+     * repeated on every page.
+     * @param transactions The transactions to list
+     * @return The number of transactions written
+     * @throws DocumentException If the table cannot be added
+     */
+    public int addTransactionReport(Iterator<Transaction> transactions) throws DocumentException {
+        PdfPTable table = new PdfPTable(new float[] {2f, 5f, 3f, 2f});
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        addHeaderCell(table, "Date");
+        addHeaderCell(table, "Description");
+        addHeaderCell(table, "Category");
+        addHeaderCell(table, "Amount");
+
+        int count = 0;
+        double total = 0;
+        while (transactions.hasNext()) {
+            Transaction transaction = transactions.next();
+            table.addCell(new Phrase(transaction.getDate().format(DATE_FORMAT), CELL_FONT));
+            table.addCell(new Phrase(transaction.getDescription(), CELL_FONT));
+            table.addCell(new Phrase(transaction.getCategory(), CELL_FONT));
+            table.addCell(createAmountCell(transaction.getAmount(), CELL_FONT));
+            total += transaction.getAmount();
+            count++;
+
+            // Write out the finished rows; the table keeps only what has not been written yet
+            if (count % ROWS_PER_FLUSH == 0) {
+                document.add(table);
+            }
+        }
+
+        PdfPCell totalLabel = new PdfPCell(new Phrase(count + " transactions", HEADER_FONT));
+        totalLabel.setColspan(3);
+        table.addCell(totalLabel);
+        table.addCell(createAmountCell(total, HEADER_FONT));
+        table.setComplete(true);
+        document.add(table);
+        return count;
+    }
+
+    private void addHeaderCell(PdfPTable table, String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, HEADER_FONT));
+        cell.setGrayFill(0.9f);
+        table.addCell(cell);
+    }
+
+    private PdfPCell createAmountCell(double amount, Font font) {
+        PdfPCell cell = new PdfPCell(new Phrase(String.format("%.2f", amount), font));
+        cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        return cell;
+    }
+
+    /**
+     * Starts a new page
+     */
+    public void newPage() {
+        document.newPage();
+    }
+
+    /**
+     * Finishes the document and closes the output stream
+     */
+    @Override
+    public void close() {
+        document.close();
+    }
+}
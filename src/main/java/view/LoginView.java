@@ -1,13 +1,15 @@
 package view;
 
+import model.LoginPipeline;
 import model.SessionManager;
-import model.UserManager;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * LoginView - The login screen of the application.
@@ -19,6 +21,7 @@ public class LoginView extends JFrame {
     private JPanel mainPanel;
     private JTextField usernameField;
     private JPasswordField passwordField;
+    private JButton loginButton;
 
     // Colors and styling
     private final Color PRIMARY_BLUE = new Color(52, 152, 219);
@@ -100,7 +103,7 @@ public class LoginView extends JFrame {
         passwordPanel.add(passwordField, BorderLayout.CENTER);
         
         // Login button
-        JButton loginButton = new JButton("Login");
+        loginButton = new JButton("Login");
         loginButton.setFont(BUTTON_FONT);
         loginButton.setBackground(PRIMARY_BLUE);
         loginButton.setForeground(Color.WHITE);
@@ -177,9 +180,36 @@ public class LoginView extends JFrame {
             return;
         }
         
-        // Authenticate user
-        UserManager userManager = UserManager.getInstance();
-        if (userManager.authenticateUser(username, password)) {
+        // Authenticate in the background; the password check takes a noticeable moment
+        setLoginInProgress(true);
+        LoginPipeline.authenticate(username, password).whenComplete((user, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                // Not a wrong password: the check itself could not be completed
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                cause.printStackTrace();
+                setLoginInProgress(false);
+                JOptionPane.showMessageDialog(
+                    LoginView.this,
+                    "Login failed: " + cause.getMessage(),
+                    "Login Failed",
+                    JOptionPane.ERROR_MESSAGE
+                );
+                return;
+            }
+            if (user == null) {
+                setLoginInProgress(false);
+                JOptionPane.showMessageDialog(
+                    LoginView.this,
+                    "Invalid username or password",
+                    "Login Failed",
+                    JOptionPane.ERROR_MESSAGE
+                );
+                return;
+            }
+            
+            // Load the user's data while the welcome message is showing
+            CompletableFuture<Void> warmUp = LoginPipeline.warmUp(user);
+            
             // Show welcome message
             JOptionPane.showMessageDialog(
                 LoginView.this,
@@ -188,20 +218,27 @@ public class LoginView extends JFrame {
                 JOptionPane.INFORMATION_MESSAGE
             );
             
-            // Navigate to main view
-            dispose(); // Close the login window
-            AccountView accountView = new AccountView();
-            
-            // Start session monitoring
-            SessionManager.getInstance().startSession(accountView);
-        } else {
-            JOptionPane.showMessageDialog(
-                LoginView.this,
-                "Invalid username or password",
-                "Login Failed",
-                JOptionPane.ERROR_MESSAGE
-            );
-        }
+            // Navigate to main view once the data is ready
+            warmUp.whenComplete((ignored, warmUpError) -> SwingUtilities.invokeLater(() -> {
+                dispose(); // Close the login window
+                AccountView accountView = new AccountView();
+                
+                // Start session monitoring
+                SessionManager.getInstance().startSession(accountView);
+            }));
+        }));
+    }
+    
+    /**
+     * Disables the login form while a login is running
+     * @param inProgress True while authenticating or loading the user's data
+     */
+    private void setLoginInProgress(boolean inProgress) {
+        usernameField.setEnabled(!inProgress);
+        passwordField.setEnabled(!inProgress);
+        loginButton.setEnabled(!inProgress);
+        loginButton.setText(inProgress ? "Logging in..." : "Login");
+        setCursor(inProgress ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
     }
     
     /**
@@ -23,6 +23,7 @@ public class RegisterView extends JFrame {
     private JPasswordField passwordField;
     private JPasswordField confirmPasswordField;
     private JTextField emailField;
+    private JButton registerButton;
     
     // Password strength components
     private JPanel passwordStrengthPanel;
@@ -120,7 +121,7 @@ public class RegisterView extends JFrame {
         });
         
         // Register button
-        JButton registerButton = new JButton("Register");
+        registerButton = new JButton("Register");
         registerButton.setFont(BUTTON_FONT);
         registerButton.setBackground(PRIMARY_BLUE);
         registerButton.setForeground(Color.WHITE);
@@ -347,25 +348,34 @@ public class RegisterView extends JFrame {
             return;
         }
         
-        // Attempt to register the user
+        // Attempt to register the user; encrypting the password and saving run in the background
         UserManager userManager = UserManager.getInstance();
-        if (userManager.registerUser(username, password, email)) {
-            JOptionPane.showMessageDialog(
-                RegisterView.this,
-                "Registration successful! Please login.",
-                "Registration Success",
-                JOptionPane.INFORMATION_MESSAGE
-            );
-            dispose(); // Close registration window
-            new LoginView(); // Open login view
-        } else {
-            JOptionPane.showMessageDialog(
-                RegisterView.this,
-                "Username already exists or registration failed.",
-                "Registration Error",
-                JOptionPane.ERROR_MESSAGE
-            );
-        }
+        registerButton.setEnabled(false);
+        registerButton.setText("Registering...");
+        userManager.registerUserAsync(username, password, email).whenComplete((registered, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                error.printStackTrace();
+            }
+            if (Boolean.TRUE.equals(registered)) {
+                JOptionPane.showMessageDialog(
+                    RegisterView.this,
+                    "Registration successful! Please login.",
+                    "Registration Success",
+                    JOptionPane.INFORMATION_MESSAGE
+                );
+                dispose(); // Close registration window
+                new LoginView(); // Open login view
+            } else {
+                registerButton.setEnabled(true);
+                registerButton.setText("Register");
+                JOptionPane.showMessageDialog(
+                    RegisterView.this,
+                    "Username already exists or registration failed.",
+                    "Registration Error",
+                    JOptionPane.ERROR_MESSAGE
+                );
+            }
+        }));
     }
     
     /**
@@ -0,0 +1,82 @@
+package view;
+
+import javax.swing.table.AbstractTableModel;
+import model.Transaction;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TransactionTableModel - Table model over a list of transactions.
+ * Cells are read straight from the Transaction objects on demand, so a JTable using this
+ * model only creates renderers for the visible rows no matter how many transactions exist.
+ * Values are returned unformatted (LocalDate, Double) so sorting and filtering through a
+ * TableRowSorter work on the raw data; formatting is left to the cell renderers.
+ */
+public class TransactionTableModel extends AbstractTableModel {
+
+    public static final int DATE_COLUMN = 0;
+    public static final int DESCRIPTION_COLUMN = 1;
+    public static final int CATEGORY_COLUMN = 2;
+    public static final int AMOUNT_COLUMN = 3;
+
+    private static final String[] COLUMN_NAMES = {"Date", "Description", "Category", "Amount"};
+    private static final Class<?>[] COLUMN_CLASSES = {LocalDate.class, String.class, String.class, Double.class};
+
+    private List<Transaction> transactions = new ArrayList<>();
+
+    /**
+     * Replaces the transactions shown by the table
+     * @param transactions The transactions to show
+     */
+    public void setTransactions(List<Transaction> transactions) {
+        this.transactions = transactions != null ? transactions : new ArrayList<>();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Gets the transaction at a model row
+     * @param row The model row index
+     * @return The transaction
+     */
+    public Transaction getTransaction(int row) {
+        return transactions.get(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return transactions.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return COLUMN_CLASSES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Transaction transaction = transactions.get(row);
+        switch (column) {
+            case DATE_COLUMN:
+                return transaction.getDate();
+            case DESCRIPTION_COLUMN:
+                return transaction.getDescription();
+            case CATEGORY_COLUMN:
+                return transaction.getCategory();
+            case AMOUNT_COLUMN:
+                return transaction.getAmount();
+            default:
+                return null;
+        }
+    }
+}
@@ -4,8 +4,10 @@ import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.ChartUtils;
 import org.jfree.chart.JFreeChart;
-import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.chart.util.SortOrder;
 import org.jfree.data.general.DefaultPieDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -17,20 +19,41 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.HashMap;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
-import com.itextpdf.text.Document;
-import com.itextpdf.text.Image;
-import com.itextpdf.text.pdf.PdfWriter;
+import com.itextpdf.text.DocumentException;
+import model.TransactionAggregator;
+import model.TransactionManager;
 
 public class TransactionVisualizationUI extends JFrame {
 
     private JFreeChart currentChart;
     private ChartPanel chartPanel;
     private JComboBox<String> chartTypeComboBox;
+    private JComboBox<String> granularityComboBox;
     private JTextField startDateField, endDateField;
     private Map<String, Double> currentData;
+    private String currentDataLabel = "Period";
+
+    // Datasets and charts are created once and updated in place when new data is loaded
+    private final XYSeries trendSeries = new XYSeries("Transaction", false, true);
+    private final DefaultPieDataset<String> categoryDataset = new DefaultPieDataset<>();
+    private JFreeChart lineChart, pieChart;
+    private Map<String, Double> trendData = new LinkedHashMap<>();
+    private Map<String, Double> categoryData = new LinkedHashMap<>();
+    private LocalDate dataFrom, dataTo;
+    private SwingWorker<ChartData, Void> chartLoader;
+
+    // Series longer than this are downsampled before they are drawn
+    private static final int MAX_CHART_POINTS = 1000;
+    private static final String[] GRANULARITY_OPTIONS = {"Auto", "Day", "Week", "Month", "Year"};
 
     private final Color PRIMARY_BLUE = new Color(52, 152, 219);
     private final Color LIGHT_GRAY = new Color(245, 245, 245);
@@ -83,16 +106,20 @@ public class TransactionVisualizationUI extends JFrame {
         datePanel.setBackground(Color.WHITE);
         startDateField = createTextField();
         endDateField = createTextField();
-        datePanel.add(new JLabel("Start Date (YYYY-MM):"));
+        datePanel.add(new JLabel("Start Date (YYYY-MM, optional):"));
         datePanel.add(startDateField);
-        datePanel.add(new JLabel("End Date (YYYY-MM):"));
+        datePanel.add(new JLabel("End Date (YYYY-MM, optional):"));
         datePanel.add(endDateField);
 
         JPanel chartTypePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         chartTypePanel.setBorder(null);
         chartTypePanel.setBackground(Color.WHITE);
         chartTypeComboBox = new JComboBox<>(new String[]{"Line Chart", "Pie Chart"});
+        chartTypeComboBox.addActionListener(e -> showSelectedChart());
+        granularityComboBox = new JComboBox<>(GRANULARITY_OPTIONS);
         chartTypePanel.add(chartTypeComboBox);
+        chartTypePanel.add(new JLabel("Group by:"));
+        chartTypePanel.add(granularityComboBox);
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 20));
         buttonPanel.setBorder(null);
@@ -102,22 +129,26 @@ public class TransactionVisualizationUI extends JFrame {
         JButton exportImageButton = createStyledButton("Export as Image");
         JButton exportPDFButton = createStyledButton("Export as PDF");
         JButton exportCSVButton = createStyledButton("Export as CSV");
+        JButton exportReportButton = createStyledButton("Export Full Report");
 
         generateChartButton.addActionListener(e -> generateChart());
         exportImageButton.addActionListener(e -> exportChartAsImage());
         exportPDFButton.addActionListener(e -> exportChartAsPDF());
         exportCSVButton.addActionListener(e -> exportDataAsCSV());
+        exportReportButton.addActionListener(e -> exportReportAsPDF());
 
         // 添加鼠标悬停效果
         addHoverEffect(generateChartButton);
         addHoverEffect(exportImageButton);
         addHoverEffect(exportPDFButton);
         addHoverEffect(exportCSVButton);
+        addHoverEffect(exportReportButton);
 
         buttonPanel.add(generateChartButton);
         buttonPanel.add(exportImageButton);
         buttonPanel.add(exportPDFButton);
         buttonPanel.add(exportCSVButton);
+        buttonPanel.add(exportReportButton);
 
         gbc.gridx = 0;
         gbc.gridy = 0;
@@ -291,38 +322,220 @@ public class TransactionVisualizationUI extends JFrame {
         });
     }
 
+    /**
+     * Aggregated data for both charts, produced by the background loader
+     */
+    private static class ChartData {
+        TransactionAggregator.Series series;
+        Map<String, Double> categoryTotals;
+        LocalDate from, to;
+    }
+
     private void generateChart() {
-        currentData = fetchData();
-        String chartType = (String) chartTypeComboBox.getSelectedItem();
-        currentChart = "Line Chart".equals(chartType) ? createLineChart() : createPieChart();
-        chartPanel.setChart(currentChart);
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = parseDate(startDateField.getText(), false);
+            to = parseDate(endDateField.getText(), true);
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Please enter dates as YYYY-MM or YYYY-MM-DD.", "Invalid Date", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        TransactionAggregator.Granularity selectedGranularity = getSelectedGranularity();
+
+        // Only the latest request is shown
+        if (chartLoader != null) {
+            chartLoader.cancel(true);
+        }
+        chartLoader = new SwingWorker<ChartData, Void>() {
+            @Override
+            protected ChartData doInBackground() {
+                return fetchData(from, to, selectedGranularity);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    ChartData data = get();
+                    if (data == null) {
+                        JOptionPane.showMessageDialog(TransactionVisualizationUI.this, "There are no transactions to display.");
+                        return;
+                    }
+                    updateTrendSeries(data.series);
+                    updateCategoryDataset(data.categoryTotals);
+                    dataFrom = data.from;
+                    dataTo = data.to;
+                    showSelectedChart();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        chartLoader.execute();
     }
 
-    private Map<String, Double> fetchData() {
-        Map<String, Double> data = new HashMap<>();
-        data.put("2023-01", 2000.0);
-        data.put("2023-02", 2500.0);
-        data.put("2023-03", 3000.0);
+    /**
+     * Loads the transactions and aggregates them into a time series and category totals.
+     * Runs on the loader thread.
+     * @param from First day of the range, or null for the earliest transaction
+     * @param to Last day of the range, or null for the latest transaction
+     * @param granularity Bucket size, or null to choose one from the length of the range
+     * @return The chart data, or null if there are no transactions
+     */
+    private ChartData fetchData(LocalDate from, LocalDate to, TransactionAggregator.Granularity granularity) {
+        TransactionAggregator aggregator = new TransactionAggregator(TransactionManager.loadTransactions());
+        if (aggregator.isEmpty()) {
+            return null;
+        }
+        if (from == null) {
+            from = aggregator.getFirstDate();
+        }
+        if (to == null) {
+            to = aggregator.getLastDate();
+        }
+        if (granularity == null) {
+            granularity = TransactionAggregator.chooseGranularity(from, to, MAX_CHART_POINTS);
+        }
+
+        ChartData data = new ChartData();
+        data.from = from;
+        data.to = to;
+        data.series = aggregator.aggregate(from, to, granularity).downsample(MAX_CHART_POINTS);
+        data.categoryTotals = aggregator.categoryTotals(from, to);
         return data;
     }
 
+    /**
+     * Parses a date field
+     * @param text "YYYY-MM", "YYYY-MM-DD" or empty
+     * @param endOfMonth For "YYYY-MM", whether to use the last day of the month instead of the first
+     * @return The date, or null if the field is empty
+     */
+    private LocalDate parseDate(String text, boolean endOfMonth) {
+        text = text.trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        if (text.length() == 7) {
+            YearMonth month = YearMonth.parse(text);
+            return endOfMonth ? month.atEndOfMonth() : month.atDay(1);
+        }
+        return LocalDate.parse(text);
+    }
+
+    private TransactionAggregator.Granularity getSelectedGranularity() {
+        int index = granularityComboBox.getSelectedIndex();
+        return index <= 0 ? null : TransactionAggregator.Granularity.values()[index - 1];
+    }
+
+    /**
+     * Updates the trend series in place. Points that are unchanged are kept, so reloading the
+     * same range (e.g. after a new transaction) only touches the changed and new buckets,
+     * and listeners are notified once for the whole update.
+     */
+    private void updateTrendSeries(TransactionAggregator.Series series) {
+        ZoneId zone = ZoneId.systemDefault();
+        trendSeries.setNotify(false);
+        int matching = 0;
+        int common = Math.min(trendSeries.getItemCount(), series.size());
+        while (matching < common
+                && trendSeries.getX(matching).longValue() == toMillis(series.getBucketDay(matching), zone)) {
+            matching++;
+        }
+        if (matching < trendSeries.getItemCount()) {
+            trendSeries.delete(matching, trendSeries.getItemCount() - 1);
+        }
+        for (int i = 0; i < matching; i++) {
+            if (trendSeries.getY(i).doubleValue() != series.getTotal(i)) {
+                trendSeries.updateByIndex(i, series.getTotal(i));
+            }
+        }
+        for (int i = matching; i < series.size(); i++) {
+            trendSeries.add(toMillis(series.getBucketDay(i), zone), series.getTotal(i), false);
+        }
+        trendSeries.setNotify(true);
+
+        trendData = new LinkedHashMap<>();
+        for (int i = 0; i < series.size(); i++) {
+            trendData.put(series.getLabel(i), series.getTotal(i));
+        }
+    }
+
+    /**
+     * Updates the category dataset in place, removing categories no longer present
+     */
+    private void updateCategoryDataset(Map<String, Double> categoryTotals) {
+        categoryDataset.setNotify(false);
+        for (String category : new ArrayList<>(categoryDataset.getKeys())) {
+            if (!categoryTotals.containsKey(category)) {
+                categoryDataset.remove(category);
+            }
+        }
+        for (Map.Entry<String, Double> entry : categoryTotals.entrySet()) {
+            categoryDataset.setValue(entry.getKey(), entry.getValue());
+        }
+        categoryDataset.sortByValues(SortOrder.DESCENDING);
+        categoryDataset.setNotify(true);
+
+        categoryData = categoryTotals;
+    }
+
+    private static long toMillis(long epochDay, ZoneId zone) {
+        return LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Shows the chart selected in the chart type box; the data is not reloaded
+     */
+    private void showSelectedChart() {
+        if (trendSeries.isEmpty() && categoryDataset.getItemCount() == 0) {
+            return;
+        }
+        String chartType = (String) chartTypeComboBox.getSelectedItem();
+        if ("Line Chart".equals(chartType)) {
+            currentChart = createLineChart();
+            currentData = trendData;
+            currentDataLabel = "Period";
+        } else {
+            currentChart = createPieChart();
+            currentData = categoryData;
+            currentDataLabel = "Category";
+        }
+        if (chartPanel.getChart() != currentChart) {
+            chartPanel.setChart(currentChart);
+        }
+    }
+
     private JFreeChart createLineChart() {
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-        for (Map.Entry<String, Double> entry : currentData.entrySet()) {
-            dataset.addValue(entry.getValue(), "Transaction", entry.getKey());
+        if (lineChart == null) {
+            lineChart = ChartFactory.createTimeSeriesChart("Transaction Trend", "Date", "Amount",
+                    new XYSeriesCollection(trendSeries));
         }
-        return ChartFactory.createLineChart("Transaction Trend", "Month", "Amount", dataset);
+        return lineChart;
     }
 
     private JFreeChart createPieChart() {
-        DefaultPieDataset dataset = new DefaultPieDataset();
-        for (Map.Entry<String, Double> entry : currentData.entrySet()) {
-            dataset.setValue(entry.getKey(), entry.getValue());
+        if (pieChart == null) {
+            pieChart = ChartFactory.createPieChart("Transaction Distribution", categoryDataset, true, true, false);
         }
-        return ChartFactory.createPieChart("Transaction Distribution", dataset, true, true, false);
+        return pieChart;
+    }
+
+    private boolean checkChartGenerated() {
+        if (currentChart == null) {
+            JOptionPane.showMessageDialog(this, "Please generate a chart first.");
+            return false;
+        }
+        return true;
     }
 
     private void exportChartAsImage() {
+        if (!checkChartGenerated()) {
+            return;
+        }
         try {
             ChartUtils.saveChartAsPNG(new File("chart.png"), currentChart, 800, 600);
             JOptionPane.showMessageDialog(this, "Chart exported as image successfully!");
@@ -332,22 +545,92 @@ public class TransactionVisualizationUI extends JFrame {
     }
 
     private void exportChartAsPDF() {
-        try {
-            Document document = new Document();
-            PdfWriter.getInstance(document, new FileOutputStream("chart.pdf"));
-            document.open();
-            Image image = Image.getInstance("chart.png");
-            document.add(image);
-            document.close();
+        if (!checkChartGenerated()) {
+            return;
+        }
+        // The chart is drawn into the PDF as vector graphics; no image file is needed
+        try (FileOutputStream out = new FileOutputStream("chart.pdf");
+             ChartPdfExporter exporter = new ChartPdfExporter(out)) {
+            exporter.addChart(currentChart);
             JOptionPane.showMessageDialog(this, "Chart exported as PDF successfully!");
-        } catch (Exception e) {
+        } catch (IOException | DocumentException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Exports both charts and every transaction in the charted range into one PDF.
+     * The charts are drawn on the Event Dispatch Thread, which owns them; the transaction
+     * table is then streamed into the document in the background.
+     */
+    private void exportReportAsPDF() {
+        if (!checkChartGenerated()) {
+            return;
+        }
+        LocalDate from = dataFrom;
+        LocalDate to = dataTo;
+        FileOutputStream out = null;
+        ChartPdfExporter started = null;
+        try {
+            out = new FileOutputStream("report.pdf");
+            started = new ChartPdfExporter(out);
+            started.addTitle("Transaction Report " + from + " to " + to);
+            started.addChart(createLineChart());
+            started.addChart(createPieChart());
+            started.newPage();
+        } catch (IOException | DocumentException e) {
+            e.printStackTrace();
+            closeFailedExport(started, out);
+            return;
+        }
+        ChartPdfExporter exporter = started;
+
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws DocumentException {
+                try {
+                    // The date index returns the range already sorted by date
+                    return exporter.addTransactionReport(TransactionManager.findByDateRange(from, to).iterator());
+                } finally {
+                    exporter.close();
+                }
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    int count = get();
+                    JOptionPane.showMessageDialog(TransactionVisualizationUI.this,
+                            "Report with " + count + " transactions exported as report.pdf successfully!");
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Releases the file of a PDF export that failed part way. A document without pages
+     * cannot be finished, but closing the exporter still closes its stream.
+     */
+    private static void closeFailedExport(ChartPdfExporter exporter, FileOutputStream out) {
+        try {
+            if (exporter != null) {
+                exporter.close();
+            } else if (out != null) {
+                out.close();
+            }
+        } catch (IOException | RuntimeException e) {
             e.printStackTrace();
         }
     }
 
     private void exportDataAsCSV() {
+        if (!checkChartGenerated()) {
+            return;
+        }
         try (FileWriter writer = new FileWriter("data.csv")) {
-            writer.write("Month,Amount\n");
+            writer.write(currentDataLabel + ",Amount\n");
             for (Map.Entry<String, Double> entry : currentData.entrySet()) {
                 writer.write(entry.getKey() + "," + entry.getValue() + "\n");
             }
@@ -0,0 +1,100 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ActivitySketch streaming statistics
+ */
+public class ActivitySketchTest {
+
+    @Test
+    @DisplayName("Test empty sketch returns zero statistics")
+    public void testEmptySketch() {
+        ActivitySketch sketch = new ActivitySketch();
+
+        assertEquals(0, sketch.getCount(), "Empty sketch should have no values");
+        assertEquals(0, sketch.getAverage(), 0.0001, "Average of empty sketch should be 0");
+        assertEquals(0, sketch.getPeak(), 0.0001, "Peak of empty sketch should be 0");
+        assertEquals(0, sketch.getQuantile(0.5), 0.0001, "Quantile of empty sketch should be 0");
+    }
+
+    @Test
+    @DisplayName("Test average, peak and quantiles are within relative accuracy")
+    public void testQuantiles() {
+        ActivitySketch sketch = new ActivitySketch();
+        for (int i = 1; i <= 1000; i++) {
+            sketch.add(i);
+        }
+
+        assertEquals(1000, sketch.getCount(), "Count should match number of added values");
+        assertEquals(500.5, sketch.getAverage(), 0.0001, "Average should be exact");
+        assertEquals(1000, sketch.getPeak(), 0.0001, "Peak should be exact");
+        assertEquals(500, sketch.getQuantile(0.50), 500 * ActivitySketch.RELATIVE_ACCURACY, "p50 should be within relative accuracy");
+        assertEquals(950, sketch.getQuantile(0.95), 950 * ActivitySketch.RELATIVE_ACCURACY, "p95 should be within relative accuracy");
+        assertEquals(990, sketch.getQuantile(0.99), 990 * ActivitySketch.RELATIVE_ACCURACY, "p99 should be within relative accuracy");
+    }
+
+    @Test
+    @DisplayName("Test negative and zero values are ordered correctly")
+    public void testNegativeValues() {
+        ActivitySketch sketch = new ActivitySketch();
+        sketch.add(-100);
+        sketch.add(-10);
+        sketch.add(0);
+        sketch.add(10);
+        sketch.add(100);
+
+        assertEquals(-100, sketch.getMin(), 0.0001, "Min should be exact");
+        assertEquals(-10, sketch.getQuantile(0.4), 10 * ActivitySketch.RELATIVE_ACCURACY, "p40 should be the second smallest value");
+        assertEquals(0, sketch.getQuantile(0.6), 0.0001, "p60 should be zero");
+        assertEquals(10, sketch.getQuantile(0.8), 10 * ActivitySketch.RELATIVE_ACCURACY, "p80 should be the fourth value");
+    }
+
+    @Test
+    @DisplayName("Test merging two sketches")
+    public void testMerge() {
+        ActivitySketch first = new ActivitySketch();
+        ActivitySketch second = new ActivitySketch();
+        for (int i = 1; i <= 500; i++) {
+            first.add(i);
+            second.add(i + 500);
+        }
+
+        first.merge(second);
+
+        assertEquals(1000, first.getCount(), "Merged count should be the sum of both sketches");
+        assertEquals(500.5, first.getAverage(), 0.0001, "Merged average should be exact");
+        assertEquals(1000, first.getPeak(), 0.0001, "Merged peak should be the larger peak");
+        assertEquals(500, first.getQuantile(0.5), 500 * ActivitySketch.RELATIVE_ACCURACY, "Merged p50 should be within relative accuracy");
+    }
+
+    @Test
+    @DisplayName("Test toFileString and fromFileString round trip")
+    public void testFileStringRoundTrip() {
+        ActivitySketch sketch = new ActivitySketch();
+        sketch.add(-5.5);
+        sketch.add(0);
+        sketch.add(42);
+        sketch.add(1234.5);
+
+        ActivitySketch restored = ActivitySketch.fromFileString(sketch.toFileString());
+
+        assertEquals(sketch.getCount(), restored.getCount(), "Count should survive round trip");
+        assertEquals(sketch.getAverage(), restored.getAverage(), 0.0001, "Average should survive round trip");
+        assertEquals(sketch.getPeak(), restored.getPeak(), 0.0001, "Peak should survive round trip");
+        assertEquals(sketch.getQuantile(0.75), restored.getQuantile(0.75), 0.0001, "Quantiles should survive round trip");
+    }
+
+    @Test
+    @DisplayName("Test fromFileString rejects invalid input")
+    public void testFromFileStringInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> ActivitySketch.fromFileString("invalid"),
+                "Invalid format should throw IllegalArgumentException");
+        assertThrows(IllegalArgumentException.class, () -> ActivitySketch.fromFileString("2;3.0;1.0;2.0;0;12:1,13;"),
+                "A bucket entry without a count should throw IllegalArgumentException");
+        assertThrows(IllegalArgumentException.class, () -> ActivitySketch.fromFileString("1;1.0;1.0;1.0;0;:1;"),
+                "A bucket entry without an index should throw IllegalArgumentException");
+    }
+}
@@ -0,0 +1,68 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.Locale;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AmountParser
+ */
+public class AmountParserTest {
+
+    private long cents(String text) {
+        return AmountParser.parseMinorUnits(text, 0, text.length());
+    }
+
+    @Test
+    @DisplayName("Test currency symbols, quotes and grouping separators are skipped")
+    public void testSymbolsAndGrouping() {
+        assertEquals(123456, cents("1234.56"), "Plain amounts should parse");
+        assertEquals(123456, cents("$1,234.56"), "Dollar amounts with grouping should parse");
+        assertEquals(1250, cents("\"¥12.5\""), "Quoted amounts should parse");
+        assertEquals(123400, cents("1,234"), "A comma followed by three digits should be grouping");
+        assertEquals(123456700, cents("1.234.567"), "Repeated dots should be grouping");
+        assertEquals(100000000, cents("1 000 000"), "Spaces should be skipped");
+        assertEquals(500, cents("5"), "Whole amounts should parse");
+    }
+
+    @Test
+    @DisplayName("Test European decimal commas")
+    public void testDecimalComma() {
+        assertEquals(123456, cents("1.234,56 €"), "A comma after dots should be the decimal mark");
+        assertEquals(1250, cents("12,5"), "A lone comma with one decimal should be the decimal mark");
+        assertEquals(99, cents("0,99"), "A lone comma with two decimals should be the decimal mark");
+    }
+
+    @Test
+    @DisplayName("Test negative amounts")
+    public void testNegatives() {
+        assertEquals(-800, cents("-8.00"), "A leading minus should be negative");
+        assertEquals(-800, cents("(8.00)"), "Parentheses should be negative");
+        assertEquals(-800, cents("8.00-"), "A trailing minus should be negative");
+        assertEquals(-123456, cents("-$1,234.56"), "A minus before the symbol should be negative");
+    }
+
+    @Test
+    @DisplayName("Test amounts match Double.parseDouble")
+    public void testMatchesParseDouble() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            String text = String.format(Locale.ROOT, "%.2f", (random.nextDouble() - 0.5) * 2_000_000);
+            assertEquals(Double.parseDouble(text), AmountParser.parse(text), "Parsing " + text);
+        }
+        assertEquals(1235, cents("12.345"), "Extra decimals should round half up");
+    }
+
+    @Test
+    @DisplayName("Test invalid amounts are rejected")
+    public void testInvalid() {
+        assertThrows(NumberFormatException.class, () -> cents(""), "Empty text should be rejected");
+        assertThrows(NumberFormatException.class, () -> cents("$"), "A symbol alone should be rejected");
+        assertThrows(NumberFormatException.class, () -> cents("12abc"), "Letters should be rejected");
+        assertThrows(NumberFormatException.class, () -> cents("--5"), "Two signs should be rejected");
+        assertThrows(NumberFormatException.class, () -> cents("(5"), "Unbalanced parentheses should be rejected");
+        assertThrows(NumberFormatException.class, () -> cents("99999999999999999999"), "Overflowing amounts should be rejected");
+    }
+}
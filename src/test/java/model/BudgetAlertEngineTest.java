@@ -0,0 +1,169 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for BudgetAlertEngine. Transactions are saved through TransactionManager, which writes
+ * transactions.txt in the working directory, so existing files are moved aside during each test.
+ * Alerts are read back from the NotificationManager history; no toasts are shown when headless.
+ */
+public class BudgetAlertEngineTest {
+
+    private static final double BUDGET = 1000.00;
+
+    private final WorkingFiles workingFiles = new WorkingFiles("transactions.txt", "transactions.idx");
+    private BudgetAlertEngine engine;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        workingFiles.moveAside();
+        BudgetAlertEngine.resetInstance();
+        engine = BudgetAlertEngine.getInstance();
+        engine.setTotalBudget(BUDGET);
+
+        NotificationManager notificationManager = NotificationManager.getInstance();
+        notificationManager.setNotificationEnabled(NotificationManager.BUDGET_ALERT, true);
+        notificationManager.setNotificationEnabled(NotificationManager.TRANSACTION_ALERT, true);
+        notificationManager.clearNotificationHistory();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        NotificationManager.getInstance().clearNotificationHistory();
+        BudgetAlertEngine.resetInstance();
+        workingFiles.restore();
+    }
+
+    private static void spend(LocalDate date, String category, double amount) {
+        TransactionManager.saveTransaction(new Transaction("", date, "Item", category, amount));
+    }
+
+    private static void spend(double amount) {
+        spend(LocalDate.now(), "Other", amount);
+    }
+
+    /**
+     * Gets the titles of the alerts of a type raised so far, oldest first
+     */
+    private static List<String> titles(String type) {
+        List<String> titles = new ArrayList<>();
+        for (NotificationManager.Notification notification : NotificationManager.getInstance().getNotificationHistory(type, 0, 100)) {
+            titles.add(notification.title);
+        }
+        Collections.reverse(titles);
+        return titles;
+    }
+
+    @Test
+    @DisplayName("Test the 80% and 100% thresholds raise one alert each per month")
+    public void testThresholds() {
+        engine.setRules(Arrays.asList(new BudgetAlertEngine.AlertRule(0.8, false), new BudgetAlertEngine.AlertRule(1.0, false)));
+
+        spend(150);
+        spend(150);
+        spend(150);
+        spend(150);
+        spend(150);
+        assertTrue(titles(NotificationManager.BUDGET_ALERT).isEmpty(), "No alert should be raised below 80%");
+
+        spend(100);
+        assertEquals(Arrays.asList("Budget Warning"), titles(NotificationManager.BUDGET_ALERT),
+                "Reaching 80% should raise a warning");
+
+        spend(100);
+        assertEquals(1, titles(NotificationManager.BUDGET_ALERT).size(), "The warning should not be raised again");
+
+        spend(100);
+        spend(10);
+        assertEquals(Arrays.asList("Budget Warning", "Budget Exceeded"), titles(NotificationManager.BUDGET_ALERT),
+                "Reaching 100% should raise one exceeded alert");
+        assertEquals(1060, engine.getMonthlySpending(YearMonth.now()), 0.001, "Every transaction should be counted");
+    }
+
+    @Test
+    @DisplayName("Test category thresholds use the category's share of the budget")
+    public void testCategoryThreshold() {
+        // Housing is allocated 30% of the budget
+        spend(LocalDate.now(), "Housing", 250);
+
+        List<NotificationManager.Notification> alerts =
+                NotificationManager.getInstance().getNotificationHistory(NotificationManager.BUDGET_ALERT, 0, 100);
+        assertEquals(1, alerts.size(), "Only the category threshold should be reached");
+        assertEquals("Budget Warning", alerts.get(0).title, "83% of the category budget should raise a warning");
+        assertTrue(alerts.get(0).message.contains("Housing budget"), "The alert should name the category");
+        assertEquals(250, engine.getCategorySpending(YearMonth.now(), "Housing"), 0.001, "The category total should be kept");
+    }
+
+    @Test
+    @DisplayName("Test transactions of at least 20% of the budget raise a large transaction alert")
+    public void testLargeTransaction() {
+        spend(199.99);
+        assertTrue(titles(NotificationManager.TRANSACTION_ALERT).isEmpty(), "Smaller transactions should not raise an alert");
+
+        spend(200);
+        assertEquals(Arrays.asList("Large Transaction"), titles(NotificationManager.TRANSACTION_ALERT),
+                "A transaction of 20% of the budget should raise an alert");
+
+        spend(LocalDate.now().minusMonths(1), "Other", 500);
+        assertEquals(1, titles(NotificationManager.TRANSACTION_ALERT).size(), "Older transactions should not raise alerts");
+    }
+
+    @Test
+    @DisplayName("Test each month keeps its own totals and thresholds")
+    public void testMonthRollover() {
+        engine.setRules(Arrays.asList(new BudgetAlertEngine.AlertRule(0.8, false), new BudgetAlertEngine.AlertRule(1.0, false)));
+        LocalDate lastMonth = LocalDate.now().minusMonths(1);
+        for (int i = 0; i < 6; i++) {
+            spend(lastMonth, "Other", 190);
+        }
+        assertTrue(titles(NotificationManager.BUDGET_ALERT).isEmpty(), "Spending in an earlier month should not raise alerts");
+        assertEquals(1140, engine.getMonthlySpending(YearMonth.from(lastMonth)), 0.001, "The earlier month should be totalled");
+
+        spend(190);
+        assertEquals(190, engine.getMonthlySpending(YearMonth.now()), 0.001, "The current month should start from zero");
+        assertTrue(titles(NotificationManager.BUDGET_ALERT).isEmpty(), "The earlier month should not count towards this month's budget");
+
+        for (int i = 0; i < 4; i++) {
+            spend(190);
+        }
+        assertEquals(Arrays.asList("Budget Warning"), titles(NotificationManager.BUDGET_ALERT),
+                "This month's threshold should be raised once reached");
+    }
+
+    @Test
+    @DisplayName("Test reload rebuilds the totals after transactions are removed")
+    public void testReload() throws IOException {
+        engine.setRules(Arrays.asList(new BudgetAlertEngine.AlertRule(0.8, false)));
+        for (int i = 0; i < 5; i++) {
+            spend(170);
+        }
+        assertEquals(1, titles(NotificationManager.BUDGET_ALERT).size(), "850 of 1000 should raise a warning");
+
+        // Remove the last three transactions, as rolling back an import does
+        File file = TransactionManager.getTransactionsFile();
+        List<String> lines = Files.readAllLines(file.toPath());
+        Files.write(file.toPath(), lines.subList(0, 2));
+        engine.reload();
+
+        spend(170);
+        assertEquals(510, engine.getMonthlySpending(YearMonth.now()), 0.001, "The totals should be rebuilt from the file");
+
+        spend(170);
+        spend(170);
+        assertEquals(2, titles(NotificationManager.BUDGET_ALERT).size(),
+                "The warning should be raised again once spending reaches 80% after the removal");
+    }
+}
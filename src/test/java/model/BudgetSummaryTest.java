@@ -0,0 +1,50 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for BudgetSummary aggregation
+ */
+public class BudgetSummaryTest {
+
+    @Test
+    @DisplayName("Test totals and category spending are aggregated")
+    public void testAggregation() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            transactions.add(new Transaction(LocalDate.of(2024, 1, i + 1), "Lunch " + i, "Food & Dining", 25.0));
+        }
+        transactions.add(new Transaction(LocalDate.of(2024, 1, 10), "Rent", "Housing", 1800.0));
+
+        BudgetSummary summary = BudgetSummary.fromTransactions(transactions);
+
+        assertFalse(summary.isSample(), "Real transactions should not produce sample data");
+        assertEquals(9, summary.getTransactionCount(), "Transaction count should match");
+        assertEquals(2000.0, summary.getTotalSpent(), 0.0001, "Total should be the sum of all amounts");
+        assertEquals(200.0, summary.getCategorySpending().get("Food & Dining"), 0.0001, "Food total should be summed");
+        assertEquals(1800.0, summary.getCategorySpending().get("Housing"), 0.0001, "Housing total should be summed");
+        assertEquals(10.0, summary.getCategoryPercentage("Food & Dining"), 0.0001, "Food share should be 10%");
+        assertEquals(0.0, summary.getCategoryPercentage("Travel"), 0.0001, "Missing category should have no share");
+        assertEquals(BudgetSummary.RECENT_TRANSACTION_COUNT, summary.getRecentTransactions().size(),
+                "Recent transactions should be limited");
+        assertEquals("Lunch 0", summary.getRecentTransactions().get(0).getDescription(),
+                "Recent transactions should keep file order");
+    }
+
+    @Test
+    @DisplayName("Test empty transaction list falls back to sample data")
+    public void testSampleData() {
+        BudgetSummary summary = BudgetSummary.fromTransactions(new ArrayList<>());
+
+        assertTrue(summary.isSample(), "Empty list should produce sample data");
+        assertEquals(3240.75, summary.getTotalSpent(), 0.0001, "Sample total should match sample categories");
+        assertTrue(summary.getRecentTransactions().isEmpty(), "Sample data should have no recent transactions");
+        assertThrows(UnsupportedOperationException.class,
+                () -> summary.getCategorySpending().put("Other", 1.0), "Summary should be immutable");
+    }
+}
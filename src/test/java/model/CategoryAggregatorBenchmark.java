@@ -0,0 +1,93 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmark comparing CategoryAggregator with the HashMap loop BudgetSummary used before.
+ * JMH is not among the project's libraries, so this is a plain harness: each size is run
+ * through warm-up rounds first, then the average time of the measured rounds is printed.
+ *
+ * Run with the row counts to test, e.g.
+ * java -Xmx4g -cp ... model.CategoryAggregatorBenchmark 10000 1000000 10000000
+ */
+public class CategoryAggregatorBenchmark {
+
+    private static final String[] CATEGORIES = {
+        "Housing", "Food & Dining", "Transportation", "Utilities", "Entertainment",
+        "Shopping", "Healthcare", "Education", "Travel", "Other"
+    };
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    // Keeps results alive so the loops are not optimized away
+    private static double sink;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? new int[args.length] : new int[] {10_000, 1_000_000};
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        System.out.println("Workers: " + Runtime.getRuntime().availableProcessors());
+        for (int size : sizes) {
+            List<Transaction> transactions = generate(size);
+            double hashMap = measure(() -> hashMapLoop(transactions));
+            double aggregator = measure(() -> CategoryAggregator.aggregate(transactions).getTotal());
+            System.out.printf("%,12d rows   HashMap loop %10.3f ms   CategoryAggregator %10.3f ms   %.1fx%n",
+                    size, hashMap, aggregator, hashMap / aggregator);
+        }
+    }
+
+    /**
+     * The per-transaction accumulation BudgetSummary used before CategoryAggregator
+     */
+    private static double hashMapLoop(List<Transaction> transactions) {
+        double totalSpent = 0.0;
+        Map<String, Double> categorySpending = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            double amount = transaction.getAmount();
+            totalSpent += amount;
+            categorySpending.merge(transaction.getCategory(), amount, Double::sum);
+        }
+        return totalSpent + categorySpending.size();
+    }
+
+    /**
+     * Runs a workload through the warm-up and measured rounds
+     * @return The average time of a measured round in milliseconds
+     */
+    private static double measure(Workload workload) {
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            sink += workload.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += workload.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+    }
+
+    /**
+     * Creates transactions like those loaded from the transactions file, where every row
+     * has its own category string
+     */
+    private static List<Transaction> generate(int size) {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String category = new String(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            transactions.add(new Transaction("alice", start.plusDays(random.nextInt(1500)), "Item",
+                    category, random.nextInt(100_000) / 100.0));
+        }
+        return transactions;
+    }
+
+    private interface Workload {
+        double run();
+    }
+}
@@ -0,0 +1,67 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CategoryAggregator
+ */
+public class CategoryAggregatorTest {
+
+    @Test
+    @DisplayName("Test totals and counts of a short list")
+    public void testAggregate() {
+        List<Transaction> transactions = new ArrayList<>();
+        transactions.add(new Transaction(LocalDate.of(2024, 1, 1), "Lunch", "Food", 12.5));
+        transactions.add(new Transaction(LocalDate.of(2024, 1, 2), "Rent", "Housing", 1500));
+        transactions.add(new Transaction(LocalDate.of(2024, 1, 3), "Dinner", "Food", 30));
+
+        CategoryAggregator totals = CategoryAggregator.aggregate(transactions);
+
+        assertEquals(2, totals.size(), "Each category should get one ID");
+        assertEquals("Food", totals.getCategory(0), "Categories should be numbered in order of first appearance");
+        assertEquals(42.5, totals.getTotal(0), 0.0001, "Amounts of a category should be summed");
+        assertEquals(2, totals.getCount(0), "Transactions of a category should be counted");
+        assertEquals(1542.5, totals.getTotal(), 0.0001, "The overall total should include every category");
+        assertEquals(Arrays.asList("Food", "Housing"), new ArrayList<>(totals.toMap().keySet()),
+                "The map should keep the order of first appearance");
+        assertEquals(0, CategoryAggregator.aggregate(new LinkedList<>()).size(), "An empty list should have no categories");
+    }
+
+    @Test
+    @DisplayName("Test segments aggregated in parallel match a sequential loop")
+    public void testSegments() {
+        String[] categories = {"Food", "Housing", "Transportation", "Utilities", "Entertainment", "Other"};
+        List<Transaction> transactions = new ArrayList<>();
+        Map<String, Double> expected = new LinkedHashMap<>();
+        for (int i = 0; i < CategoryAggregator.SEGMENT_SIZE * 5 + 17; i++) {
+            // Categories first appear late in the list so the merge order is exercised
+            String category = categories[i < CategoryAggregator.SEGMENT_SIZE * 3 ? i % 3 : i % categories.length];
+            double amount = (i % 100) / 4.0;
+            transactions.add(new Transaction(LocalDate.of(2024, 1, 1), "Item", category, amount));
+            expected.merge(category, amount, Double::sum);
+        }
+
+        CategoryAggregator totals = CategoryAggregator.aggregate(transactions);
+
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(totals.toMap().keySet()),
+                "Merged segments should keep the order of first appearance");
+        for (int id = 0; id < totals.size(); id++) {
+            assertEquals(expected.get(totals.getCategory(id)), totals.getTotal(id), 0.0001,
+                    "Merged totals should match a sequential sum for " + totals.getCategory(id));
+        }
+        int count = 0;
+        for (int id = 0; id < totals.size(); id++) {
+            count += totals.getCount(id);
+        }
+        assertEquals(transactions.size(), count, "Every transaction should be counted once");
+    }
+}
@@ -0,0 +1,99 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CsvDialect detection
+ */
+public class CsvDialectTest {
+
+    @Test
+    @DisplayName("Test headers map to columns in any order")
+    public void testHeaderNames() throws Exception {
+        CsvDialect dialect = CsvDialect.detect(
+                "\"Amount\",\"Category\",\"Date\",\"Description\"\n" +
+                "12.50,Food,2024-01-05,Lunch\n" +
+                "3.00,Transport,2024-01-06,Bus\n", false);
+        assertEquals(',', dialect.delimiter, "Comma should be detected");
+        assertTrue(dialect.hasHeaders, "Quoted headers should be recognized");
+        assertEquals(2, dialect.dateColumn, "Date column should be found by name");
+        assertEquals(3, dialect.descriptionColumn, "Description column should be found by name");
+        assertEquals(1, dialect.categoryColumn, "Category column should be found by name");
+        assertEquals(0, dialect.amountColumn, "Amount column should be found by name");
+        assertEquals(1, dialect.skipRecords, "Only the header should be skipped");
+    }
+
+    @Test
+    @DisplayName("Test preamble lines before the table are skipped")
+    public void testPreamble() throws Exception {
+        CsvDialect dialect = CsvDialect.detect(
+                "Example Bank\n" +
+                "Account;12345678\n" +
+                "\n" +
+                "Buchungstag;Verwendungszweck;Kategorie;Betrag\n" +
+                "2024.01.05;Supermarkt, Filiale 3;Lebensmittel;-12,50\n" +
+                "2024.01.06;Tankstelle;Auto;-40,00\n" +
+                "2024.01.07;Bäckerei;Lebensmittel;-3,20\n", false);
+        assertEquals(';', dialect.delimiter, "Semicolon should win over commas inside text");
+        assertEquals(2, dialect.preambleRecords, "Bank name and account lines should be skipped");
+        assertTrue(dialect.hasHeaders, "A text row above date and amount values should be a header");
+        assertEquals(3, dialect.skipRecords, "Preamble and header should be skipped");
+        assertEquals(0, dialect.dateColumn, "Date column should be inferred from values");
+        assertEquals(3, dialect.amountColumn, "Amount column should be inferred from values");
+        assertEquals(1, dialect.descriptionColumn, "The most varied text should be the description");
+        assertEquals(2, dialect.categoryColumn, "The repeated text should be the category");
+    }
+
+    @Test
+    @DisplayName("Test columns are inferred from values without headers")
+    public void testNoHeaders() throws Exception {
+        CsvDialect dialect = CsvDialect.detect(
+                "Food\t12.50\t15/01/2024\tLunch at cafe\n" +
+                "Food\t8.20\t16/01/2024\tBreakfast\n" +
+                "Transport\t2.00\t17/01/2024\tBus ticket\n", false);
+        assertEquals('\t', dialect.delimiter, "Tab should be detected");
+        assertFalse(dialect.hasHeaders, "Data rows should not be taken as a header");
+        assertEquals(0, dialect.skipRecords, "No rows should be skipped");
+        assertEquals(2, dialect.dateColumn, "Date column should be inferred");
+        assertEquals(1, dialect.amountColumn, "Amount column should be inferred");
+        assertEquals(3, dialect.descriptionColumn, "Description column should be inferred");
+        assertEquals(0, dialect.categoryColumn, "Category column should be inferred");
+        assertEquals("dd/MM/yyyy", dialect.dateParser.getPattern(), "The date format should be inferred");
+    }
+
+    @Test
+    @DisplayName("Test files without a usable layout are rejected")
+    public void testRejected() {
+        assertThrows(TransactionManager.ImportException.class, () -> CsvDialect.detect("just one column\nanother\n", false),
+                "A file without delimiters should be rejected");
+        assertThrows(TransactionManager.ImportException.class, () -> CsvDialect.detect("Date,Note\n2024-01-01,x\n", false),
+                "A file missing required columns should be rejected");
+    }
+
+    @Test
+    @DisplayName("Test a different file saved under the same name is detected again")
+    public void testCacheKey(@TempDir Path tempDir) throws Exception {
+        File file = tempDir.resolve("statement.csv").toFile();
+        String header = "Date,Description,Category,Amount\n";
+        Files.write(file.toPath(), (header + "01/25/2024,Lunch,Food,12.50\n02/13/2024,Bus,Transport,2.00\n")
+                .getBytes(StandardCharsets.UTF_8));
+        CsvDialect first = CsvDialect.forFile(file);
+        assertEquals("MM/dd/yyyy", first.dateParser.getPattern(), "Month-first dates should be inferred");
+        assertTrue(CsvDialect.forFile(file).isCached(), "The unchanged file should reuse the cached dialect");
+
+        // Same name, header and length, but day-first dates
+        Files.write(file.toPath(), (header + "25/01/2024,Lunch,Food,12.50\n13/02/2024,Bus,Transport,2.00\n")
+                .getBytes(StandardCharsets.UTF_8));
+        assertTrue(file.setLastModified(file.lastModified() + 10_000), "The test needs a new modification time");
+        CsvDialect second = CsvDialect.forFile(file);
+        assertFalse(second.isCached(), "A changed file should be detected again");
+        assertEquals("dd/MM/yyyy", second.dateParser.getPattern(), "Day-first dates should be inferred for the new file");
+    }
+}
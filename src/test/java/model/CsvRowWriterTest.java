@@ -0,0 +1,61 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CsvRowWriter quoting and number formatting
+ */
+public class CsvRowWriterTest {
+
+    private String writeRow(String... fields) throws IOException {
+        StringWriter out = new StringWriter();
+        try (CsvRowWriter writer = new CsvRowWriter(out)) {
+            for (String field : fields) {
+                writer.writeField(field);
+            }
+            writer.endRow();
+        }
+        return out.toString();
+    }
+
+    @Test
+    @DisplayName("Test fields are quoted according to RFC 4180")
+    public void testQuoting() throws IOException {
+        assertEquals("plain,text\r\n", writeRow("plain", "text"), "Plain fields should not be quoted");
+        assertEquals("\"Coffee, large\",x\r\n", writeRow("Coffee, large", "x"), "Fields with commas should be quoted");
+        assertEquals("\"Say \"\"hi\"\"\"\r\n", writeRow("Say \"hi\""), "Quotes should be doubled");
+        assertEquals("\"two\nlines\",\r\n", writeRow("two\nlines", null), "Line breaks should be quoted, null written as empty");
+    }
+
+    @Test
+    @DisplayName("Test dates and amounts match the standard formatters")
+    public void testDatesAndAmounts() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            double amount = (random.nextInt(2000000) - 1000000) / 1000.0;
+            if (i % 3 == 0) {
+                amount = random.nextDouble() * 1e6;
+            }
+            StringWriter out = new StringWriter();
+            try (CsvRowWriter writer = new CsvRowWriter(out)) {
+                writer.writeAmount(amount);
+            }
+            assertEquals(String.format(Locale.ROOT, "%.2f", amount), out.toString(), "Amount should match %.2f for " + amount);
+        }
+
+        StringWriter out = new StringWriter();
+        try (CsvRowWriter writer = new CsvRowWriter(out)) {
+            writer.writeDate(LocalDate.of(2024, 3, 5));
+            writer.writeAmount(-0.0);
+            writer.writeAmount(0.125);
+        }
+        assertEquals("2024-03-05,-0.00,0.13", out.toString(), "Date, negative zero and ties should be formatted correctly");
+    }
+}
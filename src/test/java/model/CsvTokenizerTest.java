@@ -0,0 +1,98 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.io.StringReader;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CsvTokenizer field splitting
+ */
+public class CsvTokenizerTest {
+
+    @Test
+    @DisplayName("Test quoted fields are unquoted and trimmed")
+    public void testSplit() {
+        CsvTokenizer tokenizer = new CsvTokenizer(',');
+        assertEquals(4, tokenizer.split(" 2024-01-05 ,\"Coffee, large\",\"Say \"\"hi\"\"\", 12.50"), "Quoted commas should not split");
+        assertEquals("2024-01-05", tokenizer.getField(0), "Fields should be trimmed");
+        assertEquals("Coffee, large", tokenizer.getField(1), "Quotes should be removed");
+        assertEquals("Say \"hi\"", tokenizer.getField(2), "Doubled quotes should become one quote");
+        assertEquals("12.50", tokenizer.getText().subSequence(tokenizer.getStart(3), tokenizer.getEnd(3)).toString(),
+                "Field offsets should point into the buffer");
+
+        assertEquals(3, tokenizer.split("a,,"), "Empty fields should be counted");
+        assertEquals("", tokenizer.getField(2), "Empty fields should be empty");
+    }
+
+    @Test
+    @DisplayName("Test records are read from a reader with line numbers")
+    public void testReader() throws IOException {
+        String csv = "Date;Amount\r\n\r\n2024-01-05;\"multi\nline\"\n2024-01-06;3\n";
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv), ';');
+
+        assertTrue(tokenizer.next(), "The header should be read");
+        assertEquals(1, tokenizer.getLineNumber(), "The header should be on line 1");
+        assertEquals("Amount", tokenizer.getField(1), "CRLF should end the record");
+
+        assertTrue(tokenizer.next(), "The blank line should be skipped");
+        assertEquals(3, tokenizer.getLineNumber(), "The record should start on line 3");
+        assertEquals("multi\nline", tokenizer.getField(1), "Quoted line breaks should stay in the field");
+
+        assertTrue(tokenizer.next(), "The last record should be read");
+        assertEquals(5, tokenizer.getLineNumber(), "Line numbers should count quoted line breaks");
+        assertEquals("2024-01-06;3", tokenizer.getRecordText(), "The record text should be rebuilt");
+        assertFalse(tokenizer.next(), "The end of input should be reported");
+    }
+
+    @Test
+    @DisplayName("Test quotes inside unquoted fields are kept as text")
+    public void testLiteralQuotes() throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(
+                "2024-01-05,27\" monitor,Shopping,199\n2024-01-06,Bus,Transport,2\n"), ',');
+        assertTrue(tokenizer.next(), "The first record should be read");
+        assertEquals(4, tokenizer.getFieldCount(), "A quote inside a field should not open quotes");
+        assertEquals("27\" monitor", tokenizer.getField(1), "The quote should stay in the field");
+        assertTrue(tokenizer.next(), "The next record should not be swallowed by the quote");
+        assertEquals("Bus", tokenizer.getField(1), "The next record should be split normally");
+
+        assertEquals(3, tokenizer.split(" \"a,b\",c\"d,e"), "Only quotes at the start of a field should open quotes");
+        assertEquals("a,b", tokenizer.getField(0), "A quote after blanks should open quotes");
+        assertEquals("c\"d", tokenizer.getField(1), "A later quote should be kept");
+        assertEquals(3, CsvTokenizer.countFields(" \"a,b\",c\"d,e", ','), "Counting should treat quotes the same way");
+        assertEquals(2, CsvTokenizer.countFields("\"a\"\"b,c\",d", ','), "Doubled quotes should not end a quoted field");
+    }
+
+    @Test
+    @DisplayName("Test long records grow the buffers")
+    public void testLongRecord() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            csv.append(i > 0 ? "," : "").append("field").append(i).append("xxxxxxxxxx");
+        }
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv.toString()), ',');
+        assertTrue(tokenizer.next(), "The record should be read without a trailing line break");
+        assertEquals(100, tokenizer.getFieldCount(), "All fields should be found");
+        assertEquals("field99xxxxxxxxxx", tokenizer.getField(99), "The last field should be intact");
+    }
+
+    @Test
+    @DisplayName("Test reading resumes at a recorded offset")
+    public void testResume() throws IOException {
+        String csv = "a,1\r\nb,\"2\n2\"\r\nc,3\n";
+        CsvTokenizer first = new CsvTokenizer(new StringReader(csv), ',');
+        assertTrue(first.next(), "The first record should be read");
+        assertTrue(first.next(), "The second record should be read");
+        long offset = first.getOffset();
+        int lines = first.getLinesRead();
+        assertEquals(3, lines, "The quoted line break should be counted");
+
+        CsvTokenizer resumed = new CsvTokenizer(new StringReader(csv), ',');
+        resumed.resumeAt(offset, lines);
+        assertTrue(resumed.next(), "The record after the offset should be read");
+        assertEquals("c", resumed.getField(0), "Reading should continue after the second record");
+        assertEquals(4, resumed.getLineNumber(), "Line numbers should continue from the offset");
+        assertFalse(resumed.next(), "The input should end after the last record");
+    }
+}
@@ -3,6 +3,14 @@ package model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -137,4 +145,104 @@ public class CurrencyManagerTest {
         assertEquals(expectedUsdToCny, currencyManager.getExchangeRate(CurrencyManager.USD, CurrencyManager.CNY), 
                     0.0001, "USD to CNY exchange rate should be the reciprocal of CNY to USD rate");
     }
+    
+    @Test
+    @DisplayName("Test currency IDs")
+    public void testGetCurrencyId() {
+        assertEquals(CurrencyManager.CNY_ID, CurrencyManager.getCurrencyId(CurrencyManager.CNY), "CNY should map to CNY_ID");
+        assertEquals(CurrencyManager.USD_ID, CurrencyManager.getCurrencyId(CurrencyManager.USD), "USD should map to USD_ID");
+        assertEquals(-1, CurrencyManager.getCurrencyId("Unknown currency"), "Unknown currency should map to -1");
+        assertEquals(CurrencyManager.EUR, CurrencyManager.getCurrency(CurrencyManager.EUR_ID), "EUR_ID should map back to EUR");
+    }
+    
+    @Test
+    @DisplayName("Test batch conversion matches single conversion")
+    public void testConvertBatch() {
+        double[] amounts = {0.0, 100.0, 1234.56, -50.0};
+        
+        double[] result = currencyManager.convert(amounts, CurrencyManager.USD, CurrencyManager.EUR);
+        
+        assertEquals(amounts.length, result.length, "Batch conversion should return one value per input");
+        for (int i = 0; i < amounts.length; i++) {
+            assertEquals(currencyManager.convert(amounts[i], CurrencyManager.USD, CurrencyManager.EUR), result[i],
+                    0.0001, "Batch conversion should match single conversion");
+        }
+    }
+    
+    @Test
+    @DisplayName("Test batch conversion of minor units")
+    public void testConvertMinorUnits() {
+        long[] fen = {10000, 0, -2500};
+        
+        long[] cents = currencyManager.convert(fen, CurrencyManager.CNY, CurrencyManager.USD);
+        
+        assertArrayEquals(new long[] {1381, 0, -345}, cents, "Minor units should be converted and rounded");
+    }
+    
+    @Test
+    @DisplayName("Test formatting negative and large amounts")
+    public void testFormatNegativeAndLarge() {
+        assertEquals("¥-1,234.50", currencyManager.format(-1234.5, CurrencyManager.CNY), "Negative amounts should keep the minus sign");
+        assertEquals("$1,000,000.00", currencyManager.format(1000000, CurrencyManager.USD), "Large amounts should be grouped");
+        assertEquals("€0.12", currencyManager.format(0.125, CurrencyManager.EUR), "Ties should round half-even like DecimalFormat");
+    }
+    
+    @Test
+    @DisplayName("Test formatting does not depend on the default locale")
+    public void testFormatUnderGermanLocale() throws InterruptedException {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            // A new thread creates its own fallback formatter under the German default
+            String[] formatted = new String[2];
+            Thread thread = new Thread(() -> {
+                formatted[0] = currencyManager.format(1234.56, CurrencyManager.CNY);
+                formatted[1] = currencyManager.format(1234.125, CurrencyManager.CNY);
+            });
+            thread.start();
+            thread.join();
+            assertEquals("¥1,234.56", formatted[0], "Amounts should keep ',' grouping and '.' decimals");
+            assertEquals("¥1,234.12", formatted[1], "Ties formatted by the fallback should use the same separators");
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+    
+    @Test
+    @DisplayName("Test conversion with unsupported currency")
+    public void testConvertUnsupportedCurrency() {
+        assertThrows(IllegalArgumentException.class,
+                () -> currencyManager.convert(1.0, CurrencyManager.CNY, "Unknown currency"),
+                "Unsupported currency should throw IllegalArgumentException");
+    }
+    
+    @Test
+    @DisplayName("Test date-aware conversion with historical rates")
+    public void testConvertWithHistoricalRates(@TempDir Path tempDir) throws IOException {
+        Path ratesFile = tempDir.resolve("rates.csv");
+        Files.write(ratesFile, Arrays.asList(
+                "Date,Currency,Rate",
+                "2024-03-01,USD,0.1400",
+                "2024-01-01,USD,0.1500",
+                "2024-02-01,USD,0.1450"));
+        
+        assertTrue(currencyManager.loadExchangeRateHistory(ratesFile.toString()), "Rates file should load");
+        
+        // Rate in effect is the latest one on or before the date, regardless of file order
+        assertEquals(14.5, currencyManager.convert(100.0, CurrencyManager.CNY, CurrencyManager.USD, LocalDate.of(2024, 2, 15)),
+                0.0001, "Mid-February should use the February rate");
+        assertEquals(15.0, currencyManager.convert(100.0, CurrencyManager.CNY, CurrencyManager.USD, LocalDate.of(2023, 6, 1)),
+                0.0001, "Dates before the history should use the earliest rate");
+        assertEquals(100.0 / 0.14, currencyManager.convert(100.0, CurrencyManager.USD, CurrencyManager.CNY, LocalDate.of(2025, 1, 1)),
+                0.0001, "Dates after the history should use the latest rate");
+        
+        // Currencies without history fall back to the current rate
+        assertEquals(12.69, currencyManager.convert(100.0, CurrencyManager.CNY, CurrencyManager.EUR, LocalDate.of(2024, 2, 15)),
+                0.0001, "EUR has no history and should use the current rate");
+        
+        // Batch revaluation uses each amount's own date
+        long[] days = {LocalDate.of(2024, 1, 10).toEpochDay(), LocalDate.of(2024, 3, 10).toEpochDay()};
+        double[] result = currencyManager.convert(new double[] {100.0, 100.0}, days, CurrencyManager.CNY, CurrencyManager.USD);
+        assertArrayEquals(new double[] {15.0, 14.0}, result, 0.0001, "Each amount should be converted at its own date's rate");
+    }
 } 
\ No newline at end of file
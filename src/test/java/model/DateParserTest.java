@@ -0,0 +1,69 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Locale;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DateParser format inference and parsing
+ */
+public class DateParserTest {
+
+    @Test
+    @DisplayName("Test the format is inferred from sample dates")
+    public void testInference() {
+        assertEquals("yyyy-MM-dd", DateParser.infer(Arrays.asList("2024-01-05", "2024-02-10")).getPattern(),
+                "ISO dates should be recognized");
+        assertEquals("dd-MMM-yyyy", DateParser.infer(Arrays.asList("05-Jan-2024", "10-Feb-2024")).getPattern(),
+                "Month names should be recognized");
+
+        DateParser dayFirst = DateParser.infer(Arrays.asList("01/02/2024", "25/02/2024"));
+        assertEquals("dd/MM/yyyy", dayFirst.getPattern(), "A day above 12 should select dd/MM/yyyy");
+        assertFalse(dayFirst.isAmbiguous(), "A day above 12 should resolve the ambiguity");
+        assertEquals(LocalDate.of(2024, 2, 1), dayFirst.parse("01/02/2024"), "Dates should be read day first");
+
+        DateParser ambiguous = DateParser.infer(Arrays.asList("01/02/2024", "03/04/2024"));
+        assertEquals("MM/dd/yyyy", ambiguous.getPattern(), "Ambiguous dates should default to MM/dd/yyyy");
+        assertTrue(ambiguous.isAmbiguous(), "Ambiguous dates should be reported");
+    }
+
+    @Test
+    @DisplayName("Test the fast parser agrees with DateTimeFormatter")
+    public void testMatchesFormatter() {
+        DateParser parser = new DateParser();
+        LocalDate date = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < 800; i++, date = date.plusDays(1)) {
+            for (String pattern : new String[] {"yyyy-MM-dd", "yyyy/MM/dd", "MM/dd/yyyy", "yyyy.MM.dd", "MMM dd, yyyy", "dd-MMM-yyyy"}) {
+                String text = date.format(DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH));
+                assertEquals(date, parser.parse(text), "Parsing " + text + " should match " + pattern);
+            }
+        }
+        assertEquals(LocalDate.of(2023, 2, 28), parser.parse("2023-02-30"), "Days past the month end should be clamped");
+        assertEquals(LocalDate.of(2024, 1, 5), parser.parse(" 2024-01-05 "), "Surrounding spaces should be ignored");
+    }
+
+    @Test
+    @DisplayName("Test the fast parser rejects dates the formatters reject")
+    public void testRejectsWhatFormatterRejects() {
+        DateParser parser = DateParser.infer(Arrays.asList("2024-01-05"));
+        assertEquals("yyyy-MM-dd", parser.getPattern(), "ISO dates should be recognized");
+        for (String text : new String[] {"2024-1-5", "2024-01-5", "1/5/2024", "2024.1.05", "Jan 5, 2024", "5-Jan-2024", "05-jan-2024", "JAN 05, 2024"}) {
+            assertThrows(DateTimeParseException.class, () -> parser.parse(text), text + " should be rejected as the formatters reject it");
+            assertFalse(DateParser.isDate(text), text + " should not be recognized as a date");
+        }
+    }
+
+    @Test
+    @DisplayName("Test dates in other formats fall back to the full cascade")
+    public void testFallback() {
+        DateParser parser = DateParser.infer(Arrays.asList("2024-01-05"));
+        assertEquals(LocalDate.of(2024, 3, 15), parser.parse("03/15/2024"), "Other supported formats should still parse");
+        assertThrows(DateTimeParseException.class, () -> parser.parse("2024-13-01"), "Invalid months should be rejected");
+        assertThrows(DateTimeParseException.class, () -> parser.parse("yesterday"), "Unsupported text should be rejected");
+    }
+}
@@ -0,0 +1,75 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DescriptionIndex
+ */
+public class DescriptionIndexTest {
+
+    private static DescriptionIndex index(String... descriptions) {
+        DescriptionIndex index = new DescriptionIndex();
+        for (int row = 0; row < descriptions.length; row++) {
+            index.add(row, descriptions[row]);
+        }
+        return index;
+    }
+
+    private static List<Integer> rows(BitSet matches) {
+        List<Integer> rows = new ArrayList<>();
+        for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    @DisplayName("Test Latin words and CJK characters are split into terms")
+    public void testTokenize() {
+        List<String> terms = new ArrayList<>();
+        DescriptionIndex.tokenize("Starbucks 星巴克咖啡 #42", false, terms::add);
+        assertEquals(Arrays.asList("starbucks", "星", "星巴", "巴", "巴克", "克", "克咖", "咖", "咖啡", "啡", "42"), terms,
+                "Words should be lowercased and CJK text indexed as characters and bigrams");
+
+        List<String> queryTerms = new ArrayList<>();
+        DescriptionIndex.tokenize("咖啡 星", true, queryTerms::add);
+        assertEquals(Arrays.asList("咖啡", "星"), queryTerms, "A query should use bigrams, and a lone character on its own");
+    }
+
+    @Test
+    @DisplayName("Test word search over English and Chinese descriptions")
+    public void testSearch() {
+        DescriptionIndex index = index("Starbucks Coffee", "星巴克咖啡", "Coffee beans 咖啡豆", "Uber ride", "Stationery");
+
+        assertEquals(Arrays.asList(0, 4), rows(index.search("sta")), "A partly typed word should match by prefix");
+        assertEquals(Arrays.asList(0, 2), rows(index.search("COFFEE")), "Search should ignore case");
+        assertEquals(Arrays.asList(0, 2), rows(index.search("offee")), "A fragment should match inside a word");
+        assertEquals(Arrays.asList(0), rows(index.search("coffee star")), "All words should have to match");
+        assertEquals(Arrays.asList(1, 2), rows(index.search("咖啡")), "Chinese text should match inside longer words");
+        assertEquals(Arrays.asList(1), rows(index.search("巴克咖")), "Every bigram of a Chinese query should have to match");
+        assertEquals(Arrays.asList(1, 2), rows(index.search("啡")), "A single character should match anywhere");
+        assertEquals(Arrays.asList(2), rows(index.search("beans 咖啡")), "Mixed queries should match both scripts");
+        assertTrue(index.search("taxi").isEmpty(), "An unknown word should match nothing");
+        assertNull(index.search("  - "), "A query without words should not be searched");
+        assertFalse(DescriptionIndex.hasTokens("& -"), "Punctuation should have no searchable tokens");
+        assertTrue(DescriptionIndex.hasTokens("- 啡"), "A Chinese character should be searchable");
+    }
+
+    @Test
+    @DisplayName("Test misspelled words fall back to fuzzy matches")
+    public void testFuzzy() {
+        DescriptionIndex index = index("Starbucks Coffee", "Netflix subscription", "Uber ride");
+
+        assertEquals(Arrays.asList(0), rows(index.search("starbuks")), "One missing letter should still match");
+        assertEquals(Arrays.asList(1), rows(index.search("netflx subscriptoin")), "Two edits should be allowed in long words");
+        assertTrue(index.search("ubr").isEmpty(), "Short words should not be matched fuzzily");
+        assertEquals(1, DescriptionIndex.editDistance("coffee", "cofee", 2), "Edit distance should count a deletion");
+        assertEquals(3, DescriptionIndex.editDistance("coffee", "tea", 2), "Edit distance should stop above the limit");
+    }
+}
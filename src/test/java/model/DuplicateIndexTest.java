@@ -0,0 +1,100 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DuplicateIndex
+ */
+public class DuplicateIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 5);
+
+    private void store(File storeFile, Transaction transaction) throws IOException {
+        try (PrintWriter out = new PrintWriter(new FileWriter(storeFile, true))) {
+            out.println(transaction);
+        }
+    }
+
+    @Test
+    @DisplayName("Test identical transactions are counted by occurrence")
+    public void testOrdinals() throws IOException {
+        File storeFile = directory.resolve("transactions.txt").toFile();
+        File indexFile = directory.resolve("transactions.idx").toFile();
+
+        DuplicateIndex index = DuplicateIndex.open(storeFile, indexFile);
+        for (int i = 0; i < 2; i++) {
+            long hash = index.check("alice", DATE, "Coffee", 3.5);
+            assertNotEquals(0, hash, "Both identical purchases should be new on the first import");
+            store(storeFile, new Transaction("alice", DATE, "Coffee", "Food", 3.5));
+            index.add(hash);
+        }
+        index.commit();
+
+        assertEquals(0, index.check("alice", DATE, "  coffee ", 3.5), "The first copy should be a duplicate ignoring case and spaces");
+        assertEquals(0, index.check("alice", DATE, "Coffee", 3.5), "The second copy should be a duplicate");
+        assertNotEquals(0, index.check("alice", DATE, "Coffee", 3.5), "A third copy should be new");
+        assertNotEquals(0, index.check("bob", DATE, "Coffee", 3.5), "Another user's purchase should be new");
+        assertNotEquals(0, index.check("alice", DATE, "Coffee", 3.6), "A different amount should be new");
+        index.close();
+    }
+
+    @Test
+    @DisplayName("Test replayed transactions keep the ordinals of a resumed import")
+    public void testReplay() throws IOException {
+        File storeFile = directory.resolve("transactions.txt").toFile();
+        File indexFile = directory.resolve("transactions.idx").toFile();
+        long key = DuplicateIndex.key("alice", DATE, "Coffee", 3.5);
+
+        DuplicateIndex index = DuplicateIndex.open(storeFile, indexFile);
+        long hash = index.check(key);
+        store(storeFile, new Transaction("alice", DATE, "Coffee", "Food", 3.5));
+        index.add(hash);
+        index.commit();
+        index.close();
+
+        DuplicateIndex resumed = DuplicateIndex.open(storeFile, indexFile);
+        resumed.replay(key);
+        assertNotEquals(0, resumed.check(key), "The second purchase after the resume point should be new");
+        resumed.close();
+    }
+
+    @Test
+    @DisplayName("Test the index is reloaded or rebuilt to match the transactions file")
+    public void testPersistence() throws IOException {
+        File storeFile = directory.resolve("transactions.txt").toFile();
+        File indexFile = directory.resolve("transactions.idx").toFile();
+        store(storeFile, new Transaction("alice", DATE, "Rent", "Housing", 1200));
+
+        DuplicateIndex index = DuplicateIndex.open(storeFile, indexFile);
+        assertEquals(1, index.size(), "A missing index should be rebuilt from the transactions file");
+        long hash = index.check("alice", DATE.plusDays(1), "Bus", 2);
+        store(storeFile, new Transaction("alice", DATE.plusDays(1), "Bus", "Transport", 2));
+        index.add(hash);
+        index.commit();
+        index.close();
+
+        DuplicateIndex reloaded = DuplicateIndex.open(storeFile, indexFile);
+        assertEquals(2, reloaded.size(), "The saved index should be loaded");
+        assertEquals(0, reloaded.check("alice", DATE.plusDays(1), "Bus", 2), "Added transactions should be remembered");
+        reloaded.close();
+
+        // A transaction written without updating the index makes the index out of date
+        store(storeFile, new Transaction("alice", DATE.plusDays(2), "Lunch", "Food", 9));
+        DuplicateIndex rebuilt = DuplicateIndex.open(storeFile, indexFile);
+        assertEquals(3, rebuilt.size(), "An out of date index should be rebuilt");
+        assertEquals(0, rebuilt.check("alice", DATE.plusDays(2), "Lunch", 9), "The rebuilt index should include all transactions");
+        rebuilt.close();
+    }
+}
@@ -0,0 +1,145 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for pausing, resuming and rolling back ImportJob. Imports write transactions.txt and
+ * transactions.idx in the working directory, so existing files are moved aside during each test.
+ */
+public class ImportJobTest {
+
+    // Rows repeat every DISTINCT_ROWS rows, so identical rows fall into different batches
+    private static final int DISTINCT_ROWS = 1200;
+
+    private final WorkingFiles workingFiles = new WorkingFiles("transactions.txt", "transactions.idx");
+    private final List<ImportJob> jobs = new ArrayList<>();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        workingFiles.moveAside();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        for (ImportJob job : jobs) {
+            job.discard();
+        }
+        workingFiles.restore();
+    }
+
+    /**
+     * Writes a statement whose rows repeat, with past dates so no budget alerts are raised
+     */
+    private String writeStatement(int rows) throws IOException {
+        StringBuilder csv = new StringBuilder("Date,Description,Category,Amount\n");
+        for (int i = 0; i < rows; i++) {
+            int row = i % DISTINCT_ROWS;
+            csv.append(LocalDate.of(2020, 1, 1).plusDays(row % 28)).append(",Item ").append(row / 28)
+                    .append(",Food,").append(row % 7 + 1).append(".00\n");
+        }
+        File file = tempDir.resolve("statement.csv").toFile();
+        Files.write(file.toPath(), csv.toString().getBytes(StandardCharsets.UTF_8));
+        return file.getPath();
+    }
+
+    private ImportJob start(String path) throws IOException {
+        ImportJob job = ImportJob.start(path);
+        jobs.add(job);
+        return job;
+    }
+
+    /**
+     * Loads a job from its file, as after a restart
+     */
+    private static ImportJob reload(ImportJob job) {
+        for (ImportJob unfinished : ImportJob.findUnfinished(job.getUserId())) {
+            if (unfinished.getJobId().equals(job.getJobId())) {
+                return unfinished;
+            }
+        }
+        return fail("The job should be unfinished");
+    }
+
+    private static int storedRows() throws IOException {
+        File file = TransactionManager.getTransactionsFile();
+        return file.exists() ? Files.readAllLines(file.toPath()).size() : 0;
+    }
+
+    @Test
+    @DisplayName("Test an import paused after one batch resumes without duplicating rows")
+    public void testPauseAndResume() throws Exception {
+        String path = writeStatement(2500);
+        ImportJob job = start(path);
+
+        TransactionManager.ImportResult paused = job.run(ImportJob::requestStop);
+        assertFalse(paused.isComplete(), "The import should pause after the first batch");
+        assertEquals(1000, storedRows(), "Only the first batch should be stored");
+
+        TransactionManager.ImportResult resumed = reload(job).run(null);
+        assertTrue(resumed.isComplete(), "The resumed import should finish");
+        assertEquals(2500, resumed.getImportedCount(), "The counts should continue from the checkpoint");
+        assertEquals(2500, storedRows(), "Every row should be stored exactly once");
+
+        TransactionManager.ImportResult again = start(path).run(null);
+        assertEquals(0, again.getImportedCount(), "Importing the file again should add nothing");
+        assertEquals(2500, again.getDuplicateCount(), "Identical rows should be matched by their ordinals");
+    }
+
+    @Test
+    @DisplayName("Test keys written before a crash are dropped when the import resumes")
+    public void testStaleKeys() throws Exception {
+        String path = writeStatement(3500);
+        ImportJob job = start(path);
+        job.run(ImportJob::requestStop);
+
+        // A crash after writing a batch's keys but before saving the checkpoint leaves them behind
+        File keysFile = new File(ImportJob.JOBS_DIRECTORY, job.getJobId() + ".keys");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(keysFile, true)))) {
+            for (int i = 0; i < 1000; i++) {
+                out.writeLong(i + 1);
+            }
+        }
+
+        assertFalse(reload(job).run(ImportJob::requestStop).isComplete(), "The import should pause after the second batch");
+        assertTrue(reload(job).run(null).isComplete(), "The import should finish");
+        assertEquals(3500, storedRows(), "Replayed keys should keep the ordinals of identical rows");
+    }
+
+    @Test
+    @DisplayName("Test rolling back a paused import removes its rows")
+    public void testRollback() throws Exception {
+        TransactionManager.saveTransaction(new Transaction("", LocalDate.of(2020, 1, 1), "Earlier", "Other", 5));
+        long lengthBefore = TransactionManager.getTransactionsFile().length();
+
+        ImportJob job = start(writeStatement(2500));
+        job.run(ImportJob::requestStop);
+        assertEquals(1001, storedRows(), "The first batch should be stored");
+
+        ImportJob unfinished = reload(job);
+        unfinished.rollback();
+        assertEquals(ImportJob.Status.ROLLED_BACK, unfinished.getStatus(), "The job should be rolled back");
+        assertEquals(lengthBefore, TransactionManager.getTransactionsFile().length(), "The imported rows should be removed");
+        assertEquals(1, TransactionManager.loadTransactions().size(), "Earlier transactions should be kept");
+        assertTrue(ImportJob.findUnfinished(job.getUserId()).stream().noneMatch(j -> j.getJobId().equals(job.getJobId())),
+                "A rolled back job should not be offered again");
+    }
+}
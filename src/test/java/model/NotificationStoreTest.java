@@ -0,0 +1,121 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for NotificationStore
+ */
+public class NotificationStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static NotificationManager.Notification notification(String type, String message) {
+        return new NotificationManager.Notification(type, "Title", message);
+    }
+
+    private static List<String> messages(List<NotificationManager.Notification> notifications) {
+        List<String> messages = new ArrayList<>();
+        for (NotificationManager.Notification notification : notifications) {
+            messages.add(notification.message);
+        }
+        return messages;
+    }
+
+    @Test
+    @DisplayName("Test the oldest notifications are evicted once the ring buffer wraps around")
+    public void testEviction() {
+        NotificationStore store = new NotificationStore();
+        int total = NotificationStore.DEFAULT_CAPACITY * 2 + 50;
+        for (int i = 0; i < total; i++) {
+            store.add(notification(i % 2 == 0 ? NotificationManager.BUDGET_ALERT : NotificationManager.BILL_REMINDER, "n" + i));
+        }
+
+        assertEquals(NotificationStore.DEFAULT_CAPACITY, store.size(), "The store should keep its capacity");
+        List<NotificationManager.Notification> history = store.getPage(0, total);
+        assertEquals(NotificationStore.DEFAULT_CAPACITY, history.size(), "Only the newest notifications should be kept");
+        assertEquals("n" + (total - 1), history.get(0).message, "The newest notification should come first");
+        assertEquals("n" + (total - NotificationStore.DEFAULT_CAPACITY), history.get(history.size() - 1).message,
+                "The oldest kept notification should come last");
+        assertEquals(NotificationStore.DEFAULT_CAPACITY, store.pendingCount(), "Evicted notifications should leave the pending list");
+        assertEquals(NotificationStore.DEFAULT_CAPACITY / 2, store.size(NotificationManager.BUDGET_ALERT),
+                "Evicted notifications should leave the type index");
+        assertEquals(total, history.get(0).id, "IDs should keep counting after eviction");
+    }
+
+    @Test
+    @DisplayName("Test the type index pages each type newest first and drops evicted types")
+    public void testTypeIndex() {
+        NotificationStore store = new NotificationStore(4);
+        store.add(notification(NotificationManager.FINANCIAL_TIP, "tip"));
+        store.add(notification(NotificationManager.BUDGET_ALERT, "b1"));
+        store.add(notification(NotificationManager.BILL_REMINDER, "bill"));
+        store.add(notification(NotificationManager.BUDGET_ALERT, "b2"));
+        store.add(notification(NotificationManager.BUDGET_ALERT, "b3"));
+
+        assertEquals(Arrays.asList("b3", "b2", "b1"), messages(store.getPage(NotificationManager.BUDGET_ALERT, 0, 10)),
+                "A type's page should list its notifications newest first");
+        assertEquals(Arrays.asList("b2"), messages(store.getPage(NotificationManager.BUDGET_ALERT, 1, 1)),
+                "Offset and limit should apply within the type");
+        assertEquals(0, store.size(NotificationManager.FINANCIAL_TIP), "The evicted type should be removed from the index");
+        assertTrue(store.getPage(NotificationManager.FINANCIAL_TIP, 0, 10).isEmpty(), "The evicted type should have no page");
+        assertTrue(store.getPage(NotificationManager.BUDGET_ALERT, -1, 10).isEmpty(), "A negative offset should give an empty page");
+    }
+
+    @Test
+    @DisplayName("Test markAsReadUpTo only marks the type's notifications up to the ID")
+    public void testMarkAsReadUpTo() {
+        NotificationStore store = new NotificationStore();
+        long first = store.add(notification(NotificationManager.TRANSACTION_ALERT, "t1"));
+        store.add(notification(NotificationManager.BUDGET_ALERT, "b1"));
+        long second = store.add(notification(NotificationManager.TRANSACTION_ALERT, "t2"));
+        long third = store.add(notification(NotificationManager.TRANSACTION_ALERT, "t3"));
+
+        store.markAsReadUpTo(NotificationManager.TRANSACTION_ALERT, second);
+
+        assertEquals(Arrays.asList("b1", "t3"), messages(store.getPending()),
+                "Other types and later notifications should stay pending");
+        assertTrue(store.getPage(NotificationManager.TRANSACTION_ALERT, 2, 1).get(0).isRead, "Marked notifications should be read");
+        assertFalse(store.markAsRead(first), "A notification already read should not be pending");
+        assertTrue(store.markAsRead(third), "A pending notification should be marked as read");
+        assertEquals(1, store.pendingCount(), "Only the other type should remain pending");
+    }
+
+    @Test
+    @DisplayName("Test saving and loading keeps the text and loading replaces the history")
+    public void testSaveAndLoad() {
+        NotificationStore store = new NotificationStore();
+        NotificationManager.Notification special = new NotificationManager.Notification(
+                NotificationManager.BILL_REMINDER, "Rent\tdue", "Line one\nLine two\r\nPath C:\\bills\\tab");
+        special.timestamp = 1700000000000L;
+        store.add(special);
+        store.add(notification(NotificationManager.FINANCIAL_TIP, "Plain"));
+        store.markAsRead(special.id);
+
+        String file = tempDir.resolve("notifications.txt").toString();
+        assertTrue(store.save(file), "Saving should succeed");
+
+        NotificationStore loaded = new NotificationStore();
+        assertTrue(loaded.load(file), "Loading should succeed");
+        List<NotificationManager.Notification> history = loaded.getPage(0, 10);
+        assertEquals(2, history.size(), "Every notification should be loaded");
+        NotificationManager.Notification restored = history.get(1);
+        assertEquals("Rent\tdue", restored.title, "Tabs in the title should be kept");
+        assertEquals("Line one\nLine two\r\nPath C:\\bills\\tab", restored.message, "Line breaks and backslashes should be kept");
+        assertEquals(1700000000000L, restored.timestamp, "The timestamp should be kept");
+        assertTrue(restored.isRead, "The read state should be kept");
+        assertEquals(Arrays.asList("Plain"), messages(loaded.getPending()), "Only unread notifications should be pending");
+
+        loaded.add(notification(NotificationManager.BUDGET_ALERT, "Unsaved"));
+        assertTrue(loaded.load(file), "Loading again should succeed");
+        assertEquals(2, loaded.size(), "Loading again should replace the history instead of adding to it");
+        assertEquals(Arrays.asList("Plain"), messages(loaded.getPending()), "Loading again should not duplicate pending notifications");
+    }
+}
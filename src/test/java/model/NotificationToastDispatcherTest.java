@@ -0,0 +1,92 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the rate limiting and coalescing of NotificationToastDispatcher. Only the
+ * clock-driven admit and drain steps are used, so no toast windows are created.
+ */
+public class NotificationToastDispatcherTest {
+
+    // Far from zero, so the first notification of a type is outside any window
+    private static final long START = 1_000_000L;
+
+    private NotificationToastDispatcher dispatcher;
+    private long nextId = 1;
+
+    @BeforeEach
+    public void setUp() {
+        dispatcher = new NotificationToastDispatcher(new NotificationStore());
+        LocalizationManager.getInstance().setLanguage("English");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        LocalizationManager.getInstance().setLanguage("English");
+    }
+
+    private NotificationManager.Notification notification(String type, String message) {
+        NotificationManager.Notification notification = new NotificationManager.Notification(type, "Title", message);
+        notification.id = nextId++;
+        return notification;
+    }
+
+    @Test
+    @DisplayName("Test notifications within the interval are held back and shown after it")
+    public void testRateLimit() {
+        int interval = NotificationToastDispatcher.DEFAULT_MIN_INTERVAL_MS;
+        assertTrue(dispatcher.admit(notification(NotificationManager.BILL_REMINDER, "first"), START),
+                "The first notification should be shown at once");
+        assertFalse(dispatcher.admit(notification(NotificationManager.BILL_REMINDER, "second"), START + interval - 1),
+                "A notification within the interval should be held back");
+        assertTrue(dispatcher.admit(notification(NotificationManager.FINANCIAL_TIP, "tip"), START + 1),
+                "Each type should have its own interval");
+
+        NotificationManager.Notification shown = dispatcher.drain(NotificationManager.BILL_REMINDER, START + interval);
+        assertEquals("second", shown.message, "A single held notification should be shown unchanged");
+        assertNull(dispatcher.drain(NotificationManager.BILL_REMINDER, START + interval), "Nothing should be left to show");
+
+        assertFalse(dispatcher.admit(notification(NotificationManager.BILL_REMINDER, "third"), START + interval + 1),
+                "The interval should restart when held notifications are shown");
+        assertTrue(dispatcher.admit(notification(NotificationManager.FINANCIAL_TIP, "later"), START + interval + 1),
+                "A type whose interval has passed should be shown at once");
+    }
+
+    @Test
+    @DisplayName("Test a burst is coalesced into one summary naming the latest notification")
+    public void testCoalescing() {
+        assertTrue(dispatcher.admit(notification(NotificationManager.TRANSACTION_ALERT, "t0"), START), "The first alert should be shown");
+        NotificationManager.Notification latest = null;
+        for (int i = 1; i <= 250; i++) {
+            latest = notification(NotificationManager.TRANSACTION_ALERT, "t" + i);
+            assertFalse(dispatcher.admit(latest, START + i), "Alerts in the burst should be held back");
+        }
+
+        NotificationManager.Notification summary = dispatcher.drain(NotificationManager.TRANSACTION_ALERT, START + 5000);
+        assertEquals("250 new transaction alerts<br>Latest: t250", summary.message, "The summary should count the held alerts");
+        assertEquals(latest.id, summary.id, "The summary should carry the latest ID so the burst can be marked read");
+    }
+
+    @Test
+    @DisplayName("Test the summary text follows the selected language")
+    public void testLocalizedSummary() {
+        dispatcher.setMinInterval(NotificationManager.BUDGET_ALERT, 1000);
+        dispatcher.admit(notification(NotificationManager.BUDGET_ALERT, "b0"), START);
+        dispatcher.admit(notification(NotificationManager.BUDGET_ALERT, "b1"), START + 1);
+        dispatcher.admit(notification(NotificationManager.BUDGET_ALERT, "b2"), START + 2);
+
+        assertTrue(LocalizationManager.getInstance().setLanguage("中文 (Chinese)"), "Chinese should be supported");
+        assertEquals("2 条新的预算提醒<br>最新：b2", dispatcher.drain(NotificationManager.BUDGET_ALERT, START + 1000).message,
+                "The summary should use the Chinese messages");
+
+        dispatcher.admit(notification("custom", "c0"), START);
+        dispatcher.admit(notification("custom", "c1"), START + 1);
+        dispatcher.admit(notification("custom", "c2"), START + 2);
+        assertEquals("2 条新通知<br>最新：c2", dispatcher.drain("custom", START + 5000).message,
+                "Other types should use the generic summary");
+    }
+}
@@ -0,0 +1,100 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TransactionAggregator time bucketing
+ */
+public class TransactionAggregatorTest {
+
+    private List<Transaction> createTransactions() {
+        List<Transaction> transactions = new ArrayList<>();
+        // Deliberately out of date order
+        transactions.add(new Transaction(LocalDate.of(2024, 3, 5), "Rent", "Housing", 1500.0));
+        transactions.add(new Transaction(LocalDate.of(2024, 1, 10), "Groceries", "Food & Dining", 80.0));
+        transactions.add(new Transaction(LocalDate.of(2024, 1, 31), "Bus", "Transportation", 20.0));
+        transactions.add(new Transaction(LocalDate.of(2024, 3, 20), "Dinner", "Food & Dining", 120.0));
+        return transactions;
+    }
+
+    @Test
+    @DisplayName("Test monthly buckets include empty months")
+    public void testMonthlyAggregation() {
+        TransactionAggregator aggregator = new TransactionAggregator(createTransactions());
+
+        TransactionAggregator.Series series = aggregator.aggregate(
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31), TransactionAggregator.Granularity.MONTH);
+
+        assertEquals(3, series.size(), "Should have one bucket per month");
+        assertEquals("2024-01", series.getLabel(0), "First bucket should be January");
+        assertEquals(100.0, series.getTotal(0), 0.0001, "January total should be summed");
+        assertEquals(2, series.getCount(0), "January should have two transactions");
+        assertEquals(0.0, series.getTotal(1), 0.0001, "February should be an empty bucket");
+        assertEquals(1620.0, series.getTotal(2), 0.0001, "March total should be summed");
+    }
+
+    @Test
+    @DisplayName("Test weekly buckets start on Monday and ranges are inclusive")
+    public void testWeeklyAggregation() {
+        TransactionAggregator aggregator = new TransactionAggregator(createTransactions());
+
+        TransactionAggregator.Series series = aggregator.aggregate(
+                LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 31), TransactionAggregator.Granularity.WEEK);
+
+        assertEquals("2024-01-08", series.getLabel(0), "Week should start on the Monday");
+        assertEquals(80.0, series.getTotal(0), 0.0001, "Transaction on the first day should be included");
+        assertEquals(20.0, series.getTotal(series.size() - 1), 0.0001, "Transaction on the last day should be included");
+        assertEquals(LocalDate.of(2024, 1, 10), aggregator.getFirstDate(), "First date should be the earliest");
+        assertEquals(LocalDate.of(2024, 3, 20), aggregator.getLastDate(), "Last date should be the latest");
+    }
+
+    @Test
+    @DisplayName("Test category totals are ordered by amount")
+    public void testCategoryTotals() {
+        TransactionAggregator aggregator = new TransactionAggregator(createTransactions());
+
+        Map<String, Double> totals = aggregator.categoryTotals(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31));
+
+        Iterator<Map.Entry<String, Double>> iterator = totals.entrySet().iterator();
+        Map.Entry<String, Double> first = iterator.next();
+        assertEquals("Housing", first.getKey(), "Largest category should come first");
+        assertEquals(200.0, totals.get("Food & Dining"), 0.0001, "Food total should be summed");
+        assertFalse(aggregator.categoryTotals(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)).containsKey("Housing"),
+                "Categories outside the range should be excluded");
+    }
+
+    @Test
+    @DisplayName("Test downsampling keeps the end points and peaks")
+    public void testDownsample() {
+        List<Transaction> transactions = new ArrayList<>();
+        LocalDate start = LocalDate.of(2015, 1, 1);
+        for (int i = 0; i < 3650; i++) {
+            transactions.add(new Transaction(start.plusDays(i), "Daily", "Other", i == 2000 ? 10000.0 : 10.0));
+        }
+        TransactionAggregator aggregator = new TransactionAggregator(transactions);
+        TransactionAggregator.Series daily = aggregator.aggregate(
+                aggregator.getFirstDate(), aggregator.getLastDate(), TransactionAggregator.Granularity.DAY);
+
+        TransactionAggregator.Series sampled = daily.downsample(500);
+
+        assertEquals(3650, daily.size(), "Daily series should have one bucket per day");
+        assertEquals(500, sampled.size(), "Downsampled series should have the requested size");
+        assertEquals(daily.getBucketDay(0), sampled.getBucketDay(0), "First point should be kept");
+        assertEquals(daily.getBucketDay(3649), sampled.getBucketDay(499), "Last point should be kept");
+        boolean peakKept = false;
+        for (int i = 0; i < sampled.size(); i++) {
+            peakKept |= sampled.getTotal(i) == 10000.0;
+        }
+        assertTrue(peakKept, "Peak should survive downsampling");
+        assertSame(daily, daily.downsample(5000), "Small series should not be copied");
+        assertEquals(TransactionAggregator.Granularity.WEEK, TransactionAggregator.chooseGranularity(
+                aggregator.getFirstDate(), aggregator.getLastDate(), 1000), "Ten years should be grouped by week");
+    }
+}
@@ -0,0 +1,84 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.time.LocalDate;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TransactionIndex
+ */
+public class TransactionIndexTest {
+
+    private static Transaction transaction(String date, String description, String category, double amount) {
+        return new Transaction("alice", LocalDate.parse(date), description, category, amount);
+    }
+
+    private static TransactionIndex index() {
+        TransactionIndex index = new TransactionIndex();
+        index.add(transaction("2024-03-01", "Rent", "Housing", 1500));
+        index.add(transaction("2024-01-15", "Lunch", "Food", 12));
+        index.add(transaction("2024-02-10", "Bus", "Transportation", 3));
+        index.add(transaction("2024-01-15", "Dinner", "Food", 30));
+        index.add(transaction("2024-04-02", "Groceries", "Food", 80));
+        return index;
+    }
+
+    @Test
+    @DisplayName("Test date range lookup returns the range sorted by date")
+    public void testDateRange() {
+        TransactionIndex index = index();
+
+        List<Transaction> january = index.findByDateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        assertEquals(2, january.size(), "Both January transactions should be found");
+        assertEquals("Lunch", january.get(0).getDescription(), "Transactions on the same day should stay in file order");
+        assertEquals("Dinner", january.get(1).getDescription(), "Transactions on the same day should stay in file order");
+
+        List<Transaction> q1 = index.findByDateRange(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 3, 1));
+        assertEquals(4, q1.size(), "Both bounds should be inclusive");
+        assertEquals("Rent", q1.get(3).getDescription(), "The latest transaction should be last");
+
+        assertEquals(5, index.findByDateRange(null, null).size(), "Missing bounds should be open");
+        assertTrue(index.findByDateRange(LocalDate.of(2025, 1, 1), null).isEmpty(), "A range after all dates should be empty");
+    }
+
+    @Test
+    @DisplayName("Test category lookup with and without a date range")
+    public void testCategory() {
+        TransactionIndex index = index();
+
+        List<Transaction> food = index.findByCategory("Food", null, null);
+        assertEquals(3, food.size(), "All food transactions should be found");
+        assertEquals("Lunch", food.get(0).getDescription(), "Postings should be in file order");
+
+        List<Transaction> foodQ1 = index.findByCategory("Food", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31));
+        assertEquals(2, foodQ1.size(), "Only food transactions in Q1 should be found");
+
+        List<Transaction> narrow = index.findByCategory("Food", LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 15));
+        assertEquals(2, narrow.size(), "A narrow date range should be filtered by category");
+        assertEquals("Lunch", narrow.get(0).getDescription(), "Results should be in file order");
+
+        assertTrue(index.findByCategory("Travel", null, null).isEmpty(), "An unknown category should have no transactions");
+        assertTrue(index.findByCategory("Food", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 1, 31)).isEmpty(),
+                "A reversed date range with rows between its dates should be empty");
+    }
+
+    @Test
+    @DisplayName("Test the indexes grow as transactions are added")
+    public void testGrowth() {
+        TransactionIndex index = new TransactionIndex();
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 1000; i++) {
+            // Add dates out of order to exercise inserts in the middle of the date index
+            index.add(new Transaction("alice", start.plusDays((i * 37) % 1000), "Item " + i, i % 2 == 0 ? "Food" : "Other", 1));
+        }
+        assertEquals(1000, index.size(), "Every transaction should be indexed");
+        List<Transaction> all = index.findByDateRange(null, null);
+        for (int i = 1; i < all.size(); i++) {
+            assertFalse(all.get(i).getDate().isBefore(all.get(i - 1).getDate()), "The date index should stay sorted");
+        }
+        assertEquals(10, index.findByDateRange(start, start.plusDays(9)).size(), "Ten consecutive days should be found");
+        assertEquals(500, index.findByCategory("Food", null, null).size(), "Half the transactions should be food");
+    }
+}
@@ -0,0 +1,90 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TransactionManager's cached transactions. The manager works on transactions.txt
+ * in the working directory, so an existing file is moved aside and restored afterwards.
+ */
+public class TransactionManagerTest {
+
+    private static final int ROWS_PER_WRITER = 300;
+
+    private final WorkingFiles workingFiles = new WorkingFiles("transactions.txt");
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        workingFiles.moveAside();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        workingFiles.restore();
+    }
+
+    private static Transaction transaction(String writer, int i) {
+        // Past dates, so no budget alerts are raised for the current month
+        return new Transaction("", LocalDate.of(2020, 1, 1).plusDays(i), writer + " " + i, "Other", 1);
+    }
+
+    @Test
+    @DisplayName("Test concurrent appends all reach the cached transactions")
+    public void testConcurrentAppends() throws Exception {
+        // Build the cached index first, so both writers have to update it
+        assertTrue(TransactionManager.loadTransactions().isEmpty(), "The test should start without transactions");
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> failures = new ArrayList<>();
+        Thread single = new Thread(() -> {
+            try {
+                start.await();
+                for (int i = 0; i < ROWS_PER_WRITER; i++) {
+                    TransactionManager.saveTransaction(transaction("single", i));
+                }
+            } catch (Throwable e) {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            }
+        });
+        Thread batches = new Thread(() -> {
+            try {
+                start.await();
+                for (int i = 0; i < ROWS_PER_WRITER; i += 10) {
+                    List<Transaction> batch = new ArrayList<>();
+                    for (int j = i; j < i + 10; j++) {
+                        batch.add(transaction("batch", j));
+                    }
+                    TransactionManager.saveTransactions(batch);
+                }
+            } catch (Throwable e) {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            }
+        });
+        single.start();
+        batches.start();
+        start.countDown();
+        single.join();
+        batches.join();
+
+        assertTrue(failures.isEmpty(), "The writers should not fail: " + failures);
+        assertEquals(2 * ROWS_PER_WRITER, TransactionManager.loadTransactions().size(),
+                "The cached transactions should include the rows of both writers");
+        assertEquals(2 * ROWS_PER_WRITER, TransactionManager.query().count(),
+                "Queries should see the rows of both writers");
+        assertEquals(2 * ROWS_PER_WRITER, Files.readAllLines(TransactionManager.getTransactionsFile().toPath()).size(),
+                "Every row should be written once");
+    }
+}
@@ -0,0 +1,175 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TransactionQuery. Each test writes its own transactions.txt in the working
+ * directory, so an existing file is moved aside and restored afterwards.
+ */
+public class TransactionQueryTest {
+
+    // Not the logged-in user, so queries for this user read the file line by line
+    private static final String USER = "bob";
+
+    // The user's rows, an old format row that belongs to every user, and rows of other users
+    private static final List<String> LINES = Arrays.asList(
+            "bob,2024-03-01,Rent,Housing,1500.00",
+            "bob,2024-01-15,Lunch at cafe,Food,12.00",
+            "alice,2024-01-20,Cafe au lait,Food,4.50",
+            "bob,2024-02-10,Bus,Transportation,3.00",
+            "2024-01-18,Shared groceries,Food,25.00",
+            "bob,2024-01-15,Dinner,Food,30.00",
+            "alice2,2024-01-16,Lunch,Food,11.00",
+            "bob,2024-04-02,Cafe breakfast,Food,8.00");
+
+    private final WorkingFiles workingFiles = new WorkingFiles("transactions.txt");
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        workingFiles.moveAside();
+        Files.write(TransactionManager.getTransactionsFile().toPath(), LINES);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        workingFiles.restore();
+    }
+
+    /**
+     * Indexes the user's rows, as the logged-in user's rows are indexed
+     */
+    private static TransactionIndex index() throws IOException {
+        TransactionIndex index = new TransactionIndex();
+        TransactionManager.forEachTransaction(USER, index::add);
+        return index;
+    }
+
+    private static List<String> select(TransactionIndex index, TransactionQuery query) {
+        List<String> descriptions = new ArrayList<>();
+        index.select(query, transaction -> descriptions.add(transaction.getDescription()));
+        return descriptions;
+    }
+
+    private static List<String> descriptions(List<Transaction> transactions) {
+        List<String> descriptions = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            descriptions.add(transaction.getDescription());
+        }
+        return descriptions;
+    }
+
+    @Test
+    @DisplayName("Test selecting indexed rows with combined filters")
+    public void testSelect() throws IOException {
+        TransactionIndex index = index();
+
+        assertEquals(Arrays.asList("Rent", "Lunch at cafe", "Bus", "Shared groceries", "Dinner", "Cafe breakfast"),
+                select(index, new TransactionQuery()), "A query without filters should return every row in file order");
+        assertEquals(Arrays.asList("Rent", "Lunch at cafe", "Shared groceries", "Dinner"),
+                select(index, new TransactionQuery().between(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1))
+                        .inCategories("Food", "Housing")), "Date range and categories should both apply, in file order");
+        assertEquals(Arrays.asList("Shared groceries", "Dinner"),
+                select(index, new TransactionQuery().inCategories("Food").amountBetween(25, 30)),
+                "The amount range should be inclusive and combine with categories");
+        assertEquals(Arrays.asList("Lunch at cafe", "Cafe breakfast"),
+                select(index, new TransactionQuery().matching("caf")), "The search text should match words in descriptions");
+        assertEquals(Arrays.asList("Cafe breakfast"),
+                select(index, new TransactionQuery().matching("cafe").between(LocalDate.of(2024, 4, 1), null)),
+                "The search text should combine with the date range");
+        assertTrue(select(index, new TransactionQuery().inCategories()).isEmpty(), "An empty category set should match nothing");
+        assertTrue(select(index, new TransactionQuery().between(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 1, 1))).isEmpty(),
+                "An empty date range should match nothing");
+    }
+
+    @Test
+    @DisplayName("Test lines are rejected before parsing only when they cannot match")
+    public void testMayMatch() {
+        TransactionQuery query = new TransactionQuery()
+                .between(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31))
+                .inCategories("Food")
+                .amountBetween(10, 50);
+
+        assertTrue(query.mayMatch("alice,2024-01-15,Lunch,Food,12.00", "alice"), "A matching line should pass");
+        assertFalse(query.mayMatch("bob,2024-01-15,Lunch,Food,12.00", "alice"), "Another user's line should be rejected");
+        assertFalse(query.mayMatch("alice2,2024-01-15,Lunch,Food,12.00", "alice"), "A user ID starting with the user should be rejected");
+        assertTrue(query.mayMatch(",2024-01-15,Lunch,Food,12.00", "alice"), "A line without a user ID belongs to every user");
+        assertTrue(query.mayMatch("2024-01-15,Lunch,Food,12.00", "alice"), "An old format line should be checked by its own fields");
+        assertFalse(query.mayMatch("alice,2024-02-01,Lunch,Food,12.00", "alice"), "A date after the range should be rejected");
+        assertFalse(query.mayMatch("alice,2023-12-31,Lunch,Food,12.00", "alice"), "A date before the range should be rejected");
+        assertFalse(query.mayMatch("alice,2024-01-15,Rent,Housing,12.00", "alice"), "Another category should be rejected");
+        assertFalse(query.mayMatch("2024-01-15,Lunch,Food,99.00", "alice"), "An amount outside the range should be rejected");
+        assertTrue(query.mayMatch("alice,2024-01-15,Lunch,Food,abc", "alice"), "An unreadable amount should be left to the parser");
+        assertTrue(query.mayMatch("garbage", "alice"), "A malformed line should be left to the parser");
+    }
+
+    @Test
+    @DisplayName("Test group totals")
+    public void testTotals() throws IOException {
+        TransactionQuery.Totals totals = index().getAll().stream()
+                .filter(transaction -> transaction.getCategory().equals("Food"))
+                .collect(TransactionQuery.Totals.collector());
+        assertEquals(4, totals.getCount(), "Every food transaction should be counted");
+        assertEquals(75.0, totals.getSum(), 0.001, "The amounts should be added up");
+        assertEquals(75.0 / 4, totals.getAverage(), 0.001, "The average should be the sum over the count");
+
+        TransactionQuery.Totals merged = index().getAll().parallelStream().collect(TransactionQuery.Totals.collector());
+        assertEquals(6, merged.getCount(), "Totals collected in parallel should be merged");
+        assertEquals(1578.0, merged.getSum(), 0.001, "Sums collected in parallel should be merged");
+        assertEquals(0.0, new TransactionQuery.Totals().getAverage(), "An empty group should average to 0");
+    }
+
+    @Test
+    @DisplayName("Test querying another user's transactions reads matching lines from the file")
+    public void testOtherUser() throws IOException {
+        User currentUser = UserManager.getInstance().getCurrentUser();
+        assertTrue(currentUser == null || !currentUser.getUsername().equals(USER), "The queried user should not be logged in");
+
+        List<Transaction> all = TransactionManager.query().forUser(USER).list();
+        assertEquals(select(index(), new TransactionQuery()), descriptions(all),
+                "Every row of the user and the old format row should be read in file order");
+        assertTrue(all.stream().allMatch(transaction -> transaction.getUserId().equals(USER)),
+                "Old format rows should be assigned to the queried user");
+
+        assertEquals(4, TransactionManager.query().forUser(USER)
+                .between(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1)).inCategories("Food", "Housing").count(),
+                "Date range and categories should be checked in the lines");
+        assertEquals(Arrays.asList("Shared groceries", "Dinner"), descriptions(TransactionManager.query().forUser(USER)
+                .inCategories("Food").amountBetween(25, 30).list()), "The amount range should be checked in the lines");
+        assertEquals(Arrays.asList("Lunch at cafe", "Cafe breakfast"),
+                descriptions(TransactionManager.query().forUser(USER).matching("caf").list()),
+                "The search text should only match the user's rows");
+        assertEquals(1578.0, TransactionManager.query().forUser(USER).sum(), 0.001, "Sums should include only the user's rows");
+
+        assertEquals(Arrays.asList("Cafe au lait", "Shared groceries"),
+                descriptions(TransactionManager.query().forUser("alice").list()),
+                "A user whose ID starts another user's ID should not get that user's rows");
+        assertEquals(0, TransactionManager.query().forUser("carol").inCategories("Housing").count(),
+                "A user without rows of their own should only get old format rows");
+    }
+
+    @Test
+    @DisplayName("Test owned-only queries leave out old format rows")
+    public void testOwnedOnly() {
+        assertEquals(Arrays.asList("Lunch at cafe", "Dinner"), descriptions(TransactionManager.query().forUser(USER).ownedOnly()
+                .between(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)).list()),
+                "The old format row should not be given to the user");
+        assertEquals(Arrays.asList("Cafe au lait"), descriptions(TransactionManager.query().forUser("alice").ownedOnly().list()),
+                "Each user should only get their own rows");
+        assertEquals(0, TransactionManager.query().forUser("carol").ownedOnly().count(),
+                "A user without rows of their own should get nothing");
+        assertFalse(new TransactionQuery().ownedOnly().mayMatch("2024-01-18,Shared groceries,Food,25.00", USER),
+                "An old format line should be rejected before parsing");
+        assertFalse(new TransactionQuery().ownedOnly().mayMatch(",2024-01-18,Shared groceries,Food,25.00", USER),
+                "A line with an empty user ID should be rejected before parsing");
+    }
+}
@@ -0,0 +1,48 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Moves files the model keeps in the working directory (such as transactions.txt) aside
+ * for a test and puts them back afterwards
+ */
+class WorkingFiles {
+
+    private final String[] names;
+
+    WorkingFiles(String... names) {
+        this.names = names;
+    }
+
+    /**
+     * Moves the files aside, so the test starts without them
+     */
+    void moveAside() throws IOException {
+        for (String name : names) {
+            File file = new File(name);
+            if (file.exists()) {
+                Files.move(file.toPath(), backup(file).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Deletes the files the test created and puts the original files back
+     */
+    void restore() throws IOException {
+        for (String name : names) {
+            File file = new File(name);
+            Files.deleteIfExists(file.toPath());
+            if (backup(file).exists()) {
+                Files.move(backup(file).toPath(), file.toPath());
+            }
+        }
+    }
+
+    private static File backup(File file) {
+        return new File(file.getPath() + ".test-backup");
+    }
+}